@@ -1,6 +1,7 @@
 package org.opengis.cite.ogcapifeatures10;
 
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL_INDEX;
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.NO_OF_COLLECTIONS;
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.REQUIREMENTCLASSES;
 
@@ -10,6 +11,7 @@ import java.util.Map;
 
 import com.reprezen.kaizen.oasparser.model3.OpenApi3;
 import org.opengis.cite.ogcapifeatures10.conformance.RequirementClass;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
@@ -23,6 +25,8 @@ public class CommonDataFixture extends CommonFixture {
 
     private OpenApi3 apiModel;
 
+    private ApiModelIndex apiModelIndex;
+
     private List<RequirementClass> requirementClasses;
 
     protected int noOfCollections = DEFAULT_NUMBER_OF_COLLECTIONS;
@@ -43,6 +47,7 @@ public class CommonDataFixture extends CommonFixture {
     @BeforeClass
     public void retrieveApiModel( ITestContext testContext ) {
         this.apiModel = (OpenApi3) testContext.getSuite().getAttribute( API_MODEL.getName() );
+        this.apiModelIndex = (ApiModelIndex) testContext.getSuite().getAttribute( API_MODEL_INDEX.getName() );
     }
 
     public OpenApi3 getApiModel() {
@@ -51,6 +56,12 @@ public class CommonDataFixture extends CommonFixture {
         return apiModel;
     }
 
+    public ApiModelIndex getApiModelIndex() {
+        if ( apiModelIndex == null )
+            throw new SkipException( "ApiModel is not available." );
+        return apiModelIndex;
+    }
+
     protected List<String> createListOfMediaTypesToSupportForOtherResources( Map<String, Object> linkToSelf ) {
         if ( this.requirementClasses == null )
             throw new SkipException( "No requirement classes described in  resource /conformance available" );
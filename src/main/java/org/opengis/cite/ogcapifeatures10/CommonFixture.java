@@ -2,17 +2,36 @@ package org.opengis.cite.ogcapifeatures10;
 
 import static io.restassured.RestAssured.given;
 
-import java.io.ByteArrayOutputStream;
-import java.io.PrintStream;
 import java.net.URI;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
+import org.opengis.cite.ogcapifeatures10.http.ExchangeCapture;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeLog;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTiming;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTimingFilter;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTimings;
+import org.opengis.cite.ogcapifeatures10.http.HttpTransport;
+import org.opengis.cite.ogcapifeatures10.http.InFlightLimitFilter;
+import org.opengis.cite.ogcapifeatures10.http.PrefetchFilter;
+import org.opengis.cite.ogcapifeatures10.http.Prefetcher;
+import org.opengis.cite.ogcapifeatures10.http.RequestExecutor;
+import org.opengis.cite.ogcapifeatures10.http.ResponseBodyFilter;
+import org.opengis.cite.ogcapifeatures10.http.ResponseBodyStore;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCache;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCacheFilter;
+import org.opengis.cite.ogcapifeatures10.http.SingleFlightFilter;
 import org.opengis.cite.ogcapifeatures10.util.ClientUtils;
 import org.testng.ITestContext;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 
-import io.restassured.filter.log.RequestLoggingFilter;
-import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 /**
@@ -21,16 +40,29 @@ import io.restassured.specification.RequestSpecification;
  */
 public class CommonFixture {
 
-    private ByteArrayOutputStream requestOutputStream = new ByteArrayOutputStream();
+    private static final ExchangeCapture DEFAULT_EXCHANGE_CAPTURE = new ExchangeCapture();
 
-    private ByteArrayOutputStream responseOutputStream = new ByteArrayOutputStream();
-
-    protected RequestLoggingFilter requestLoggingFilter;
+    /**
+     * The messages are logged per thread, as the invocations of data driven tests may be executed concurrently.
+     */
+    private final ThreadLocal<ExchangeLog> messageLog = ThreadLocal.withInitial( () -> getExchangeCapture().newLog() );
 
-    protected ResponseLoggingFilter responseLoggingFilter;
+    private volatile ExchangeCapture exchangeCapture;
 
     protected URI rootUri;
 
+    private HttpTransport httpTransport;
+
+    private ResponseCache responseCache;
+
+    private RequestExecutor requestExecutor;
+
+    private Prefetcher prefetcher;
+
+    private ResponseBodyStore responseBodyStore;
+
+    private ExchangeTimings exchangeTimings;
+
     /**
      * Initializes the common test fixture with a client component for interacting with HTTP endpoints.
      *
@@ -39,8 +71,15 @@ public class CommonFixture {
      */
     @BeforeClass
     public void initCommonFixture( ITestContext testContext ) {
+        exchangeCapture = (ExchangeCapture) testContext.getSuite().getAttribute( SuiteAttribute.EXCHANGE_CAPTURE.getName() );
         initLogging();
         rootUri = (URI) testContext.getSuite().getAttribute( SuiteAttribute.IUT.getName() );
+        httpTransport = (HttpTransport) testContext.getSuite().getAttribute( SuiteAttribute.HTTP_TRANSPORT.getName() );
+        responseCache = (ResponseCache) testContext.getSuite().getAttribute( SuiteAttribute.RESPONSE_CACHE.getName() );
+        requestExecutor = (RequestExecutor) testContext.getSuite().getAttribute( SuiteAttribute.REQUEST_EXECUTOR.getName() );
+        prefetcher = (Prefetcher) testContext.getSuite().getAttribute( SuiteAttribute.PREFETCHER.getName() );
+        responseBodyStore = (ResponseBodyStore) testContext.getSuite().getAttribute( SuiteAttribute.RESPONSE_BODY_STORE.getName() );
+        exchangeTimings = (ExchangeTimings) testContext.getSuite().getAttribute( SuiteAttribute.EXCHANGE_TIMINGS.getName() );
     }
 
     @BeforeMethod
@@ -48,16 +87,122 @@ public class CommonFixture {
         initLogging();
     }
 
+    /**
+     * Formats the requests logged by the current thread since the last invocation of {@link #clearMessages()}; to be
+     * invoked only if the diagnostic information is required, e.g. if the test failed.
+     *
+     * @return the requests logged by the current thread since the last invocation of {@link #clearMessages()}
+     */
     public String getRequest() {
-        return requestOutputStream.toString();
+        return messageLog.get().formatRequests();
     }
 
+    /**
+     * Formats the responses logged by the current thread since the last invocation of {@link #clearMessages()}; to be
+     * invoked only if the diagnostic information is required, e.g. if the test failed.
+     *
+     * @return the responses logged by the current thread since the last invocation of {@link #clearMessages()}
+     */
     public String getResponse() {
-        return responseOutputStream.toString();
+        return messageLog.get().formatResponses();
+    }
+
+    /**
+     * Returns the timings of the exchanges with the server logged by the current thread since the last invocation of
+     * {@link #clearMessages()}.
+     *
+     * @return the timings of the exchanges logged by the current thread, never <code>null</code>
+     */
+    public List<ExchangeTiming> getExchangeTimings() {
+        return messageLog.get().getTimings();
     }
 
+    /**
+     * @return the executor of background requests of the test run, <code>null</code> if not registered
+     */
+    protected RequestExecutor getRequestExecutor() {
+        return requestExecutor;
+    }
+
+    /**
+     * Creates a new request specification capturing the request and the response. If a HTTP transport is registered for
+     * the test run, the request uses a connection of the shared pool. GET requests are answered from the response
+     * cache or with the prefetched response of the test run, if available; identical GET requests in flight at the same
+     * time are sent only once. Large response bodies are kept in temporary files of the response body store of the
+     * test run, if registered. The exchanges with the server are measured in the exchange timings of the test run.
+     *
+     * @return the new request specification, never <code>null</code>
+     */
     protected RequestSpecification init() {
-        return given().filters( requestLoggingFilter, responseLoggingFilter ).log().all();
+        return init( false );
+    }
+
+    /**
+     * Creates a new request specification like {@link #init()}, but the request is always sent to the server and the
+     * response is not stored in the response cache. To be used by tests verifying the HTTP behaviour of the server.
+     *
+     * @return the new request specification, never <code>null</code>
+     */
+    protected RequestSpecification initWithoutCache() {
+        return init( true );
+    }
+
+    /**
+     * Sends a request in the background using the request executor of the test run. The request specification passed
+     * to the request is created like by {@link #init()}, the logged messages are added to the messages of the thread
+     * calling {@link PendingResponse#get()}. If no request executor is registered, the request is sent immediately.
+     *
+     * @param request
+     *            sends the request with the passed specification, never <code>null</code>
+     * @return the pending response, never <code>null</code>
+     */
+    protected PendingResponse submit( Function<RequestSpecification, Response> request ) {
+        ExchangeLog log = getExchangeCapture().newLog();
+        RequestSpecification requestSpecification = init( false, log );
+        Callable<Response> task = () -> request.apply( requestSpecification );
+        if ( requestExecutor != null )
+            return new PendingResponse( requestExecutor.submit( task ), log );
+        FutureTask<Response> futureTask = new FutureTask<>( task );
+        futureTask.run();
+        return new PendingResponse( futureTask, log );
+    }
+
+    /**
+     * Creates the request specifications of requests sent by other threads on behalf of the current test, e.g. the
+     * pages of a paging crawl. The specifications are created like by {@link #init()}, but the exchanges are logged in
+     * a log of their own instead of the log of the thread creating the specification, which is never cleared for the
+     * threads of a pool. The logged messages are added to the messages of the current thread by
+     * {@link DelegatedRequests#close()}.
+     *
+     * @return the factory of the request specifications, to be closed when the requests are completed, never
+     *         <code>null</code>
+     */
+    protected DelegatedRequests delegateRequests() {
+        return new DelegatedRequests( getExchangeCapture().newLog() );
+    }
+
+    private RequestSpecification init( boolean bypassCache ) {
+        return init( bypassCache, messageLog.get() );
+    }
+
+    private RequestSpecification init( boolean bypassCache, ExchangeLog log ) {
+        RequestSpecification requestSpecification = given();
+        if ( httpTransport != null )
+            requestSpecification.config( httpTransport.getRestAssuredConfig() );
+        requestSpecification.filter( log );
+        if ( responseCache != null )
+            requestSpecification.filter( new ResponseCacheFilter( responseCache, bypassCache ) );
+        if ( prefetcher != null && !bypassCache )
+            requestSpecification.filter( new PrefetchFilter( prefetcher ) );
+        if ( httpTransport != null && !bypassCache )
+            requestSpecification.filter( new SingleFlightFilter( httpTransport.getSingleFlight() ) );
+        if ( requestExecutor != null )
+            requestSpecification.filter( new InFlightLimitFilter( requestExecutor ) );
+        if ( exchangeTimings != null )
+            requestSpecification.filter( new ExchangeTimingFilter( exchangeTimings, log ) );
+        if ( responseBodyStore != null )
+            requestSpecification.filter( new ResponseBodyFilter( responseBodyStore ) );
+        return requestSpecification;
     }
 
     /**
@@ -86,12 +231,92 @@ public class CommonFixture {
      */
 
     private void initLogging() {
-        this.requestOutputStream = new ByteArrayOutputStream();
-        this.responseOutputStream = new ByteArrayOutputStream();
-        PrintStream requestPrintStream = new PrintStream( requestOutputStream, true );
-        PrintStream responsePrintStream = new PrintStream( responseOutputStream, true );
-        requestLoggingFilter = new RequestLoggingFilter( requestPrintStream );
-        responseLoggingFilter = new ResponseLoggingFilter( responsePrintStream );
+        messageLog.get().discard();
+        messageLog.set( getExchangeCapture().newLog() );
+    }
+
+    private ExchangeCapture getExchangeCapture() {
+        return exchangeCapture != null ? exchangeCapture : DEFAULT_EXCHANGE_CAPTURE;
+    }
+
+    /**
+     * Creates the request specifications of requests sent by other threads, see {@link CommonFixture#delegateRequests()}.
+     */
+    protected class DelegatedRequests implements Supplier<RequestSpecification>, AutoCloseable {
+
+        private final ExchangeLog log;
+
+        private DelegatedRequests( ExchangeLog log ) {
+            this.log = log;
+        }
+
+        /**
+         * Creates a new request specification like {@link CommonFixture#init()}, logging the exchange in the log of the
+         * delegated requests.
+         *
+         * @return the new request specification, never <code>null</code>
+         */
+        @Override
+        public RequestSpecification get() {
+            return init( false, log );
+        }
+
+        /**
+         * Adds the messages logged by the delegated requests to the messages of the current thread.
+         */
+        @Override
+        public void close() {
+            messageLog.get().append( log );
+        }
+
+    }
+
+    /**
+     * A response of a request sent in the background by {@link CommonFixture#submit(Function)}.
+     */
+    protected class PendingResponse {
+
+        private final Future<Response> response;
+
+        private final ExchangeLog log;
+
+        private PendingResponse( Future<Response> response, ExchangeLog log ) {
+            this.response = response;
+            this.log = log;
+        }
+
+        /**
+         * Waits for the response and adds the logged messages to the messages of the current thread.
+         *
+         * @return the response, never <code>null</code>
+         * @throws AssertionError
+         *             if the request failed with an assertion error
+         */
+        public Response get() {
+            try {
+                return response.get();
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException( "Interrupted while waiting for a response", e );
+            } catch ( ExecutionException e ) {
+                Throwable cause = e.getCause();
+                if ( cause instanceof Error )
+                    throw (Error) cause;
+                if ( cause instanceof RuntimeException )
+                    throw (RuntimeException) cause;
+                throw new IllegalStateException( cause );
+            } finally {
+                messageLog.get().append( log );
+            }
+        }
+
+        /**
+         * Cancels the request, if it is not completed yet.
+         */
+        public void cancel() {
+            response.cancel( true );
+        }
+
     }
 
-}
\ No newline at end of file
+}
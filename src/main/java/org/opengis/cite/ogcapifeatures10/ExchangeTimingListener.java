@@ -0,0 +1,47 @@
+package org.opengis.cite.ogcapifeatures10;
+
+import java.util.List;
+
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTiming;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+
+/**
+ * A listener that adds the timings of the HTTP exchanges of a test method to its test result, whatever the verdict.
+ * The summary of all exchanges of the test run is reported by the {@link SuiteFixtureListener}.
+ */
+public class ExchangeTimingListener extends TestListenerAdapter {
+
+    /**
+     * The name of the test result attribute containing the list of {@link ExchangeTiming}s.
+     */
+    public static final String EXCHANGE_TIMINGS = "exchangeTimings";
+
+    @Override
+    public void onTestSuccess( ITestResult result ) {
+        super.onTestSuccess( result );
+        addExchangeTimings( result );
+    }
+
+    @Override
+    public void onTestFailure( ITestResult result ) {
+        super.onTestFailure( result );
+        addExchangeTimings( result );
+    }
+
+    @Override
+    public void onTestSkipped( ITestResult result ) {
+        super.onTestSkipped( result );
+        addExchangeTimings( result );
+    }
+
+    private void addExchangeTimings( ITestResult result ) {
+        Object instance = result.getInstance();
+        if ( !( instance instanceof CommonFixture ) )
+            return;
+        List<ExchangeTiming> exchangeTimings = ( (CommonFixture) instance ).getExchangeTimings();
+        if ( !exchangeTimings.isEmpty() )
+            result.setAttribute( EXCHANGE_TIMINGS, exchangeTimings );
+    }
+
+}
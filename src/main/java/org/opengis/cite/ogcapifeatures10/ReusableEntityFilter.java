@@ -1,24 +1,58 @@
 package org.opengis.cite.ogcapifeatures10;
 
+import java.io.IOException;
+
+import org.opengis.cite.ogcapifeatures10.http.ResponseBodyStore;
+import org.opengis.cite.ogcapifeatures10.http.StoredBody;
+
 import com.sun.jersey.api.client.ClientHandlerException;
 import com.sun.jersey.api.client.ClientRequest;
 import com.sun.jersey.api.client.ClientResponse;
 import com.sun.jersey.api.client.filter.ClientFilter;
 
 /**
- * Buffers the (response) entity so it can be read multiple times.
+ * Buffers the (response) entity so it can be read multiple times. If a
+ * {@link ResponseBodyStore} is given, large entities are written to a
+ * temporary file and read through a memory-mapped buffer instead of being
+ * buffered on the heap.
  *
  * <p><strong>WARNING:</strong> The entity InputStream must be reset after each
  * read attempt.</p>
  */
 public class ReusableEntityFilter extends ClientFilter {
 
+    private final ResponseBodyStore bodyStore;
+
+    /**
+     * Creates a filter buffering the entities on the heap.
+     */
+    public ReusableEntityFilter() {
+        this(null);
+    }
+
+    /**
+     * @param bodyStore The store of the entities (may be null, the entities
+     * are buffered on the heap).
+     */
+    public ReusableEntityFilter(ResponseBodyStore bodyStore) {
+        this.bodyStore = bodyStore;
+    }
+
     @Override
     public ClientResponse handle(ClientRequest req) throws ClientHandlerException {
         // leave request entity--it can usually be read multiple times
         ClientResponse rsp = getNext().handle(req);
         if (rsp.hasEntity()) {
-            rsp.bufferEntity();
+            if (null != bodyStore) {
+                try {
+                    StoredBody body = bodyStore.store(rsp.getEntityInputStream());
+                    rsp.setEntityInputStream(body.openStream());
+                } catch (IOException ex) {
+                    throw new ClientHandlerException("Failed to store response entity of " + req.getURI(), ex);
+                }
+            } else {
+                rsp.bufferEntity();
+            }
         }
         return rsp;
     }
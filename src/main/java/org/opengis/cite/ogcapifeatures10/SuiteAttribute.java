@@ -5,6 +5,19 @@ import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
+import org.opengis.cite.ogcapifeatures10.collections.CollectionProfiles;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeCapture;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTimings;
+import org.opengis.cite.ogcapifeatures10.http.HttpTransport;
+import org.opengis.cite.ogcapifeatures10.http.Prefetcher;
+import org.opengis.cite.ogcapifeatures10.http.RequestExecutor;
+import org.opengis.cite.ogcapifeatures10.http.ResponseBodyStore;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCache;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelSnapshots;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelValidation;
+import org.opengis.cite.ogcapifeatures10.openapi3.ReferenceSource;
+
 import com.reprezen.kaizen.oasparser.model3.OpenApi3;
 import com.sun.jersey.api.client.Client;
 
@@ -19,6 +32,63 @@ public enum SuiteAttribute {
      */
     CLIENT( "httpClient", Client.class ),
 
+    /**
+     * The pooled HTTP transport shared by all requests of the test run.
+     */
+    HTTP_TRANSPORT( "httpTransport", HttpTransport.class ),
+
+    /**
+     * The cache of GET responses shared by all requests of the test run; not set if the cache is disabled.
+     */
+    RESPONSE_CACHE( "responseCache", ResponseCache.class ),
+
+    /**
+     * The executor of background requests, also bounding the number of requests in flight to the instance under test.
+     */
+    REQUEST_EXECUTOR( "requestExecutor", RequestExecutor.class ),
+
+    /**
+     * The prefetcher of the requests of the tests of the collections; not set if prefetching is disabled.
+     */
+    PREFETCHER( "prefetcher", Prefetcher.class ),
+
+    /**
+     * The local store of the validation outcome of API definitions; not set if no directory is configured.
+     */
+    API_MODEL_SNAPSHOTS( "apiModelSnapshots", ApiModelSnapshots.class ),
+
+    /**
+     * The parts of the API definition validated by the test of the API definition.
+     */
+    API_VALIDATION_MODE( "apiValidationMode", ApiModelValidation.Mode.class ),
+
+    /**
+     * The validation of the whole API definition running in the background; only set if the API definition is
+     * validated selectively.
+     */
+    API_MODEL_VALIDATION( "apiModelValidation", ApiModelValidation.class ),
+
+    /**
+     * The source of the documents referenced by the API definition; if not set, they are loaded directly from their
+     * urls.
+     */
+    REFERENCE_SOURCE( "referenceSource", ReferenceSource.class ),
+
+    /**
+     * The capture of the HTTP exchanges of the tests, providing the diagnostic information of failed tests.
+     */
+    EXCHANGE_CAPTURE( "exchangeCapture", ExchangeCapture.class ),
+
+    /**
+     * The store of the response bodies, keeping large bodies in temporary files; not set if it is disabled.
+     */
+    RESPONSE_BODY_STORE( "responseBodyStore", ResponseBodyStore.class ),
+
+    /**
+     * The timings of the HTTP exchanges with the instance under test, aggregated per requested resource category.
+     */
+    EXCHANGE_TIMINGS( "exchangeTimings", ExchangeTimings.class ),
+
     /**
      * The root URL.
      */
@@ -34,11 +104,26 @@ public enum SuiteAttribute {
      */
     NO_OF_COLLECTIONS( "noOfCollections", Integer.class ),
 
+    /**
+     * The number of invocations of a data driven test executed concurrently.
+     */
+    PARALLELISM( "parallelism", Integer.class ),
+
+    /**
+     * The maximum number of combinations of template variable values a path of the OpenApi3 document is expanded to.
+     */
+    MAX_TEMPLATE_REPLACEMENTS( "maxTemplateReplacements", Integer.class ),
+
     /**
      * Parsed OpenApi3 document resource /api; Added during execution.
      */
     API_MODEL( "apiModel", OpenApi3.class ),
 
+    /**
+     * The lookup structures of the parsed OpenApi3 document, built once per document; Added during execution.
+     */
+    API_MODEL_INDEX( "apiModelIndex", ApiModelIndex.class ),
+
     /**
      * Requirement classes parsed from /conformance; Added during execution.
      */
@@ -49,6 +134,11 @@ public enum SuiteAttribute {
      */
     COLLECTIONS( "collections", List.class ),
 
+    /**
+     * The capabilities of the collections from resource /collections, derived once; Added during execution.
+     */
+    COLLECTION_PROFILES( "collectionProfiles", CollectionProfiles.class ),
+
     /**
      * Collection names assigned to a feature id parsed from resource /collections/{name}/items; Added during execution.
      */
@@ -1,16 +1,34 @@
 package org.opengis.cite.ogcapifeatures10;
 
+import static io.restassured.http.ContentType.JSON;
+
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 import java.util.logging.Level;
 
+import org.opengis.cite.ogcapifeatures10.http.ExchangeCapture;
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTimings;
+import org.opengis.cite.ogcapifeatures10.http.HttpTransport;
+import org.opengis.cite.ogcapifeatures10.http.Prefetcher;
+import org.opengis.cite.ogcapifeatures10.http.RateLimiter;
+import org.opengis.cite.ogcapifeatures10.http.RequestExecutor;
+import org.opengis.cite.ogcapifeatures10.http.ResponseBodyStore;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCache;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelSnapshots;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelValidation;
+import org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils;
+import org.opengis.cite.ogcapifeatures10.openapi3.ReferenceSource;
+import org.opengis.cite.ogcapifeatures10.openapi3.ReferenceStore;
 import org.opengis.cite.ogcapifeatures10.util.ClientUtils;
+import org.opengis.cite.ogcapifeatures10.util.ResponseDocument;
 import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
 import org.opengis.cite.ogcapifeatures10.util.URIUtils;
 import org.testng.ISuite;
 import org.testng.ISuiteListener;
+import org.testng.Reporter;
 
 import com.sun.jersey.api.client.Client;
 
@@ -29,12 +47,40 @@ public class SuiteFixtureListener implements ISuiteListener {
 
     @Override
     public void onStart( ISuite suite ) {
+        ResponseDocument.getStatistics().reset();
+        ResponseDocument.getAccessorStatistics().reset();
         processSuiteParameters( suite );
+        configureParallelism( suite );
+        configureTemplateReplacements( suite );
+        configureApiValidation( suite );
+        registerResponseBodyStore( suite );
+        registerHttpTransport( suite );
+        registerRequestExecutor( suite );
+        registerExchangeTimings( suite );
+        registerPrefetcher( suite );
+        registerResponseCache( suite );
+        registerTestSubject( suite );
+        registerApiModelSnapshots( suite );
+        registerReferenceSource( suite );
+        registerExchangeCapture( suite );
         registerClientComponent( suite );
     }
 
     @Override
     public void onFinish( ISuite suite ) {
+        report( ResponseDocument.getStatistics().toString() );
+        report( ResponseDocument.getAccessorStatistics().toString() );
+        reportTestPointCache( suite );
+        reportApiModelValidation( suite );
+        reportApiModelSnapshots( suite );
+        reportReferenceSource( suite );
+        reportExchangeTimings( suite );
+        closeExchangeCapture( suite );
+        clearResponseCache( suite );
+        clearPrefetcher( suite );
+        shutdownRequestExecutor( suite );
+        shutdownHttpTransport( suite );
+        closeResponseBodyStore( suite );
         if ( null != System.getProperty( "deleteSubjectOnFinish" ) ) {
             deleteTempFiles( suite );
             System.getProperties().remove( "deleteSubjectOnFinish" );
@@ -42,9 +88,8 @@ public class SuiteFixtureListener implements ISuiteListener {
     }
 
     /**
-     * Processes test suite arguments and sets suite attributes accordingly. The entity referenced by the
-     * {@link TestRunArg#IUT iut} argument is retrieved and written to a File that is set as the value of the suite
-     * attribute {@link SuiteAttribute#TEST_SUBJ_FILE testSubjectFile}.
+     * Processes test suite arguments and sets suite attributes accordingly. The {@link TestRunArg#IUT iut} argument is
+     * set as the value of the suite attribute {@link SuiteAttribute#IUT}.
      * 
      * @param suite
      *            An ISuite object representing a TestNG test suite.
@@ -52,21 +97,8 @@ public class SuiteFixtureListener implements ISuiteListener {
     void processSuiteParameters( ISuite suite ) {
         Map<String, String> params = suite.getXmlSuite().getParameters();
         TestSuiteLogger.log( Level.CONFIG, "Suite parameters\n" + params.toString() );
-        String iutParam = params.get( TestRunArg.IUT.toString() );
-        if ( ( null == iutParam ) || iutParam.isEmpty() ) {
-            throw new IllegalArgumentException( "Required test run parameter not found: " + TestRunArg.IUT.toString() );
-        }
-        URI iutRef = URI.create( iutParam.trim() );
+        URI iutRef = parseIut( params );
         suite.setAttribute( SuiteAttribute.IUT.getName(), iutRef );
-        File entityFile = null;
-        try {
-            entityFile = URIUtils.dereferenceURI( iutRef );
-        } catch ( IOException iox ) {
-            throw new RuntimeException( "Failed to dereference resource located at " + iutRef, iox );
-        }
-        TestSuiteLogger.log( Level.FINE, String.format( "Wrote test subject to file: %s (%d bytes)",
-                                                        entityFile.getAbsolutePath(), entityFile.length() ) );
-        suite.setAttribute( SuiteAttribute.TEST_SUBJ_FILE.getName(), entityFile );
 
         String noOfCollections = params.get( TestRunArg.NOOFCOLLECTIONS.toString() );
         try {
@@ -81,6 +113,276 @@ public class SuiteFixtureListener implements ISuiteListener {
         }
     }
 
+    /**
+     * Sets the number of threads executing the invocations of data driven tests, configured by the test run argument
+     * {@link TestRunArg#PARALLELISM}. With the default of 1 the invocations are executed one after another.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void configureParallelism( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        int parallelism = parsePositiveInteger( params, TestRunArg.PARALLELISM, 1 );
+        suite.getXmlSuite().setDataProviderThreadCount( parallelism );
+        suite.setAttribute( SuiteAttribute.PARALLELISM.getName(), parallelism );
+        TestSuiteLogger.log( Level.CONFIG, "Data driven tests are executed by " + parallelism + " thread(s)" );
+    }
+
+    /**
+     * Sets the maximum number of combinations of template variable values a path of the OpenAPI document is expanded
+     * to, configured by the test run argument {@link TestRunArg#MAXTEMPLATEREPLACEMENTS}. If all collections are tested
+     * ({@link TestRunArg#NOOFCOLLECTIONS} less or equal to 0) and the argument is not set, the paths are expanded to all
+     * combinations.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void configureTemplateReplacements( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        Integer noOfCollections = (Integer) suite.getAttribute( SuiteAttribute.NO_OF_COLLECTIONS.getName() );
+        int defaultValue = noOfCollections != null && noOfCollections <= 0 ? Integer.MAX_VALUE
+                                                                            : OpenApiUtils.DEFAULT_MAX_TEMPLATE_REPLACEMENTS;
+        int maxTemplateReplacements = parsePositiveInteger( params, TestRunArg.MAXTEMPLATEREPLACEMENTS, defaultValue );
+        suite.setAttribute( SuiteAttribute.MAX_TEMPLATE_REPLACEMENTS.getName(), maxTemplateReplacements );
+    }
+
+    /**
+     * Sets the parts of the API definition validated by the test of the API definition, configured by the test run
+     * argument {@link TestRunArg#APIVALIDATION}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void configureApiValidation( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        ApiModelValidation.Mode mode = parseApiValidationMode( params );
+        suite.setAttribute( SuiteAttribute.API_VALIDATION_MODE.getName(), mode );
+        TestSuiteLogger.log( Level.CONFIG, "API definition validation mode: " + mode.name().toLowerCase() );
+    }
+
+    /**
+     * A pooled HTTP transport is added to the suite fixture as the value of the {@link SuiteAttribute#HTTP_TRANSPORT}
+     * attribute. The pool is configured by the test run arguments {@link TestRunArg#MAXCONNECTIONS},
+     * {@link TestRunArg#MAXCONNECTIONSPERHOST} and {@link TestRunArg#KEEPALIVE}. The default limits are raised to the
+     * {@link TestRunArg#PARALLELISM} of the test run, so that no thread waits for a connection. The response bodies
+     * are read into the {@link SuiteAttribute#RESPONSE_BODY_STORE}, so it must be registered before.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerHttpTransport( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        Integer parallelism = (Integer) suite.getAttribute( SuiteAttribute.PARALLELISM.getName() );
+        int threads = parallelism != null ? parallelism : 1;
+        int maxConnections = parsePositiveInteger( params, TestRunArg.MAXCONNECTIONS,
+                                                   Math.max( HttpTransport.DEFAULT_MAX_CONNECTIONS, threads ) );
+        int maxConnectionsPerHost = parsePositiveInteger( params, TestRunArg.MAXCONNECTIONSPERHOST,
+                                                          Math.max( HttpTransport.DEFAULT_MAX_CONNECTIONS_PER_HOST,
+                                                                    threads ) );
+        int keepAlive = parseInteger( params, TestRunArg.KEEPALIVE, HttpTransport.DEFAULT_KEEP_ALIVE );
+        ResponseBodyStore responseBodyStore = (ResponseBodyStore) suite.getAttribute( SuiteAttribute.RESPONSE_BODY_STORE.getName() );
+        HttpTransport httpTransport = new HttpTransport( maxConnections, maxConnectionsPerHost, keepAlive,
+                                                         responseBodyStore );
+        suite.setAttribute( SuiteAttribute.HTTP_TRANSPORT.getName(), httpTransport );
+    }
+
+    /**
+     * An executor of background requests is added to the suite fixture as the value of the
+     * {@link SuiteAttribute#REQUEST_EXECUTOR} attribute. It is configured by the test run arguments
+     * {@link TestRunArg#EXECUTOR} and {@link TestRunArg#MAXINFLIGHT}; the default limit of requests in flight is raised
+     * to the {@link TestRunArg#PARALLELISM} of the test run. If the test run arguments {@link TestRunArg#RATELIMIT} or
+     * {@link TestRunArg#ADAPTIVECONCURRENCY} are set, the requests are additionally limited by a {@link RateLimiter}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerRequestExecutor( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        Integer parallelism = (Integer) suite.getAttribute( SuiteAttribute.PARALLELISM.getName() );
+        int threads = parallelism != null ? parallelism : 1;
+        int maxInFlight = parsePositiveInteger( params, TestRunArg.MAXINFLIGHT,
+                                                Math.max( RequestExecutor.DEFAULT_MAX_IN_FLIGHT, threads ) );
+        RequestExecutor.Mode mode = parseExecutorMode( params );
+        RateLimiter rateLimiter = createRateLimiter( params, maxInFlight );
+        RequestExecutor requestExecutor = new RequestExecutor( mode, maxInFlight, rateLimiter );
+        if ( mode != requestExecutor.getMode() )
+            TestSuiteLogger.log( Level.WARNING, "Virtual threads are not supported by this Java runtime, background requests are executed by platform threads" );
+        TestSuiteLogger.log( Level.CONFIG, "Background requests are executed by " + requestExecutor.getMode().name().toLowerCase()
+                                           + " threads, at most " + maxInFlight + " requests in flight per host" );
+        suite.setAttribute( SuiteAttribute.REQUEST_EXECUTOR.getName(), requestExecutor );
+    }
+
+    private RateLimiter createRateLimiter( Map<String, String> params, int maxInFlight ) {
+        int rateLimit = parseInteger( params, TestRunArg.RATELIMIT, 0 );
+        boolean adaptive = parseBoolean( params, TestRunArg.ADAPTIVECONCURRENCY, false );
+        if ( rateLimit <= 0 && !adaptive )
+            return null;
+        RateLimiter rateLimiter = new RateLimiter( rateLimit, Math.max( 1, rateLimit ), maxInFlight, adaptive );
+        TestSuiteLogger.log( Level.CONFIG, "Requests to the instance under test are limited: " + ( rateLimit > 0 ? "at most " + rateLimit + " requests per second per host" : "rate not limited" )
+                                           + ( adaptive ? ", adaptive concurrency" : "" ) );
+        return rateLimiter;
+    }
+
+    /**
+     * A store of the response bodies is added to the suite fixture as the value of the
+     * {@link SuiteAttribute#RESPONSE_BODY_STORE} attribute, unless it is disabled by the test run argument
+     * {@link TestRunArg#BODYSPILLSIZE}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerResponseBodyStore( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        int spillSize = parseInteger( params, TestRunArg.BODYSPILLSIZE,
+                                      (int) ( ResponseBodyStore.DEFAULT_SPILL_THRESHOLD / ( 1024 * 1024 ) ) );
+        if ( spillSize <= 0 ) {
+            TestSuiteLogger.log( Level.CONFIG, "Response bodies are buffered on the heap" );
+            return;
+        }
+        ResponseBodyStore responseBodyStore = new ResponseBodyStore( spillSize * 1024L * 1024L );
+        suite.setAttribute( SuiteAttribute.RESPONSE_BODY_STORE.getName(), responseBodyStore );
+    }
+
+    /**
+     * The aggregated timings of the HTTP exchanges with the instance under test are added to the suite fixture as the
+     * value of the {@link SuiteAttribute#EXCHANGE_TIMINGS} attribute. A summary is reported when the test run
+     * finishes.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerExchangeTimings( ISuite suite ) {
+        URI iutRef = parseIut( suite.getXmlSuite().getParameters() );
+        suite.setAttribute( SuiteAttribute.EXCHANGE_TIMINGS.getName(), new ExchangeTimings( iutRef ) );
+    }
+
+    /**
+     * A prefetcher is added to the suite fixture as the value of the {@link SuiteAttribute#PREFETCHER} attribute,
+     * unless it is disabled by the test run argument {@link TestRunArg#PREFETCH}. The prefetches are executed by the
+     * {@link SuiteAttribute#REQUEST_EXECUTOR} using the {@link SuiteAttribute#HTTP_TRANSPORT} and measured in the
+     * {@link SuiteAttribute#EXCHANGE_TIMINGS}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerPrefetcher( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        int maxRequests = parseInteger( params, TestRunArg.PREFETCH, Prefetcher.DEFAULT_MAX_REQUESTS );
+        RequestExecutor requestExecutor = (RequestExecutor) suite.getAttribute( SuiteAttribute.REQUEST_EXECUTOR.getName() );
+        if ( maxRequests <= 0 || requestExecutor == null ) {
+            TestSuiteLogger.log( Level.CONFIG, "Prefetching is disabled" );
+            return;
+        }
+        HttpTransport httpTransport = (HttpTransport) suite.getAttribute( SuiteAttribute.HTTP_TRANSPORT.getName() );
+        ResponseBodyStore responseBodyStore = (ResponseBodyStore) suite.getAttribute( SuiteAttribute.RESPONSE_BODY_STORE.getName() );
+        ExchangeTimings exchangeTimings = (ExchangeTimings) suite.getAttribute( SuiteAttribute.EXCHANGE_TIMINGS.getName() );
+        Prefetcher prefetcher = new Prefetcher( requestExecutor,
+                                                httpTransport != null ? httpTransport.getRestAssuredConfig() : null,
+                                                maxRequests, responseBodyStore, exchangeTimings );
+        suite.setAttribute( SuiteAttribute.PREFETCHER.getName(), prefetcher );
+    }
+
+    /**
+     * A response cache is added to the suite fixture as the value of the {@link SuiteAttribute#RESPONSE_CACHE}
+     * attribute, unless it is disabled by the test run argument {@link TestRunArg#CACHESIZE}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerResponseCache( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        int cacheSize = parseInteger( params, TestRunArg.CACHESIZE, ResponseCache.DEFAULT_MAX_SIZE );
+        if ( cacheSize <= 0 ) {
+            TestSuiteLogger.log( Level.CONFIG, "Response cache is disabled" );
+            return;
+        }
+        ResponseCache responseCache = new ResponseCache( cacheSize * 1024L * 1024L );
+        suite.setAttribute( SuiteAttribute.RESPONSE_CACHE.getName(), responseCache );
+    }
+
+    /**
+     * The landing page of the {@link SuiteAttribute#IUT} is retrieved via the {@link SuiteAttribute#HTTP_TRANSPORT} and
+     * written to a File that is set as the value of the suite attribute {@link SuiteAttribute#TEST_SUBJ_FILE
+     * testSubjectFile}. The landing page is requested like by the tests of the landing page and stored in the
+     * {@link SuiteAttribute#RESPONSE_CACHE}, so that they do not retrieve it again.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerTestSubject( ISuite suite ) {
+        URI iutRef = parseIut( suite.getXmlSuite().getParameters() );
+        HttpTransport httpTransport = (HttpTransport) suite.getAttribute( SuiteAttribute.HTTP_TRANSPORT.getName() );
+        ResponseCache responseCache = (ResponseCache) suite.getAttribute( SuiteAttribute.RESPONSE_CACHE.getName() );
+        File entityFile = null;
+        try {
+            entityFile = URIUtils.dereferenceURI( URIUtils.landingPageUri( iutRef ), JSON.getAcceptHeader(),
+                                                  httpTransport, responseCache );
+        } catch ( IOException iox ) {
+            throw new RuntimeException( "Failed to dereference resource located at " + iutRef, iox );
+        }
+        TestSuiteLogger.log( Level.FINE, String.format( "Wrote test subject to file: %s (%d bytes)",
+                                                        entityFile.getAbsolutePath(), entityFile.length() ) );
+        suite.setAttribute( SuiteAttribute.TEST_SUBJ_FILE.getName(), entityFile );
+    }
+
+    /**
+     * A store of the validation outcome of API definitions is added to the suite fixture as the value of the
+     * {@link SuiteAttribute#API_MODEL_SNAPSHOTS} attribute, if a directory is configured by the test run argument
+     * {@link TestRunArg#APIMODELCACHE}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerApiModelSnapshots( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        String directory = params.get( TestRunArg.APIMODELCACHE.toString() );
+        if ( directory == null || directory.trim().isEmpty() ) {
+            TestSuiteLogger.log( Level.CONFIG, "API model snapshots are disabled" );
+            return;
+        }
+        ApiModelSnapshots apiModelSnapshots = new ApiModelSnapshots( new File( directory.trim() ) );
+        suite.setAttribute( SuiteAttribute.API_MODEL_SNAPSHOTS.getName(), apiModelSnapshots );
+    }
+
+    /**
+     * A local store of the documents referenced by the API definition is added to the suite fixture as the value of the
+     * {@link SuiteAttribute#REFERENCE_SOURCE} attribute, if a directory is configured by the test run arguments
+     * {@link TestRunArg#REFCACHE} or {@link TestRunArg#REFMIRROR}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerReferenceSource( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        File directory = parseDirectory( params, TestRunArg.REFCACHE );
+        File mirrorDirectory = parseDirectory( params, TestRunArg.REFMIRROR );
+        if ( directory == null && mirrorDirectory == null ) {
+            TestSuiteLogger.log( Level.CONFIG, "Referenced documents are loaded from their urls" );
+            return;
+        }
+        ReferenceStore referenceStore = new ReferenceStore( directory, mirrorDirectory,
+                                                            ReferenceSource.URL_CONNECTION );
+        suite.setAttribute( SuiteAttribute.REFERENCE_SOURCE.getName(), referenceStore );
+    }
+
+    /**
+     * The capture of the HTTP exchanges of the tests is added to the suite fixture as the value of the
+     * {@link SuiteAttribute#EXCHANGE_CAPTURE} attribute. It is configured by the test run arguments
+     * {@link TestRunArg#CAPTUREBODYSIZE} and {@link TestRunArg#CAPTURESPILLSIZE}.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void registerExchangeCapture( ISuite suite ) {
+        Map<String, String> params = suite.getXmlSuite().getParameters();
+        int maxBodySize = parsePositiveInteger( params, TestRunArg.CAPTUREBODYSIZE,
+                                                ExchangeCapture.DEFAULT_MAX_BODY_SIZE / 1024 );
+        int spillSize = parseInteger( params, TestRunArg.CAPTURESPILLSIZE,
+                                      (int) ( ExchangeCapture.DEFAULT_SPILL_THRESHOLD / ( 1024 * 1024 ) ) );
+        ExchangeCapture exchangeCapture = new ExchangeCapture( maxBodySize * 1024, spillSize * 1024L * 1024L );
+        suite.setAttribute( SuiteAttribute.EXCHANGE_CAPTURE.getName(), exchangeCapture );
+    }
+
     /**
      * A client component is added to the suite fixture as the value of the {@link SuiteAttribute#CLIENT} attribute; it
      * may be subsequently accessed via the {@link org.testng.ITestContext#getSuite()} method.
@@ -89,12 +391,104 @@ public class SuiteFixtureListener implements ISuiteListener {
      *            The test suite instance.
      */
     void registerClientComponent( ISuite suite ) {
-        Client client = ClientUtils.buildClient();
+        HttpTransport httpTransport = (HttpTransport) suite.getAttribute( SuiteAttribute.HTTP_TRANSPORT.getName() );
+        ResponseBodyStore responseBodyStore = (ResponseBodyStore) suite.getAttribute( SuiteAttribute.RESPONSE_BODY_STORE.getName() );
+        Client client = httpTransport != null ? ClientUtils.buildClient( httpTransport, responseBodyStore )
+                                              : ClientUtils.buildClient();
         if ( null != client ) {
             suite.setAttribute( SuiteAttribute.CLIENT.getName(), client );
         }
     }
 
+    /**
+     * Reports the final state of the connection pool and the deduplicated requests and closes all connections of the HTTP transport.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void shutdownHttpTransport( ISuite suite ) {
+        HttpTransport httpTransport = (HttpTransport) suite.getAttribute( SuiteAttribute.HTTP_TRANSPORT.getName() );
+        if ( httpTransport == null )
+            return;
+        report( httpTransport.getMetrics().toString() );
+        report( httpTransport.getSingleFlight().toString() );
+        httpTransport.shutdown();
+    }
+
+    /**
+     * Reports the used and wasted prefetches and discards the prefetched responses not taken by a test.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void clearPrefetcher( ISuite suite ) {
+        Prefetcher prefetcher = (Prefetcher) suite.getAttribute( SuiteAttribute.PREFETCHER.getName() );
+        if ( prefetcher == null )
+            return;
+        report( prefetcher.toString() );
+        prefetcher.clear();
+    }
+
+    /**
+     * Reports the counters of the request executor and of its rate limiter and stops all background requests.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void shutdownRequestExecutor( ISuite suite ) {
+        RequestExecutor requestExecutor = (RequestExecutor) suite.getAttribute( SuiteAttribute.REQUEST_EXECUTOR.getName() );
+        if ( requestExecutor == null )
+            return;
+        report( requestExecutor.toString() );
+        if ( requestExecutor.getRateLimiter() != null )
+            report( requestExecutor.getRateLimiter().toString() );
+        requestExecutor.shutdown();
+    }
+
+    /**
+     * Reports the counters of the exchange capture and deletes the temporary files of response bodies not referenced
+     * by the diagnostic information of failed tests.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void closeExchangeCapture( ISuite suite ) {
+        ExchangeCapture exchangeCapture = (ExchangeCapture) suite.getAttribute( SuiteAttribute.EXCHANGE_CAPTURE.getName() );
+        if ( exchangeCapture == null )
+            return;
+        report( exchangeCapture.toString() );
+        exchangeCapture.close();
+    }
+
+    /**
+     * Reports the counters of the response body store and deletes its temporary files. Must be invoked after the
+     * response cache and the prefetcher are cleared, as they may refer to stored bodies.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void closeResponseBodyStore( ISuite suite ) {
+        ResponseBodyStore responseBodyStore = (ResponseBodyStore) suite.getAttribute( SuiteAttribute.RESPONSE_BODY_STORE.getName() );
+        if ( responseBodyStore == null )
+            return;
+        report( responseBodyStore.toString() );
+        responseBodyStore.close();
+    }
+
+    /**
+     * Reports the hit and miss counters and removes all entries of the response cache.
+     *
+     * @param suite
+     *            The test suite instance.
+     */
+    void clearResponseCache( ISuite suite ) {
+        ResponseCache responseCache = (ResponseCache) suite.getAttribute( SuiteAttribute.RESPONSE_CACHE.getName() );
+        if ( responseCache == null )
+            return;
+        report( responseCache.getStatistics().toString() );
+        responseCache.clear();
+    }
+
     /**
      * Deletes temporary files created during the test run if TestSuiteLogger is enabled at the INFO level or higher
      * (they are left intact at the CONFIG level or lower).
@@ -111,4 +505,115 @@ public class SuiteFixtureListener implements ISuiteListener {
             testSubjFile.delete();
         }
     }
+
+    private URI parseIut( Map<String, String> params ) {
+        String iutParam = params.get( TestRunArg.IUT.toString() );
+        if ( ( null == iutParam ) || iutParam.isEmpty() ) {
+            throw new IllegalArgumentException( "Required test run parameter not found: " + TestRunArg.IUT.toString() );
+        }
+        return URI.create( iutParam.trim() );
+    }
+
+    private void reportExchangeTimings( ISuite suite ) {
+        ExchangeTimings exchangeTimings = (ExchangeTimings) suite.getAttribute( SuiteAttribute.EXCHANGE_TIMINGS.getName() );
+        if ( exchangeTimings != null )
+            report( exchangeTimings.toString() );
+    }
+
+    private void reportTestPointCache( ISuite suite ) {
+        ApiModelIndex apiModelIndex = (ApiModelIndex) suite.getAttribute( SuiteAttribute.API_MODEL_INDEX.getName() );
+        if ( apiModelIndex != null )
+            report( apiModelIndex.getTestPointCache().toString() );
+    }
+
+    private void reportApiModelValidation( ISuite suite ) {
+        ApiModelValidation apiModelValidation = (ApiModelValidation) suite.getAttribute( SuiteAttribute.API_MODEL_VALIDATION.getName() );
+        if ( apiModelValidation != null )
+            report( apiModelValidation.toString() );
+    }
+
+    private void reportApiModelSnapshots( ISuite suite ) {
+        ApiModelSnapshots apiModelSnapshots = (ApiModelSnapshots) suite.getAttribute( SuiteAttribute.API_MODEL_SNAPSHOTS.getName() );
+        if ( apiModelSnapshots != null )
+            report( apiModelSnapshots.toString() );
+    }
+
+    private void reportReferenceSource( ISuite suite ) {
+        Object referenceSource = suite.getAttribute( SuiteAttribute.REFERENCE_SOURCE.getName() );
+        if ( referenceSource instanceof ReferenceStore )
+            report( referenceSource.toString() );
+    }
+
+    private File parseDirectory( Map<String, String> params, TestRunArg testRunArg ) {
+        String directory = params.get( testRunArg.toString() );
+        if ( directory == null || directory.trim().isEmpty() )
+            return null;
+        return new File( directory.trim() );
+    }
+
+    private void report( String message ) {
+        TestSuiteLogger.log( Level.INFO, message );
+        Reporter.log( message );
+    }
+
+    private ApiModelValidation.Mode parseApiValidationMode( Map<String, String> params ) {
+        String value = params.get( TestRunArg.APIVALIDATION.toString() );
+        if ( value == null || value.trim().isEmpty() )
+            return ApiModelValidation.Mode.FULL;
+        try {
+            return ApiModelValidation.Mode.valueOf( value.trim().toUpperCase() );
+        } catch ( IllegalArgumentException e ) {
+            TestSuiteLogger.log( Level.WARNING, String.format( "Invalid value of parameter %s: %s. Expected is 'full' or 'selective'",
+                                                               TestRunArg.APIVALIDATION.toString(), value ) );
+            return ApiModelValidation.Mode.FULL;
+        }
+    }
+
+    private RequestExecutor.Mode parseExecutorMode( Map<String, String> params ) {
+        String value = params.get( TestRunArg.EXECUTOR.toString() );
+        if ( value == null || value.trim().isEmpty() )
+            return RequestExecutor.Mode.PLATFORM;
+        try {
+            return RequestExecutor.Mode.valueOf( value.trim().toUpperCase() );
+        } catch ( IllegalArgumentException e ) {
+            TestSuiteLogger.log( Level.WARNING, String.format( "Invalid value of parameter %s: %s. Expected is 'platform' or 'virtual'",
+                                                               TestRunArg.EXECUTOR.toString(), value ) );
+            return RequestExecutor.Mode.PLATFORM;
+        }
+    }
+
+    private boolean parseBoolean( Map<String, String> params, TestRunArg testRunArg, boolean defaultValue ) {
+        String value = params.get( testRunArg.toString() );
+        if ( value == null || value.trim().isEmpty() )
+            return defaultValue;
+        if ( "true".equalsIgnoreCase( value.trim() ) || "false".equalsIgnoreCase( value.trim() ) )
+            return Boolean.parseBoolean( value.trim() );
+        TestSuiteLogger.log( Level.WARNING, String.format( "Invalid value of parameter %s: %s. Expected is 'true' or 'false'",
+                                                           testRunArg.toString(), value ) );
+        return defaultValue;
+    }
+
+    private int parsePositiveInteger( Map<String, String> params, TestRunArg testRunArg, int defaultValue ) {
+        int value = parseInteger( params, testRunArg, defaultValue );
+        if ( value <= 0 ) {
+            TestSuiteLogger.log( Level.WARNING, String.format( "Invalid value of parameter %s: %s. Expected is an integer greater than 0",
+                                                               testRunArg.toString(), value ) );
+            return defaultValue;
+        }
+        return value;
+    }
+
+    private int parseInteger( Map<String, String> params, TestRunArg testRunArg, int defaultValue ) {
+        String value = params.get( testRunArg.toString() );
+        if ( value == null || value.trim().isEmpty() )
+            return defaultValue;
+        try {
+            return Integer.parseInt( value.trim() );
+        } catch ( NumberFormatException e ) {
+            TestSuiteLogger.log( Level.WARNING, String.format( "Could not parse parameter %s: %s. Expected is a valid integer",
+                                                               testRunArg.toString(), value ) );
+            return defaultValue;
+        }
+    }
+
 }
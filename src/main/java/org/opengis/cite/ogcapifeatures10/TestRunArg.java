@@ -13,7 +13,120 @@ public enum TestRunArg {
     /**
      * The number of collections to test (a value less or equal to 0 means all collections).
      */
-    NOOFCOLLECTIONS;
+    NOOFCOLLECTIONS,
+
+    /**
+     * The maximum number of HTTP connections kept open by the test run (default: 20).
+     */
+    MAXCONNECTIONS,
+
+    /**
+     * The maximum number of HTTP connections to a single host (default: 6).
+     */
+    MAXCONNECTIONSPERHOST,
+
+    /**
+     * The time in seconds an idle HTTP connection is kept alive for reuse (default: 30, a value less or equal to 0
+     * closes each connection after the response was received).
+     */
+    KEEPALIVE,
+
+    /**
+     * The maximum size in MB of all responses kept in the response cache of the test run (default: 64, a value less or
+     * equal to 0 disables the cache).
+     */
+    CACHESIZE,
+
+    /**
+     * The number of invocations of a data driven test (e.g. one per collection) executed concurrently (default: 1, the
+     * invocations are executed one after another). The TestNG report lists the invocations of a test in the order they
+     * started, so with more than one thread the order may differ between test runs.
+     */
+    PARALLELISM,
+
+    /**
+     * The kind of threads executing background requests: 'platform' (default) or 'virtual'. Virtual threads are used
+     * only if supported by the Java runtime.
+     */
+    EXECUTOR,
+
+    /**
+     * The maximum number of requests in flight to a single host (default: 6).
+     */
+    MAXINFLIGHT,
+
+    /**
+     * The maximum number of requests per second to a single host; up to this number of requests may be sent at once
+     * after an idle period (default: 0, a value less or equal to 0 does not limit the rate).
+     */
+    RATELIMIT,
+
+    /**
+     * Whether the number of requests in flight to a single host is adapted to the responses of the host: 'true' or
+     * 'false' (default). If enabled, the limit of {@link #MAXINFLIGHT} is reduced on responses with status code 429
+     * or 503 and on growing latency, and raised again on fast responses.
+     */
+    ADAPTIVECONCURRENCY,
+
+    /**
+     * The maximum number of requests of the tests of the collections sent in the background as soon as the collections
+     * are known (default: 500, a value less or equal to 0 disables the prefetching).
+     */
+    PREFETCH,
+
+    /**
+     * The maximum number of combinations of enumerated template variable values a path of the OpenAPI document is
+     * expanded to (default: 1000, unlimited if all collections are tested). If a path has more combinations, an evenly
+     * spaced sample is tested and a warning is logged.
+     */
+    MAXTEMPLATEREPLACEMENTS,
+
+    /**
+     * The directory storing the outcome of the validation of the API definition, keyed by the SHA-256 hash of the
+     * document. A repeated test run against an unchanged API definition does not validate it again (default: not set,
+     * the API definition is validated in each test run).
+     */
+    APIMODELCACHE,
+
+    /**
+     * The directory storing the documents referenced by the API definition (e.g. external schemas), content-addressed
+     * by the SHA-256 hash of the document. A repeated test run does not fetch them again (default: not set, the
+     * referenced documents are fetched in each test run).
+     */
+    REFCACHE,
+
+    /**
+     * The directory containing copies of the documents referenced by the API definition, at
+     * <code>&lt;host&gt;[_&lt;port&gt;]/&lt;path&gt;</code> of their urls. Mirrored documents are never fetched, which
+     * allows test runs without network access (default: not set).
+     */
+    REFMIRROR,
+
+    /**
+     * The parts of the API definition validated by the test of the API definition: 'full' (default) or 'selective'.
+     * With 'selective' only the paths the conformance tests depend on and the components referenced by them are
+     * validated; the whole API definition is validated in the background and the outcome is reported separately.
+     */
+    APIVALIDATION,
+
+    /**
+     * The maximum size in KB of a request or response body in the diagnostic information of a failed test; longer
+     * bodies are truncated (default: 64).
+     */
+    CAPTUREBODYSIZE,
+
+    /**
+     * The size in MB above which a captured response body is written to a temporary file instead of being kept in
+     * memory until the test method finishes (default: 4, a value less or equal to 0 keeps all bodies in memory).
+     */
+    CAPTURESPILLSIZE,
+
+    /**
+     * The size in MB above which a response body is written to a temporary file while it is received and read back
+     * through a memory-mapped buffer, instead of being buffered on the heap (default: 8, a value less or equal to 0
+     * buffers all bodies on the heap).
+     */
+    BODYSPILLSIZE;
 
     @Override
     public String toString() {
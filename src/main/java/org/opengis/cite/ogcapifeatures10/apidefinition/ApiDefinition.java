@@ -5,17 +5,38 @@ import static io.restassured.http.Method.GET;
 import static org.opengis.cite.ogcapifeatures10.EtsAssert.assertTrue;
 import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.OPEN_API_MIME_TYPE;
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL;
-
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL_INDEX;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL_SNAPSHOTS;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL_VALIDATION;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_VALIDATION_MODE;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.MAX_TEMPLATE_REPLACEMENTS;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.REFERENCE_SOURCE;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.REQUEST_EXECUTOR;
+
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
 
 import org.opengis.cite.ogcapifeatures10.CommonFixture;
+import org.opengis.cite.ogcapifeatures10.http.RequestExecutor;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiDefinitionSubset;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelSnapshots;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelSnapshots.Snapshot;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelValidation;
+import org.opengis.cite.ogcapifeatures10.openapi3.ReferenceResolver;
+import org.opengis.cite.ogcapifeatures10.openapi3.ReferenceSource;
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.reprezen.kaizen.oasparser.OpenApi3Parser;
 import com.reprezen.kaizen.oasparser.model3.OpenApi3;
 import com.reprezen.kaizen.oasparser.val.ValidationResults;
@@ -30,7 +51,7 @@ import io.restassured.response.Response;
  */
 public class ApiDefinition extends CommonFixture {
 
-    private String response;
+    private byte[] response;
 
     private String apiUrl;
 
@@ -62,7 +83,7 @@ public class ApiDefinition extends CommonFixture {
             throw new AssertionError( "Path to the API Definition could not be constructed from the landing page" );
         Response request = init().baseUri( apiUrl ).accept( OPEN_API_MIME_TYPE ).when().request( GET );
         request.then().statusCode( 200 );
-        response = request.asString();
+        response = request.asByteArray();
     }
 
     /**
@@ -82,12 +103,91 @@ public class ApiDefinition extends CommonFixture {
     @Test(description = "Implements A.2.3. API Definition Path {root}/api (link), Abstract Test 6 (Requirement /req/core/api-definition-success)", groups = "apidefinition", dependsOnMethods = "openapiDocumentRetrieval")
     public void apiDefinitionValidation( ITestContext testContext )
                             throws MalformedURLException {
+        ApiModelSnapshots apiModelSnapshots = (ApiModelSnapshots) testContext.getSuite().getAttribute( API_MODEL_SNAPSHOTS.getName() );
+        Snapshot snapshot = apiModelSnapshots != null ? apiModelSnapshots.find( response, apiUrl ) : null;
+        URL url = new URL( apiUrl );
+        ReferenceResolver referenceResolver = createReferenceResolver( testContext );
+        RequestExecutor requestExecutor = (RequestExecutor) testContext.getSuite().getAttribute( REQUEST_EXECUTOR.getName() );
+        long start = System.nanoTime();
+        JsonNode document;
+        try {
+            document = referenceResolver.loadDocument( url, response );
+        } catch ( IOException e ) {
+            throw new AssertionError( "API definition could not be parsed: " + e.getMessage(), e );
+        }
         OpenApi3Parser parser = new OpenApi3Parser();
-
-        OpenApi3 apiModel = parser.parse( response, new URL( apiUrl ), true );
-        assertTrue( apiModel.isValid(), createValidationMsg( apiModel ) );
+        OpenApi3 apiModel;
+        if ( snapshot != null ) {
+            // the unchanged document was already validated
+            apiModel = (OpenApi3) parser.parse( document, url, false, referenceResolver );
+        } else if ( isSelectiveValidation( testContext ) && requestExecutor != null ) {
+            // the parts the tests depend on are validated now, the whole document in the background
+            JsonNode subset = ApiDefinitionSubset.extract( document );
+            ApiModelValidation apiModelValidation = startValidation( document.deepCopy(), url,
+                                                                     referenceResolver.getLoadedDocuments(),
+                                                                     apiModelSnapshots, requestExecutor );
+            testContext.getSuite().setAttribute( API_MODEL_VALIDATION.getName(), apiModelValidation );
+            apiModel = (OpenApi3) parser.parse( document, url, false, referenceResolver );
+            OpenApi3 subsetModel = (OpenApi3) parser.parse( subset, url, true,
+                                                            new ReferenceResolver( referenceResolver.getLoadedDocuments(),
+                                                                                   null ) );
+            snapshot = new Snapshot( subsetModel.isValid(), collectValidationItems( subsetModel ) );
+        } else {
+            apiModel = (OpenApi3) parser.parse( document, url, true, referenceResolver );
+            snapshot = new Snapshot( apiModel.isValid(), collectValidationItems( apiModel ) );
+            storeSnapshot( apiModelSnapshots, snapshot );
+        }
+        TestSuiteLogger.log( Level.INFO, String.format( "Parsed the API definition in %d ms, %d ms of it spent resolving %d referenced documents",
+                                                        ( System.nanoTime() - start ) / 1000000,
+                                                        referenceResolver.getResolutionTime(),
+                                                        referenceResolver.getResolvedDocuments() ) );
+        assertTrue( snapshot.isValid(), createValidationMsg( snapshot ) );
 
         testContext.getSuite().setAttribute( API_MODEL.getName(), apiModel );
+        testContext.getSuite().setAttribute( API_MODEL_INDEX.getName(), createApiModelIndex( testContext, apiModel ) );
+    }
+
+    private ApiModelValidation startValidation( JsonNode document, URL url, ReferenceSource referenceSource,
+                                                ApiModelSnapshots apiModelSnapshots,
+                                                RequestExecutor requestExecutor ) {
+        return ApiModelValidation.start( apiUrl, () -> {
+            OpenApi3 apiModel = (OpenApi3) new OpenApi3Parser().parse( document, url, true,
+                                                                       new ReferenceResolver( referenceSource,
+                                                                                              null ) );
+            Snapshot snapshot = new Snapshot( apiModel.isValid(), collectValidationItems( apiModel ) );
+            storeSnapshot( apiModelSnapshots, snapshot );
+            return snapshot;
+        }, requestExecutor.getExecutorService() );
+    }
+
+    private ApiModelIndex createApiModelIndex( ITestContext testContext, OpenApi3 apiModel ) {
+        Object maxTemplateReplacements = testContext.getSuite().getAttribute( MAX_TEMPLATE_REPLACEMENTS.getName() );
+        if ( maxTemplateReplacements == null )
+            return new ApiModelIndex( apiModel );
+        return new ApiModelIndex( apiModel, (Integer) maxTemplateReplacements );
+    }
+
+    private boolean isSelectiveValidation( ITestContext testContext ) {
+        Object mode = testContext.getSuite().getAttribute( API_VALIDATION_MODE.getName() );
+        return mode == ApiModelValidation.Mode.SELECTIVE;
+    }
+
+    private void storeSnapshot( ApiModelSnapshots apiModelSnapshots, Snapshot snapshot ) {
+        if ( apiModelSnapshots == null )
+            return;
+        try {
+            apiModelSnapshots.store( response, apiUrl, snapshot );
+        } catch ( IOException e ) {
+            TestSuiteLogger.log( Level.WARNING, "Could not store the snapshot of the API definition in "
+                                                + apiModelSnapshots.getDirectory(), e );
+        }
+    }
+
+    private ReferenceResolver createReferenceResolver( ITestContext testContext ) {
+        ReferenceSource referenceSource = (ReferenceSource) testContext.getSuite().getAttribute( REFERENCE_SOURCE.getName() );
+        RequestExecutor requestExecutor = (RequestExecutor) testContext.getSuite().getAttribute( REQUEST_EXECUTOR.getName() );
+        return new ReferenceResolver( referenceSource != null ? referenceSource : ReferenceSource.URL_CONNECTION,
+                                      requestExecutor != null ? requestExecutor.getExecutorService() : null );
     }
 
     private String parseApiUrl( JsonPath jsonPath ) {
@@ -101,15 +201,23 @@ public class ApiDefinition extends CommonFixture {
         return null;
     }
 
-    private String createValidationMsg( OpenApi3 model ) {
-        StringBuilder sb = new StringBuilder();
-        sb.append( "Landing Page is not valid. Found following validation items:" );
+    private List<String> collectValidationItems( OpenApi3 model ) {
+        List<String> validationItems = new ArrayList<>();
         if ( !model.isValid() ) {
             for ( ValidationResults.ValidationItem item : model.getValidationItems() ) {
-                sb.append( "  - " ).append( item.getSeverity() ).append( ": " ).append( item.getMsg() );
-
+                validationItems.add( item.getSeverity() + ": " + item.getMsg() );
             }
         }
+        return validationItems;
+    }
+
+    private String createValidationMsg( Snapshot snapshot ) {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "Landing Page is not valid. Found following validation items:" );
+        for ( String validationItem : snapshot.getValidationItems() ) {
+            sb.append( "  - " ).append( validationItem );
+
+        }
         return sb.toString();
     }
 
@@ -1,13 +1,11 @@
 package org.opengis.cite.ogcapifeatures10.collections;
 
 import static org.opengis.cite.ogcapifeatures10.EtsAssert.assertTrue;
-import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.IUT;
 import static org.opengis.cite.ogcapifeatures10.collections.FeaturesAssertions.assertNumberMatched;
 import static org.opengis.cite.ogcapifeatures10.collections.FeaturesAssertions.assertNumberReturned;
 import static org.opengis.cite.ogcapifeatures10.collections.FeaturesAssertions.assertTimeStamp;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollections;
-import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.findLinkByRel;
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.findLinksWithSupportedMediaTypeByRel;
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.findLinksWithoutRelOrType;
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.findUnsupportedTypes;
@@ -18,10 +16,16 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import org.opengis.cite.ogcapifeatures10.CommonDataFixture;
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
+import org.opengis.cite.ogcapifeatures10.http.RequestExecutor;
 import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
+import org.opengis.cite.ogcapifeatures10.util.CrawlBudget;
+import org.opengis.cite.ogcapifeatures10.util.PagingCrawler;
+import org.opengis.cite.ogcapifeatures10.util.ResponseDocument;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
@@ -29,23 +33,25 @@ import org.testng.annotations.DataProvider;
 
 import com.reprezen.kaizen.oasparser.model3.Parameter;
 
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
 public class AbstractFeatures extends CommonDataFixture {
 
-    protected final Map<CollectionResponseKey, ResponseData> collectionIdAndResponse = new HashMap<>();
+    protected final Map<CollectionResponseKey, ResponseData> collectionIdAndResponse = new ConcurrentHashMap<>();
 
     protected List<Map<String, Object>> collections;
 
     protected URI iut;
 
-    @DataProvider(name = "collectionPaths")
+    private CollectionProfiles collectionProfiles;
+
+    @DataProvider(name = "collectionPaths", parallel = true)
     public Iterator<Object[]> collectionPaths( ITestContext testContext ) {
-        List<TestPoint> testPointsForCollections = retrieveTestPointsForCollections( getApiModel(), iut,
+        List<TestPoint> testPointsForCollections = retrieveTestPointsForCollections( getApiModelIndex(), iut,
                                                                                      noOfCollections );
         List<Object[]> collectionsData = new ArrayList<>();
         for ( TestPoint testPointForCollections : testPointsForCollections ) {
@@ -58,6 +64,7 @@ public class AbstractFeatures extends CommonDataFixture {
     public void retrieveRequiredInformationFromTestContext( ITestContext testContext ) {
         this.iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
         this.collections = (List<Map<String, Object>>) testContext.getSuite().getAttribute( SuiteAttribute.COLLECTIONS.getName() );
+        this.collectionProfiles = (CollectionProfiles) testContext.getSuite().getAttribute( SuiteAttribute.COLLECTION_PROFILES.getName() );
     }
 
     /**
@@ -76,12 +83,8 @@ public class AbstractFeatures extends CommonDataFixture {
      *            the collection under test, never <code>null</code>
      */
     public void validateTypeProperty( CollectionResponseKey collection ) {
-        ResponseData response = collectionIdAndResponse.get( collection );
-        if ( response == null )
-            throw new SkipException( "Could not find a response for collection with id " + collection.id );
-
-        JsonPath jsonPath = response.jsonPath();
-        String type = jsonPath.get( "type" );
+        FeatureCollectionValidation validation = validation( collection );
+        String type = validation.getType();
         assertNotNull( type, "type property is missing" );
         assertEquals( type, "FeatureCollection", "Expected type property value of FeatureCollection but was " + type );
     }
@@ -102,13 +105,8 @@ public class AbstractFeatures extends CommonDataFixture {
      *            the collection under test, never <code>null</code>
      */
     void validateFeaturesProperty( CollectionResponseKey collection ) {
-        ResponseData response = collectionIdAndResponse.get( collection );
-        if ( response == null )
-            throw new SkipException( "Could not find a response for collection with id " + collection.id );
-
-        JsonPath jsonPath = response.jsonPath();
-        List<Object> type = jsonPath.get( "features" );
-        assertNotNull( type, "features property is missing" );
+        FeatureCollectionValidation validation = validation( collection );
+        assertTrue( validation.hasFeatures(), "features property is missing" );
     }
 
     /**
@@ -140,15 +138,11 @@ public class AbstractFeatures extends CommonDataFixture {
      *            the collection under test, never <code>null</code>
      */
     void validateLinks( CollectionResponseKey collection ) {
-        ResponseData response = collectionIdAndResponse.get( collection );
-        if ( response == null )
-            throw new SkipException( "Could not find a response for collection with id " + collection.id );
-
-        JsonPath jsonPath = response.jsonPath();
-        List<Map<String, Object>> links = jsonPath.getList( "links" );
+        FeatureCollectionValidation validation = validation( collection );
+        List<Map<String, Object>> links = validation.getLinks();
 
         // 1. a link to this response document (relation: self)
-        Map<String, Object> linkToSelf = findLinkByRel( links, "self" );
+        Map<String, Object> linkToSelf = validation.getLinkToSelf();
         assertNotNull( linkToSelf, "Feature Collection Metadata document must include a link for itself" );
 
         // 2. a link to the response document in every other media type supported by the server (relation: alternate)
@@ -199,9 +193,9 @@ public class AbstractFeatures extends CommonDataFixture {
         if ( response == null )
             throw new SkipException( "Could not find a response for collection with id " + collection.id );
 
-        JsonPath jsonPath = response.jsonPath();
+        FeatureCollectionValidation validation = validation( collection );
 
-        assertTimeStamp( collection.id, jsonPath, response.timeStampBeforeResponse, response.timeStampAfterResponse,
+        assertTimeStamp( collection.id, validation, response.timeStampBeforeResponse, response.timeStampAfterResponse,
                          true );
     }
 
@@ -233,13 +227,12 @@ public class AbstractFeatures extends CommonDataFixture {
      */
     void validateNumberMatched( CollectionResponseKey collection )
                             throws URISyntaxException {
-        ResponseData response = collectionIdAndResponse.get( collection );
-        if ( response == null )
-            throw new SkipException( "Could not find a response for collection with id " + collection.id );
-
-        JsonPath jsonPath = response.jsonPath();
+        FeatureCollectionValidation validation = validation( collection );
 
-        assertNumberMatched( getApiModel(), iut, collection.id, jsonPath, true );
+        int maximumLimit = profile( collection.id ).getMaximumLimit();
+        try ( DelegatedRequests requests = delegateRequests() ) {
+            assertNumberMatched( collection.id, maximumLimit, validation, createPagingCrawler( requests ), true );
+        }
     }
 
     /**
@@ -266,25 +259,88 @@ public class AbstractFeatures extends CommonDataFixture {
      *            the collection under test, never <code>null</code>
      */
     void validateNumberReturned( CollectionResponseKey collection ) {
+        FeatureCollectionValidation validation = validation( collection );
+
+        assertNumberReturned( collection.id, validation, true );
+    }
+
+    /**
+     * @param collection
+     *            the collection under test, never <code>null</code>
+     * @return the validation of the response of the collection, never <code>null</code>
+     * @throws SkipException
+     *             if there is no response for the collection
+     * @throws AssertionError
+     *             if the response is not a JSON object
+     */
+    protected FeatureCollectionValidation validation( CollectionResponseKey collection ) {
         ResponseData response = collectionIdAndResponse.get( collection );
         if ( response == null )
             throw new SkipException( "Could not find a response for collection with id " + collection.id );
+        FeatureCollectionValidation validation = response.validation();
+        if ( !validation.isParsed() )
+            throw new AssertionError( "Response of collection with id " + collection.id
+                                      + " is not a valid JSON document: " + validation.getParseError() );
+        return validation;
+    }
 
-        JsonPath jsonPath = response.jsonPath();
+    /**
+     * @param requests
+     *            creates the request specifications of the pages, e.g. the {@link DelegatedRequests} of this fixture,
+     *            never <code>null</code>
+     * @return a crawler requesting the pages with the passed request specifications and the request executor of this
+     *         fixture, never <code>null</code>
+     */
+    protected PagingCrawler createPagingCrawler( Supplier<RequestSpecification> requests ) {
+        RequestExecutor requestExecutor = getRequestExecutor();
+        return new PagingCrawler( requests, CrawlBudget.DEFAULT,
+                                  requestExecutor != null ? requestExecutor.getExecutorService() : null );
+    }
 
-        assertNumberReturned( collection.id, jsonPath, true );
+    protected static String findFeaturesUrlForGeoJson( Map<String, Object> collection ) {
+        return CollectionProfile.findFeaturesUrlForGeoJson( collection );
     }
 
-    protected String findFeaturesUrlForGeoJson( Map<String, Object> collection ) {
-        List<Object> links = (List<Object>) collection.get( "links" );
-        for ( Object linkObject : links ) {
-            Map<String, Object> link = (Map<String, Object>) linkObject;
-            Object rel = link.get( "rel" );
-            Object type = link.get( "type" );
-            if ( "items".equals( rel ) && GEOJSON_MIME_TYPE.equals( type ) )
-                return (String) link.get( "href" );
-        }
-        return null;
+    /**
+     * Returns the profile of the collection registered after the collections metadata was parsed. If the collection
+     * is not registered (e.g. if the collections metadata was not parsed) the profile is created; the OpenAPI document
+     * is only required if a parameter fact of the profile is requested.
+     *
+     * @param collection
+     *            the collection under test, never <code>null</code>
+     * @return the profile of the collection, never <code>null</code>
+     */
+    protected CollectionProfile profile( Map<String, Object> collection ) {
+        CollectionProfile profile = collectionProfiles != null ? collectionProfiles.get( (String) collection.get( "id" ) )
+                                                              : null;
+        if ( profile != null )
+            return profile;
+        return CollectionProfile.create( this::getApiModelIndex, iut, collection );
+    }
+
+    /**
+     * Returns the profile of the collection registered after the collections metadata was parsed. If the collection
+     * is not registered the profile is created from the OpenAPI document only.
+     *
+     * @param collectionId
+     *            the id of the collection under test, never <code>null</code>
+     * @return the profile of the collection, never <code>null</code>
+     */
+    protected CollectionProfile profile( String collectionId ) {
+        CollectionProfile profile = collectionProfiles != null ? collectionProfiles.get( collectionId ) : null;
+        if ( profile != null )
+            return profile;
+        return CollectionProfile.create( this::getApiModelIndex, iut,
+                                         Collections.<String, Object> singletonMap( "id", collectionId ) );
+    }
+
+    /**
+     * @return the profiles of the collections under test, never <code>null</code>
+     */
+    protected CollectionProfiles collectionProfiles() {
+        if ( collectionProfiles == null )
+            collectionProfiles = CollectionProfiles.create( this::getApiModelIndex, iut, collections );
+        return collectionProfiles;
     }
 
     protected boolean isRequired( Parameter param ) {
@@ -295,9 +351,13 @@ public class AbstractFeatures extends CommonDataFixture {
         return param.getExplode() != null && param.getExplode();
     }
 
+    /**
+     * The validated response of a collection. Only the validation is kept, not the response, so the memory needed does
+     * not grow with the number of features in the response.
+     */
     protected class ResponseData {
 
-        private final Response response;
+        private final FeatureCollectionValidation validation;
 
         protected final ZonedDateTime timeStampBeforeResponse;
 
@@ -305,13 +365,13 @@ public class AbstractFeatures extends CommonDataFixture {
 
         public ResponseData( Response response, ZonedDateTime timeStampBeforeResponse,
                              ZonedDateTime timeStampAfterResponse ) {
-            this.response = response;
+            this.validation = FeatureCollectionValidation.validate( new ResponseDocument( response ) );
             this.timeStampBeforeResponse = timeStampBeforeResponse;
             this.timeStampAfterResponse = timeStampAfterResponse;
         }
 
-        public JsonPath jsonPath() {
-            return response.jsonPath();
+        public FeatureCollectionValidation validation() {
+            return validation;
         }
     }
 
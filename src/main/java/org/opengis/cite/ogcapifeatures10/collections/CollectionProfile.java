@@ -0,0 +1,301 @@
+package org.opengis.cite.ogcapifeatures10.collections;
+
+import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.isFreeFormParameterSupportedForCollection;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveParameterByName;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.isParameterSupportedForCollection;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollection;
+import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseSpatialExtent;
+import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseTemporalExtent;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
+import org.opengis.cite.ogcapifeatures10.util.BBox;
+import org.opengis.cite.ogcapifeatures10.util.TemporalExtent;
+
+import com.reprezen.kaizen.oasparser.model3.Parameter;
+import com.reprezen.kaizen.oasparser.model3.Schema;
+
+/**
+ * The capabilities of a collection derived once from the OpenAPI document and the collection metadata: the url of the
+ * items encoded as GeoJSON, the limits declared for the items path, the support of free-form parameters and the spatial
+ * and temporal extent. The tests of the features read the profile instead of searching the OpenAPI document for each
+ * test. Other query parameters are looked up in the parameter tables of the items paths.
+ *
+ * <p>
+ * The url and the extents are taken from the collection metadata when the profile is created. The OpenAPI document is
+ * only consulted when a parameter fact (limits, free-form or other parameters) is requested for the first time.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ */
+public final class CollectionProfile {
+
+    private final Map<String, Object> collection;
+
+    private final String id;
+
+    private final String featuresUrlForGeoJson;
+
+    private final Supplier<ApiModelIndex> apiModelIndex;
+
+    private final URI iut;
+
+    private volatile ParameterFacts parameterFacts;
+
+    private final BBox spatialExtent;
+
+    private final IllegalArgumentException spatialExtentError;
+
+    private final TemporalExtent temporalExtent;
+
+    private final IllegalArgumentException temporalExtentError;
+
+    private CollectionProfile( Supplier<ApiModelIndex> apiModelIndex, URI iut, Map<String, Object> collection ) {
+        this.collection = collection;
+        this.id = (String) collection.get( "id" );
+        this.featuresUrlForGeoJson = findFeaturesUrlForGeoJson( collection );
+        this.apiModelIndex = apiModelIndex;
+        this.iut = iut;
+
+        BBox spatialExtent = null;
+        IllegalArgumentException spatialExtentError = null;
+        try {
+            spatialExtent = parseSpatialExtent( collection );
+        } catch ( IllegalArgumentException e ) {
+            spatialExtentError = e;
+        }
+        this.spatialExtent = spatialExtent;
+        this.spatialExtentError = spatialExtentError;
+
+        TemporalExtent temporalExtent = null;
+        IllegalArgumentException temporalExtentError = null;
+        try {
+            temporalExtent = parseTemporalExtent( collection );
+        } catch ( IllegalArgumentException e ) {
+            temporalExtentError = e;
+        }
+        this.temporalExtent = temporalExtent;
+        this.temporalExtentError = temporalExtentError;
+    }
+
+    /**
+     * Creates the profile of a collection.
+     *
+     * @param apiModelIndex
+     *            the index of the OpenAPI document of the instance under test, never <code>null</code>
+     * @param iut
+     *            the instance under test, never <code>null</code>
+     * @param collection
+     *            the collection as parsed from the collections metadata, never <code>null</code>
+     * @return the profile of the collection, never <code>null</code>
+     */
+    public static CollectionProfile create( ApiModelIndex apiModelIndex, URI iut, Map<String, Object> collection ) {
+        return new CollectionProfile( () -> apiModelIndex, iut, collection );
+    }
+
+    /**
+     * Creates the profile of a collection, the index of the OpenAPI document is requested when a parameter fact is
+     * requested for the first time.
+     *
+     * @param apiModelIndex
+     *            supplies the index of the OpenAPI document of the instance under test, may throw an exception (e.g. a
+     *            {@link org.testng.SkipException}) if the document is not available, never <code>null</code>
+     * @param iut
+     *            the instance under test, never <code>null</code>
+     * @param collection
+     *            the collection as parsed from the collections metadata, never <code>null</code>
+     * @return the profile of the collection, never <code>null</code>
+     */
+    public static CollectionProfile create( Supplier<ApiModelIndex> apiModelIndex, URI iut,
+                                            Map<String, Object> collection ) {
+        return new CollectionProfile( apiModelIndex, iut, collection );
+    }
+
+    /**
+     * @return the collection as parsed from the collections metadata, never <code>null</code>
+     */
+    public Map<String, Object> getCollection() {
+        return collection;
+    }
+
+    /**
+     * @return the id of the collection, may be <code>null</code> if the collection does not have an id
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return the url of the items with type {@value org.opengis.cite.ogcapifeatures10.OgcApiFeatures10#GEOJSON_MIME_TYPE},
+     *         <code>null</code> if the collection does not link to the items encoded as GeoJSON
+     */
+    public String getFeaturesUrlForGeoJson() {
+        return featuresUrlForGeoJson;
+    }
+
+    /**
+     * @return the limits declared by the items paths of the collection with minimum and maximum, in the order of the
+     *         test points, may be empty but never <code>null</code>
+     */
+    public List<Limit> getLimits() {
+        return parameterFacts().limits;
+    }
+
+    /**
+     * @return the maximum of the limit parameter of the first items path of the collection, -1 if no maximum is
+     *         declared
+     */
+    public int getMaximumLimit() {
+        return parameterFacts().maximumLimit;
+    }
+
+    /**
+     * @param parameterName
+     *            the name of the parameter, compared case-insensitively, never <code>null</code>
+     * @return <code>true</code> if the GET operation of an items path of the collection declares the parameter,
+     *         <code>false</code> otherwise
+     */
+    public boolean isParameterSupported( String parameterName ) {
+        return id != null && isParameterSupportedForCollection( apiModelIndex.get(), iut, id, parameterName );
+    }
+
+    /**
+     * @return <code>true</code> if the GET operation of an items path of the collection declares a free-form
+     *         parameter, <code>false</code> otherwise
+     */
+    public boolean isFreeFormParameterSupported() {
+        return parameterFacts().freeFormParameterSupported;
+    }
+
+    /**
+     * @return the spatial extent of the collection, <code>null</code> if no extent exists
+     * @throws IllegalArgumentException
+     *             if the number of items in the extent invalid
+     */
+    public BBox getSpatialExtent() {
+        if ( spatialExtentError != null )
+            throw spatialExtentError;
+        return spatialExtent;
+    }
+
+    /**
+     * @return the temporal extent of the collection, <code>null</code> if no extent exists
+     * @throws IllegalArgumentException
+     *             if the number of items in the extent invalid
+     */
+    public TemporalExtent getTemporalExtent() {
+        if ( temporalExtentError != null )
+            throw temporalExtentError;
+        return temporalExtent;
+    }
+
+    private ParameterFacts parameterFacts() {
+        ParameterFacts facts = parameterFacts;
+        if ( facts == null ) {
+            facts = new ParameterFacts( apiModelIndex.get(), iut, id );
+            parameterFacts = facts;
+        }
+        return facts;
+    }
+
+    static String findFeaturesUrlForGeoJson( Map<String, Object> collection ) {
+        if ( !( collection.get( "links" ) instanceof List ) )
+            return null;
+        for ( Object linkObject : (List<Object>) collection.get( "links" ) ) {
+            if ( !( linkObject instanceof Map ) )
+                continue;
+            Map<String, Object> link = (Map<String, Object>) linkObject;
+            if ( "items".equals( link.get( "rel" ) ) && GEOJSON_MIME_TYPE.equals( link.get( "type" ) ) )
+                return (String) link.get( "href" );
+        }
+        return null;
+    }
+
+    private static Integer asInteger( Object value ) {
+        return value instanceof Number ? ( (Number) value ).intValue() : null;
+    }
+
+    /**
+     * The facts of the items paths of a collection looked up in the OpenAPI document.
+     */
+    private static final class ParameterFacts {
+
+        private final List<Limit> limits;
+
+        private final int maximumLimit;
+
+        private final boolean freeFormParameterSupported;
+
+        ParameterFacts( ApiModelIndex apiModelIndex, URI iut, String id ) {
+            List<Limit> limits = new ArrayList<>();
+            int maximumLimit = -1;
+            List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModelIndex, iut, id );
+            for ( int i = 0; i < testPoints.size(); i++ ) {
+                Parameter limit = retrieveParameterByName( testPoints.get( i ).getPath(), apiModelIndex, "limit" );
+                if ( limit != null && limit.getSchema() != null ) {
+                    Schema schema = limit.getSchema();
+                    if ( i == 0 && schema.getMaximum() != null )
+                        maximumLimit = schema.getMaximum().intValue();
+                    if ( schema.getMinimum() != null && schema.getMaximum() != null )
+                        limits.add( new Limit( schema.getMinimum().intValue(), schema.getMaximum().intValue(),
+                                               asInteger( schema.getDefault() ) ) );
+                }
+            }
+            this.limits = Collections.unmodifiableList( limits );
+            this.maximumLimit = maximumLimit;
+            this.freeFormParameterSupported = isFreeFormParameterSupportedForCollection( apiModelIndex, iut, id );
+        }
+
+    }
+
+    /**
+     * The limit parameter declared by an items path.
+     */
+    public static final class Limit {
+
+        private final int minimum;
+
+        private final int maximum;
+
+        private final Integer defaultValue;
+
+        Limit( int minimum, int maximum, Integer defaultValue ) {
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * @return the minimum of the limit
+         */
+        public int getMinimum() {
+            return minimum;
+        }
+
+        /**
+         * @return the maximum of the limit
+         */
+        public int getMaximum() {
+            return maximum;
+        }
+
+        /**
+         * @return the default of the limit, <code>null</code> if not declared
+         */
+        public Integer getDefault() {
+            return defaultValue;
+        }
+
+    }
+
+}
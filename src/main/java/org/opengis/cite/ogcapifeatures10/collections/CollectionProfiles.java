@@ -0,0 +1,91 @@
+package org.opengis.cite.ogcapifeatures10.collections;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+
+/**
+ * The {@link CollectionProfile}s of the collections under test, created once after the collections metadata is parsed
+ * and registered as suite attribute {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#COLLECTION_PROFILES}.
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ */
+public final class CollectionProfiles {
+
+    private final List<CollectionProfile> profiles;
+
+    private final Map<String, CollectionProfile> profilesById;
+
+    private CollectionProfiles( List<CollectionProfile> profiles ) {
+        this.profiles = Collections.unmodifiableList( profiles );
+        Map<String, CollectionProfile> profilesById = new HashMap<>();
+        for ( CollectionProfile profile : profiles ) {
+            if ( profile.getId() != null )
+                profilesById.putIfAbsent( profile.getId(), profile );
+        }
+        this.profilesById = profilesById;
+    }
+
+    /**
+     * Creates the profiles of the passed collections.
+     *
+     * @param apiModelIndex
+     *            the index of the OpenAPI document of the instance under test, never <code>null</code>
+     * @param iut
+     *            the instance under test, never <code>null</code>
+     * @param collections
+     *            the collections under test, never <code>null</code>
+     * @return the profiles in the order of the collections, never <code>null</code>
+     */
+    public static CollectionProfiles create( ApiModelIndex apiModelIndex, URI iut, List<Map<String, Object>> collections ) {
+        List<CollectionProfile> profiles = new ArrayList<>( collections.size() );
+        for ( Map<String, Object> collection : collections )
+            profiles.add( CollectionProfile.create( apiModelIndex, iut, collection ) );
+        return new CollectionProfiles( profiles );
+    }
+
+    /**
+     * Creates the profiles of the passed collections, the index of the OpenAPI document is requested when a parameter
+     * fact of a profile is requested for the first time.
+     *
+     * @param apiModelIndex
+     *            supplies the index of the OpenAPI document of the instance under test, never <code>null</code>
+     * @param iut
+     *            the instance under test, never <code>null</code>
+     * @param collections
+     *            the collections under test, never <code>null</code>
+     * @return the profiles in the order of the collections, never <code>null</code>
+     */
+    public static CollectionProfiles create( Supplier<ApiModelIndex> apiModelIndex, URI iut,
+                                             List<Map<String, Object>> collections ) {
+        List<CollectionProfile> profiles = new ArrayList<>( collections.size() );
+        for ( Map<String, Object> collection : collections )
+            profiles.add( CollectionProfile.create( apiModelIndex, iut, collection ) );
+        return new CollectionProfiles( profiles );
+    }
+
+    /**
+     * @return the profiles in the order of the collections, may be empty but never <code>null</code>
+     */
+    public List<CollectionProfile> getProfiles() {
+        return profiles;
+    }
+
+    /**
+     * @param collectionId
+     *            the id of the collection, may be <code>null</code>
+     * @return the profile of the collection, <code>null</code> if the collection is unknown
+     */
+    public CollectionProfile get( String collectionId ) {
+        return collectionId != null ? profilesById.get( collectionId ) : null;
+    }
+
+}
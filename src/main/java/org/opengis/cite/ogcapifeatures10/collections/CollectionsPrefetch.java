@@ -0,0 +1,83 @@
+package org.opengis.cite.ogcapifeatures10.collections;
+
+import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollectionMetadata;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.opengis.cite.ogcapifeatures10.http.Prefetcher;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
+import org.opengis.cite.ogcapifeatures10.openapi3.UriBuilder;
+import org.opengis.cite.ogcapifeatures10.util.BBox;
+
+
+import io.restassured.http.ContentType;
+
+/**
+ * Prefetches the requests of the tests of the collections as soon as the collections are known: the collection
+ * metadata ({@link FeatureCollection}), the items ({@link Features}) and the items with the limit
+ * ({@link FeaturesLimit}), bbox ({@link FeaturesBBox}) and datetime ({@link FeaturesTime}) parameters. The requests are
+ * derived from the same data as the data providers of these tests and submitted in the order the tests are executed.
+ */
+final class CollectionsPrefetch {
+
+    private CollectionsPrefetch() {
+    }
+
+    /**
+     * @param prefetcher
+     *            the prefetcher to submit the requests to, never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document of the instance under test, never <code>null</code>
+     * @param iut
+     *            the instance under test, never <code>null</code>
+     * @param collectionProfiles
+     *            the profiles of the collections under test, never <code>null</code>
+     */
+    static void prefetch( Prefetcher prefetcher, ApiModelIndex apiModelIndex, URI iut, CollectionProfiles collectionProfiles ) {
+        for ( CollectionProfile profile : collectionProfiles.getProfiles() ) {
+            String collectionId = profile.getId();
+            if ( collectionId == null )
+                continue;
+            List<TestPoint> testPoints = retrieveTestPointsForCollectionMetadata( apiModelIndex, iut, collectionId );
+            if ( !testPoints.isEmpty() ) {
+                String collectionUrl = new UriBuilder( testPoints.get( 0 ) ).collectionName( collectionId ).buildUrl();
+                prefetcher.prefetch( collectionUrl, ContentType.JSON.getAcceptHeader(),
+                                     Collections.<String, Object> emptyMap() );
+            }
+        }
+        for ( CollectionProfile profile : collectionProfiles.getProfiles() ) {
+            String featuresUrl = findFeaturesUrl( profile );
+            if ( featuresUrl != null )
+                prefetcher.prefetch( featuresUrl, GEOJSON_MIME_TYPE, Collections.<String, Object> emptyMap() );
+        }
+        for ( Object[] collectionWithLimit : FeaturesLimit.collectionsWithLimits( collectionProfiles ) )
+            prefetchItems( prefetcher, collectionProfiles, collectionWithLimit, "limit", collectionWithLimit[1] );
+        for ( Object[] collectionWithBbox : FeaturesBBox.collectionsWithBboxes( collectionProfiles ) )
+            prefetchItems( prefetcher, collectionProfiles, collectionWithBbox, "bbox",
+                           ( (BBox) collectionWithBbox[1] ).asQueryParameter() );
+        for ( Object[] collectionWithDateTime : FeaturesTime.collectionsWithDateTimes( collectionProfiles ) )
+            prefetchItems( prefetcher, collectionProfiles, collectionWithDateTime, "datetime",
+                           collectionWithDateTime[1] );
+    }
+
+    private static void prefetchItems( Prefetcher prefetcher, CollectionProfiles collectionProfiles,
+                                       Object[] testParameters, String parameterName, Object parameterValue ) {
+        Map<String, Object> collection = (Map<String, Object>) testParameters[0];
+        CollectionProfile profile = collectionProfiles.get( (String) collection.get( "id" ) );
+        String featuresUrl = profile != null ? findFeaturesUrl( profile ) : null;
+        if ( featuresUrl != null )
+            prefetcher.prefetch( featuresUrl, GEOJSON_MIME_TYPE,
+                                 Collections.<String, Object> singletonMap( parameterName, parameterValue ) );
+    }
+
+    private static String findFeaturesUrl( CollectionProfile profile ) {
+        String featuresUrl = profile.getFeaturesUrlForGeoJson();
+        return featuresUrl == null || featuresUrl.isEmpty() ? null : featuresUrl;
+    }
+
+}
@@ -11,17 +11,22 @@ import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.linkIncludesRelAn
 import static org.testng.Assert.assertNotNull;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.opengis.cite.ogcapifeatures10.CommonDataFixture;
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
+import org.opengis.cite.ogcapifeatures10.openapi3.CompiledUriTemplate;
+import org.opengis.cite.ogcapifeatures10.util.JsonAccessor;
+import org.opengis.cite.ogcapifeatures10.util.ResponseDocument;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
 
 /**
  * A.2.8. Feature
@@ -32,9 +37,13 @@ public class Feature extends CommonDataFixture {
 
     private List<Map<String, Object>> collections;
 
-    private final Map<String, Response> collectionNameAndResponse = new HashMap<>();
+    private final Map<String, ResponseDocument> collectionNameAndResponse = new ConcurrentHashMap<>();
 
-    @DataProvider(name = "collectionFeatureId")
+    private final Map<String, PendingResponse> collectionNameAndPendingResponse = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean featuresRequested = new AtomicBoolean();
+
+    @DataProvider(name = "collectionFeatureId", parallel = true)
     public Iterator<Object[]> collectionFeatureId( ITestContext testContext ) {
         Map<String, String> collectionNameToFeatureId = (Map<String, String>) testContext.getSuite().getAttribute( SuiteAttribute.FEATUREIDS.getName() );
         List<Object[]> collectionsData = new ArrayList<>();
@@ -45,6 +54,8 @@ public class Feature extends CommonDataFixture {
                 featureId = collectionNameToFeatureId.get( collectionId );
             collectionsData.add( new Object[] { collection, featureId } );
         }
+        if ( featuresRequested.compareAndSet( false, true ) )
+            requestFeaturesInBackground( collectionsData );
         return collectionsData.iterator();
     }
 
@@ -76,21 +87,17 @@ public class Feature extends CommonDataFixture {
         if ( featureId == null )
             throw new SkipException( "No featureId available for collection '" + collectionId + "'" );
 
-        String getFeatureUrl = findGetFeatureUrlForGeoJson( collection );
-        if ( getFeatureUrl == null )
+        String getFeatureUrlWithFeatureId = createGetFeatureUrl( collection, featureId );
+        if ( getFeatureUrlWithFeatureId == null )
             throw new SkipException( "Could not find url for collection with name " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
-        String getFeatureUrlWithFeatureId;
-        if ( getFeatureUrl.indexOf( "?" ) == -1 ) {
-            getFeatureUrlWithFeatureId = getFeatureUrl + "/" + featureId;
-        } else {
-            getFeatureUrlWithFeatureId = getFeatureUrl.substring( 0, getFeatureUrl.indexOf( "?" ) ) + "/" + featureId;
-        }
 
-        Response response = init().baseUri( getFeatureUrlWithFeatureId ).accept( GEOJSON_MIME_TYPE ).when().request( GET );
+        PendingResponse pendingResponse = collectionNameAndPendingResponse.remove( collectionId );
+        Response response = pendingResponse != null ? pendingResponse.get()
+                                                    : requestFeature( init(), getFeatureUrlWithFeatureId );
         response.then().statusCode( 200 );
 
-        collectionNameAndResponse.put( collectionId, response );
+        collectionNameAndResponse.put( collectionId, new ResponseDocument( response ) );
     }
 
     /**
@@ -125,12 +132,12 @@ public class Feature extends CommonDataFixture {
     @Test(description = "Implements A.2.8. Feature, Abstract Test 28 + 29 (Requirements /req/core/f-success, /req/core/f-links)", dataProvider = "collectionFeatureId", dependsOnMethods = "featureOperation", alwaysRun = true)
     public void validateFeatureResponse( Map<String, Object> collection, String featureId ) {
         String collectionId = (String) collection.get( "id" );
-        Response response = collectionNameAndResponse.get( collectionId );
+        ResponseDocument response = collectionNameAndResponse.get( collectionId );
         if ( response == null )
             throw new SkipException( "Could not find a response for collection with id " + collectionId );
 
-        JsonPath jsonPath = response.jsonPath();
-        List<Map<String, Object>> links = jsonPath.getList( "links" );
+        JsonAccessor json = response.accessor();
+        List<Map<String, Object>> links = json.getLinks();
 
         // 1. a link to this response document (relation: self),
         Map<String, Object> linkToSelf = findLinkByRel( links, "self" );
@@ -165,8 +172,40 @@ public class Feature extends CommonDataFixture {
                                                      + linksWithoutRelOrType );
     }
 
+    /**
+     * Requests the features of all collections in the background, so the responses are available when
+     * {@link #featureOperation(Map, String)} is invoked.
+     */
+    private void requestFeaturesInBackground( List<Object[]> collectionsData ) {
+        for ( Object[] collectionData : collectionsData ) {
+            Map<String, Object> collection = (Map<String, Object>) collectionData[0];
+            String featureId = (String) collectionData[1];
+            String collectionId = (String) collection.get( "id" );
+            if ( collectionId == null || featureId == null )
+                continue;
+            String getFeatureUrlWithFeatureId = createGetFeatureUrl( collection, featureId );
+            if ( getFeatureUrlWithFeatureId != null )
+                collectionNameAndPendingResponse.put( collectionId,
+                                                      submit( request -> requestFeature( request,
+                                                                                         getFeatureUrlWithFeatureId ) ) );
+        }
+    }
+
+    private Response requestFeature( RequestSpecification request, String getFeatureUrlWithFeatureId ) {
+        return request.baseUri( getFeatureUrlWithFeatureId ).accept( GEOJSON_MIME_TYPE ).when().request( GET );
+    }
+
+    private String createGetFeatureUrl( Map<String, Object> collection, String featureId ) {
+        String getFeatureUrl = findGetFeatureUrlForGeoJson( collection );
+        if ( getFeatureUrl == null )
+            return null;
+        return CompiledUriTemplate.appendPathSegment( getFeatureUrl, featureId );
+    }
+
     private String findGetFeatureUrlForGeoJson( Map<String, Object> collection ) {
         List<Object> links = (List<Object>) collection.get( "links" );
+        if ( links == null )
+            return null;
         for ( Object linkObject : links ) {
             Map<String, Object> link = (Map<String, Object>) linkObject;
             Object rel = link.get( "rel" );
@@ -10,13 +10,14 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
 import java.net.URI;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opengis.cite.ogcapifeatures10.CommonDataFixture;
 import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
 import org.opengis.cite.ogcapifeatures10.openapi3.UriBuilder;
+import org.opengis.cite.ogcapifeatures10.util.JsonAccessor;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.BeforeClass;
@@ -25,7 +26,6 @@ import org.testng.annotations.Test;
 
 import com.reprezen.kaizen.oasparser.model3.OpenApi3;
 
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
 /**
@@ -35,9 +35,9 @@ import io.restassured.response.Response;
  */
 public class FeatureCollection extends CommonDataFixture {
 
-    private Map<String, Response> collectionIdAndResponse = new HashMap<>();
+    private Map<String, Response> collectionIdAndResponse = new ConcurrentHashMap<>();
 
-    @DataProvider(name = "collections")
+    @DataProvider(name = "collections", parallel = true)
     public Object[][] collections( ITestContext testContext ) {
         List<Map<String, Object>> testPointAndCollections = (List<Map<String, Object>>) testContext.getSuite().getAttribute( COLLECTIONS.getName() );
         int length = testPointAndCollections.size();
@@ -67,7 +67,7 @@ public class FeatureCollection extends CommonDataFixture {
         String collectionId = (String) collection.get( "id" );
         assertNotNull( collectionId, "Id of the collection is not available" );
         URI iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
-        List<TestPoint> testPointsForNamedCollection = retrieveTestPointsForCollectionMetadata( getApiModel(), iut,
+        List<TestPoint> testPointsForNamedCollection = retrieveTestPointsForCollectionMetadata( getApiModelIndex(), iut,
                                                                                                 collectionId );
         if ( testPointsForNamedCollection.isEmpty() )
             throw new SkipException( "Could not find collection with id " + collectionId + " in the OpenAPI document" );
@@ -100,25 +100,25 @@ public class FeatureCollection extends CommonDataFixture {
         if ( response == null )
             throw new SkipException( "Could not find a response for collection with id " + collectionId );
 
-        JsonPath jsonPath = response.jsonPath();
+        JsonAccessor json = JsonAccessor.parse( response.asByteArray() );
 
-        assertEqualStringContent( collection, jsonPath, "id" );
-        assertEqualStringContent( collection, jsonPath, "title" );
-        assertEqualStringContent( collection, jsonPath, "description" );
-        assertExtent( collection, jsonPath );
+        assertEqualStringContent( collection, json, "id" );
+        assertEqualStringContent( collection, json, "title" );
+        assertEqualStringContent( collection, json, "description" );
+        assertExtent( collection, json );
 
     }
 
-    private void assertEqualStringContent( Map<String, Object> collection, JsonPath jsonPath, String property ) {
+    private void assertEqualStringContent( Map<String, Object> collection, JsonAccessor json, String property ) {
         String idFromCollections = (String) collection.get( property );
-        String idFromCollection = jsonPath.get( property );
+        String idFromCollection = json.getString( property );
         assertEquals( idFromCollection, idFromCollections,
                       property + " from collection is not equal to the collections " + property );
     }
 
-    private void assertExtent( Map<String, Object> collection, JsonPath jsonPath ) {
+    private void assertExtent( Map<String, Object> collection, JsonAccessor json ) {
         Map<String, Object> idFromCollections = (Map<String, Object>) collection.get( "extent" );
-        Map<String, Object> idFromCollection = jsonPath.getMap( "extent" );
+        Map<String, Object> idFromCollection = json.getExtent();
         assertEquals( idFromCollection, idFromCollections,
                       " extent from collection is not equal to the collections extent" );
     }
@@ -0,0 +1,211 @@
+package org.opengis.cite.ogcapifeatures10.collections;
+
+import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.findLinkByRel;
+import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseAsDate;
+
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.opengis.cite.ogcapifeatures10.util.JsonAccessor;
+import org.opengis.cite.ogcapifeatures10.util.ResponseDocument;
+
+/**
+ * Result of the validation of a Feature Collection response (Abstract Test 22). The response body is read once with a
+ * streaming parser, the features are counted but not kept, so the result needs the same small amount of memory for
+ * any page size. The checks are evaluated when the result is created, the test methods assert against the result.
+ */
+public class FeatureCollectionValidation {
+
+    private final JsonAccessor json;
+
+    private final String parseError;
+
+    private final List<Map<String, Object>> links;
+
+    private final int numberOfInvalidLinks;
+
+    private final Integer numberReturned;
+
+    private final String numberReturnedError;
+
+    private final String timeStampError;
+
+    private FeatureCollectionValidation( JsonAccessor json, String parseError ) {
+        this.json = json;
+        this.parseError = parseError;
+        List<Map<String, Object>> linkObjects = new ArrayList<>();
+        int invalidLinks = 0;
+        Integer numberReturned = null;
+        String numberReturnedError = null;
+        String timeStampError = null;
+        if ( json != null ) {
+            List<?> allLinks = json.getLinks();
+            if ( allLinks != null ) {
+                for ( Object link : allLinks ) {
+                    if ( link instanceof Map )
+                        linkObjects.add( (Map<String, Object>) link );
+                    if ( !( link instanceof Map ) || !( ( (Map<?, ?>) link ).get( "href" ) instanceof String ) )
+                        invalidLinks++;
+                }
+            }
+            try {
+                numberReturned = json.getNumberReturned();
+            } catch ( NumberFormatException e ) {
+                numberReturnedError = "Expected property 'numberReturned' to be an integer, but was '"
+                                      + json.getString( "numberReturned" ) + "'";
+            }
+            String timeStamp = json.getTimeStamp();
+            if ( timeStamp != null ) {
+                try {
+                    parseAsDate( timeStamp );
+                } catch ( DateTimeParseException e ) {
+                    timeStampError = "Property timeStamp '" + timeStamp + "' is not a valid date-time: "
+                                     + e.getMessage();
+                }
+            }
+        }
+        this.links = json != null && json.getLinks() != null ? Collections.unmodifiableList( linkObjects ) : null;
+        this.numberOfInvalidLinks = invalidLinks;
+        this.numberReturned = numberReturned;
+        this.numberReturnedError = numberReturnedError;
+        this.timeStampError = timeStampError;
+    }
+
+    /**
+     * Validates the body of the passed response.
+     *
+     * @param document
+     *            the response to validate, never <code>null</code>
+     * @return the result of the validation, never <code>null</code>
+     */
+    public static FeatureCollectionValidation validate( ResponseDocument document ) {
+        try {
+            return new FeatureCollectionValidation( document.accessor(), null );
+        } catch ( IllegalArgumentException e ) {
+            return new FeatureCollectionValidation( null, e.getMessage() );
+        }
+    }
+
+    /**
+     * @return <code>true</code> if the body is a JSON object, <code>false</code> otherwise
+     */
+    public boolean isParsed() {
+        return json != null;
+    }
+
+    /**
+     * @return the reason why the body could not be parsed, <code>null</code> if it was parsed
+     */
+    public String getParseError() {
+        return parseError;
+    }
+
+    /**
+     * @return the parsed body, <code>null</code> if it could not be parsed
+     */
+    public JsonAccessor getJson() {
+        return json;
+    }
+
+    /**
+     * @return the value of the property type, <code>null</code> if missing
+     */
+    public String getType() {
+        return json != null ? json.getType() : null;
+    }
+
+    /**
+     * @return <code>true</code> if the type property has the value FeatureCollection, <code>false</code> otherwise
+     */
+    public boolean isFeatureCollection() {
+        return "FeatureCollection".equals( getType() );
+    }
+
+    /**
+     * @return <code>true</code> if the features property is present and an array, <code>false</code> otherwise
+     */
+    public boolean hasFeatures() {
+        return json != null && json.hasFeatures();
+    }
+
+    /**
+     * @return the number of items in the features array, -1 if the array is missing
+     */
+    public int getNumberOfFeatures() {
+        return json != null ? json.getNumberOfFeatures() : -1;
+    }
+
+    /**
+     * @return the number of items in the features array which are not features
+     */
+    public int getNumberOfInvalidFeatures() {
+        return json != null ? json.getNumberOfInvalidFeatures() : 0;
+    }
+
+    /**
+     * @return the links which are objects, with or without a href, <code>null</code> if the links property is missing
+     */
+    public List<Map<String, Object>> getLinks() {
+        return links;
+    }
+
+    /**
+     * @return the number of links which are not an object with a href
+     */
+    public int getNumberOfInvalidLinks() {
+        return numberOfInvalidLinks;
+    }
+
+    /**
+     * @return the link with rel 'self', <code>null</code> if there is no such link
+     */
+    public Map<String, Object> getLinkToSelf() {
+        return findLinkByRel( links, "self" );
+    }
+
+    /**
+     * @return <code>true</code> if the numberReturned property is present, <code>false</code> otherwise
+     */
+    public boolean hasNumberReturned() {
+        return json != null && json.has( "numberReturned" );
+    }
+
+    /**
+     * @return the value of the numberReturned property, <code>null</code> if missing or not an integer
+     */
+    public Integer getNumberReturned() {
+        return numberReturned;
+    }
+
+    /**
+     * @return the reason why numberReturned is invalid, <code>null</code> if it is valid or missing
+     */
+    public String getNumberReturnedError() {
+        return numberReturnedError;
+    }
+
+    /**
+     * @return <code>true</code> if the numberMatched property is present, <code>false</code> otherwise
+     */
+    public boolean hasNumberMatched() {
+        return json != null && json.has( "numberMatched" );
+    }
+
+    /**
+     * @return the value of the timeStamp property, <code>null</code> if missing
+     */
+    public String getTimeStamp() {
+        return json != null ? json.getTimeStamp() : null;
+    }
+
+    /**
+     * @return the reason why timeStamp is invalid, <code>null</code> if it is valid or missing
+     */
+    public String getTimeStampError() {
+        return timeStampError;
+    }
+
+}
@@ -14,18 +14,22 @@ import static org.testng.Assert.assertNotNull;
 
 import java.net.URI;
 import java.util.*;
+import java.util.logging.Level;
 
 import org.opengis.cite.ogcapifeatures10.CommonDataFixture;
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
+import org.opengis.cite.ogcapifeatures10.http.Prefetcher;
 import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
 import org.opengis.cite.ogcapifeatures10.openapi3.UriBuilder;
+import org.opengis.cite.ogcapifeatures10.util.JsonAccessor;
+import org.opengis.cite.ogcapifeatures10.util.ResponseDocument;
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
 /**
@@ -35,7 +39,7 @@ import io.restassured.response.Response;
  */
 public class FeatureCollections extends CommonDataFixture {
 
-    private final Map<TestPoint, Response> testPointAndResponses = new HashMap<>();
+    private final Map<TestPoint, ResponseDocument> testPointAndResponses = new HashMap<>();
 
     private final Map<TestPoint, List<Map<String, Object>>> testPointAndCollections = new HashMap<>();
 
@@ -45,7 +49,7 @@ public class FeatureCollections extends CommonDataFixture {
     public Object[][] collectionsUris( ITestContext testContext ) {
         if ( this.testPointsData == null ) {
             URI iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
-            List<TestPoint> testPoints = retrieveTestPointsForCollectionsMetadata( getApiModel(), iut );
+            List<TestPoint> testPoints = retrieveTestPointsForCollectionsMetadata( getApiModelIndex(), iut );
             this.testPointsData = new Object[testPoints.size()][];
             int i = 0;
             for ( TestPoint testPoint : testPoints ) {
@@ -62,6 +66,34 @@ public class FeatureCollections extends CommonDataFixture {
             collections.addAll( testPointAndCollection );
         }
         testContext.getSuite().setAttribute( SuiteAttribute.COLLECTIONS.getName(), collections );
+        CollectionProfiles collectionProfiles = createCollectionProfiles( testContext, collections );
+        if ( collectionProfiles == null )
+            return;
+        testContext.getSuite().setAttribute( SuiteAttribute.COLLECTION_PROFILES.getName(), collectionProfiles );
+        prefetchCollectionRequests( testContext, collectionProfiles );
+    }
+
+    private CollectionProfiles createCollectionProfiles( ITestContext testContext,
+                                                         List<Map<String, Object>> collections ) {
+        URI iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
+        try {
+            return CollectionProfiles.create( this::getApiModelIndex, iut, collections );
+        } catch ( RuntimeException e ) {
+            TestSuiteLogger.log( Level.WARNING, "Could not create the profiles of the collections", e );
+            return null;
+        }
+    }
+
+    private void prefetchCollectionRequests( ITestContext testContext, CollectionProfiles collectionProfiles ) {
+        Prefetcher prefetcher = (Prefetcher) testContext.getSuite().getAttribute( SuiteAttribute.PREFETCHER.getName() );
+        if ( prefetcher == null )
+            return;
+        URI iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
+        try {
+            CollectionsPrefetch.prefetch( prefetcher, getApiModelIndex(), iut, collectionProfiles );
+        } catch ( RuntimeException e ) {
+            TestSuiteLogger.log( Level.WARNING, "Could not prefetch the requests of the collections", e );
+        }
     }
 
     /**
@@ -85,7 +117,7 @@ public class FeatureCollections extends CommonDataFixture {
         String testPointUri = new UriBuilder( testPoint ).buildUrl();
         Response response = init().baseUri( testPointUri ).accept( JSON ).when().request( GET );
         response.then().statusCode( 200 );
-        this.testPointAndResponses.put( testPoint, response );
+        this.testPointAndResponses.put( testPoint, new ResponseDocument( response ) );
     }
 
     /**
@@ -108,12 +140,12 @@ public class FeatureCollections extends CommonDataFixture {
      */
     @Test(description = "A.2.5. Feature Collections {root}/collections, Abstract Test 10, Test Method 1 (Requirement /req/core/fc-md-success)", groups = "collections", dataProvider = "collectionsUris", dependsOnMethods = "validateFeatureCollectionsMetadataOperation", alwaysRun = true)
     public void validateFeatureCollectionsMetadataOperationResponse_Links( TestPoint testPoint ) {
-        Response response = testPointAndResponses.get( testPoint );
+        ResponseDocument response = testPointAndResponses.get( testPoint );
         if ( response == null )
             throw new SkipException( "Could not find a response for test point " + testPoint );
 
-        JsonPath jsonPath = response.jsonPath();
-        List<Map<String, Object>> links = jsonPath.getList( "links" );
+        JsonAccessor json = response.accessor();
+        List<Map<String, Object>> links = json.getLinks();
 
         // Requirement 13 A (1): a link to this response document (relation: self)
         Map<String, Object> linkToSelf = findLinkByRel( links, "self" );
@@ -159,11 +191,11 @@ public class FeatureCollections extends CommonDataFixture {
      */
     @Test(description = "A.2.5. Feature Collections {root}/collections, Abstract Test 10, Test Method 2 (Requirement /req/core/fc-md-success)", groups = "collections", dataProvider = "collectionsUris", dependsOnMethods = "validateFeatureCollectionsMetadataOperation", alwaysRun = true)
     public void validateFeatureCollectionsMetadataOperationResponse_Items( TestPoint testPoint ) {
-        Response response = testPointAndResponses.get( testPoint );
+        ResponseDocument response = testPointAndResponses.get( testPoint );
         if ( response == null )
             throw new SkipException( "Could not find a response for test point " + testPoint );
-        JsonPath jsonPath = response.jsonPath();
-        List<Object> collections = jsonPath.getList( "collections" );
+        JsonAccessor json = response.accessor();
+        List<Map<String, Object>> collections = json.getCollections();
 
         // Test method cannot be verified as the provided collections are not known.
 
@@ -187,7 +219,7 @@ public class FeatureCollections extends CommonDataFixture {
      */
     @Test(description = "A.2.5. Feature Collections {root}/collections, Abstract Test 10, Test Method 3 (Requirement /req/core/fc-md-success)", groups = "collections", dataProvider = "collectionsUris", dependsOnMethods = "validateFeatureCollectionsMetadataOperation", alwaysRun = true)
     public void validateFeatureCollectionsMetadataOperationResponse_CrsProperty( TestPoint testPoint ) {
-        Response response = testPointAndResponses.get( testPoint );
+        ResponseDocument response = testPointAndResponses.get( testPoint );
         if ( response == null )
             throw new SkipException( "Could not find a response for test point " + testPoint );
 
@@ -211,24 +243,24 @@ public class FeatureCollections extends CommonDataFixture {
      */
     @Test(description = "A.2.5. Feature Collections {root}/collections, Abstract Test 10, Test Method 4 (Requirement /req/core/fc-md-success)", groups = "collections", dataProvider = "collectionsUris", dependsOnMethods = "validateFeatureCollectionsMetadataOperation", alwaysRun = true)
     public void validateFeatureCollectionsMetadataOperationResponse_Content( TestPoint testPoint ) {
-        Response response = testPointAndResponses.get( testPoint );
+        ResponseDocument response = testPointAndResponses.get( testPoint );
         if ( response == null )
             throw new SkipException( "Could not find a response for test point " + testPoint );
 
-        JsonPath jsonPath = response.jsonPath();
-        List<Map<String, Object>> links = jsonPath.getList( "links" );
+        JsonAccessor json = response.accessor();
+        List<Map<String, Object>> links = json.getLinks();
         boolean linksAreAvailable = links != null && !links.isEmpty();
         assertTrue( linksAreAvailable, "Feature Collections Metadata document does not contain links." );
 
-        List<Map<String, Object>> collections = jsonPath.getList( "collections" );
+        List<Map<String, Object>> collections = json.getCollections();
         boolean collectionssAreAvailable = collections != null && !collections.isEmpty();
         assertTrue( collectionssAreAvailable, "Feature Collections Metadata document does not contain collections." );
     }
 
-    private List<Map<String, Object>> createCollectionsMap( List<Object> collections ) {
+    private List<Map<String, Object>> createCollectionsMap( List<Map<String, Object>> collections ) {
         List<Map<String, Object>> collectionsMap = new ArrayList<>();
-        for ( Object collection : collections ) {
-            collectionsMap.add( (Map<String, Object>) collection );
+        for ( Map<String, Object> collection : collections ) {
+            collectionsMap.add( collection );
             if ( noOfCollections > 0 && collectionsMap.size() >= noOfCollections )
                 return collectionsMap;
         }
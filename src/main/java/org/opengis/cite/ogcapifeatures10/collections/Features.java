@@ -7,10 +7,10 @@ import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseFeatureId;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
 import org.testng.ITestContext;
@@ -27,7 +27,7 @@ import io.restassured.response.Response;
  */
 public class Features extends AbstractFeatures {
 
-    @DataProvider(name = "collectionItemUris")
+    @DataProvider(name = "collectionItemUris", parallel = true)
     public Iterator<Object[]> collectionItemUris( ITestContext testContext ) {
         List<Object[]> collectionsData = new ArrayList<>();
         for ( Map<String, Object> collection : collections ) {
@@ -57,7 +57,7 @@ public class Features extends AbstractFeatures {
     public void validateFeaturesOperation( ITestContext testContext, Map<String, Object> collection ) {
         String collectionId = (String) collection.get( "id" );
 
-        String featuresUrl = findFeaturesUrlForGeoJson( collection );
+        String featuresUrl = profile( collection ).getFeaturesUrlForGeoJson();
         if ( featuresUrl == null )
             throw new SkipException( "Could not find url for collection with id " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
@@ -69,7 +69,7 @@ public class Features extends AbstractFeatures {
         ResponseData responseData = new ResponseData( response, timeStampBeforeResponse, timeStampAfterResponse );
         collectionIdAndResponse.put( asKey( collectionId ), responseData );
 
-        addFeatureIdToTestContext( testContext, collectionId, response );
+        addFeatureIdToTestContext( testContext, collectionId, responseData );
     }
 
     /**
@@ -239,15 +239,19 @@ public class Features extends AbstractFeatures {
         validateNumberReturned( asKey( collectionId ) );
     }
 
-    private void addFeatureIdToTestContext( ITestContext testContext, String collectionName, Response response ) {
-        if ( response == null )
+    private void addFeatureIdToTestContext( ITestContext testContext, String collectionName,
+                                            ResponseData response ) {
+        if ( response == null || !response.validation().isParsed() )
             return;
-        Map<String, String> collectionNameAndFeatureId = (Map<String, String>) testContext.getSuite().getAttribute( SuiteAttribute.FEATUREIDS.getName() );
-        if ( collectionNameAndFeatureId == null ) {
-            collectionNameAndFeatureId = new HashMap<>();
-            testContext.getSuite().setAttribute( SuiteAttribute.FEATUREIDS.getName(), collectionNameAndFeatureId );
+        Map<String, String> collectionNameAndFeatureId;
+        synchronized ( testContext.getSuite() ) {
+            collectionNameAndFeatureId = (Map<String, String>) testContext.getSuite().getAttribute( SuiteAttribute.FEATUREIDS.getName() );
+            if ( collectionNameAndFeatureId == null ) {
+                collectionNameAndFeatureId = new ConcurrentHashMap<>();
+                testContext.getSuite().setAttribute( SuiteAttribute.FEATUREIDS.getName(), collectionNameAndFeatureId );
+            }
         }
-        String featureId = parseFeatureId( response.jsonPath() );
+        String featureId = parseFeatureId( response.validation().getJson() );
         if ( featureId != null )
             collectionNameAndFeatureId.put( collectionName, featureId );
     }
@@ -2,28 +2,18 @@ package org.opengis.cite.ogcapifeatures10.collections;
 
 import static java.time.temporal.ChronoUnit.SECONDS;
 import static org.opengis.cite.ogcapifeatures10.EtsAssert.assertTrue;
-import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollection;
-import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.collectNumberOfAllReturnedFeatures;
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.formatDate;
-import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.hasProperty;
-import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseAsDate;
 import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.assertNotNull;
 
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
-import java.util.List;
 
-import org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils;
-import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
+import org.opengis.cite.ogcapifeatures10.util.CrawlResult;
+import org.opengis.cite.ogcapifeatures10.util.JsonAccessor;
+import org.opengis.cite.ogcapifeatures10.util.PagingCrawler;
+import org.testng.Reporter;
 import org.testng.SkipException;
 
-import com.reprezen.kaizen.oasparser.model3.OpenApi3;
-import com.reprezen.kaizen.oasparser.model3.Parameter;
-
-import io.restassured.path.json.JsonPath;
-
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
@@ -47,57 +37,59 @@ public class FeaturesAssertions {
         assertTrue( value > 0, String.format( msg, propertyName, value ) );
     }
 
-    static void assertTimeStamp( String collectionName, JsonPath jsonPath, ZonedDateTime timeStampBeforeResponse,
-                                 ZonedDateTime timeStampAfterResponse, boolean skipIfNoTimeStamp ) {
-        String timeStamp = jsonPath.getString( "timeStamp" );
+    static void assertTimeStamp( String collectionName, FeatureCollectionValidation validation,
+                                 ZonedDateTime timeStampBeforeResponse, ZonedDateTime timeStampAfterResponse,
+                                 boolean skipIfNoTimeStamp ) {
+        String timeStamp = validation.getTimeStamp();
         if ( timeStamp == null )
             if ( skipIfNoTimeStamp )
                 throw new SkipException( "Property timeStamp is not set in collection items '" + collectionName + "'" );
             else
                 return;
 
-        ZonedDateTime date = parseAsDate( timeStamp );
-        assertNotNull(date, "Not valid timestamp.");
+        assertTrue( validation.getTimeStampError() == null, "Not valid timestamp. " + validation.getTimeStampError() );
     }
 
-    static void assertNumberReturned( String collectionName, JsonPath jsonPath, boolean skipIfNoNumberReturned ) {
-        if ( !hasProperty( "numberReturned", jsonPath ) )
+    static void assertNumberReturned( String collectionName, FeatureCollectionValidation validation,
+                                      boolean skipIfNoNumberReturned ) {
+        if ( !validation.hasNumberReturned() )
             if ( skipIfNoNumberReturned )
                 throw new SkipException( "Property numberReturned is not set in collection items '" + collectionName
                                          + "'" );
             else
                 return;
 
-        int numberReturned = jsonPath.getInt( "numberReturned" );
-        int numberOfFeatures = jsonPath.getList( "features" ).size();
+        if ( validation.getNumberReturnedError() != null )
+            throw new AssertionError( validation.getNumberReturnedError() );
+        int numberReturned = validation.getNumberReturned();
+        int numberOfFeatures = validation.getNumberOfFeatures();
         assertEquals( numberReturned, numberOfFeatures,
                       "Value of numberReturned (" + numberReturned
                                                         + ") does not match the number of features in the response ("
                                                         + numberOfFeatures + ")" );
     }
 
-    static void assertNumberMatched( OpenApi3 apiModel, URI iut, String collectionName, JsonPath jsonPath,
-                                     boolean skipIfNoNumberMatched )
+    static void assertNumberMatched( String collectionName, int maximumLimit, FeatureCollectionValidation validation,
+                                     PagingCrawler pagingCrawler, boolean skipIfNoNumberMatched )
                             throws URISyntaxException {
-        if ( !hasProperty( "numberMatched", jsonPath ) )
+        if ( !validation.hasNumberMatched() )
             if ( skipIfNoNumberMatched )
                 throw new SkipException( "Property numberMatched is not set in collection items '" + collectionName
                                          + "'" );
             else
                 return;
 
-        int maximumLimit = -1;
-
-        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModel, iut, collectionName );
-        if ( !testPoints.isEmpty() ) {
-            TestPoint testPoint = testPoints.get( 0 );
-            Parameter limitParameter = OpenApiUtils.retrieveParameterByName( testPoint.getPath(), apiModel, "limit" );
-            if ( limitParameter != null && limitParameter.getSchema() != null ) {
-                maximumLimit = limitParameter.getSchema().getMaximum().intValue();
-            }
-        }
-        int numberMatched = jsonPath.getInt( "numberMatched" );
-        int numberOfAllReturnedFeatures = collectNumberOfAllReturnedFeatures( jsonPath, maximumLimit );
+        JsonAccessor json = validation.getJson();
+        int numberMatched = json.getNumberMatched();
+        CrawlResult crawlResult = pagingCrawler.crawl( json, maximumLimit );
+        Reporter.log( crawlResult.toString() );
+        if ( crawlResult.getStopReason() == CrawlResult.StopReason.CYCLE )
+            throw new AssertionError( "The 'next' links of collection items '" + collectionName + "' form a cycle: "
+                                      + crawlResult.getStopDetail() );
+        if ( !crawlResult.isComplete() )
+            throw new SkipException( "Value of numberMatched could not be verified for collection items '"
+                                     + collectionName + "', " + crawlResult.getStopDetail() );
+        int numberOfAllReturnedFeatures = crawlResult.getNumberOfFeatures();
         assertEquals( numberMatched, numberOfAllReturnedFeatures,
                       "Value of numberReturned (" + numberMatched + ") does not match the number of features in all responses ("
                                                                   + numberOfAllReturnedFeatures + ")" );
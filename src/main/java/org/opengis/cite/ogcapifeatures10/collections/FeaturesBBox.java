@@ -4,7 +4,6 @@ import static io.restassured.http.Method.GET;
 import static org.opengis.cite.ogcapifeatures10.EtsAssert.assertFalse;
 import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveParameterByName;
-import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseSpatialExtent;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
@@ -35,11 +34,23 @@ import io.restassured.response.Response;
  */
 public class FeaturesBBox extends AbstractFeatures {
 
-    @DataProvider(name = "collectionItemUrisWithBboxes")
+    @DataProvider(name = "collectionItemUrisWithBboxes", parallel = true)
     public Iterator<Object[]> collectionItemUrisWithBboxes( ITestContext testContext ) {
+        return collectionsWithBboxes( collectionProfiles() ).iterator();
+    }
+
+    /**
+     * Creates the bounding boxes to test for each collection.
+     *
+     * @param collectionProfiles
+     *            the profiles of the collections under test, never <code>null</code>
+     * @return the collection and bounding box of each test, never <code>null</code>
+     */
+    static List<Object[]> collectionsWithBboxes( CollectionProfiles collectionProfiles ) {
         List<Object[]> collectionsWithBboxes = new ArrayList<>();
-        for ( Map<String, Object> collection : collections ) {
-            BBox extent = parseSpatialExtent( collection );
+        for ( CollectionProfile profile : collectionProfiles.getProfiles() ) {
+            Map<String, Object> collection = profile.getCollection();
+            BBox extent = profile.getSpatialExtent();
             if ( extent != null ) {
                 collectionsWithBboxes.add( new Object[] { collection, extent } );
                 // These should include test cases which cross the
@@ -54,7 +65,7 @@ public class FeaturesBBox extends AbstractFeatures {
                 collectionsWithBboxes.add( new Object[] { collection, new BBox( -180.0, -85.0, 180.0, -90.0 ) } );
             }
         }
-        return collectionsWithBboxes.iterator();
+        return collectionsWithBboxes;
     }
 
     /**
@@ -89,7 +100,7 @@ public class FeaturesBBox extends AbstractFeatures {
      */
     @Test(description = "A.2.7. Features {root}/collections/{collectionId}/items - BoundingBox, Abstract Test 14: (Requirement /req/core/fc-bbox-definition)", dataProvider = "collectionPaths", dependsOnGroups = "featuresBase", alwaysRun = true)
     public void boundingBoxParameterDefinition( TestPoint testPoint ) {
-        Parameter bbox = retrieveParameterByName( testPoint.getPath(), getApiModel(), "bbox" );
+        Parameter bbox = retrieveParameterByName( testPoint.getPath(), getApiModelIndex(), "bbox" );
 
         assertNotNull( bbox, "Required bbox parameter for collections path '" + testPoint.getPath()
                              + "'  in OpenAPI document is missing" );
@@ -145,8 +156,8 @@ public class FeaturesBBox extends AbstractFeatures {
     public void validateFeaturesWithBoundingBoxOperation( Map<String, Object> collection, BBox bbox ) {
         String collectionId = (String) collection.get( "id" );
 
-        String getFeaturesUrl = findFeaturesUrlForGeoJson( collection );
-        if ( getFeaturesUrl.isEmpty() )
+        String getFeaturesUrl = profile( collection ).getFeaturesUrlForGeoJson();
+        if ( getFeaturesUrl == null || getFeaturesUrl.isEmpty() )
             throw new SkipException( "Could not find url for collection with id " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
         ZonedDateTime timeStampBeforeResponse = ZonedDateTime.now();
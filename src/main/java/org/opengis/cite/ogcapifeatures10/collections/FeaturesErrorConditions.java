@@ -9,7 +9,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Random;
 
-import org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils;
 import org.testng.ITestContext;
 import org.testng.SkipException;
 import org.testng.annotations.DataProvider;
@@ -28,7 +27,7 @@ public class FeaturesErrorConditions extends AbstractFeatures {
 
     public static final String UNKNOWN_QUERY_PARAM = "unknownQueryParameter";
 
-    @DataProvider(name = "collectionItemUris")
+    @DataProvider(name = "collectionItemUris", parallel = true)
     public Iterator<Object[]> collectionItemUris( ITestContext testContext ) {
         List<Object[]> collectionsData = new ArrayList<>();
         for ( Map<String, Object> collection : collections ) {
@@ -71,7 +70,7 @@ public class FeaturesErrorConditions extends AbstractFeatures {
     public void validateFeaturesOperation_QueryParamInvalid( Map<String, Object> collection ) {
         String collectionId = (String) collection.get( "id" );
 
-        String featuresUrl = findFeaturesUrlForGeoJson( collection );
+        String featuresUrl = profile( collection ).getFeaturesUrlForGeoJson();
         if ( featuresUrl == null )
             throw new SkipException( "Could not find url for collection with id " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
@@ -114,21 +113,19 @@ public class FeaturesErrorConditions extends AbstractFeatures {
     @Test(description = "Implements A.2.7. Features {root}/collections/{collectionId}/items - Error Conditions, Abstract Test 13/21 (Requirement /req/core/query-param-unknown)", groups = "featuresBase", dataProvider = "collectionItemUris", dependsOnGroups = "collections", alwaysRun = true)
     public void validateFeaturesOperation_QueryParamUnkown( Map<String, Object> collection ) {
         String collectionId = (String) collection.get( "id" );
-        boolean freeFormParameterSupported = OpenApiUtils.isFreeFormParameterSupportedForCollection( getApiModel(), iut, collectionId );
-        if ( freeFormParameterSupported ) {
+        CollectionProfile profile = profile( collection );
+        if ( profile.isFreeFormParameterSupported() ) {
             throw new SkipException( "Free-form parameters are supported for collection with id " + collectionId );
         }
 
-        String featuresUrl = findFeaturesUrlForGeoJson( collection );
+        String featuresUrl = profile.getFeaturesUrlForGeoJson();
         if ( featuresUrl == null ) {
             throw new SkipException( "Could not find url for collection with id " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
         }
 
         String queryParam = createRandomQueryParam();
-        boolean parameterSupportedForCollection = OpenApiUtils.isParameterSupportedForCollection( getApiModel(), iut, collectionId,
-                                                                                                  queryParam );
-        if ( parameterSupportedForCollection ) {
+        if ( profile.isParameterSupported( queryParam ) ) {
             throw new SkipException( "Parameters " + queryParam + " is supported for collection with id "
                                      + collectionId );
         }
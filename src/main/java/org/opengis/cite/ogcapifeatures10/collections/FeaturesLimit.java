@@ -4,14 +4,11 @@ import static io.restassured.http.Method.GET;
 import static org.opengis.cite.ogcapifeatures10.EtsAssert.assertFalse;
 import static org.opengis.cite.ogcapifeatures10.EtsAssert.assertTrue;
 import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
-import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.IUT;
 import static org.opengis.cite.ogcapifeatures10.collections.FeaturesAssertions.assertIntegerGreaterZero;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveParameterByName;
-import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollection;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -29,7 +26,6 @@ import org.testng.annotations.Test;
 import com.reprezen.kaizen.oasparser.model3.Parameter;
 import com.reprezen.kaizen.oasparser.model3.Schema;
 
-import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
 /**
@@ -39,29 +35,35 @@ import io.restassured.response.Response;
  */
 public class FeaturesLimit extends AbstractFeatures {
 
-    @DataProvider(name = "collectionItemUrisWithLimits")
+    @DataProvider(name = "collectionItemUrisWithLimits", parallel = true)
     public Iterator<Object[]> collectionItemUrisWithLimits( ITestContext testContext ) {
-        URI iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
+        return collectionsWithLimits( collectionProfiles() ).iterator();
+    }
+
+    /**
+     * Creates the limits to test for each collection.
+     *
+     * @param collectionProfiles
+     *            the profiles of the collections under test, never <code>null</code>
+     * @return the collection, limit and maximum limit of each test, never <code>null</code>
+     */
+    static List<Object[]> collectionsWithLimits( CollectionProfiles collectionProfiles ) {
         List<Object[]> collectionsWithLimits = new ArrayList<>();
-        for ( Map<String, Object> collection : collections ) {
-            String collectionId = (String) collection.get( "id" );
-            List<TestPoint> testPoints = retrieveTestPointsForCollection( getApiModel(), iut, collectionId );
-            for ( TestPoint testPoint : testPoints ) {
-                Parameter limit = retrieveParameterByName( testPoint.getPath(), getApiModel(), "limit" );
-                if ( limit != null && limit.getSchema() != null ) {
-                    int min = limit.getSchema().getMinimum().intValue();
-                    int max = limit.getSchema().getMaximum().intValue();
-                    if ( min == max ) {
-                        collectionsWithLimits.add( new Object[] { collection, min, max } );
-                    } else {
-                        collectionsWithLimits.add( new Object[] { collection, min, max } );
-                        int betweenMinAndMax = min + ((max - min) / 2) > 100 ? 100 : min + ((max - min) / 2);
-                        collectionsWithLimits.add( new Object[] { collection, betweenMinAndMax, max } );
-                    }
+        for ( CollectionProfile profile : collectionProfiles.getProfiles() ) {
+            Map<String, Object> collection = profile.getCollection();
+            for ( CollectionProfile.Limit limit : profile.getLimits() ) {
+                int min = limit.getMinimum();
+                int max = limit.getMaximum();
+                if ( min == max ) {
+                    collectionsWithLimits.add( new Object[] { collection, min, max } );
+                } else {
+                    collectionsWithLimits.add( new Object[] { collection, min, max } );
+                    int betweenMinAndMax = min + ((max - min) / 2) > 100 ? 100 : min + ((max - min) / 2);
+                    collectionsWithLimits.add( new Object[] { collection, betweenMinAndMax, max } );
                 }
             }
         }
-        return collectionsWithLimits.iterator();
+        return collectionsWithLimits;
     }
 
     /**
@@ -88,7 +90,7 @@ public class FeaturesLimit extends AbstractFeatures {
      */
     @Test(description = "A.2.7. Features {root}/collections/{collectionId}/items - Limit, Abstract Test 16: (Requirement /req/core/fc-limit-definition)", dataProvider = "collectionPaths", dependsOnGroups = "featuresBase", alwaysRun = true)
     public void limitParameterDefinition( TestPoint testPoint ) {
-        Parameter limit = retrieveParameterByName( testPoint.getPath(), getApiModel(), "limit" );
+        Parameter limit = retrieveParameterByName( testPoint.getPath(), getApiModelIndex(), "limit" );
 
         assertNotNull( limit, "Required limit parameter for collections path '" + testPoint.getPath()
                               + "'  in OpenAPI document is missing" );
@@ -136,7 +138,7 @@ public class FeaturesLimit extends AbstractFeatures {
     public void validateFeaturesWithLimitOperation( Map<String, Object> collection, int limit, int max ) {
         String collectionId = (String) collection.get( "id" );
 
-        String getFeaturesUrl = findFeaturesUrlForGeoJson( collection );
+        String getFeaturesUrl = profile( collection ).getFeaturesUrlForGeoJson();
         if ( getFeaturesUrl == null || getFeaturesUrl.isEmpty() )
             throw new SkipException( "Could not find url for collection with id " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
@@ -171,12 +173,8 @@ public class FeaturesLimit extends AbstractFeatures {
     @Test(description = "A.2.7. Features {root}/collections/{collectionId}/items - Limit, Abstract Test 17: (Requirement /req/core/fc-limit-response)", dataProvider = "collectionItemUrisWithLimits", dependsOnMethods = "validateFeaturesWithLimitOperation", alwaysRun = true)
     public void validateFeaturesWithLimitResponse( Map<String, Object> collection, int limit, int max ) {
         String collectionId = (String) collection.get( "id" );
-        ResponseData response = collectionIdAndResponse.get( asKey( collectionId, limit ) );
-        if ( response == null )
-            throw new SkipException( "Could not find a response for collection with id " + collectionId );
-
-        JsonPath jsonPath = response.jsonPath();
-        int numberOfFeatures = jsonPath.getList( "features" ).size();
+        FeatureCollectionValidation validation = validation( asKey( collectionId, limit ) );
+        int numberOfFeatures = validation.getNumberOfFeatures();
         int expectedLimit = limit > max ? max : limit;
         assertTrue( numberOfFeatures <= expectedLimit,
                     "Number of features for collection with name " + collectionId + " is unexpected (was "
@@ -7,7 +7,6 @@ import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrievePa
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.formatDate;
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.formatDateRange;
 import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.formatDateRangeWithDuration;
-import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.parseTemporalExtent;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 
@@ -40,11 +39,23 @@ import io.restassured.response.Response;
  */
 public class FeaturesTime extends AbstractFeatures {
 
-    @DataProvider(name = "collectionItemUrisWithDateTimes")
+    @DataProvider(name = "collectionItemUrisWithDateTimes", parallel = true)
     public Iterator<Object[]> collectionItemUrisWithDateTimes( ITestContext testContext ) {
+        return collectionsWithDateTimes( collectionProfiles() ).iterator();
+    }
+
+    /**
+     * Creates the datetime query parameters to test for each collection.
+     *
+     * @param collectionProfiles
+     *            the profiles of the collections under test, never <code>null</code>
+     * @return the collection, query parameter, begin and end of each test, never <code>null</code>
+     */
+    static List<Object[]> collectionsWithDateTimes( CollectionProfiles collectionProfiles ) {
         List<Object[]> collectionsWithTimes = new ArrayList<>();
-        for ( Map<String, Object> collection : collections ) {
-            TemporalExtent temporalExtent = parseTemporalExtent( collection );
+        for ( CollectionProfile profile : collectionProfiles.getProfiles() ) {
+            Map<String, Object> collection = profile.getCollection();
+            TemporalExtent temporalExtent = profile.getTemporalExtent();
             if ( temporalExtent != null ) {
                 ZonedDateTime begin = temporalExtent.getBegin();
                 ZonedDateTime end = temporalExtent.getEnd();
@@ -68,7 +79,7 @@ public class FeaturesTime extends AbstractFeatures {
                                                          beginIntervalDate, endIntervalDate } );
             }
         }
-        return collectionsWithTimes.iterator();
+        return collectionsWithTimes;
     }
 
     /**
@@ -93,7 +104,7 @@ public class FeaturesTime extends AbstractFeatures {
      */
     @Test(description = "A.2.7. Features {root}/collections/{collectionId}/items - Datetime, Abstract Test 14: (Requirement /req/core/fc-time-definition)", dataProvider = "collectionPaths", dependsOnGroups = "featuresBase", alwaysRun = true)
     public void timeParameterDefinition( TestPoint testPoint ) {
-        Parameter time = retrieveParameterByName( testPoint.getPath(), getApiModel(), "datetime" );
+        Parameter time = retrieveParameterByName( testPoint.getPath(), getApiModelIndex(), "datetime" );
 
         assertNotNull( time, "Required time parameter for collections with path '" + testPoint.getPath()
                              + "'  in OpenAPI document is missing" );
@@ -143,8 +154,8 @@ public class FeaturesTime extends AbstractFeatures {
                                                        Object begin, Object end ) {
         String collectionId = (String) collection.get( "id" );
 
-        String getFeaturesUrl = findFeaturesUrlForGeoJson( collection );
-        if ( getFeaturesUrl.isEmpty() )
+        String getFeaturesUrl = profile( collection ).getFeaturesUrlForGeoJson();
+        if ( getFeaturesUrl == null || getFeaturesUrl.isEmpty() )
             throw new SkipException( "Could not find url for collection with id " + collectionId
                                      + " supporting GeoJson (type " + GEOJSON_MIME_TYPE + ")" );
         ZonedDateTime timeStampBeforeResponse = ZonedDateTime.now();
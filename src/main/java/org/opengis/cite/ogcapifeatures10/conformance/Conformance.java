@@ -2,7 +2,7 @@ package org.opengis.cite.ogcapifeatures10.conformance;
 
 import static io.restassured.http.ContentType.JSON;
 import static io.restassured.http.Method.GET;
-import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL;
+import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.API_MODEL_INDEX;
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.IUT;
 import static org.opengis.cite.ogcapifeatures10.SuiteAttribute.REQUIREMENTCLASSES;
 import static org.opengis.cite.ogcapifeatures10.conformance.RequirementClass.CORE;
@@ -15,6 +15,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import org.opengis.cite.ogcapifeatures10.CommonFixture;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
 import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
 import org.opengis.cite.ogcapifeatures10.openapi3.UriBuilder;
 import org.testng.ITestContext;
@@ -22,8 +23,6 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
-import com.reprezen.kaizen.oasparser.model3.OpenApi3;
-
 import io.restassured.path.json.JsonPath;
 import io.restassured.response.Response;
 
@@ -38,9 +37,9 @@ public class Conformance extends CommonFixture {
 
     @DataProvider(name = "conformanceUris")
     public Object[][] conformanceUris( ITestContext testContext ) {
-        OpenApi3 apiModel = (OpenApi3) testContext.getSuite().getAttribute( API_MODEL.getName() );
+        ApiModelIndex apiModelIndex = (ApiModelIndex) testContext.getSuite().getAttribute( API_MODEL_INDEX.getName() );
         URI iut = (URI) testContext.getSuite().getAttribute( IUT.getName() );
-        List<TestPoint> testPoints = retrieveTestPointsForConformance( apiModel, iut );
+        List<TestPoint> testPoints = new ArrayList<>( retrieveTestPointsForConformance( apiModelIndex, iut ) );
 
         //Set dummy TestPoint data if no testPoints found.
         if (testPoints.isEmpty()) {
@@ -32,7 +32,7 @@ public class GeneralHttp extends CommonFixture {
      */
     @Test(description = "Implements A.2.1.1. HTTP (Requirement /req/core/http)")
     public void http() {
-        Response response = init().baseUri( rootUri.toString() ).when().request( GET, "/" );
+        Response response = initWithoutCache().baseUri( rootUri.toString() ).when().request( GET, "/" );
         response.then().statusLine( containsString( "HTTP/1.1" ) );
     }
 
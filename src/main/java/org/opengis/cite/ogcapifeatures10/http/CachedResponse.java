@@ -0,0 +1,268 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.File;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.internal.RestAssuredResponseOptionsImpl;
+import io.restassured.response.Response;
+
+/**
+ * Immutable snapshot of a successful response stored in the {@link ResponseCache}. The body of a response read by the
+ * {@link ResponseBodyFilter} is not copied, the snapshot refers to the {@link StoredBody}.
+ *
+ * <p>
+ * Only responses carrying a validator (ETag or Last-Modified) are stored, they are revalidated with a conditional
+ * request unless the server declared them fresh with Cache-Control: max-age (and not no-cache).
+ * </p>
+ */
+public class CachedResponse {
+
+    private final int statusCode;
+
+    private final String statusLine;
+
+    private final String contentType;
+
+    private final List<Header> headers;
+
+    private final StoredBody body;
+
+    private final long storedAt;
+
+    /**
+     * @param statusCode
+     *            the HTTP status code
+     * @param statusLine
+     *            the HTTP status line, may be <code>null</code>
+     * @param contentType
+     *            the content type of the body, may be <code>null</code>
+     * @param headers
+     *            the response headers, never <code>null</code>
+     * @param body
+     *            the response body, never <code>null</code>, the array is copied
+     */
+    public CachedResponse( int statusCode, String statusLine, String contentType, List<Header> headers, byte[] body ) {
+        this( statusCode, statusLine, contentType, headers, StoredBody.onHeap( Arrays.copyOf( body, body.length ) ) );
+    }
+
+    private CachedResponse( int statusCode, String statusLine, String contentType, List<Header> headers,
+                            StoredBody body ) {
+        this.statusCode = statusCode;
+        this.statusLine = statusLine;
+        this.contentType = contentType;
+        this.headers = Collections.unmodifiableList( new ArrayList<>( headers ) );
+        this.body = body;
+        this.storedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Creates a snapshot of a Rest-Assured response.
+     *
+     * @param response
+     *            the response to copy, never <code>null</code>
+     * @return the snapshot, never <code>null</code>
+     */
+    public static CachedResponse of( Response response ) {
+        StoredBody storedBody = StoredBody.of( response );
+        if ( storedBody != null )
+            return new CachedResponse( response.getStatusCode(), response.getStatusLine(), response.getContentType(),
+                                       response.getHeaders().asList(), storedBody );
+        return new CachedResponse( response.getStatusCode(), response.getStatusLine(), response.getContentType(),
+                                   response.getHeaders().asList(), response.asByteArray() );
+    }
+
+    /**
+     * Creates a snapshot of a response whose body was written to a file. The file is read through a memory-mapped
+     * buffer when the snapshot is replayed, it must not be modified as long as the snapshot is used.
+     *
+     * @param statusCode
+     *            the HTTP status code
+     * @param statusLine
+     *            the HTTP status line, may be <code>null</code>
+     * @param contentType
+     *            the content type of the body, may be <code>null</code>
+     * @param headers
+     *            the response headers, never <code>null</code>
+     * @param body
+     *            the file containing the complete response body, never <code>null</code>
+     * @return the snapshot, never <code>null</code>
+     */
+    public static CachedResponse of( int statusCode, String statusLine, String contentType, List<Header> headers,
+                                     File body ) {
+        return new CachedResponse( statusCode, statusLine, contentType, headers,
+                                   StoredBody.inFile( body, body.length() ) );
+    }
+
+    /**
+     * @return the HTTP status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * @return the content type of the body, may be <code>null</code>
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the response headers, never <code>null</code>
+     */
+    public List<Header> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * @param name
+     *            of the header, never <code>null</code>
+     * @return the value of the first header with the given name (case-insensitive), <code>null</code> if there is no
+     *         such header
+     */
+    public String getHeader( String name ) {
+        for ( Header header : headers ) {
+            if ( header.getName().equalsIgnoreCase( name ) )
+                return header.getValue();
+        }
+        return null;
+    }
+
+    /**
+     * @return the value of the ETag header, <code>null</code> if missing
+     */
+    public String getETag() {
+        return getHeader( "ETag" );
+    }
+
+    /**
+     * @return the value of the Last-Modified header, <code>null</code> if missing
+     */
+    public String getLastModified() {
+        return getHeader( "Last-Modified" );
+    }
+
+    /**
+     * @return <code>true</code> if the response can be revalidated with a conditional request, <code>false</code>
+     *         otherwise
+     */
+    public boolean hasValidator() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+    /**
+     * @return <code>true</code> if the response may be stored in the {@link ResponseCache}, <code>false</code>
+     *         otherwise
+     */
+    public boolean isCacheable() {
+        return isCacheable( statusCode, getHeader( "Cache-Control" ), getHeader( "Vary" ), hasValidator() );
+    }
+
+    /**
+     * @return <code>true</code> if the response may be answered from the {@link ResponseCache} without revalidation,
+     *         i.e. it was stored less than Cache-Control: max-age seconds (minus the Age header) ago and the server
+     *         did not demand revalidation with no-cache, <code>false</code> otherwise
+     */
+    public boolean isFresh() {
+        String cacheControl = getHeader( "Cache-Control" );
+        if ( cacheControlDirective( cacheControl, "no-cache" ) != null )
+            return false;
+        long maxAge = parseSeconds( cacheControlDirective( cacheControl, "max-age" ) );
+        if ( maxAge <= 0 )
+            return false;
+        long age = Math.max( 0, parseSeconds( getHeader( "Age" ) ) );
+        return ( System.currentTimeMillis() - storedAt ) / 1000 + age < maxAge;
+    }
+
+    /**
+     * Creates a copy of this snapshot after the server confirmed it with 304 Not Modified, the freshness lifetime
+     * starts again.
+     *
+     * @return the copy sharing the body of this snapshot, never <code>null</code>
+     */
+    public CachedResponse revalidated() {
+        return new CachedResponse( statusCode, statusLine, contentType, headers, body );
+    }
+
+    /**
+     * @return the size of the body in bytes
+     */
+    public int getSize() {
+        return (int) Math.min( body.size(), Integer.MAX_VALUE );
+    }
+
+    /**
+     * @return a stream reading the body, never <code>null</code>
+     */
+    public InputStream openBody() {
+        return body.openStream();
+    }
+
+    /**
+     * Creates a new Rest-Assured response with the status, headers and body of this snapshot.
+     *
+     * @param config
+     *            the configuration of the request, used to parse the body, may be <code>null</code>
+     * @return the new response, never <code>null</code>
+     */
+    public Response toResponse( RestAssuredConfig config ) {
+        ResponseBuilder responseBuilder = new ResponseBuilder().setStatusCode( statusCode );
+        responseBuilder.setHeaders( new Headers( headers ) ).setBody( body.openStream() );
+        if ( statusLine != null )
+            responseBuilder.setStatusLine( statusLine );
+        if ( contentType != null )
+            responseBuilder.setContentType( contentType );
+        Response response = responseBuilder.build();
+        if ( config != null && response instanceof RestAssuredResponseOptionsImpl )
+            ( (RestAssuredResponseOptionsImpl<?>) response ).setConfig( config );
+        return response;
+    }
+
+    /**
+     * Only responses with status code 200 and a validator are stored, unless the server forbids it with Cache-Control:
+     * no-store or private or varies the response on unknown request properties.
+     */
+    static boolean isCacheable( int statusCode, String cacheControl, String vary, boolean hasValidator ) {
+        if ( statusCode != 200 || !hasValidator )
+            return false;
+        if ( cacheControlDirective( cacheControl, "no-store" ) != null
+             || cacheControlDirective( cacheControl, "private" ) != null )
+            return false;
+        return vary == null || !vary.contains( "*" );
+    }
+
+    /**
+     * @return the value of the directive (without quotes), an empty string if the directive has no value,
+     *         <code>null</code> if the directive is missing
+     */
+    static String cacheControlDirective( String cacheControl, String name ) {
+        if ( cacheControl == null )
+            return null;
+        for ( String directive : cacheControl.split( "," ) ) {
+            int separator = directive.indexOf( '=' );
+            String directiveName = separator >= 0 ? directive.substring( 0, separator ) : directive;
+            if ( directiveName.trim().equalsIgnoreCase( name ) )
+                return separator >= 0 ? directive.substring( separator + 1 ).trim().replace( "\"", "" ) : "";
+        }
+        return null;
+    }
+
+    private static long parseSeconds( String value ) {
+        if ( value == null )
+            return -1;
+        try {
+            return Long.parseLong( value.trim() );
+        } catch ( NumberFormatException e ) {
+            return -1;
+        }
+    }
+
+}
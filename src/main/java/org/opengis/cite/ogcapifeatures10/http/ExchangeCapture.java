@@ -0,0 +1,193 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
+
+/**
+ * Settings and counters of the capture of the HTTP exchanges of the tests, creates the {@link ExchangeLog}s of the test
+ * methods.
+ *
+ * <p>
+ * The bodies are truncated to {@link #getMaxBodySize()} bytes when the diagnostic information of a failed test is
+ * formatted. Response bodies larger than {@link #getSpillThreshold()} bytes are written to a temporary directory when
+ * they are captured instead of being kept in memory until the test method finishes. The files of failed tests are kept
+ * for further analysis, all other files are deleted by the log of the test method or by {@link #close()}.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe; the capture of a test run is registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#EXCHANGE_CAPTURE}.
+ * </p>
+ */
+public class ExchangeCapture {
+
+    /**
+     * The default maximum size of a body in the diagnostic information of a failed test: 64 KB.
+     */
+    public static final int DEFAULT_MAX_BODY_SIZE = 64 * 1024;
+
+    /**
+     * The default size above which a response body is written to a temporary file: 4 MB.
+     */
+    public static final long DEFAULT_SPILL_THRESHOLD = 4L * 1024L * 1024L;
+
+    private final int maxBodySize;
+
+    private final long spillThreshold;
+
+    private final Set<File> retainedFiles = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong capturedExchanges = new AtomicLong();
+
+    private final AtomicLong spilledBodies = new AtomicLong();
+
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    private final AtomicLong formattedLogs = new AtomicLong();
+
+    private File spillDirectory;
+
+    /**
+     * Creates a capture with the default settings.
+     */
+    public ExchangeCapture() {
+        this( DEFAULT_MAX_BODY_SIZE, DEFAULT_SPILL_THRESHOLD );
+    }
+
+    /**
+     * @param maxBodySize
+     *            the maximum number of bytes of a body in the diagnostic information of a failed test, longer bodies
+     *            are truncated
+     * @param spillThreshold
+     *            the size in bytes above which a response body is written to a temporary file, a value less or equal
+     *            to 0 keeps all bodies in memory
+     */
+    public ExchangeCapture( int maxBodySize, long spillThreshold ) {
+        this.maxBodySize = maxBodySize;
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * @return a new, empty log of HTTP exchanges, never <code>null</code>
+     */
+    public ExchangeLog newLog() {
+        return new ExchangeLog( this );
+    }
+
+    /**
+     * @return the maximum number of bytes of a body in the diagnostic information of a failed test
+     */
+    public int getMaxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * @return the size in bytes above which a response body is written to a temporary file, a value less or equal to 0
+     *         if all bodies are kept in memory
+     */
+    public long getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    /**
+     * @return the number of captured exchanges
+     */
+    public long getCapturedExchanges() {
+        return capturedExchanges.get();
+    }
+
+    /**
+     * @return the number of response bodies written to temporary files
+     */
+    public long getSpilledBodies() {
+        return spilledBodies.get();
+    }
+
+    /**
+     * @return the number of logs formatted as diagnostic information of a failed test
+     */
+    public long getFormattedLogs() {
+        return formattedLogs.get();
+    }
+
+    /**
+     * Deletes the temporary files of the response bodies, except the files referenced by the diagnostic information of
+     * failed tests.
+     */
+    public synchronized void close() {
+        if ( spillDirectory == null )
+            return;
+        File[] files = spillDirectory.listFiles();
+        if ( files != null ) {
+            for ( File file : files ) {
+                if ( !retainedFiles.contains( file ) )
+                    delete( file );
+            }
+        }
+        if ( retainedFiles.isEmpty() )
+            delete( spillDirectory );
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder( "Exchange capture: " );
+        sb.append( capturedExchanges.get() ).append( " exchanges captured, " );
+        sb.append( formattedLogs.get() ).append( " formatted for failed tests, " );
+        sb.append( spilledBodies.get() ).append( " bodies (" ).append( spilledBytes.get() / 1024 );
+        sb.append( " KB) written to temporary files" );
+        if ( !retainedFiles.isEmpty() )
+            sb.append( ", " ).append( retainedFiles.size() ).append( " kept in " ).append( spillDirectory );
+        return sb.toString();
+    }
+
+    void captured() {
+        capturedExchanges.incrementAndGet();
+    }
+
+    void formatted() {
+        formattedLogs.incrementAndGet();
+    }
+
+    File spill( InputStream body )
+                            throws IOException {
+        Path file = Files.createTempFile( spillDirectory().toPath(), "body", ".bin" );
+        long size = Files.copy( body, file, StandardCopyOption.REPLACE_EXISTING );
+        spilledBodies.incrementAndGet();
+        spilledBytes.addAndGet( size );
+        return file.toFile();
+    }
+
+    void retain( File file ) {
+        retainedFiles.add( file );
+    }
+
+    boolean isRetained( File file ) {
+        return retainedFiles.contains( file );
+    }
+
+    static void delete( File file ) {
+        try {
+            Files.deleteIfExists( file.toPath() );
+        } catch ( IOException e ) {
+            TestSuiteLogger.log( Level.FINE, "Could not delete " + file, e );
+        }
+    }
+
+    private synchronized File spillDirectory()
+                            throws IOException {
+        if ( spillDirectory == null )
+            spillDirectory = Files.createTempDirectory( "ets-ogcapi-features10-exchanges" ).toFile();
+        return spillDirectory;
+    }
+
+}
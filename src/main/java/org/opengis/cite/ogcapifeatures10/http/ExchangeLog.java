@@ -0,0 +1,255 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Captures the HTTP exchanges of a test method, replacing the Rest-Assured logging filters. Only references to the
+ * method, uri, headers and bodies of the exchanges are kept, the diagnostic information is formatted if the test
+ * failed. Bodies are truncated to {@link ExchangeCapture#getMaxBodySize()} bytes, response bodies larger than
+ * {@link ExchangeCapture#getSpillThreshold()} bytes are written to a temporary file and not kept in memory. Bodies
+ * stored by the {@link ResponseBodyStore} are referenced, not copied.
+ *
+ * <p>
+ * Instances are thread-safe, exchanges of background requests may be captured concurrently.
+ * </p>
+ */
+public class ExchangeLog implements Filter {
+
+    private final ExchangeCapture capture;
+
+    private final List<CapturedExchange> exchanges = new ArrayList<>();
+
+    private final List<ExchangeTiming> timings = new ArrayList<>();
+
+    ExchangeLog( ExchangeCapture capture ) {
+        this.capture = capture;
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        CapturedExchange exchange = new CapturedExchange( requestSpec.getMethod(), requestSpec.getURI(),
+                                                          requestSpec.getHeaders(), requestSpec.getBody() );
+        add( exchange );
+        Response response = ctx.next( requestSpec, responseSpec );
+        exchange.setResponse( response, capture );
+        return response;
+    }
+
+    /**
+     * @return the number of captured exchanges
+     */
+    public synchronized int size() {
+        return exchanges.size();
+    }
+
+    /**
+     * @return the timings of the exchanges with the server measured by the {@link ExchangeTimingFilter}, exchanges
+     *         answered by the response cache or the prefetcher are not included, never <code>null</code>
+     */
+    public synchronized List<ExchangeTiming> getTimings() {
+        return new ArrayList<>( timings );
+    }
+
+    /**
+     * Moves the exchanges and timings of another log to the end of this log.
+     *
+     * @param other
+     *            the log to take the exchanges from, never <code>null</code>
+     */
+    public void append( ExchangeLog other ) {
+        List<CapturedExchange> otherExchanges;
+        List<ExchangeTiming> otherTimings;
+        synchronized ( other ) {
+            otherExchanges = new ArrayList<>( other.exchanges );
+            otherTimings = new ArrayList<>( other.timings );
+            other.exchanges.clear();
+            other.timings.clear();
+        }
+        synchronized ( this ) {
+            exchanges.addAll( otherExchanges );
+            timings.addAll( otherTimings );
+        }
+    }
+
+    /**
+     * Formats the captured requests: method and uri, headers and body (if present) of each request.
+     *
+     * @return the captured requests, empty if no request was captured, never <code>null</code>
+     */
+    public String formatRequests() {
+        StringBuilder sb = new StringBuilder();
+        for ( CapturedExchange exchange : exchanges() )
+            exchange.formatRequest( sb, capture.getMaxBodySize() );
+        return sb.toString();
+    }
+
+    /**
+     * Formats the captured responses: status line, headers and body (if present) of each response. Temporary files of
+     * response bodies are not deleted by {@link #discard()}, as they are referenced by the formatted responses.
+     *
+     * @return the captured responses, empty if no response was captured, never <code>null</code>
+     */
+    public String formatResponses() {
+        capture.formatted();
+        StringBuilder sb = new StringBuilder();
+        for ( CapturedExchange exchange : exchanges() ) {
+            exchange.formatResponse( sb, capture );
+            if ( exchange.spillFile != null )
+                capture.retain( exchange.spillFile );
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Removes all captured exchanges and timings and deletes the temporary files of the response bodies not referenced by formatted
+     * responses.
+     */
+    public void discard() {
+        List<CapturedExchange> discarded;
+        synchronized ( this ) {
+            discarded = new ArrayList<>( exchanges );
+            exchanges.clear();
+            timings.clear();
+        }
+        for ( CapturedExchange exchange : discarded ) {
+            File spillFile = exchange.spillFile;
+            if ( spillFile != null && !capture.isRetained( spillFile ) )
+                ExchangeCapture.delete( spillFile );
+        }
+    }
+
+    synchronized void timed( ExchangeTiming timing ) {
+        timings.add( timing );
+    }
+
+    private synchronized void add( CapturedExchange exchange ) {
+        exchanges.add( exchange );
+        capture.captured();
+    }
+
+    private synchronized List<CapturedExchange> exchanges() {
+        return new ArrayList<>( exchanges );
+    }
+
+    private static void appendHeaders( StringBuilder sb, Headers headers ) {
+        if ( headers == null )
+            return;
+        for ( Header header : headers )
+            sb.append( header.getName() ).append( ": " ).append( header.getValue() ).append( '\n' );
+    }
+
+    private static void appendBody( StringBuilder sb, byte[] body, long length, int maxBodySize ) {
+        sb.append( '\n' );
+        int shown = Math.min( body.length, Math.max( maxBodySize, 0 ) );
+        sb.append( new String( body, 0, shown, StandardCharsets.UTF_8 ) );
+        if ( shown < length )
+            sb.append( "\n[truncated, " ).append( shown ).append( " of " ).append( length ).append( " bytes]" );
+        sb.append( '\n' );
+    }
+
+    private static final class CapturedExchange {
+
+        private final String method;
+
+        private final String uri;
+
+        private final Headers requestHeaders;
+
+        private final Object requestBody;
+
+        private volatile boolean completed;
+
+        private String statusLine;
+
+        private Headers responseHeaders;
+
+        private StoredBody responseBody;
+
+        private File spillFile;
+
+        private CapturedExchange( String method, String uri, Headers requestHeaders, Object requestBody ) {
+            this.method = method;
+            this.uri = uri;
+            this.requestHeaders = requestHeaders;
+            this.requestBody = requestBody;
+        }
+
+        private void setResponse( Response response, ExchangeCapture capture ) {
+            statusLine = response.getStatusLine();
+            responseHeaders = response.getHeaders();
+            StoredBody body = StoredBody.of( response );
+            if ( body == null ) {
+                byte[] bytes = response.asByteArray();
+                body = bytes != null ? StoredBody.onHeap( bytes ) : null;
+            }
+            if ( body != null && !body.isSpilled() && capture.getSpillThreshold() > 0
+                 && body.size() > capture.getSpillThreshold() ) {
+                try {
+                    spillFile = capture.spill( body.openStream() );
+                    body = StoredBody.inFile( spillFile, body.size() );
+                } catch ( IOException e ) {
+                    TestSuiteLogger.log( Level.FINE, "Could not write response body of " + uri
+                                                     + " to a temporary file", e );
+                }
+            }
+            responseBody = body;
+            completed = true;
+        }
+
+        private void formatRequest( StringBuilder sb, int maxBodySize ) {
+            sb.append( method ).append( ' ' ).append( uri ).append( '\n' );
+            appendHeaders( sb, requestHeaders );
+            if ( requestBody instanceof byte[] ) {
+                byte[] body = (byte[]) requestBody;
+                appendBody( sb, body, body.length, maxBodySize );
+            } else if ( requestBody != null ) {
+                byte[] body = requestBody.toString().getBytes( StandardCharsets.UTF_8 );
+                appendBody( sb, body, body.length, maxBodySize );
+            }
+            sb.append( '\n' );
+        }
+
+        private void formatResponse( StringBuilder sb, ExchangeCapture capture ) {
+            if ( !completed ) {
+                sb.append( "No response to " ).append( method ).append( ' ' ).append( uri ).append( "\n\n" );
+                return;
+            }
+            sb.append( statusLine ).append( '\n' );
+            appendHeaders( sb, responseHeaders );
+            if ( responseBody != null && responseBody.size() > 0 ) {
+                try {
+                    appendBody( sb, responseBody.head( capture.getMaxBodySize() ), responseBody.size(),
+                                capture.getMaxBodySize() );
+                    if ( responseBody.isSpilled() ) {
+                        // the files of the response body store are deleted when the test run finishes
+                        if ( spillFile == null )
+                            spillFile = capture.spill( responseBody.openStream() );
+                        sb.append( "[complete body: " ).append( spillFile.getAbsolutePath() ).append( "]\n" );
+                    }
+                } catch ( IOException | UncheckedIOException e ) {
+                    sb.append( "\n[body of " ).append( responseBody.size() ).append( " bytes could not be read]\n" );
+                }
+            }
+            sb.append( '\n' );
+        }
+
+    }
+
+}
@@ -0,0 +1,107 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings and size of a single HTTP exchange with the instance under test, measured by the
+ * {@link ExchangeTimingFilter}.
+ */
+public class ExchangeTiming {
+
+    private final ResourceCategory category;
+
+    private final String method;
+
+    private final String uri;
+
+    private final long connectNanos;
+
+    private final long timeToFirstByteNanos;
+
+    private final long totalNanos;
+
+    private final long bytes;
+
+    ExchangeTiming( ResourceCategory category, String method, String uri, long connectNanos,
+                    long timeToFirstByteNanos, long totalNanos, long bytes ) {
+        this.category = category;
+        this.method = method;
+        this.uri = uri;
+        this.connectNanos = connectNanos;
+        this.timeToFirstByteNanos = timeToFirstByteNanos;
+        this.totalNanos = totalNanos;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return the category of the requested resource, never <code>null</code>
+     */
+    public ResourceCategory getCategory() {
+        return category;
+    }
+
+    /**
+     * @return the HTTP method, never <code>null</code>
+     */
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the requested uri, never <code>null</code>
+     */
+    public String getUri() {
+        return uri;
+    }
+
+    /**
+     * @return the time spent resolving the host name and opening the connection (including the TLS handshake) in
+     *         nanoseconds, -1 if a pooled connection was used
+     */
+    public long getConnectNanos() {
+        return connectNanos;
+    }
+
+    /**
+     * @return the time until the headers of the response were received in nanoseconds, -1 if unknown (the request was
+     *         not sent via the {@link HttpTransport})
+     */
+    public long getTimeToFirstByteNanos() {
+        return timeToFirstByteNanos;
+    }
+
+    /**
+     * @return the time until the body of the response was received in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return the number of bytes of the response body, -1 if unknown
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append( method ).append( ' ' ).append( uri ).append( " [" ).append( category.name().toLowerCase() );
+        sb.append( "]: " );
+        if ( connectNanos >= 0 )
+            sb.append( "connect " ).append( millis( connectNanos ) ).append( ", " );
+        if ( timeToFirstByteNanos >= 0 )
+            sb.append( "first byte " ).append( millis( timeToFirstByteNanos ) ).append( ", " );
+        sb.append( "total " ).append( millis( totalNanos ) );
+        if ( bytes >= 0 )
+            sb.append( ", " ).append( bytes ).append( " bytes" );
+        return sb.toString();
+    }
+
+    private static String millis( long nanos ) {
+        return String.format( Locale.ENGLISH, "%.1f ms", nanos / (double) TimeUnit.MILLISECONDS.toNanos( 1 ) );
+    }
+
+}
@@ -0,0 +1,119 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Measures the HTTP exchanges with the instance under test: the time to open a connection (if a new one is opened by
+ * the {@link HttpTransport}), the time to the first byte, the total time until the body was received and the size of
+ * the body. The timings are added to the {@link ExchangeTimings} of the test run and to the {@link ExchangeLog} of the
+ * test method.
+ *
+ * <p>
+ * Must be added after the filters answering requests without an exchange (response cache, prefetcher, single-flight)
+ * and after the {@link InFlightLimitFilter}, so that only exchanges with the server are measured and the time waiting
+ * for a permit is not included.
+ * </p>
+ */
+public class ExchangeTimingFilter implements Filter {
+
+    private final ExchangeTimings timings;
+
+    private final ExchangeLog log;
+
+    /**
+     * @param timings
+     *            the timings of the test run, never <code>null</code>
+     */
+    public ExchangeTimingFilter( ExchangeTimings timings ) {
+        this( timings, null );
+    }
+
+    /**
+     * @param timings
+     *            the timings of the test run, never <code>null</code>
+     * @param log
+     *            the log of the test method, may be <code>null</code>
+     */
+    public ExchangeTimingFilter( ExchangeTimings timings, ExchangeLog log ) {
+        this.timings = timings;
+        this.log = log;
+    }
+
+    /**
+     * Creates a filter assigning a category to the request, overriding the category determined from the url.
+     *
+     * @param category
+     *            the category of the requested resource, never <code>null</code>
+     * @return a filter to add to the request, never <code>null</code>
+     */
+    public static Filter as( ResourceCategory category ) {
+        return new CategoryFilter( category );
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        long start = System.nanoTime();
+        TimingProbe probe = TimingProbe.start();
+        Response response;
+        long bytes;
+        try {
+            response = ctx.next( requestSpec, responseSpec );
+            bytes = readBody( response );
+        } finally {
+            probe.stop();
+        }
+        long end = System.nanoTime();
+        long firstByte = probe.getFirstByteNanoTime();
+        ExchangeTiming timing = new ExchangeTiming( category( requestSpec ), requestSpec.getMethod(),
+                                                    requestSpec.getURI(), probe.getConnectNanos(),
+                                                    firstByte >= 0 ? firstByte - start : -1, end - start, bytes );
+        timings.record( timing );
+        if ( log != null )
+            log.timed( timing );
+        return response;
+    }
+
+    /**
+     * The body is read by Rest-Assured as soon as the response is accessed, reading it here includes the transfer of
+     * the body in the total time.
+     */
+    private static long readBody( Response response ) {
+        StoredBody storedBody = StoredBody.of( response );
+        if ( storedBody != null )
+            return storedBody.size();
+        if ( StoredBody.content( response ) == null )
+            return 0;
+        byte[] body = response.asByteArray();
+        return body != null ? body.length : 0;
+    }
+
+    private ResourceCategory category( FilterableRequestSpecification requestSpec ) {
+        for ( Filter filter : requestSpec.getDefinedFilters() ) {
+            if ( filter instanceof CategoryFilter )
+                return ( (CategoryFilter) filter ).category;
+        }
+        return timings.categorize( requestSpec.getURI() );
+    }
+
+    private static class CategoryFilter implements Filter {
+
+        private final ResourceCategory category;
+
+        private CategoryFilter( ResourceCategory category ) {
+            this.category = category;
+        }
+
+        @Override
+        public Response filter( FilterableRequestSpecification requestSpec,
+                                FilterableResponseSpecification responseSpec, FilterContext ctx ) {
+            return ctx.next( requestSpec, responseSpec );
+        }
+
+    }
+
+}
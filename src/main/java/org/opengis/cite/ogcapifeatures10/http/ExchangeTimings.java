@@ -0,0 +1,153 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the {@link ExchangeTiming}s of a test run into histograms per {@link ResourceCategory}: the time to open a
+ * connection, the time to the first byte and the total time of the exchanges in microseconds, and the size of the
+ * response bodies in bytes.
+ *
+ * <p>
+ * Instances are thread-safe; the timings of a test run are registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#EXCHANGE_TIMINGS}.
+ * </p>
+ */
+public class ExchangeTimings {
+
+    private static final double[] PERCENTILES = { 50, 90, 99 };
+
+    private final Map<ResourceCategory, CategoryTimings> categories = new ConcurrentHashMap<>();
+
+    private final String rootPath;
+
+    /**
+     * @param rootUri
+     *            the root of the API, used to determine the category of the requested resources, may be
+     *            <code>null</code> if the API is located at the root of the server
+     */
+    public ExchangeTimings( URI rootUri ) {
+        this.rootPath = rootUri != null ? rootUri.getRawPath() : null;
+    }
+
+    /**
+     * @param url
+     *            the requested url, never <code>null</code>
+     * @return the category of the requested resource, never <code>null</code>
+     */
+    public ResourceCategory categorize( String url ) {
+        return ResourceCategory.of( url, rootPath );
+    }
+
+    /**
+     * @param timing
+     *            the timing to add to the histograms of its category, never <code>null</code>
+     */
+    public void record( ExchangeTiming timing ) {
+        CategoryTimings categoryTimings = categories.computeIfAbsent( timing.getCategory(),
+                                                                      category -> new CategoryTimings() );
+        if ( timing.getConnectNanos() >= 0 )
+            categoryTimings.connect.record( TimeUnit.NANOSECONDS.toMicros( timing.getConnectNanos() ) );
+        if ( timing.getTimeToFirstByteNanos() >= 0 )
+            categoryTimings.timeToFirstByte.record( TimeUnit.NANOSECONDS.toMicros( timing.getTimeToFirstByteNanos() ) );
+        categoryTimings.total.record( TimeUnit.NANOSECONDS.toMicros( timing.getTotalNanos() ) );
+        if ( timing.getBytes() >= 0 )
+            categoryTimings.bytes.record( timing.getBytes() );
+    }
+
+    /**
+     * @param category
+     *            the category, never <code>null</code>
+     * @return the histograms of the category, <code>null</code> if no exchange of this category was recorded
+     */
+    public CategoryTimings get( ResourceCategory category ) {
+        return categories.get( category );
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder( "Exchange timings (p50 / p90 / p99 / max):" );
+        if ( categories.isEmpty() )
+            sb.append( " no exchanges" );
+        for ( ResourceCategory category : ResourceCategory.values() ) {
+            CategoryTimings categoryTimings = categories.get( category );
+            if ( categoryTimings == null )
+                continue;
+            sb.append( "\n  " ).append( category.name().toLowerCase() ).append( " (" );
+            sb.append( categoryTimings.total.getTotalCount() ).append( " exchanges): total " );
+            appendPercentiles( sb, categoryTimings.total, 1000, "ms" );
+            if ( categoryTimings.timeToFirstByte.getTotalCount() > 0 ) {
+                sb.append( ", first byte " );
+                appendPercentiles( sb, categoryTimings.timeToFirstByte, 1000, "ms" );
+            }
+            if ( categoryTimings.connect.getTotalCount() > 0 ) {
+                sb.append( ", connect " );
+                appendPercentiles( sb, categoryTimings.connect, 1000, "ms" );
+                sb.append( " (" ).append( categoryTimings.connect.getTotalCount() ).append( " connections)" );
+            }
+            if ( categoryTimings.bytes.getTotalCount() > 0 ) {
+                sb.append( ", received " );
+                appendPercentiles( sb, categoryTimings.bytes, 1024, "KB" );
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendPercentiles( StringBuilder sb, Histogram histogram, double divisor, String unit ) {
+        for ( double percentile : PERCENTILES )
+            sb.append( format( histogram.getValueAtPercentile( percentile ) / divisor ) ).append( " / " );
+        sb.append( format( histogram.getMax() / divisor ) ).append( ' ' ).append( unit );
+    }
+
+    private static String format( double value ) {
+        return String.format( Locale.ENGLISH, "%.1f", value );
+    }
+
+    /**
+     * Histograms of the exchanges of one {@link ResourceCategory}.
+     */
+    public static class CategoryTimings {
+
+        private final Histogram connect = new Histogram();
+
+        private final Histogram timeToFirstByte = new Histogram();
+
+        private final Histogram total = new Histogram();
+
+        private final Histogram bytes = new Histogram();
+
+        /**
+         * @return the time to resolve the host name and open a connection in microseconds, recorded only for exchanges
+         *         opening a new connection, never <code>null</code>
+         */
+        public Histogram getConnect() {
+            return connect;
+        }
+
+        /**
+         * @return the time until the headers of the response were received in microseconds, never <code>null</code>
+         */
+        public Histogram getTimeToFirstByte() {
+            return timeToFirstByte;
+        }
+
+        /**
+         * @return the time until the body of the response was received in microseconds, never <code>null</code>
+         */
+        public Histogram getTotal() {
+            return total;
+        }
+
+        /**
+         * @return the size of the response bodies in bytes, never <code>null</code>
+         */
+        public Histogram getBytes() {
+            return bytes;
+        }
+
+    }
+
+}
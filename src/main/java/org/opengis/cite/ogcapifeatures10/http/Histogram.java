@@ -0,0 +1,106 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of non-negative long values with a fixed relative precision, in the style of HdrHistogram: values below 256
+ * are counted exactly, larger values in buckets of 128 sub-buckets per power of two, so that each value is reported with
+ * an error of less than 1%. Values are tracked up to 2<sup>40</sup>, larger values are counted in the highest bucket.
+ *
+ * <p>
+ * Instances are thread-safe; recording a value does not allocate and does not block.
+ * </p>
+ */
+public class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MAX_SHIFT = 32;
+
+    private static final int LENGTH = 2 * SUB_BUCKETS + MAX_SHIFT * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray( LENGTH );
+
+    private final LongAdder totalCount = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator( Math::max, 0 );
+
+    /**
+     * @param value
+     *            the value to record, negative values are recorded as 0
+     */
+    public void record( long value ) {
+        long recorded = Math.max( value, 0 );
+        counts.incrementAndGet( index( recorded ) );
+        totalCount.increment();
+        sum.add( recorded );
+        max.accumulate( recorded );
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * @return the largest recorded value, 0 if no value was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if no value was recorded
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count > 0 ? (double) sum.sum() / count : 0;
+    }
+
+    /**
+     * @param percentile
+     *            the percentile, between 0 and 100
+     * @return the highest value (within the precision of the histogram) not exceeded by the given percentage of the
+     *         recorded values, 0 if no value was recorded
+     */
+    public long getValueAtPercentile( double percentile ) {
+        long count = totalCount.sum();
+        if ( count == 0 )
+            return 0;
+        double requested = Math.min( Math.max( percentile, 0 ), 100 );
+        long target = Math.max( 1, (long) Math.ceil( requested / 100 * count ) );
+        long cumulative = 0;
+        for ( int index = 0; index < LENGTH; index++ ) {
+            cumulative += counts.get( index );
+            if ( cumulative >= target )
+                return index < LENGTH - 1 ? Math.min( highestEquivalentValue( index ), getMax() ) : getMax();
+        }
+        return getMax();
+    }
+
+    static int index( long value ) {
+        if ( value < 2 * SUB_BUCKETS )
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros( value ) - SUB_BUCKET_BITS;
+        if ( shift > MAX_SHIFT )
+            return LENGTH - 1;
+        return 2 * SUB_BUCKETS + ( shift - 1 ) * SUB_BUCKETS + (int) ( value >>> shift ) - SUB_BUCKETS;
+    }
+
+    static long highestEquivalentValue( int index ) {
+        if ( index < 2 * SUB_BUCKETS )
+            return index;
+        int shift = ( index - 2 * SUB_BUCKETS ) / SUB_BUCKETS + 1;
+        long subBucket = ( index - 2 * SUB_BUCKETS ) % SUB_BUCKETS + SUB_BUCKETS;
+        return ( ( subBucket + 1 ) << shift ) - 1;
+    }
+
+}
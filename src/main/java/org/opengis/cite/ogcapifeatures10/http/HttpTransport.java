@@ -0,0 +1,398 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.params.HttpClientParams;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
+
+import com.sun.jersey.api.client.Client;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.api.client.config.DefaultClientConfig;
+
+import io.restassured.RestAssured;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
+
+/**
+ * The HTTP transport shared by all tests of a test run. All requests issued via Rest-Assured (see
+ * {@link #getRestAssuredConfig()}) or via the Jersey client (see {@link #createJerseyClient()}) lease their connections
+ * from one pool, so that connections to the instance under test are kept alive between requests and TLS sessions are
+ * reused instead of being negotiated for each request. Identical GET requests in flight at the same time are
+ * coalesced by the {@link SingleFlight} of the transport (see {@link SingleFlightFilter}). The time to resolve host
+ * names, to open connections and to receive the response headers is reported to the {@link ExchangeTimingFilter}.
+ *
+ * <p>
+ * The body of each response is read completely as soon as the response is received (into the
+ * {@link ResponseBodyStore} of the transport, if there is one, otherwise onto the heap), so the connection returns to
+ * the pool even if the caller never reads the body, e.g. a Rest-Assured request asserting only the status code. A
+ * request waits at most {@value #CONNECTION_REQUEST_TIMEOUT} ms for a connection of the pool.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe; one instance is created per test run and registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#HTTP_TRANSPORT}.
+ * </p>
+ */
+@SuppressWarnings("deprecation")
+public class HttpTransport {
+
+    /** Default maximum number of connections in the pool. */
+    public static final int DEFAULT_MAX_CONNECTIONS = 20;
+
+    /** Default maximum number of connections per host. */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 6;
+
+    /** Default time in seconds an idle connection is kept alive if the server does not announce a timeout. */
+    public static final int DEFAULT_KEEP_ALIVE = 30;
+
+    private static final int CONNECT_TIMEOUT = 10000;
+
+    private static final int CONNECTION_REQUEST_TIMEOUT = 30000;
+
+    private static final HttpResponseInterceptor FIRST_BYTE_PROBE = ( response, context ) -> TimingProbe.firstByte();
+
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    private final AtomicLong tlsHandshakes = new AtomicLong();
+
+    private final AtomicLong tlsSessionsResumed = new AtomicLong();
+
+    private final Set<String> tlsSessionIds = ConcurrentHashMap.newKeySet();
+
+    private final PoolingClientConnectionManager connectionManager;
+
+    private final long keepAlive;
+
+    private final RestAssuredConfig restAssuredConfig;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    private final HttpResponseInterceptor bodyReader;
+
+    /**
+     * Creates a transport with the default settings, response bodies are read onto the heap.
+     */
+    public HttpTransport() {
+        this( DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_CONNECTIONS_PER_HOST, DEFAULT_KEEP_ALIVE );
+    }
+
+    /**
+     * Creates a transport reading the response bodies onto the heap.
+     *
+     * @param maxConnections
+     *            maximum number of connections in the pool, must be greater than 0
+     * @param maxConnectionsPerHost
+     *            maximum number of connections to a single host, must be greater than 0
+     * @param keepAlive
+     *            time in seconds an idle connection is kept alive if the server does not announce a shorter timeout,
+     *            a value less or equal to 0 disables keep-alive
+     */
+    public HttpTransport( int maxConnections, int maxConnectionsPerHost, int keepAlive ) {
+        this( maxConnections, maxConnectionsPerHost, keepAlive, null );
+    }
+
+    /**
+     * @param maxConnections
+     *            maximum number of connections in the pool, must be greater than 0
+     * @param maxConnectionsPerHost
+     *            maximum number of connections to a single host, must be greater than 0
+     * @param keepAlive
+     *            time in seconds an idle connection is kept alive if the server does not announce a shorter timeout,
+     *            a value less or equal to 0 disables keep-alive
+     * @param bodyStore
+     *            the store the response bodies are read into, may be <code>null</code> if the bodies are read onto
+     *            the heap
+     */
+    public HttpTransport( int maxConnections, int maxConnectionsPerHost, int keepAlive,
+                          ResponseBodyStore bodyStore ) {
+        if ( maxConnections <= 0 || maxConnectionsPerHost <= 0 )
+            throw new IllegalArgumentException( "Maximum number of connections must be greater than 0" );
+        SchemeRegistry schemeRegistry = new SchemeRegistry();
+        schemeRegistry.register( new Scheme( "http", 80, new CountingPlainSocketFactory() ) );
+        schemeRegistry.register( new Scheme( "https", 443, new CountingSslSocketFactory( defaultSslContext() ) ) );
+        this.connectionManager = new PoolingClientConnectionManager( schemeRegistry, new TimedDnsResolver() );
+        this.connectionManager.setMaxTotal( maxConnections );
+        this.connectionManager.setDefaultMaxPerRoute( Math.min( maxConnections, maxConnectionsPerHost ) );
+        this.keepAlive = TimeUnit.SECONDS.toMillis( keepAlive );
+        this.bodyReader = ( response, context ) -> readBody( response, bodyStore );
+        HttpClientConfig httpClientConfig = HttpClientConfig.httpClientConfig().httpClientFactory( new HttpClientConfig.HttpClientFactory() {
+            @Override
+            public org.apache.http.client.HttpClient createHttpClient() {
+                return HttpTransport.this.createHttpClient();
+            }
+        } );
+        this.restAssuredConfig = RestAssured.config().httpClient( httpClientConfig );
+    }
+
+    /**
+     * @return the configuration to pass to Rest-Assured requests so that they use this transport, never
+     *         <code>null</code>
+     */
+    public RestAssuredConfig getRestAssuredConfig() {
+        return restAssuredConfig;
+    }
+
+    /**
+     * @return the single-flight layer coalescing identical GET requests sent via this transport, never
+     *         <code>null</code>
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Creates a new HTTP client leasing its connections from the pool of this transport. The client itself is cheap,
+     * each caller may modify its parameters without affecting other clients.
+     *
+     * @return a new client, never <code>null</code>
+     */
+    public DefaultHttpClient createHttpClient() {
+        DefaultHttpClient httpClient = new DefaultHttpClient( connectionManager );
+        if ( keepAlive > 0 )
+            httpClient.setKeepAliveStrategy( new CappedKeepAliveStrategy( keepAlive ) );
+        else
+            httpClient.setReuseStrategy( NoConnectionReuseStrategy.INSTANCE );
+        HttpConnectionParams.setConnectionTimeout( httpClient.getParams(), CONNECT_TIMEOUT );
+        HttpClientParams.setConnectionManagerTimeout( httpClient.getParams(), CONNECTION_REQUEST_TIMEOUT );
+        httpClient.addResponseInterceptor( FIRST_BYTE_PROBE );
+        httpClient.addResponseInterceptor( bodyReader );
+        return httpClient;
+    }
+
+    /**
+     * Creates a Jersey client using this transport. The client will automatically redirect to the URI declared in 3xx
+     * responses.
+     *
+     * @return a new client, never <code>null</code>
+     */
+    public Client createJerseyClient() {
+        ClientConfig config = new DefaultClientConfig();
+        config.getProperties().put( ClientConfig.PROPERTY_FOLLOW_REDIRECTS, true );
+        PooledClientHandler clientHandler = new PooledClientHandler( createHttpClient() );
+        Client client = new Client( clientHandler, config );
+        clientHandler.setMessageBodyWorkers( client.getMessageBodyWorkers() );
+        return client;
+    }
+
+    /**
+     * @return a snapshot of the current pool state and the connection counters, never <code>null</code>
+     */
+    public TransportMetrics getMetrics() {
+        PoolStats stats = connectionManager.getTotalStats();
+        return new TransportMetrics( stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax(),
+                                     connectionsOpened.get(), tlsHandshakes.get(), tlsSessionsResumed.get() );
+    }
+
+    /**
+     * Closes all pooled connections. The transport must not be used afterwards.
+     */
+    public void shutdown() {
+        connectionManager.shutdown();
+    }
+
+    /**
+     * Replaces the entity streamed from the connection by the completely read body. The new entity is not streaming,
+     * so the client releases the connection immediately instead of when the caller consumes the body.
+     */
+    private static void readBody( HttpResponse response, ResponseBodyStore bodyStore )
+                            throws IOException {
+        HttpEntity entity = response.getEntity();
+        if ( entity == null || !entity.isStreaming() )
+            return;
+        StoredBody body;
+        if ( bodyStore != null ) {
+            body = bodyStore.store( entity.getContent() );
+        } else {
+            body = StoredBody.onHeap( EntityUtils.toByteArray( entity ) );
+        }
+        response.setEntity( new StoredBodyEntity( entity, body ) );
+    }
+
+    private static SSLContext defaultSslContext() {
+        try {
+            return SSLContext.getDefault();
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( "Could not initialise default SSLContext", e );
+        }
+    }
+
+    private void countTlsHandshake( Socket socket ) {
+        if ( !( socket instanceof SSLSocket ) )
+            return;
+        SSLSession session = ( (SSLSocket) socket ).getSession();
+        tlsHandshakes.incrementAndGet();
+        byte[] sessionId = session.getId();
+        if ( sessionId != null && sessionId.length > 0
+             && !tlsSessionIds.add( session.getProtocol() + new BigInteger( 1, sessionId ).toString( 16 ) ) )
+            tlsSessionsResumed.incrementAndGet();
+    }
+
+    private class CountingPlainSocketFactory extends PlainSocketFactory {
+
+        @Override
+        public Socket connectSocket( Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                     HttpParams params )
+                                throws IOException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            Socket connectedSocket = super.connectSocket( socket, remoteAddress, localAddress, params );
+            TimingProbe.connecting( System.nanoTime() - start );
+            connectionsOpened.incrementAndGet();
+            return connectedSocket;
+        }
+
+    }
+
+    /**
+     * All https connections use one SSLContext, the JSSE session cache of this context allows abbreviated handshakes
+     * when a new connection to a known host is opened.
+     */
+    private class CountingSslSocketFactory extends SSLSocketFactory {
+
+        CountingSslSocketFactory( SSLContext sslContext ) {
+            super( sslContext, SSLSocketFactory.BROWSER_COMPATIBLE_HOSTNAME_VERIFIER );
+        }
+
+        @Override
+        public Socket connectSocket( Socket socket, InetSocketAddress remoteAddress, InetSocketAddress localAddress,
+                                     HttpParams params )
+                                throws IOException, UnknownHostException, ConnectTimeoutException {
+            long start = System.nanoTime();
+            Socket connectedSocket = super.connectSocket( socket, remoteAddress, localAddress, params );
+            TimingProbe.connecting( System.nanoTime() - start );
+            connectionsOpened.incrementAndGet();
+            countTlsHandshake( connectedSocket );
+            return connectedSocket;
+        }
+
+        @Override
+        public Socket createLayeredSocket( Socket socket, String host, int port, HttpParams params )
+                                throws IOException, UnknownHostException {
+            Socket layeredSocket = super.createLayeredSocket( socket, host, port, params );
+            countTlsHandshake( layeredSocket );
+            return layeredSocket;
+        }
+
+    }
+
+    /**
+     * A response entity read completely by {@link #readBody(HttpResponse, ResponseBodyStore)}.
+     */
+    private static class StoredBodyEntity extends AbstractHttpEntity {
+
+        private final StoredBody body;
+
+        StoredBodyEntity( HttpEntity entity, StoredBody body ) {
+            this.body = body;
+            setContentType( entity.getContentType() );
+            setContentEncoding( entity.getContentEncoding() );
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return body.size();
+        }
+
+        @Override
+        public InputStream getContent() {
+            return body.openStream();
+        }
+
+        @Override
+        public void writeTo( OutputStream out )
+                                throws IOException {
+            try (InputStream in = body.openStream()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ( ( read = in.read( buffer ) ) >= 0 )
+                    out.write( buffer, 0, read );
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+
+    }
+
+    /**
+     * Reports the time spent resolving host names to the {@link TimingProbe} of the requesting thread.
+     */
+    private static class TimedDnsResolver implements DnsResolver {
+
+        @Override
+        public InetAddress[] resolve( String host )
+                                throws UnknownHostException {
+            long start = System.nanoTime();
+            try {
+                return SystemDefaultDnsResolver.INSTANCE.resolve( host );
+            } finally {
+                TimingProbe.connecting( System.nanoTime() - start );
+            }
+        }
+
+    }
+
+    /**
+     * Uses the keep-alive timeout announced by the server, but never keeps an idle connection longer than the
+     * configured time.
+     */
+    private static class CappedKeepAliveStrategy extends DefaultConnectionKeepAliveStrategy {
+
+        private final long maxKeepAlive;
+
+        CappedKeepAliveStrategy( long maxKeepAlive ) {
+            this.maxKeepAlive = maxKeepAlive;
+        }
+
+        @Override
+        public long getKeepAliveDuration( HttpResponse response, HttpContext context ) {
+            long keepAlive = super.getKeepAliveDuration( response, context );
+            if ( keepAlive <= 0 )
+                return maxKeepAlive;
+            return Math.min( keepAlive, maxKeepAlive );
+        }
+
+    }
+
+}
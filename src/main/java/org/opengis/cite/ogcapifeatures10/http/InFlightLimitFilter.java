@@ -0,0 +1,57 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Holds a permit of the {@link RequestExecutor} while a request is sent to the server, so that the number of requests
+ * in flight to a single host is bounded. The body of the response is read before the permit is released, unless it was
+ * already read into the {@link ResponseBodyStore} by a {@link ResponseBodyFilter} added after this filter. Must be
+ * added after the {@link ResponseCacheFilter}, so requests answered from the cache do not wait for a permit. The status
+ * code, the <code>Retry-After</code> header and the time until the response was received are reported to the
+ * {@link RateLimiter} of the executor, if configured.
+ */
+public class InFlightLimitFilter implements Filter {
+
+    private final RequestExecutor requestExecutor;
+
+    /**
+     * @param requestExecutor
+     *            the executor managing the permits, never <code>null</code>
+     */
+    public InFlightLimitFilter( RequestExecutor requestExecutor ) {
+        this.requestExecutor = requestExecutor;
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        String url = requestSpec.getURI();
+        try {
+            requestExecutor.acquire( url );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException( "Interrupted while waiting to request " + url, e );
+        }
+        long start = System.nanoTime();
+        int statusCode = -1;
+        String retryAfter = null;
+        long latency = 0;
+        try {
+            Response response = ctx.next( requestSpec, responseSpec );
+            latency = System.nanoTime() - start;
+            statusCode = response.getStatusCode();
+            retryAfter = response.getHeader( "Retry-After" );
+            // the permit is held until the body is read and the connection is released
+            if ( StoredBody.of( response ) == null )
+                response.asByteArray();
+            return response;
+        } finally {
+            requestExecutor.release( url, statusCode, retryAfter, latency );
+        }
+    }
+
+}
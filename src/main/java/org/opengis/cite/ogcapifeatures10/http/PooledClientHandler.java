@@ -0,0 +1,101 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.params.HttpClientParams;
+import org.apache.http.entity.ByteArrayEntity;
+
+import com.sun.jersey.api.client.ClientHandlerException;
+import com.sun.jersey.api.client.ClientRequest;
+import com.sun.jersey.api.client.ClientResponse;
+import com.sun.jersey.api.client.TerminatingClientHandler;
+import com.sun.jersey.api.client.config.ClientConfig;
+import com.sun.jersey.core.header.InBoundHeaders;
+
+/**
+ * A Jersey client handler sending the requests with a HTTP client of a {@link HttpTransport}, so that the Jersey
+ * client shares the connection pool with the Rest-Assured requests.
+ */
+@SuppressWarnings("deprecation")
+class PooledClientHandler extends TerminatingClientHandler {
+
+    private final HttpClient httpClient;
+
+    PooledClientHandler( HttpClient httpClient ) {
+        this.httpClient = httpClient;
+    }
+
+    @Override
+    public ClientResponse handle( ClientRequest clientRequest )
+                            throws ClientHandlerException {
+        HttpRequestBase request = createRequest( clientRequest );
+        try {
+            HttpResponse response = httpClient.execute( request );
+            InBoundHeaders headers = new InBoundHeaders();
+            for ( Header header : response.getAllHeaders() )
+                headers.add( header.getName(), header.getValue() );
+            HttpEntity entity = response.getEntity();
+            InputStream entityStream = entity != null ? entity.getContent() : new ByteArrayInputStream( new byte[0] );
+            return new ClientResponse( response.getStatusLine().getStatusCode(), headers, entityStream,
+                                       getMessageBodyWorkers() );
+        } catch ( IOException e ) {
+            request.releaseConnection();
+            throw new ClientHandlerException( e );
+        }
+    }
+
+    private HttpRequestBase createRequest( ClientRequest clientRequest ) {
+        final String method = clientRequest.getMethod();
+        HttpRequestBase request;
+        if ( clientRequest.getEntity() != null ) {
+            HttpEntityEnclosingRequestBase entityRequest = new HttpEntityEnclosingRequestBase() {
+                @Override
+                public String getMethod() {
+                    return method;
+                }
+            };
+            entityRequest.setEntity( new ByteArrayEntity( writeEntity( clientRequest ) ) );
+            request = entityRequest;
+        } else {
+            request = new HttpRequestBase() {
+                @Override
+                public String getMethod() {
+                    return method;
+                }
+            };
+        }
+        request.setURI( clientRequest.getURI() );
+        for ( Map.Entry<String, List<Object>> header : clientRequest.getHeaders().entrySet() ) {
+            for ( Object value : header.getValue() )
+                request.addHeader( header.getKey(), ClientRequest.getHeaderValue( value ) );
+        }
+        boolean followRedirects = clientRequest.getPropertyAsFeature( ClientConfig.PROPERTY_FOLLOW_REDIRECTS, true );
+        HttpClientParams.setRedirecting( request.getParams(), followRedirects );
+        return request;
+    }
+
+    private byte[] writeEntity( ClientRequest clientRequest ) {
+        RequestEntityWriter entityWriter = getRequestEntityWriter( clientRequest );
+        ByteArrayOutputStream entity = new ByteArrayOutputStream();
+        try {
+            entityWriter.writeRequestEntity( entity );
+        } catch ( IOException e ) {
+            URI uri = clientRequest.getURI();
+            throw new ClientHandlerException( "Could not write request entity to " + uri, e );
+        }
+        return entity.toByteArray();
+    }
+
+}
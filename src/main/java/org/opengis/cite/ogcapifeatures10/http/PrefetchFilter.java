@@ -0,0 +1,37 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Answers GET requests with the response prefetched by the {@link Prefetcher}, if available. Requests which were not
+ * prefetched are passed on unchanged.
+ */
+public class PrefetchFilter implements Filter {
+
+    private final Prefetcher prefetcher;
+
+    /**
+     * @param prefetcher
+     *            the prefetcher to take the responses from, never <code>null</code>
+     */
+    public PrefetchFilter( Prefetcher prefetcher ) {
+        this.prefetcher = prefetcher;
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        if ( !"GET".equalsIgnoreCase( requestSpec.getMethod() ) )
+            return ctx.next( requestSpec, responseSpec );
+        CachedResponse prefetchedResponse = prefetcher.take( requestSpec.getURI(),
+                                                             requestSpec.getHeaders().getValue( "Accept" ) );
+        if ( prefetchedResponse == null )
+            return ctx.next( requestSpec, responseSpec );
+        return prefetchedResponse.toResponse( requestSpec.getConfig() );
+    }
+
+}
@@ -0,0 +1,305 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.Method.GET;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+import io.restassured.specification.RequestSpecification;
+import io.restassured.specification.SpecificationQuerier;
+
+/**
+ * Sends GET requests expected to be issued by the tests in the background, before the tests are executed. A test
+ * requesting the same url with the same Accept header receives the prefetched response (see {@link PrefetchFilter})
+ * instead of sending the request again; if the prefetch is still queued or in flight, the test waits for it up to the
+ * timeout passed to the constructor and sends the request itself if the timeout elapses.
+ *
+ * <p>
+ * A prefetched response is used at most once. Prefetches never taken by a test (e.g. because the test was skipped or
+ * requested other parameters) and failed prefetches are counted as wasted. The prefetches are executed by the
+ * low-priority pool of the {@link RequestExecutor}, which also bounds the number of requests in flight. The number of
+ * prefetched requests (and of the requests remembered to discard duplicates) is bounded by the maximum passed to the
+ * constructor.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe; one instance is created per test run and registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#PREFETCHER}.
+ * </p>
+ */
+public class Prefetcher {
+
+    /** Default maximum number of prefetched requests. */
+    public static final int DEFAULT_MAX_REQUESTS = 500;
+
+    /** Default time in milliseconds a test waits for a prefetch in flight. */
+    public static final long DEFAULT_TAKE_TIMEOUT = TimeUnit.SECONDS.toMillis( 30 );
+
+    private final Map<String, CompletableFuture<CachedResponse>> prefetches = new ConcurrentHashMap<>();
+
+    private final Set<String> requests = ConcurrentHashMap.newKeySet();
+
+    private final AtomicInteger submitted = new AtomicInteger();
+
+    private final AtomicLong used = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong timedOut = new AtomicLong();
+
+    private final RequestExecutor requestExecutor;
+
+    private final RestAssuredConfig config;
+
+    private final int maxRequests;
+
+    private final ResponseBodyStore bodyStore;
+
+    private final ExchangeTimings exchangeTimings;
+
+    private final long takeTimeout;
+
+    /**
+     * @param requestExecutor
+     *            executes the prefetches, never <code>null</code>
+     * @param config
+     *            the configuration of the prefetch requests, may be <code>null</code>
+     * @param maxRequests
+     *            the maximum number of prefetched requests, must be greater than 0
+     */
+    public Prefetcher( RequestExecutor requestExecutor, RestAssuredConfig config, int maxRequests ) {
+        this( requestExecutor, config, maxRequests, null );
+    }
+
+    /**
+     * @param requestExecutor
+     *            executes the prefetches, never <code>null</code>
+     * @param config
+     *            the configuration of the prefetch requests, may be <code>null</code>
+     * @param maxRequests
+     *            the maximum number of prefetched requests, must be greater than 0
+     * @param bodyStore
+     *            the store of the prefetched bodies, may be <code>null</code> if the bodies are buffered on the heap
+     */
+    public Prefetcher( RequestExecutor requestExecutor, RestAssuredConfig config, int maxRequests,
+                       ResponseBodyStore bodyStore ) {
+        this( requestExecutor, config, maxRequests, bodyStore, null );
+    }
+
+    /**
+     * @param requestExecutor
+     *            executes the prefetches, never <code>null</code>
+     * @param config
+     *            the configuration of the prefetch requests, may be <code>null</code>
+     * @param maxRequests
+     *            the maximum number of prefetched requests, must be greater than 0
+     * @param bodyStore
+     *            the store of the prefetched bodies, may be <code>null</code> if the bodies are buffered on the heap
+     * @param exchangeTimings
+     *            the timings of the exchanges of the test run, may be <code>null</code> if the prefetches should not
+     *            be measured
+     */
+    public Prefetcher( RequestExecutor requestExecutor, RestAssuredConfig config, int maxRequests,
+                       ResponseBodyStore bodyStore, ExchangeTimings exchangeTimings ) {
+        this( requestExecutor, config, maxRequests, bodyStore, exchangeTimings, DEFAULT_TAKE_TIMEOUT );
+    }
+
+    /**
+     * @param requestExecutor
+     *            executes the prefetches, never <code>null</code>
+     * @param config
+     *            the configuration of the prefetch requests, may be <code>null</code>
+     * @param maxRequests
+     *            the maximum number of prefetched requests, must be greater than 0
+     * @param bodyStore
+     *            the store of the prefetched bodies, may be <code>null</code> if the bodies are buffered on the heap
+     * @param exchangeTimings
+     *            the timings of the exchanges of the test run, may be <code>null</code> if the prefetches should not
+     *            be measured
+     * @param takeTimeout
+     *            the time in milliseconds a test waits for a prefetch in flight, must be greater than 0
+     */
+    public Prefetcher( RequestExecutor requestExecutor, RestAssuredConfig config, int maxRequests,
+                       ResponseBodyStore bodyStore, ExchangeTimings exchangeTimings, long takeTimeout ) {
+        if ( maxRequests <= 0 )
+            throw new IllegalArgumentException( "Maximum number of prefetched requests must be greater than 0" );
+        if ( takeTimeout <= 0 )
+            throw new IllegalArgumentException( "Timeout waiting for a prefetch must be greater than 0" );
+        this.requestExecutor = requestExecutor;
+        this.config = config;
+        this.maxRequests = maxRequests;
+        this.bodyStore = bodyStore;
+        this.exchangeTimings = exchangeTimings;
+        this.takeTimeout = takeTimeout;
+    }
+
+    /**
+     * Sends a GET request in the background.
+     *
+     * @param url
+     *            the url to request, never <code>null</code>
+     * @param accept
+     *            the value of the Accept header, may be <code>null</code>
+     * @param queryParameters
+     *            the query parameters, may be empty but never <code>null</code>
+     * @return <code>true</code> if the request was submitted, <code>false</code> if the same request was already
+     *         submitted or the maximum number of prefetched requests is reached
+     */
+    public boolean prefetch( String url, String accept, Map<String, Object> queryParameters ) {
+        if ( requests.size() >= maxRequests ) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        if ( !requests.add( key( url + queryParameters, accept ) ) )
+            return false;
+        if ( submitted.incrementAndGet() > maxRequests ) {
+            submitted.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        RequestSpecification request = given().baseUri( url );
+        if ( config != null )
+            request.config( config );
+        if ( accept != null )
+            request.accept( accept );
+        for ( Map.Entry<String, Object> queryParameter : queryParameters.entrySet() )
+            request.param( queryParameter.getKey(), queryParameter.getValue() );
+        String key;
+        try {
+            key = key( SpecificationQuerier.query( request ).getURI(), accept );
+        } catch ( Exception e ) {
+            // invalid url, the test will report it
+            submitted.decrementAndGet();
+            return false;
+        }
+        CompletableFuture<CachedResponse> prefetch = new CompletableFuture<>();
+        if ( prefetches.putIfAbsent( key, prefetch ) != null ) {
+            submitted.decrementAndGet();
+            return false;
+        }
+        request.filters( new CompletingFilter( key, prefetch ), new InFlightLimitFilter( requestExecutor ) );
+        if ( exchangeTimings != null )
+            request.filter( new ExchangeTimingFilter( exchangeTimings ) );
+        if ( bodyStore != null )
+            request.filter( new ResponseBodyFilter( bodyStore ) );
+        try {
+            requestExecutor.submitPrefetch( () -> request.when().request( GET ) );
+        } catch ( RejectedExecutionException e ) {
+            prefetches.remove( key, prefetch );
+            submitted.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Takes the prefetched response of a request, waits up to the timeout if the prefetch is still queued or in flight.
+     *
+     * @param url
+     *            the requested url including the query, never <code>null</code>
+     * @param accept
+     *            the value of the Accept header, may be <code>null</code>
+     * @return the prefetched response, <code>null</code> if the request was not prefetched, is already taken, did not
+     *         complete within the timeout or the prefetch failed
+     */
+    public CachedResponse take( String url, String accept ) {
+        CompletableFuture<CachedResponse> prefetch = prefetches.remove( key( url, accept ) );
+        if ( prefetch == null )
+            return null;
+        try {
+            CachedResponse response = prefetch.get( takeTimeout, TimeUnit.MILLISECONDS );
+            used.incrementAndGet();
+            return response;
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch ( ExecutionException e ) {
+            return null;
+        } catch ( TimeoutException e ) {
+            timedOut.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of prefetched responses taken by a test
+     */
+    public long getUsed() {
+        return used.get();
+    }
+
+    /**
+     * @return the number of prefetches which failed, did not complete in time or were not taken by a test (yet)
+     */
+    public long getWasted() {
+        return failed.get() + timedOut.get() + prefetches.size();
+    }
+
+    /**
+     * Discards all prefetched responses not taken by a test.
+     */
+    public void clear() {
+        prefetches.clear();
+        requests.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format( "Prefetch: %d requests submitted, %d responses used, %d wasted (%d timed out), %d not submitted (maximum %d)",
+                              submitted.get(), used.get(), getWasted(), timedOut.get(), rejected.get(), maxRequests );
+    }
+
+    private static String key( String url, String accept ) {
+        return accept + ' ' + url;
+    }
+
+    /**
+     * Completes the prefetch with the response or the failure of the request.
+     */
+    private class CompletingFilter implements Filter {
+
+        private final String key;
+
+        private final CompletableFuture<CachedResponse> prefetch;
+
+        private CompletingFilter( String key, CompletableFuture<CachedResponse> prefetch ) {
+            this.key = key;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public Response filter( FilterableRequestSpecification requestSpec,
+                                FilterableResponseSpecification responseSpec, FilterContext ctx ) {
+            try {
+                Response response = ctx.next( requestSpec, responseSpec );
+                prefetch.complete( CachedResponse.of( response ) );
+                return response;
+            } catch ( RuntimeException | Error e ) {
+                failed.incrementAndGet();
+                prefetches.remove( key, prefetch );
+                prefetch.completeExceptionally( e );
+                throw e;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,321 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limits the rate and the concurrency of the requests sent to a single host (scheme, host and port), so that the
+ * request budget agreed with the operator of the instance under test is not exceeded.
+ *
+ * <p>
+ * The rate is limited by a token bucket: a request may be sent as soon as a token is available, tokens are added at
+ * the configured rate up to the burst size. If adaptive concurrency is enabled, the number of requests in flight is
+ * limited by an AIMD (additive increase, multiplicative decrease) limit: each fast response increases the limit by
+ * <code>1/limit</code> up to the maximum, a throttling response (429 or 503) halves it and a smoothed latency exceeding
+ * twice the lowest observed latency reduces it by a fifth; the limit is decreased at most once per smoothed latency.
+ * Independent of adaptive concurrency, no request is sent to a host before the delay of the <code>Retry-After</code>
+ * header of a throttling response of the host has elapsed.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe; one instance is created per test run, if configured, and used by the
+ * {@link RequestExecutor}.
+ * </p>
+ */
+public class RateLimiter {
+
+    /** The longest delay of a <code>Retry-After</code> header respected, in seconds. */
+    public static final int MAX_RETRY_AFTER = 120;
+
+    private static final double THROTTLED_DECREASE = 0.5;
+
+    private static final double LATENCY_DECREASE = 0.8;
+
+    private static final double LATENCY_TOLERANCE = 2.0;
+
+    private static final double SMOOTHING = 0.1;
+
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private static final long MIN_DECREASE_INTERVAL = TimeUnit.MILLISECONDS.toNanos( 100 );
+
+    private final Map<String, HostLimit> limitsByHost = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong delayedByRate = new AtomicLong();
+
+    private final AtomicLong waitsForSlot = new AtomicLong();
+
+    private final AtomicLong throttledResponses = new AtomicLong();
+
+    private final AtomicLong pauses = new AtomicLong();
+
+    private final AtomicLong decreases = new AtomicLong();
+
+    private final AtomicInteger lowestLimit;
+
+    private final double requestsPerSecond;
+
+    private final int burst;
+
+    private final int maxConcurrency;
+
+    private final boolean adaptive;
+
+    /**
+     * @param requestsPerSecond
+     *            the maximum number of requests per second to a single host, a value less or equal to 0 does not limit
+     *            the rate
+     * @param burst
+     *            the number of requests which may be sent at once after an idle period, must be greater than 0
+     * @param maxConcurrency
+     *            the maximum number of requests in flight to a single host, must be greater than 0
+     * @param adaptive
+     *            <code>true</code> if the number of requests in flight is adapted to the responses of the host,
+     *            <code>false</code> if it is only limited by <code>maxConcurrency</code>
+     */
+    public RateLimiter( double requestsPerSecond, int burst, int maxConcurrency, boolean adaptive ) {
+        if ( burst <= 0 )
+            throw new IllegalArgumentException( "Burst size must be greater than 0" );
+        if ( maxConcurrency <= 0 )
+            throw new IllegalArgumentException( "Maximum number of requests in flight must be greater than 0" );
+        this.requestsPerSecond = requestsPerSecond;
+        this.burst = burst;
+        this.maxConcurrency = maxConcurrency;
+        this.adaptive = adaptive;
+        this.lowestLimit = new AtomicInteger( maxConcurrency );
+    }
+
+    /**
+     * @return the maximum number of requests per second to a single host, a value less or equal to 0 if the rate is not
+     *         limited
+     */
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    /**
+     * @return <code>true</code> if the number of requests in flight is adapted to the responses, <code>false</code>
+     *         otherwise
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    /**
+     * @param url
+     *            a url of the host, never <code>null</code>
+     * @return the current maximum number of requests in flight to the host of the passed url
+     */
+    public int getLimit( String url ) {
+        return hostLimit( url ).currentLimit();
+    }
+
+    /**
+     * Waits until a request to the host of the passed url may be sent. Each call must be followed by a call of
+     * {@link #release(String, int, String, long)} when the response was received.
+     *
+     * @param url
+     *            the url to request, never <code>null</code>
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public void acquire( String url )
+                            throws InterruptedException {
+        requests.incrementAndGet();
+        HostLimit hostLimit = hostLimit( url );
+        hostLimit.acquireSlot();
+        long delay = hostLimit.reserve( System.nanoTime() );
+        if ( delay > 0 ) {
+            delayedByRate.incrementAndGet();
+            try {
+                TimeUnit.NANOSECONDS.sleep( delay );
+            } catch ( InterruptedException e ) {
+                hostLimit.releaseSlot();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Releases the slot acquired by {@link #acquire(String)} and adapts the limits of the host to the response.
+     *
+     * @param url
+     *            the url requested, never <code>null</code>
+     * @param statusCode
+     *            the status code of the response, a value less or equal to 0 if no response was received
+     * @param retryAfter
+     *            the value of the <code>Retry-After</code> header of the response, may be <code>null</code>
+     * @param latencyNanos
+     *            the time until the response was received in nanoseconds
+     */
+    public void release( String url, int statusCode, String retryAfter, long latencyNanos ) {
+        HostLimit hostLimit = hostLimit( url );
+        long now = System.nanoTime();
+        if ( statusCode == 429 || statusCode == 503 ) {
+            throttledResponses.incrementAndGet();
+            long delayMillis = parseRetryAfter( retryAfter, System.currentTimeMillis() );
+            if ( delayMillis > 0 ) {
+                pauses.incrementAndGet();
+                hostLimit.pause( now + TimeUnit.MILLISECONDS.toNanos( delayMillis ) );
+            }
+            if ( adaptive )
+                hostLimit.decrease( now, THROTTLED_DECREASE );
+        } else if ( adaptive && statusCode > 0 && statusCode < 500 ) {
+            hostLimit.sample( now, latencyNanos );
+        }
+        hostLimit.releaseSlot();
+    }
+
+    @Override
+    public String toString() {
+        String rate = requestsPerSecond > 0 ? String.format( "at most %s requests per second per host (burst %d)",
+                                                             formatRate( requestsPerSecond ), burst )
+                                            : "rate not limited";
+        return String.format( "Rate limiter: %s, %s concurrency up to %d requests in flight per host: %d requests, %d delayed by the rate, %d waited for a slot, %d throttled responses, %d pauses for Retry-After, %d decreases of the limit, lowest limit %d",
+                              rate, adaptive ? "adaptive" : "fixed", maxConcurrency, requests.get(),
+                              delayedByRate.get(), waitsForSlot.get(), throttledResponses.get(), pauses.get(),
+                              decreases.get(), lowestLimit.get() );
+    }
+
+    /**
+     * Parses the value of a <code>Retry-After</code> header, either a number of seconds or an HTTP date.
+     *
+     * @param retryAfter
+     *            the value of the header, may be <code>null</code>
+     * @param nowMillis
+     *            the current time in milliseconds since the epoch
+     * @return the delay in milliseconds, at most {@link #MAX_RETRY_AFTER} seconds, 0 if the date is in the past, -1 if
+     *         the value is missing or invalid
+     */
+    static long parseRetryAfter( String retryAfter, long nowMillis ) {
+        if ( retryAfter == null || retryAfter.trim().isEmpty() )
+            return -1;
+        String value = retryAfter.trim();
+        long delayMillis;
+        try {
+            delayMillis = TimeUnit.SECONDS.toMillis( Long.parseLong( value ) );
+        } catch ( NumberFormatException e ) {
+            try {
+                ZonedDateTime date = ZonedDateTime.parse( value, DateTimeFormatter.RFC_1123_DATE_TIME );
+                delayMillis = date.toInstant().toEpochMilli() - nowMillis;
+            } catch ( DateTimeParseException dateException ) {
+                return -1;
+            }
+        }
+        return Math.min( Math.max( delayMillis, 0 ), TimeUnit.SECONDS.toMillis( MAX_RETRY_AFTER ) );
+    }
+
+    private HostLimit hostLimit( String url ) {
+        return limitsByHost.computeIfAbsent( RequestExecutor.hostOf( url ), key -> new HostLimit() );
+    }
+
+    private static String formatRate( double rate ) {
+        return rate == Math.rint( rate ) ? Long.toString( (long) rate ) : Double.toString( rate );
+    }
+
+    private class HostLimit {
+
+        private double limit = maxConcurrency;
+
+        private int inFlight;
+
+        private double tokens = burst;
+
+        private long lastRefill = System.nanoTime();
+
+        private long pausedUntil;
+
+        private boolean paused;
+
+        private double baselineNanos = -1;
+
+        private double smoothedNanos = -1;
+
+        private long lastDecrease = System.nanoTime() - MIN_DECREASE_INTERVAL;
+
+        synchronized int currentLimit() {
+            return (int) limit;
+        }
+
+        synchronized void acquireSlot()
+                                throws InterruptedException {
+            if ( inFlight >= (int) limit ) {
+                waitsForSlot.incrementAndGet();
+                while ( inFlight >= (int) limit )
+                    wait();
+            }
+            inFlight++;
+        }
+
+        synchronized void releaseSlot() {
+            inFlight--;
+            notifyAll();
+        }
+
+        /**
+         * Takes a token, the bucket may run into debt so that the waiting requests are served in order.
+         *
+         * @return the time to wait before the request may be sent in nanoseconds
+         */
+        synchronized long reserve( long now ) {
+            long pauseDelay = paused ? pausedUntil - now : 0;
+            if ( requestsPerSecond <= 0 )
+                return pauseDelay;
+            tokens = Math.min( burst, tokens + ( now - lastRefill ) * requestsPerSecond / TimeUnit.SECONDS.toNanos( 1 ) );
+            lastRefill = now;
+            tokens--;
+            long rateDelay = tokens >= 0 ? 0 : (long) ( -tokens * TimeUnit.SECONDS.toNanos( 1 ) / requestsPerSecond );
+            return Math.max( rateDelay, pauseDelay );
+        }
+
+        synchronized void pause( long until ) {
+            if ( !paused || until - pausedUntil > 0 )
+                pausedUntil = until;
+            paused = true;
+            // no burst of the requests waiting for the end of the pause
+            tokens = Math.min( tokens, 1 );
+        }
+
+        synchronized void sample( long now, long latencyNanos ) {
+            if ( smoothedNanos < 0 ) {
+                smoothedNanos = latencyNanos;
+                baselineNanos = latencyNanos;
+            } else {
+                smoothedNanos += ( latencyNanos - smoothedNanos ) * SMOOTHING;
+                // the baseline follows a permanent change of the latency slowly
+                baselineNanos = Math.min( latencyNanos, baselineNanos + ( smoothedNanos - baselineNanos ) * BASELINE_DRIFT );
+            }
+            if ( smoothedNanos > baselineNanos * LATENCY_TOLERANCE )
+                decrease( now, LATENCY_DECREASE );
+            else
+                increase();
+        }
+
+        synchronized void decrease( long now, double factor ) {
+            long interval = Math.max( MIN_DECREASE_INTERVAL, (long) smoothedNanos );
+            if ( now - lastDecrease < interval )
+                return;
+            lastDecrease = now;
+            limit = Math.max( 1, limit * factor );
+            decreases.incrementAndGet();
+            lowestLimit.accumulateAndGet( (int) limit, Math::min );
+        }
+
+        private void increase() {
+            int previous = (int) limit;
+            limit = Math.min( maxConcurrency, limit + 1 / limit );
+            if ( (int) limit > previous )
+                notifyAll();
+        }
+
+    }
+
+}
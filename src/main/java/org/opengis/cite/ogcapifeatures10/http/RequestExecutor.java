@@ -0,0 +1,333 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes requests in the background and bounds the number of requests in flight to a single instance under test.
+ *
+ * <p>
+ * The requests of the test run are blocking, a thread waits for each response. With {@link Mode#VIRTUAL} each
+ * background request is executed by its own virtual thread, which is cheap to block, so the number of requests in
+ * flight is not limited by the size of a thread pool. Virtual threads require a Java runtime supporting them; on older
+ * runtimes a pool of platform threads is used instead (see {@link #getMode()}). With {@link Mode#PLATFORM} a pool of
+ * platform threads is used.
+ * </p>
+ *
+ * <p>
+ * Prefetches (see {@link Prefetcher}) are executed by a separate pool of low-priority platform threads, at most half of
+ * the maximum number of requests in flight, so that requests the tests wait for, e.g. the pages of a paging crawl, are
+ * neither queued behind the prefetches nor starved of permits.
+ * </p>
+ *
+ * <p>
+ * Independent of the mode, a fair semaphore per host (scheme, host and port) bounds the number of requests in flight,
+ * so the instance under test is not overloaded. The permits are acquired by the {@link InFlightLimitFilter} for each
+ * request sent to the server. If a {@link RateLimiter} is configured, it additionally limits the rate of the requests
+ * and adapts the number of requests in flight to the responses of the host.
+ * </p>
+ *
+ * <p>
+ * Instances are thread-safe; one instance is created per test run and registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#REQUEST_EXECUTOR}.
+ * </p>
+ */
+public class RequestExecutor {
+
+    /**
+     * The kind of threads executing the background requests.
+     */
+    public enum Mode {
+
+        /** A pool of platform threads. */
+        PLATFORM,
+
+        /** One virtual thread per request. */
+        VIRTUAL
+
+    }
+
+    /** Default maximum number of requests in flight to a single host. */
+    public static final int DEFAULT_MAX_IN_FLIGHT = HttpTransport.DEFAULT_MAX_CONNECTIONS_PER_HOST;
+
+    private final Map<String, Semaphore> permitsByHost = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    private final AtomicLong submitted = new AtomicLong();
+
+    private final AtomicLong prefetchesSubmitted = new AtomicLong();
+
+    private final AtomicLong waitsForPermit = new AtomicLong();
+
+    private final Mode mode;
+
+    private final int maxInFlight;
+
+    private final ExecutorService executor;
+
+    private final ExecutorService prefetchExecutor;
+
+    private final RateLimiter rateLimiter;
+
+    /**
+     * @param mode
+     *            the kind of threads to use, never <code>null</code>
+     * @param maxInFlight
+     *            the maximum number of requests in flight to a single host, also the size of the pool of platform
+     *            threads, must be greater than 0
+     */
+    public RequestExecutor( Mode mode, int maxInFlight ) {
+        this( mode, maxInFlight, null );
+    }
+
+    /**
+     * @param mode
+     *            the kind of threads to use, never <code>null</code>
+     * @param maxInFlight
+     *            the maximum number of requests in flight to a single host, also the size of the pool of platform
+     *            threads, must be greater than 0
+     * @param rateLimiter
+     *            the limiter of the rate and the concurrency of the requests, may be <code>null</code>
+     */
+    public RequestExecutor( Mode mode, int maxInFlight, RateLimiter rateLimiter ) {
+        if ( maxInFlight <= 0 )
+            throw new IllegalArgumentException( "Maximum number of requests in flight must be greater than 0" );
+        this.maxInFlight = maxInFlight;
+        this.rateLimiter = rateLimiter;
+        ExecutorService virtualThreadExecutor = mode == Mode.VIRTUAL ? createVirtualThreadExecutor() : null;
+        if ( virtualThreadExecutor != null ) {
+            this.mode = Mode.VIRTUAL;
+            this.executor = virtualThreadExecutor;
+        } else {
+            this.mode = Mode.PLATFORM;
+            this.executor = Executors.newFixedThreadPool( maxInFlight,
+                                                          new DaemonThreadFactory( "request-executor-",
+                                                                                   Thread.NORM_PRIORITY ) );
+        }
+        this.prefetchExecutor = Executors.newFixedThreadPool( prefetchThreads( maxInFlight ),
+                                                              new DaemonThreadFactory( "request-prefetch-",
+                                                                                       Thread.MIN_PRIORITY ) );
+    }
+
+    /**
+     * @return <code>true</code> if the Java runtime supports virtual threads, <code>false</code> otherwise
+     */
+    public static boolean isVirtualThreadSupported() {
+        return findVirtualThreadExecutorFactory() != null;
+    }
+
+    /**
+     * @return the kind of threads used, {@link Mode#PLATFORM} if {@link Mode#VIRTUAL} was requested but is not
+     *         supported by the Java runtime, never <code>null</code>
+     */
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @return the maximum number of requests in flight to a single host
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return the limiter of the rate and the concurrency of the requests, <code>null</code> if not configured
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * @return the executor running the background requests, never <code>null</code>
+     */
+    public ExecutorService getExecutorService() {
+        return executor;
+    }
+
+    /**
+     * @return the executor running the prefetches, never <code>null</code>
+     */
+    public ExecutorService getPrefetchExecutorService() {
+        return prefetchExecutor;
+    }
+
+    /**
+     * Executes the passed request in the background.
+     *
+     * @param request
+     *            the request to execute, never <code>null</code>
+     * @return the pending result, never <code>null</code>
+     */
+    public <T> Future<T> submit( Callable<T> request ) {
+        submitted.incrementAndGet();
+        return executor.submit( request );
+    }
+
+    /**
+     * Executes the passed prefetch in the background, with a lower priority than the requests passed to
+     * {@link #submit(Callable)}.
+     *
+     * @param prefetch
+     *            the prefetch to execute, never <code>null</code>
+     * @return the pending result, never <code>null</code>
+     */
+    public <T> Future<T> submitPrefetch( Callable<T> prefetch ) {
+        prefetchesSubmitted.incrementAndGet();
+        return prefetchExecutor.submit( prefetch );
+    }
+
+    /**
+     * Waits until a request to the host of the passed url may be sent. Each call must be followed by a call of
+     * {@link #release(String, int, String, long)} or {@link #release(String)} when the response was received.
+     *
+     * @param url
+     *            the url to request, never <code>null</code>
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public void acquire( String url )
+                            throws InterruptedException {
+        Semaphore permits = permits( url );
+        if ( !permits.tryAcquire() ) {
+            waitsForPermit.incrementAndGet();
+            permits.acquire();
+        }
+        if ( rateLimiter != null ) {
+            try {
+                rateLimiter.acquire( url );
+            } catch ( InterruptedException e ) {
+                permits.release();
+                throw e;
+            }
+        }
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet( current, Math::max );
+    }
+
+    /**
+     * Releases the permit acquired by {@link #acquire(String)} without reporting the response to the
+     * {@link RateLimiter}.
+     *
+     * @param url
+     *            the url requested, never <code>null</code>
+     */
+    public void release( String url ) {
+        release( url, -1, null, 0 );
+    }
+
+    /**
+     * Releases the permit acquired by {@link #acquire(String)} and reports the response to the {@link RateLimiter}, if
+     * configured.
+     *
+     * @param url
+     *            the url requested, never <code>null</code>
+     * @param statusCode
+     *            the status code of the response, a value less or equal to 0 if no response was received
+     * @param retryAfter
+     *            the value of the <code>Retry-After</code> header of the response, may be <code>null</code>
+     * @param latencyNanos
+     *            the time until the response was received in nanoseconds
+     */
+    public void release( String url, int statusCode, String retryAfter, long latencyNanos ) {
+        inFlight.decrementAndGet();
+        if ( rateLimiter != null )
+            rateLimiter.release( url, statusCode, retryAfter, latencyNanos );
+        permits( url ).release();
+    }
+
+    /**
+     * @return the highest number of requests in flight at the same time
+     */
+    public int getPeakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * Stops all background requests. The executor must not be used afterwards.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        prefetchExecutor.shutdownNow();
+    }
+
+    @Override
+    public String toString() {
+        return String.format( "Request executor (%s threads): %d background requests, %d prefetches, at most %d requests in flight per host, peak %d, %d requests waited for a permit",
+                              mode.name().toLowerCase(), submitted.get(), prefetchesSubmitted.get(), maxInFlight,
+                              peakInFlight.get(), waitsForPermit.get() );
+    }
+
+    private Semaphore permits( String url ) {
+        return permitsByHost.computeIfAbsent( hostOf( url ), key -> new Semaphore( maxInFlight, true ) );
+    }
+
+    static String hostOf( String url ) {
+        int authorityStart = url.indexOf( "://" );
+        if ( authorityStart < 0 )
+            return url;
+        int authorityEnd = authorityStart + 3;
+        while ( authorityEnd < url.length() && "/?#".indexOf( url.charAt( authorityEnd ) ) < 0 )
+            authorityEnd++;
+        return url.substring( 0, authorityEnd ).toLowerCase();
+    }
+
+    private static int prefetchThreads( int maxInFlight ) {
+        return Math.max( 1, maxInFlight / 2 );
+    }
+
+    private static ExecutorService createVirtualThreadExecutor() {
+        Method factory = findVirtualThreadExecutorFactory();
+        if ( factory == null )
+            return null;
+        try {
+            return (ExecutorService) factory.invoke( null );
+        } catch ( ReflectiveOperationException e ) {
+            return null;
+        }
+    }
+
+    private static Method findVirtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod( "newVirtualThreadPerTaskExecutor" );
+        } catch ( NoSuchMethodException e ) {
+            return null;
+        }
+    }
+
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        private final String namePrefix;
+
+        private final int priority;
+
+        private DaemonThreadFactory( String namePrefix, int priority ) {
+            this.namePrefix = namePrefix;
+            this.priority = priority;
+        }
+
+        @Override
+        public Thread newThread( Runnable runnable ) {
+            Thread thread = new Thread( runnable, namePrefix + threadNumber.incrementAndGet() );
+            thread.setDaemon( true );
+            thread.setPriority( priority );
+            return thread;
+        }
+
+    }
+
+}
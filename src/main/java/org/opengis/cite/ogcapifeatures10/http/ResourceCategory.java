@@ -0,0 +1,101 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.net.URI;
+
+/**
+ * Category of the resource requested by a HTTP exchange, used to aggregate the {@link ExchangeTimings}.
+ */
+public enum ResourceCategory {
+
+    /** The landing page {root}/ */
+    LANDING,
+
+    /** The API definition {root}/api */
+    API,
+
+    /** The conformance declaration {root}/conformance */
+    CONFORMANCE,
+
+    /** The feature collections {root}/collections */
+    COLLECTIONS,
+
+    /** A feature collection {root}/collections/{collectionId} */
+    COLLECTION,
+
+    /** The first page of features {root}/collections/{collectionId}/items */
+    ITEMS,
+
+    /** A feature {root}/collections/{collectionId}/items/{featureId} */
+    ITEM,
+
+    /** A page of features requested by following a 'next' link */
+    PAGING,
+
+    /** Any other resource, e.g. a schema referenced by the API definition */
+    OTHER;
+
+    /**
+     * Determines the category of a requested resource from the path relative to the root of the API. The category
+     * {@link #PAGING} can not be detected from the url, it must be assigned by the requester (see
+     * {@link ExchangeTimingFilter#as(ResourceCategory)}).
+     *
+     * @param url
+     *            the requested url, never <code>null</code>
+     * @param rootPath
+     *            the path of the root of the API, may be <code>null</code> or empty if the API is located at the root
+     *            of the server
+     * @return the category, never <code>null</code>
+     */
+    public static ResourceCategory of( String url, String rootPath ) {
+        String path;
+        try {
+            path = URI.create( url ).getRawPath();
+        } catch ( IllegalArgumentException e ) {
+            return OTHER;
+        }
+        if ( path == null )
+            return OTHER;
+        String root = rootPath != null ? trimSlashes( rootPath ) : "";
+        String relativePath = trimSlashes( path );
+        if ( !root.isEmpty() ) {
+            if ( relativePath.equals( root ) )
+                return LANDING;
+            if ( !relativePath.startsWith( root + "/" ) )
+                return OTHER;
+            relativePath = relativePath.substring( root.length() + 1 );
+        }
+        if ( relativePath.isEmpty() )
+            return LANDING;
+        String[] segments = relativePath.split( "/" );
+        String first = segments[0];
+        if ( segments.length == 1 && ( "api".equals( first ) || first.startsWith( "api." ) ) )
+            return API;
+        if ( segments.length == 1 && "conformance".equals( first ) )
+            return CONFORMANCE;
+        if ( !"collections".equals( first ) )
+            return OTHER;
+        switch ( segments.length ) {
+        case 1:
+            return COLLECTIONS;
+        case 2:
+            return COLLECTION;
+        case 3:
+            return "items".equals( segments[2] ) ? ITEMS : OTHER;
+        case 4:
+            return "items".equals( segments[2] ) ? ITEM : OTHER;
+        default:
+            return OTHER;
+        }
+    }
+
+    private static String trimSlashes( String path ) {
+        int begin = 0;
+        int end = path.length();
+        while ( begin < end && path.charAt( begin ) == '/' )
+            begin++;
+        while ( end > begin && path.charAt( end - 1 ) == '/' )
+            end--;
+        return path.substring( begin, end );
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Reads the body of a response into the {@link ResponseBodyStore} instead of letting Rest-Assured buffer it on the
+ * heap. The returned response reads the stored body; it is copied onto the heap only if a test accesses it as string
+ * or byte array. Must be the last filter of a request, so that the body is stored as it is read from the connection.
+ */
+public class ResponseBodyFilter implements Filter {
+
+    private final ResponseBodyStore bodyStore;
+
+    /**
+     * @param bodyStore
+     *            the store of the response bodies, never <code>null</code>
+     */
+    public ResponseBodyFilter( ResponseBodyStore bodyStore ) {
+        this.bodyStore = bodyStore;
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        Response response = ctx.next( requestSpec, responseSpec );
+        Object content = StoredBody.content( response );
+        if ( !( content instanceof InputStream ) || StoredBody.of( (InputStream) content ) != null )
+            return response;
+        InputStream body = (InputStream) content;
+        try {
+            StoredBody storedBody = bodyStore.store( body );
+            return new ResponseBuilder().clone( response ).setBody( storedBody.openStream() ).build();
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Could not read response body of " + requestSpec.getURI(), e );
+        }
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
+
+/**
+ * Buffers response bodies so they can be read multiple times. Bodies up to {@link #getSpillThreshold()} bytes are kept
+ * on the heap, larger bodies are written to a temporary directory while they are read from the connection and read
+ * back through memory-mapped buffers (see {@link StoredBody}), so a large page of features is never held on the heap
+ * as a whole unless a test parses it into a tree.
+ *
+ * <p>
+ * Instances are thread-safe; the store of a test run is registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#RESPONSE_BODY_STORE} and its temporary files are deleted by
+ * {@link #close()} when the test run finishes.
+ * </p>
+ */
+public class ResponseBodyStore {
+
+    /**
+     * The default size above which a response body is written to a temporary file: 8 MB.
+     */
+    public static final long DEFAULT_SPILL_THRESHOLD = 8L * 1024L * 1024L;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long spillThreshold;
+
+    private final AtomicLong heapBodies = new AtomicLong();
+
+    private final AtomicLong heapBytes = new AtomicLong();
+
+    private final AtomicLong spilledBodies = new AtomicLong();
+
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    private File directory;
+
+    /**
+     * @param spillThreshold
+     *            the size in bytes above which a body is written to a temporary file, must be greater than 0
+     */
+    public ResponseBodyStore( long spillThreshold ) {
+        if ( spillThreshold <= 0 )
+            throw new IllegalArgumentException( "Spill threshold must be greater than 0" );
+        this.spillThreshold = spillThreshold;
+    }
+
+    /**
+     * @return the size in bytes above which a body is written to a temporary file
+     */
+    public long getSpillThreshold() {
+        return spillThreshold;
+    }
+
+    /**
+     * Reads a body completely and closes the stream.
+     *
+     * @param body
+     *            the stream to read, never <code>null</code>
+     * @return the stored body, never <code>null</code>
+     * @throws IOException
+     *             if the body could not be read or written to a temporary file
+     */
+    public StoredBody store( InputStream body )
+                            throws IOException {
+        StoredBody storedBody = StoredBody.of( body );
+        if ( storedBody != null )
+            return storedBody;
+        try (InputStream in = body) {
+            ByteArrayOutputStream heap = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ( ( read = in.read( buffer ) ) >= 0 ) {
+                heap.write( buffer, 0, read );
+                if ( heap.size() > spillThreshold )
+                    return spill( heap, in, buffer );
+            }
+            heapBodies.incrementAndGet();
+            heapBytes.addAndGet( heap.size() );
+            return StoredBody.onHeap( heap.toByteArray() );
+        }
+    }
+
+    /**
+     * @return the number of bodies kept on the heap
+     */
+    public long getHeapBodies() {
+        return heapBodies.get();
+    }
+
+    /**
+     * @return the number of bodies written to temporary files
+     */
+    public long getSpilledBodies() {
+        return spilledBodies.get();
+    }
+
+    /**
+     * Deletes all temporary files. Bodies stored in temporary files can not be read anymore.
+     */
+    public synchronized void close() {
+        if ( directory == null )
+            return;
+        File[] files = directory.listFiles();
+        if ( files != null ) {
+            for ( File file : files )
+                delete( file );
+        }
+        delete( directory );
+        directory = null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder( "Response body store: " );
+        sb.append( heapBodies.get() ).append( " bodies (" ).append( heapBytes.get() / 1024 ).append( " KB) on the heap, " );
+        sb.append( spilledBodies.get() ).append( " bodies (" ).append( spilledBytes.get() / 1024 );
+        sb.append( " KB) in temporary files, threshold " ).append( spillThreshold / 1024 ).append( " KB" );
+        return sb.toString();
+    }
+
+    private StoredBody spill( ByteArrayOutputStream heap, InputStream in, byte[] buffer )
+                            throws IOException {
+        Path file = Files.createTempFile( directory().toPath(), "body", ".bin" );
+        long size = heap.size();
+        try (OutputStream out = Files.newOutputStream( file )) {
+            heap.writeTo( out );
+            heap.reset();
+            int read;
+            while ( ( read = in.read( buffer ) ) >= 0 ) {
+                out.write( buffer, 0, read );
+                size += read;
+            }
+        } catch ( IOException e ) {
+            delete( file.toFile() );
+            throw e;
+        }
+        spilledBodies.incrementAndGet();
+        spilledBytes.addAndGet( size );
+        return StoredBody.inFile( file.toFile(), size );
+    }
+
+    private synchronized File directory()
+                            throws IOException {
+        if ( directory == null )
+            directory = Files.createTempDirectory( "ets-ogcapi-features10-bodies" ).toFile();
+        return directory;
+    }
+
+    private static void delete( File file ) {
+        try {
+            Files.deleteIfExists( file.toPath() );
+        } catch ( IOException e ) {
+            TestSuiteLogger.log( Level.FINE, "Could not delete " + file, e );
+        }
+    }
+
+}
@@ -0,0 +1,159 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suite-scoped cache of successful GET responses, keyed by request URL and Accept header. Entries are evicted in least
+ * recently used order as soon as the summed up size of all bodies exceeds the configured maximum.
+ *
+ * <p>
+ * Instances are thread-safe; one instance is created per test run and registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#RESPONSE_CACHE}.
+ * </p>
+ */
+public class ResponseCache {
+
+    /** Default maximum size of all cached bodies in MB. */
+    public static final int DEFAULT_MAX_SIZE = 64;
+
+    private final LinkedHashMap<CacheKey, CachedResponse> entries = new LinkedHashMap<>( 16, 0.75f, true );
+
+    private final long maxBytes;
+
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong revalidations = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong bypassed = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxBytes
+     *            maximum size of all cached bodies in bytes, must be greater than 0
+     */
+    public ResponseCache( long maxBytes ) {
+        if ( maxBytes <= 0 )
+            throw new IllegalArgumentException( "Maximum size of the cache must be greater than 0" );
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * @param url
+     *            the requested url, never <code>null</code>
+     * @param accept
+     *            the value of the Accept header, may be <code>null</code>
+     * @return the cached response, <code>null</code> if there is no entry
+     */
+    public CachedResponse get( String url, String accept ) {
+        synchronized ( entries ) {
+            return entries.get( new CacheKey( url, accept ) );
+        }
+    }
+
+    /**
+     * Stores the response, entries are evicted if the cache is full. Responses larger than a quarter of the cache are
+     * not stored.
+     *
+     * @param url
+     *            the requested url, never <code>null</code>
+     * @param accept
+     *            the value of the Accept header, may be <code>null</code>
+     * @param response
+     *            the response to store, never <code>null</code>
+     * @return <code>true</code> if the response was stored, <code>false</code> otherwise
+     */
+    public boolean put( String url, String accept, CachedResponse response ) {
+        if ( response.getSize() > maxBytes / 4 )
+            return false;
+        synchronized ( entries ) {
+            CachedResponse previous = entries.put( new CacheKey( url, accept ), response );
+            if ( previous != null )
+                bytes -= previous.getSize();
+            bytes += response.getSize();
+            Iterator<CachedResponse> leastRecentlyUsed = entries.values().iterator();
+            while ( bytes > maxBytes && leastRecentlyUsed.hasNext() ) {
+                bytes -= leastRecentlyUsed.next().getSize();
+                leastRecentlyUsed.remove();
+                evictions.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        synchronized ( entries ) {
+            entries.clear();
+            bytes = 0;
+        }
+    }
+
+    /**
+     * @return a snapshot of the hit and miss counters, never <code>null</code>
+     */
+    public ResponseCacheStatistics getStatistics() {
+        int size;
+        long currentBytes;
+        synchronized ( entries ) {
+            size = entries.size();
+            currentBytes = bytes;
+        }
+        return new ResponseCacheStatistics( hits.get(), revalidations.get(), misses.get(), bypassed.get(),
+                                            evictions.get(), size, currentBytes );
+    }
+
+    void countHit() {
+        hits.incrementAndGet();
+    }
+
+    void countRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    void countMiss() {
+        misses.incrementAndGet();
+    }
+
+    void countBypass() {
+        bypassed.incrementAndGet();
+    }
+
+    private static class CacheKey {
+
+        private final String url;
+
+        private final String accept;
+
+        CacheKey( String url, String accept ) {
+            this.url = url;
+            this.accept = accept != null ? accept : "*/*";
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o )
+                return true;
+            if ( !( o instanceof CacheKey ) )
+                return false;
+            CacheKey that = (CacheKey) o;
+            return url.equals( that.url ) && accept.equals( that.accept );
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * url.hashCode() + accept.hashCode();
+        }
+
+    }
+
+}
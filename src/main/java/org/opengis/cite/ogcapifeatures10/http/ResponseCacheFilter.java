@@ -0,0 +1,77 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Answers GET requests from a {@link ResponseCache}. Only responses with status code 200 and an ETag or Last-Modified
+ * header are stored, unless the server forbids it with Cache-Control: no-store or private. Cached responses are
+ * revalidated with a conditional request, unless they are still fresh according to Cache-Control: max-age and the
+ * server did not demand revalidation with no-cache.
+ */
+public class ResponseCacheFilter implements Filter {
+
+    private static final String ACCEPT = "Accept";
+
+    private final ResponseCache responseCache;
+
+    private final boolean bypass;
+
+    /**
+     * @param responseCache
+     *            the cache to use, never <code>null</code>
+     * @param bypass
+     *            <code>true</code> if requests must be sent to the server and responses must not be stored,
+     *            <code>false</code> otherwise
+     */
+    public ResponseCacheFilter( ResponseCache responseCache, boolean bypass ) {
+        this.responseCache = responseCache;
+        this.bypass = bypass;
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        if ( !"GET".equalsIgnoreCase( requestSpec.getMethod() ) )
+            return ctx.next( requestSpec, responseSpec );
+        if ( bypass ) {
+            responseCache.countBypass();
+            return ctx.next( requestSpec, responseSpec );
+        }
+        String url = requestSpec.getURI();
+        String accept = requestSpec.getHeaders().getValue( ACCEPT );
+        CachedResponse cachedResponse = responseCache.get( url, accept );
+        if ( cachedResponse != null && cachedResponse.isFresh() ) {
+            responseCache.countHit();
+            return cachedResponse.toResponse( requestSpec.getConfig() );
+        }
+        if ( cachedResponse != null ) {
+            if ( cachedResponse.getETag() != null )
+                requestSpec.header( "If-None-Match", cachedResponse.getETag() );
+            if ( cachedResponse.getLastModified() != null )
+                requestSpec.header( "If-Modified-Since", cachedResponse.getLastModified() );
+        }
+        Response response = ctx.next( requestSpec, responseSpec );
+        if ( cachedResponse != null && response.getStatusCode() == 304 ) {
+            responseCache.put( url, accept, cachedResponse.revalidated() );
+            responseCache.countHit();
+            responseCache.countRevalidation();
+            return cachedResponse.toResponse( requestSpec.getConfig() );
+        }
+        responseCache.countMiss();
+        if ( isCacheable( response ) )
+            responseCache.put( url, accept, CachedResponse.of( response ) );
+        return response;
+    }
+
+    private boolean isCacheable( Response response ) {
+        return CachedResponse.isCacheable( response.getStatusCode(), response.getHeader( "Cache-Control" ),
+                                           response.getHeader( "Vary" ),
+                                           response.getHeader( "ETag" ) != null
+                                                                   || response.getHeader( "Last-Modified" ) != null );
+    }
+
+}
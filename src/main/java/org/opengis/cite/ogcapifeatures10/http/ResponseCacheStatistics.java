@@ -0,0 +1,89 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+/**
+ * Snapshot of the counters of a {@link ResponseCache}.
+ */
+public class ResponseCacheStatistics {
+
+    private final long hits;
+
+    private final long revalidations;
+
+    private final long misses;
+
+    private final long bypassed;
+
+    private final long evictions;
+
+    private final int entries;
+
+    private final long bytes;
+
+    ResponseCacheStatistics( long hits, long revalidations, long misses, long bypassed, long evictions, int entries,
+                             long bytes ) {
+        this.hits = hits;
+        this.revalidations = revalidations;
+        this.misses = misses;
+        this.bypassed = bypassed;
+        this.evictions = evictions;
+        this.entries = entries;
+        this.bytes = bytes;
+    }
+
+    /**
+     * @return number of requests answered from the cache, including revalidated entries
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return number of hits which required a conditional request answered with 304 Not Modified
+     */
+    public long getRevalidations() {
+        return revalidations;
+    }
+
+    /**
+     * @return number of cacheable requests not answered from the cache
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return number of requests explicitly bypassing the cache
+     */
+    public long getBypassed() {
+        return bypassed;
+    }
+
+    /**
+     * @return number of entries evicted because the cache was full
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return number of entries currently stored
+     */
+    public int getEntries() {
+        return entries;
+    }
+
+    /**
+     * @return summed up size of all stored bodies in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "Response cache: hits=" + hits + " (revalidated=" + revalidations + "), misses=" + misses
+               + ", bypassed=" + bypassed + ", evictions=" + evictions + ", entries=" + entries + " (" + bytes
+               + " bytes)";
+    }
+
+}
@@ -0,0 +1,139 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+
+/**
+ * Coalesces identical GET requests in flight at the same time: the first request (the leader) is sent to the server,
+ * requests with the same key issued while the leader is in flight wait for it and receive a copy of its response
+ * instead of being sent again. The response is shared as immutable {@link CachedResponse}. Requests are only coalesced
+ * while in flight, completed responses are not kept (see {@link ResponseCache}). If the request of the leader fails,
+ * the waiting requests are sent themselves. A waiting request waits at most the configured timeout for the leader, then
+ * it is sent itself, so a leader stuck on a slow server does not block the other tests.
+ *
+ * <p>
+ * Instances are thread-safe; one instance is owned by the {@link HttpTransport} of the test run and used by the
+ * {@link SingleFlightFilter}.
+ * </p>
+ */
+public class SingleFlight {
+
+    /** Default time in milliseconds a request waits for an identical request in flight. */
+    public static final long DEFAULT_WAIT_TIMEOUT = TimeUnit.SECONDS.toMillis( 30 );
+
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+
+    private final AtomicLong deduplicated = new AtomicLong();
+
+    private final AtomicLong timedOut = new AtomicLong();
+
+    private final long waitTimeout;
+
+    /**
+     * Creates a single-flight layer waiting at most {@link #DEFAULT_WAIT_TIMEOUT} ms for a request in flight.
+     */
+    public SingleFlight() {
+        this( DEFAULT_WAIT_TIMEOUT );
+    }
+
+    /**
+     * @param waitTimeout
+     *            the time in milliseconds a request waits for an identical request in flight before it is sent itself,
+     *            must be greater than 0
+     */
+    public SingleFlight( long waitTimeout ) {
+        if ( waitTimeout <= 0 )
+            throw new IllegalArgumentException( "Timeout waiting for a request in flight must be greater than 0" );
+        this.waitTimeout = waitTimeout;
+    }
+
+    /**
+     * Sends the request, unless an identical request is in flight.
+     *
+     * @param key
+     *            identifies the request, never <code>null</code>
+     * @param request
+     *            sends the request, never <code>null</code>
+     * @param config
+     *            the configuration of the request, used to parse the shared response, may be <code>null</code>
+     * @return the response, never <code>null</code>
+     */
+    public Response execute( String key, Supplier<Response> request, RestAssuredConfig config ) {
+        requests.incrementAndGet();
+        CompletableFuture<CachedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<CachedResponse> leader = inFlight.putIfAbsent( key, flight );
+        if ( leader != null ) {
+            CachedResponse sharedResponse = await( leader );
+            if ( sharedResponse != null ) {
+                deduplicated.incrementAndGet();
+                return sharedResponse.toResponse( config );
+            }
+            return request.get();
+        }
+        try {
+            Response response = request.get();
+            flight.complete( CachedResponse.of( response ) );
+            return response;
+        } catch ( RuntimeException | Error e ) {
+            flight.completeExceptionally( e );
+            throw e;
+        } finally {
+            inFlight.remove( key, flight );
+        }
+    }
+
+    /**
+     * @return the number of GET requests passed through the single-flight layer
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of requests answered with the response of an identical request in flight instead of being
+     *         sent to the server
+     */
+    public long getDeduplicated() {
+        return deduplicated.get();
+    }
+
+    /**
+     * @return the number of requests sent themselves because the identical request in flight did not complete within
+     *         the timeout
+     */
+    public long getTimedOut() {
+        return timedOut.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format( "Single-flight: %d GET requests, %d deduplicated, %d timed out waiting", getRequests(),
+                              getDeduplicated(), getTimedOut() );
+    }
+
+    private CachedResponse await( CompletableFuture<CachedResponse> leader ) {
+        try {
+            return leader.get( waitTimeout, TimeUnit.MILLISECONDS );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch ( ExecutionException e ) {
+            return null;
+        } catch ( TimeoutException e ) {
+            timedOut.incrementAndGet();
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import io.restassured.filter.Filter;
+import io.restassured.filter.FilterContext;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * Passes GET requests through the {@link SingleFlight} of the test run, so that identical requests in flight at the
+ * same time are sent only once. Requests are identical if url including the query, Accept header and the conditional
+ * headers added by the {@link ResponseCacheFilter} are equal. Must be added after the {@link ResponseCacheFilter} and
+ * the {@link PrefetchFilter} and before the {@link InFlightLimitFilter}, so that waiting requests do not hold a permit.
+ */
+public class SingleFlightFilter implements Filter {
+
+    private final SingleFlight singleFlight;
+
+    /**
+     * @param singleFlight
+     *            the single-flight layer of the test run, never <code>null</code>
+     */
+    public SingleFlightFilter( SingleFlight singleFlight ) {
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Response filter( FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec,
+                            FilterContext ctx ) {
+        if ( !"GET".equalsIgnoreCase( requestSpec.getMethod() ) )
+            return ctx.next( requestSpec, responseSpec );
+        return singleFlight.execute( key( requestSpec ), () -> ctx.next( requestSpec, responseSpec ),
+                                     requestSpec.getConfig() );
+    }
+
+    private static String key( FilterableRequestSpecification requestSpec ) {
+        Headers headers = requestSpec.getHeaders();
+        return headers.getValue( "Accept" ) + ' ' + headers.getValue( "If-None-Match" ) + ' '
+               + headers.getValue( "If-Modified-Since" ) + ' ' + requestSpec.getURI();
+    }
+
+}
@@ -0,0 +1,219 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import io.restassured.internal.RestAssuredResponseImpl;
+import io.restassured.response.Response;
+
+/**
+ * A response body stored by the {@link ResponseBodyStore}, either on the heap or in a temporary file. The body of a
+ * temporary file is read through a memory-mapped buffer, it is not copied onto the heap.
+ *
+ * <p>
+ * Instances are immutable and thread-safe; each stream opened by {@link #openStream()} has its own position.
+ * </p>
+ */
+public final class StoredBody {
+
+    private final byte[] bytes;
+
+    private final File file;
+
+    private final long size;
+
+    private volatile ByteBuffer mapped;
+
+    private StoredBody( byte[] bytes, File file, long size ) {
+        this.bytes = bytes;
+        this.file = file;
+        this.size = size;
+    }
+
+    static StoredBody onHeap( byte[] bytes ) {
+        return new StoredBody( bytes, null, bytes.length );
+    }
+
+    static StoredBody inFile( File file, long size ) {
+        return new StoredBody( null, file, size );
+    }
+
+    /**
+     * @param stream
+     *            a stream, may be <code>null</code>
+     * @return the stored body read by the stream, <code>null</code> if the stream is not opened by
+     *         {@link #openStream()}
+     */
+    public static StoredBody of( InputStream stream ) {
+        if ( stream instanceof BodyInputStream )
+            return ( (BodyInputStream) stream ).body;
+        return null;
+    }
+
+    /**
+     * @param response
+     *            a response, never <code>null</code>
+     * @return the stored body of the response, <code>null</code> if the body of the response is not stored or was
+     *         already copied onto the heap by Rest-Assured
+     */
+    public static StoredBody of( Response response ) {
+        Object content = content( response );
+        return content instanceof InputStream ? of( (InputStream) content ) : null;
+    }
+
+    /**
+     * @param response
+     *            a response, never <code>null</code>
+     * @return the body of the response as it was received or set by a filter (a stream not read yet, a byte array or a
+     *         string), without buffering it; <code>null</code> if the response is not a Rest-Assured response or has
+     *         no body
+     */
+    static Object content( Response response ) {
+        if ( response instanceof RestAssuredResponseImpl )
+            return ( (RestAssuredResponseImpl) response ).getContent();
+        return null;
+    }
+
+    /**
+     * @return the size of the body in bytes
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return <code>true</code> if the body is stored in a temporary file, <code>false</code> if it is kept on the heap
+     */
+    public boolean isSpilled() {
+        return file != null;
+    }
+
+    /**
+     * @return the temporary file of the body, <code>null</code> if it is kept on the heap
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * @return a read-only buffer of the body, memory-mapped if the body is stored in a temporary file, never
+     *         <code>null</code>
+     * @throws UncheckedIOException
+     *             if the temporary file could not be mapped
+     */
+    public ByteBuffer asByteBuffer() {
+        if ( bytes != null )
+            return ByteBuffer.wrap( bytes ).asReadOnlyBuffer();
+        ByteBuffer buffer = mapped;
+        if ( buffer == null ) {
+            synchronized ( this ) {
+                if ( mapped == null )
+                    mapped = map();
+                buffer = mapped;
+            }
+        }
+        return buffer.duplicate();
+    }
+
+    /**
+     * @return a new stream reading the body from the beginning, supporting {@link InputStream#mark(int)} and
+     *         {@link InputStream#reset()}, never <code>null</code>
+     * @throws UncheckedIOException
+     *             if the temporary file could not be mapped
+     */
+    public InputStream openStream() {
+        return new BodyInputStream( this, asByteBuffer() );
+    }
+
+    /**
+     * @param maxLength
+     *            the maximum number of bytes to copy
+     * @return a copy of the first bytes of the body, never <code>null</code>
+     */
+    public byte[] head( int maxLength ) {
+        ByteBuffer buffer = asByteBuffer();
+        byte[] head = new byte[Math.min( buffer.remaining(), Math.max( maxLength, 0 ) )];
+        buffer.get( head );
+        return head;
+    }
+
+    private ByteBuffer map() {
+        if ( size > Integer.MAX_VALUE )
+            throw new UncheckedIOException( new IOException( "Body of " + size + " bytes in " + file
+                                                             + " is too large to be mapped" ) );
+        try (FileChannel channel = FileChannel.open( file.toPath(), StandardOpenOption.READ )) {
+            return channel.map( FileChannel.MapMode.READ_ONLY, 0, size ).asReadOnlyBuffer();
+        } catch ( IOException e ) {
+            throw new UncheckedIOException( "Could not map " + file, e );
+        }
+    }
+
+    private static final class BodyInputStream extends InputStream {
+
+        private final StoredBody body;
+
+        private final ByteBuffer buffer;
+
+        private int mark;
+
+        private BodyInputStream( StoredBody body, ByteBuffer buffer ) {
+            this.body = body;
+            this.buffer = buffer;
+        }
+
+        @Override
+        public synchronized int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public synchronized int read( byte[] b, int off, int len ) {
+            if ( len == 0 )
+                return 0;
+            if ( !buffer.hasRemaining() )
+                return -1;
+            int length = Math.min( len, buffer.remaining() );
+            buffer.get( b, off, length );
+            return length;
+        }
+
+        @Override
+        public synchronized long skip( long n ) {
+            int skipped = (int) Math.max( 0, Math.min( n, buffer.remaining() ) );
+            buffer.position( buffer.position() + skipped );
+            return skipped;
+        }
+
+        @Override
+        public synchronized int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public synchronized void mark( int readlimit ) {
+            mark = buffer.position();
+        }
+
+        @Override
+        public synchronized void reset() {
+            buffer.position( mark );
+        }
+
+        @Override
+        public void close() {
+            // like a ByteArrayInputStream, the body can be read again after reset()
+        }
+
+    }
+
+}
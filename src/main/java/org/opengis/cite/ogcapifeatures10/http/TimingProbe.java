@@ -0,0 +1,82 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+/**
+ * Collects the timings of the connection phases of the exchange sent by the current thread, reported by the
+ * {@link HttpTransport} while the {@link ExchangeTimingFilter} waits for the response. Reports of threads without a
+ * started probe, e.g. of the Jersey client, are ignored.
+ */
+final class TimingProbe {
+
+    private static final ThreadLocal<TimingProbe> CURRENT = new ThreadLocal<>();
+
+    private final TimingProbe previous;
+
+    private long connectNanos = -1;
+
+    private long firstByteNanoTime = -1;
+
+    private TimingProbe( TimingProbe previous ) {
+        this.previous = previous;
+    }
+
+    /**
+     * Starts a probe for the current thread, until {@link #stop()} is invoked.
+     *
+     * @return the started probe, never <code>null</code>
+     */
+    static TimingProbe start() {
+        TimingProbe probe = new TimingProbe( CURRENT.get() );
+        CURRENT.set( probe );
+        return probe;
+    }
+
+    /**
+     * Reports the time spent resolving the host name or opening a connection (including the TLS handshake).
+     *
+     * @param nanos
+     *            the duration in nanoseconds
+     */
+    static void connecting( long nanos ) {
+        TimingProbe probe = CURRENT.get();
+        if ( probe != null )
+            probe.connectNanos = Math.max( probe.connectNanos, 0 ) + nanos;
+    }
+
+    /**
+     * Reports that the headers of the response were received.
+     */
+    static void firstByte() {
+        TimingProbe probe = CURRENT.get();
+        if ( probe != null )
+            probe.firstByteNanoTime = System.nanoTime();
+    }
+
+    /**
+     * @return the time spent resolving host names and opening connections in nanoseconds, -1 if a pooled connection
+     *         was used
+     */
+    long getConnectNanos() {
+        return connectNanos;
+    }
+
+    /**
+     * @return the value of {@link System#nanoTime()} when the headers of the response were received, -1 if not
+     *         reported
+     */
+    long getFirstByteNanoTime() {
+        return firstByteNanoTime;
+    }
+
+    /**
+     * Stops this probe, the probe started before by the current thread (if any) receives the reports again.
+     */
+    void stop() {
+        if ( CURRENT.get() != this )
+            return;
+        if ( previous != null )
+            CURRENT.set( previous );
+        else
+            CURRENT.remove();
+    }
+
+}
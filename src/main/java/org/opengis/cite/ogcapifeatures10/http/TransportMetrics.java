@@ -0,0 +1,89 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+/**
+ * Snapshot of the connection pool state and the connection counters of a {@link HttpTransport}.
+ */
+public class TransportMetrics {
+
+    private final int leased;
+
+    private final int idle;
+
+    private final int pending;
+
+    private final int max;
+
+    private final long connectionsOpened;
+
+    private final long tlsHandshakes;
+
+    private final long tlsSessionsResumed;
+
+    TransportMetrics( int leased, int idle, int pending, int max, long connectionsOpened, long tlsHandshakes,
+                      long tlsSessionsResumed ) {
+        this.leased = leased;
+        this.idle = idle;
+        this.pending = pending;
+        this.max = max;
+        this.connectionsOpened = connectionsOpened;
+        this.tlsHandshakes = tlsHandshakes;
+        this.tlsSessionsResumed = tlsSessionsResumed;
+    }
+
+    /**
+     * @return number of connections currently in use
+     */
+    public int getLeased() {
+        return leased;
+    }
+
+    /**
+     * @return number of connections currently kept alive in the pool
+     */
+    public int getIdle() {
+        return idle;
+    }
+
+    /**
+     * @return number of requests currently waiting for a connection
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    /**
+     * @return maximum number of connections
+     */
+    public int getMax() {
+        return max;
+    }
+
+    /**
+     * @return number of connections opened since the transport was created
+     */
+    public long getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    /**
+     * @return number of TLS handshakes since the transport was created
+     */
+    public long getTlsHandshakes() {
+        return tlsHandshakes;
+    }
+
+    /**
+     * @return number of TLS handshakes which resumed a previously negotiated session
+     */
+    public long getTlsSessionsResumed() {
+        return tlsSessionsResumed;
+    }
+
+    @Override
+    public String toString() {
+        return "HTTP connections: opened=" + connectionsOpened + ", leased=" + leased + ", idle=" + idle
+               + ", pending=" + pending + ", max=" + max + "; TLS handshakes=" + tlsHandshakes + " (resumed="
+               + tlsSessionsResumed + ")";
+    }
+
+}
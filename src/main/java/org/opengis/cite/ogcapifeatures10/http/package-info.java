@@ -0,0 +1,5 @@
+/**
+ * This package includes the HTTP transport shared by all tests of a test run: a pooled keep-alive connection manager
+ * used by the Rest-Assured and the Jersey client components.
+ */
+package org.opengis.cite.ogcapifeatures10.http;
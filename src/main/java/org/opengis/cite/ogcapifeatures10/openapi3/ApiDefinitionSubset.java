@@ -0,0 +1,131 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Extracts the parts of an API definition the conformance tests depend on, so they can be validated without
+ * validating the whole document.
+ *
+ * <p>
+ * The subset contains all members of the document except paths and components, the paths of the landing page,
+ * conformance declaration, collections, collection, features and feature resources (e.g. <code>/</code>,
+ * <code>/conformance</code>, <code>/collections</code>, <code>/collections/{collectionId}</code>,
+ * <code>/collections/{collectionId}/items</code> and <code>/collections/{collectionId}/items/{featureId}</code>, also
+ * with explicit collection ids) and the components referenced by them directly or indirectly. Security schemes are
+ * always kept, as they are referenced by name. References to other documents are kept as they are.
+ * </p>
+ */
+public final class ApiDefinitionSubset {
+
+    private static final String COMPONENTS_POINTER = "#/components/";
+
+    private ApiDefinitionSubset() {
+    }
+
+    /**
+     * Extracts the subset of the passed API definition. The passed document is not modified, the subset is a copy.
+     *
+     * @param document
+     *            the API definition, never <code>null</code>
+     * @return the subset, never <code>null</code>
+     */
+    public static JsonNode extract( JsonNode document ) {
+        ObjectNode subset = JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = document.fields();
+        while ( fields.hasNext() ) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if ( !"paths".equals( field.getKey() ) && !"components".equals( field.getKey() ) )
+                subset.set( field.getKey(), field.getValue().deepCopy() );
+        }
+
+        ObjectNode paths = subset.putObject( "paths" );
+        Iterator<Map.Entry<String, JsonNode>> pathItems = document.path( "paths" ).fields();
+        while ( pathItems.hasNext() ) {
+            Map.Entry<String, JsonNode> pathItem = pathItems.next();
+            if ( isRelevantPath( pathItem.getKey() ) )
+                paths.set( pathItem.getKey(), pathItem.getValue().deepCopy() );
+        }
+
+        JsonNode components = document.get( "components" );
+        if ( components != null && components.isObject() )
+            subset.set( "components", extractComponents( components, paths ) );
+        return subset;
+    }
+
+    /**
+     * @param path
+     *            the path as declared in the API definition, never <code>null</code>
+     * @return <code>true</code> if the conformance tests depend on the path, <code>false</code> otherwise
+     */
+    public static boolean isRelevantPath( String path ) {
+        List<String> segments = new ArrayList<>();
+        for ( String segment : path.split( "/" ) ) {
+            if ( !segment.isEmpty() )
+                segments.add( segment );
+        }
+        int size = segments.size();
+        if ( size == 0 )
+            return true;
+        String last = segments.get( size - 1 );
+        if ( "conformance".equals( last ) || "collections".equals( last ) )
+            return true;
+        if ( size >= 2 && "collections".equals( segments.get( size - 2 ) ) )
+            return true;
+        if ( size >= 3 && "items".equals( last ) && "collections".equals( segments.get( size - 3 ) ) )
+            return true;
+        return size >= 4 && "items".equals( segments.get( size - 2 ) )
+               && "collections".equals( segments.get( size - 4 ) );
+    }
+
+    private static ObjectNode extractComponents( JsonNode components, JsonNode paths ) {
+        ObjectNode subset = JsonNodeFactory.instance.objectNode();
+        JsonNode securitySchemes = components.get( "securitySchemes" );
+        if ( securitySchemes != null )
+            subset.set( "securitySchemes", securitySchemes.deepCopy() );
+
+        Set<String> included = new HashSet<>();
+        Deque<JsonNode> nodes = new ArrayDeque<>();
+        nodes.push( paths );
+        while ( !nodes.isEmpty() ) {
+            JsonNode node = nodes.pop();
+            JsonNode ref = node.get( "$ref" );
+            if ( ref != null && ref.isTextual() && ref.textValue().startsWith( COMPONENTS_POINTER ) ) {
+                String[] typeAndName = ref.textValue().substring( COMPONENTS_POINTER.length() ).split( "/" );
+                if ( typeAndName.length >= 2 && !"securitySchemes".equals( typeAndName[0] )
+                     && included.add( typeAndName[0] + '/' + typeAndName[1] ) ) {
+                    JsonNode component = components.path( typeAndName[0] ).get( unescape( typeAndName[1] ) );
+                    if ( component != null ) {
+                        ObjectNode type = subset.has( typeAndName[0] ) ? (ObjectNode) subset.get( typeAndName[0] )
+                                                                        : subset.putObject( typeAndName[0] );
+                        JsonNode copy = component.deepCopy();
+                        type.set( unescape( typeAndName[1] ), copy );
+                        nodes.push( copy );
+                    }
+                }
+            }
+            Iterator<JsonNode> children = node.elements();
+            while ( children.hasNext() ) {
+                JsonNode child = children.next();
+                if ( child.isContainerNode() )
+                    nodes.push( child );
+            }
+        }
+        return subset;
+    }
+
+    private static String unescape( String referenceToken ) {
+        return referenceToken.replace( "~1", "/" ).replace( "~0", "~" );
+    }
+
+}
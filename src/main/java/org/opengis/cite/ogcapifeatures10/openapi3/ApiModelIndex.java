@@ -0,0 +1,108 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Path;
+
+/**
+ * The lookup structures of one {@link OpenApi3} model used by {@link OpenApiUtils}: the trie of the paths, the resolved
+ * server URLs, the parameter tables of the paths and the resolved test points. The path trie is built when the index
+ * is created, the other structures are filled on first use and kept as long as the index. The index also carries the
+ * maximum number of template variable combinations the test points are expanded to, so suites with different limits
+ * do not interfere.
+ *
+ * <p>
+ * Instances are thread-safe; the index of the API definition under test is registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#API_MODEL_INDEX} next to the model itself.
+ * </p>
+ */
+public final class ApiModelIndex {
+
+    private static final ParameterTable EMPTY_PARAMETER_TABLE = new ParameterTable( null );
+
+    private final OpenApi3 apiModel;
+
+    private final int maxTemplateReplacements;
+
+    private final PathIndex pathIndex;
+
+    private final ServerUrlResolver serverUrlResolver;
+
+    private final Map<String, ParameterTable> parameterTables = new ConcurrentHashMap<>();
+
+    private final TestPointCache testPointCache = new TestPointCache();
+
+    /**
+     * Creates an index expanding a path to at most {@link OpenApiUtils#DEFAULT_MAX_TEMPLATE_REPLACEMENTS} combinations
+     * of template variable values per server.
+     *
+     * @param apiModel
+     *            the parsed OpenAPI document, never <code>null</code>
+     */
+    public ApiModelIndex( OpenApi3 apiModel ) {
+        this( apiModel, OpenApiUtils.DEFAULT_MAX_TEMPLATE_REPLACEMENTS );
+    }
+
+    /**
+     * @param apiModel
+     *            the parsed OpenAPI document, never <code>null</code>
+     * @param maxTemplateReplacements
+     *            the maximum number of combinations of template variable values a path is expanded to for a server,
+     *            must be greater than 0
+     */
+    public ApiModelIndex( OpenApi3 apiModel, int maxTemplateReplacements ) {
+        if ( maxTemplateReplacements <= 0 )
+            throw new IllegalArgumentException( "Maximum number of template replacements must be greater than 0" );
+        this.apiModel = apiModel;
+        this.maxTemplateReplacements = maxTemplateReplacements;
+        this.pathIndex = new PathIndex( apiModel );
+        this.serverUrlResolver = new ServerUrlResolver( apiModel );
+    }
+
+    /**
+     * @return the indexed model, never <code>null</code>
+     */
+    public OpenApi3 getApiModel() {
+        return apiModel;
+    }
+
+    /**
+     * @return the maximum number of combinations of template variable values a path is expanded to for a server; if a
+     *         path has more combinations, a deterministic sample is used (see A.4.3.3. Process Server Object)
+     */
+    public int getMaxTemplateReplacements() {
+        return maxTemplateReplacements;
+    }
+
+    /**
+     * @return the cache of the test points resolved from the model, never <code>null</code>
+     */
+    public TestPointCache getTestPointCache() {
+        return testPointCache;
+    }
+
+    PathIndex getPathIndex() {
+        return pathIndex;
+    }
+
+    ServerUrlResolver getServerUrlResolver() {
+        return serverUrlResolver;
+    }
+
+    /**
+     * @param pathString
+     *            the path as declared in the document, never <code>null</code>
+     * @return the table of the path, empty if the path is not declared, never <code>null</code>
+     */
+    ParameterTable getParameterTable( String pathString ) {
+        return parameterTables.computeIfAbsent( pathString, this::createParameterTable );
+    }
+
+    private ParameterTable createParameterTable( String pathString ) {
+        Path path = apiModel.getPath( pathString );
+        return path != null ? new ParameterTable( path ) : EMPTY_PARAMETER_TABLE;
+    }
+
+}
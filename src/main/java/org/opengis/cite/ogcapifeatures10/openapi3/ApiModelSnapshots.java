@@ -0,0 +1,227 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores the outcome of the validation of API definitions in a local directory, so that a repeated test run against
+ * an unchanged API definition does not validate the document again. A snapshot is keyed by the SHA-256 hash of the
+ * fetched document and is only used if it was stored for the same url, as references are resolved relative to it.
+ *
+ * <p>
+ * Each snapshot is a properties file named by the hash. Snapshots are written to a temporary file first and moved in
+ * place, so concurrent test runs never read a partially written snapshot. Instances are thread-safe; one instance is
+ * created per test run and registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#API_MODEL_SNAPSHOTS}.
+ * </p>
+ */
+public class ApiModelSnapshots {
+
+    private static final String FORMAT_VERSION = "1";
+
+    private final File directory;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param directory
+     *            the directory containing the snapshots, created if it does not exist, never <code>null</code>
+     */
+    public ApiModelSnapshots( File directory ) {
+        this.directory = directory;
+    }
+
+    /**
+     * @return the directory containing the snapshots, never <code>null</code>
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Finds the snapshot of an API definition.
+     *
+     * @param document
+     *            the API definition as fetched, never <code>null</code>
+     * @param url
+     *            the url the API definition was fetched from, never <code>null</code>
+     * @return the snapshot, <code>null</code> if no snapshot of the document fetched from this url exists or the
+     *         snapshot could not be read
+     */
+    public Snapshot find( String document, String url ) {
+        return find( document.getBytes( StandardCharsets.UTF_8 ), url );
+    }
+
+    /**
+     * Finds the snapshot of an API definition.
+     *
+     * @param document
+     *            the API definition as fetched, never <code>null</code>
+     * @param url
+     *            the url the API definition was fetched from, never <code>null</code>
+     * @return the snapshot, <code>null</code> if no snapshot of the document fetched from this url exists or the
+     *         snapshot could not be read
+     */
+    public Snapshot find( byte[] document, String url ) {
+        File file = snapshotFile( hash( document ) );
+        if ( !file.isFile() ) {
+            misses.incrementAndGet();
+            return null;
+        }
+        Properties properties = new Properties();
+        try ( InputStream in = Files.newInputStream( file.toPath() ) ) {
+            properties.load( in );
+        } catch ( IOException e ) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if ( !FORMAT_VERSION.equals( properties.getProperty( "version" ) )
+             || !url.equals( properties.getProperty( "url" ) ) ) {
+            misses.incrementAndGet();
+            return null;
+        }
+        int numberOfItems;
+        try {
+            numberOfItems = Integer.parseInt( properties.getProperty( "validationItems", "0" ) );
+        } catch ( NumberFormatException e ) {
+            misses.incrementAndGet();
+            return null;
+        }
+        List<String> validationItems = new ArrayList<>();
+        for ( int i = 0; i < numberOfItems; i++ )
+            validationItems.add( properties.getProperty( "validationItem." + i, "" ) );
+        hits.incrementAndGet();
+        return new Snapshot( Boolean.parseBoolean( properties.getProperty( "valid" ) ), validationItems );
+    }
+
+    /**
+     * Stores the snapshot of an API definition, replaces an existing snapshot of the same document.
+     *
+     * @param document
+     *            the API definition as fetched, never <code>null</code>
+     * @param url
+     *            the url the API definition was fetched from, never <code>null</code>
+     * @param snapshot
+     *            the outcome of the validation, never <code>null</code>
+     * @throws IOException
+     *             if the snapshot could not be written
+     */
+    public void store( String document, String url, Snapshot snapshot )
+                            throws IOException {
+        store( document.getBytes( StandardCharsets.UTF_8 ), url, snapshot );
+    }
+
+    /**
+     * Stores the snapshot of an API definition, replaces an existing snapshot of the same document.
+     *
+     * @param document
+     *            the API definition as fetched, never <code>null</code>
+     * @param url
+     *            the url the API definition was fetched from, never <code>null</code>
+     * @param snapshot
+     *            the outcome of the validation, never <code>null</code>
+     * @throws IOException
+     *             if the snapshot could not be written
+     */
+    public void store( byte[] document, String url, Snapshot snapshot )
+                            throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty( "version", FORMAT_VERSION );
+        properties.setProperty( "url", url );
+        properties.setProperty( "valid", Boolean.toString( snapshot.isValid() ) );
+        List<String> validationItems = snapshot.getValidationItems();
+        properties.setProperty( "validationItems", Integer.toString( validationItems.size() ) );
+        for ( int i = 0; i < validationItems.size(); i++ )
+            properties.setProperty( "validationItem." + i, validationItems.get( i ) );
+
+        Files.createDirectories( directory.toPath() );
+        File file = snapshotFile( hash( document ) );
+        File tmpFile = File.createTempFile( file.getName(), ".tmp", directory );
+        try {
+            try ( OutputStream out = Files.newOutputStream( tmpFile.toPath() ) ) {
+                properties.store( out, "Validation of " + url );
+            }
+            Files.move( tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        } finally {
+            Files.deleteIfExists( tmpFile.toPath() );
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "API model snapshots: " + hits + " hits, " + misses + " misses (" + directory + ")";
+    }
+
+    private File snapshotFile( String hash ) {
+        return new File( directory, hash + ".properties" );
+    }
+
+    static String hash( String document ) {
+        return hash( document.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    static String hash( byte[] document ) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance( "SHA-256" );
+            byte[] hash = digest.digest( document );
+            StringBuilder hex = new StringBuilder( hash.length * 2 );
+            for ( byte b : hash )
+                hex.append( String.format( "%02x", b ) );
+            return hex.toString();
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( "SHA-256 is not supported", e );
+        }
+    }
+
+    /**
+     * The outcome of the validation of an API definition.
+     */
+    public static class Snapshot {
+
+        private final boolean valid;
+
+        private final List<String> validationItems;
+
+        /**
+         * @param valid
+         *            <code>true</code> if the API definition is valid, <code>false</code> otherwise
+         * @param validationItems
+         *            the validation messages, may be empty but never <code>null</code>
+         */
+        public Snapshot( boolean valid, List<String> validationItems ) {
+            this.valid = valid;
+            this.validationItems = Collections.unmodifiableList( new ArrayList<>( validationItems ) );
+        }
+
+        /**
+         * @return <code>true</code> if the API definition is valid, <code>false</code> otherwise
+         */
+        public boolean isValid() {
+            return valid;
+        }
+
+        /**
+         * @return the validation messages, may be empty but never <code>null</code>
+         */
+        public List<String> getValidationItems() {
+            return validationItems;
+        }
+
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelSnapshots.Snapshot;
+
+/**
+ * The validation of the whole API definition, executed in the background while the tests run. Used if only the parts
+ * of the API definition the conformance tests depend on are validated by the test of the API definition (see
+ * {@link ApiDefinitionSubset}); the outcome is reported separately when the test run finishes.
+ *
+ * <p>
+ * Instances are thread-safe; the running validation is registered as suite attribute
+ * {@link org.opengis.cite.ogcapifeatures10.SuiteAttribute#API_MODEL_VALIDATION}.
+ * </p>
+ */
+public class ApiModelValidation {
+
+    /**
+     * The parts of the API definition validated by the test of the API definition.
+     */
+    public enum Mode {
+
+        /** The whole API definition. */
+        FULL,
+
+        /** The parts the conformance tests depend on; the whole API definition is validated in the background. */
+        SELECTIVE
+
+    }
+
+    private final String url;
+
+    private final FutureTask<Snapshot> validation;
+
+    private final long start = System.nanoTime();
+
+    private volatile long duration = -1;
+
+    private ApiModelValidation( String url, Callable<Snapshot> validation ) {
+        this.url = url;
+        this.validation = new FutureTask<Snapshot>( validation ) {
+
+            @Override
+            protected void done() {
+                duration = ( System.nanoTime() - start ) / 1000000;
+            }
+        };
+    }
+
+    /**
+     * Starts the validation in the background.
+     *
+     * @param url
+     *            the url of the validated API definition, never <code>null</code>
+     * @param validation
+     *            parses and validates the API definition, never <code>null</code>
+     * @param executor
+     *            executes the validation, never <code>null</code>
+     * @return the running validation, never <code>null</code>
+     */
+    public static ApiModelValidation start( String url, Callable<Snapshot> validation, Executor executor ) {
+        ApiModelValidation apiModelValidation = new ApiModelValidation( url, validation );
+        executor.execute( apiModelValidation.validation );
+        return apiModelValidation;
+    }
+
+    /**
+     * Waits until the validation is finished.
+     *
+     * @return the outcome of the validation, never <code>null</code>
+     * @throws ExecutionException
+     *             if the validation failed
+     * @throws InterruptedException
+     *             if the thread was interrupted while waiting
+     */
+    public Snapshot getSnapshot()
+                            throws ExecutionException, InterruptedException {
+        return validation.get();
+    }
+
+    /**
+     * Cancels the validation if it is not finished yet.
+     */
+    public void cancel() {
+        validation.cancel( true );
+    }
+
+    /**
+     * Waits until the validation is finished and describes its outcome.
+     *
+     * @return the outcome of the validation, never <code>null</code>
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder( "Validation of the whole API definition " ).append( url ).append( ": " );
+        try {
+            Snapshot snapshot = getSnapshot();
+            sb.append( snapshot.isValid() ? "valid" : "not valid" );
+            sb.append( " (" ).append( duration ).append( " ms)" );
+            for ( String validationItem : snapshot.getValidationItems() )
+                sb.append( "\n  - " ).append( validationItem );
+        } catch ( ExecutionException e ) {
+            sb.append( "failed: " ).append( e.getCause() );
+        } catch ( CancellationException e ) {
+            sb.append( "cancelled" );
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+            sb.append( "interrupted" );
+        }
+        return sb.toString();
+    }
+
+}
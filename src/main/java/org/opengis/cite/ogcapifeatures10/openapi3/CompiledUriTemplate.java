@@ -0,0 +1,238 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The URI template of a {@link TestPoint} (server url and path), compiled once into literal parts and template
+ * variables. The variables of the collection id (<code>/collections/{collectionId}</code>) and the feature id
+ * (<code>items/{featureId}</code>) are identified when the template is compiled.
+ *
+ * <p>
+ * The values of the variables are percent-encoded as path segments (RFC 3986), so ids containing e.g. spaces or slashes
+ * result in valid urls addressing the id. Variables without value are replaced by an empty string. Instances are
+ * immutable and thread-safe.
+ * </p>
+ */
+public final class CompiledUriTemplate {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final List<String> literals = new ArrayList<>();
+
+    private final List<String> variables = new ArrayList<>();
+
+    private final String collectionIdVariable;
+
+    private final String featureIdVariable;
+
+    private final int estimatedLength;
+
+    private CompiledUriTemplate( String serverUrl, String path ) {
+        String template = serverUrl + path;
+        StringBuilder literal = new StringBuilder();
+        int index = 0;
+        while ( index < template.length() ) {
+            int start = template.indexOf( '{', index );
+            int end = start >= 0 ? template.indexOf( '}', start ) : -1;
+            if ( start < 0 || end < 0 ) {
+                literal.append( template, index, template.length() );
+                break;
+            }
+            literal.append( template, index, start );
+            literals.add( literal.toString() );
+            literal.setLength( 0 );
+            variables.add( variableName( template.substring( start + 1, end ) ) );
+            index = end + 1;
+        }
+        literals.add( literal.toString() );
+        this.estimatedLength = template.length() + 16 * variables.size();
+
+        String collectionIdVariable = null;
+        String featureIdVariable = null;
+        for ( String variable : variables ) {
+            if ( collectionIdVariable == null && path.startsWith( "/collections/{" + variable + "}" ) )
+                collectionIdVariable = variable;
+            if ( featureIdVariable == null && path.endsWith( "items/{" + variable + "}" ) )
+                featureIdVariable = variable;
+        }
+        this.collectionIdVariable = collectionIdVariable;
+        this.featureIdVariable = featureIdVariable;
+    }
+
+    /**
+     * Compiles the template of a test point.
+     *
+     * @param serverUrl
+     *            the server url, never <code>null</code>
+     * @param path
+     *            the path, may contain template variables, never <code>null</code>
+     * @return the compiled template, never <code>null</code>
+     */
+    public static CompiledUriTemplate compile( String serverUrl, String path ) {
+        return new CompiledUriTemplate( serverUrl, path );
+    }
+
+    /**
+     * @return the names of the template variables in the order of their occurrence, may be empty but never
+     *         <code>null</code>
+     */
+    public List<String> getVariables() {
+        return Collections.unmodifiableList( variables );
+    }
+
+    /**
+     * @return the name of the variable of the collection id, <code>null</code> if the path does not start with
+     *         <code>/collections/{variable}</code>
+     */
+    public String getCollectionIdVariable() {
+        return collectionIdVariable;
+    }
+
+    /**
+     * @return the name of the variable of the feature id, <code>null</code> if the path does not end with
+     *         <code>items/{variable}</code>
+     */
+    public String getFeatureIdVariable() {
+        return featureIdVariable;
+    }
+
+    /**
+     * Expands the template.
+     *
+     * @param values
+     *            the values of the template variables, not encoded, never <code>null</code>
+     * @return the url, never <code>null</code>
+     */
+    public String expand( Map<String, String> values ) {
+        return expand( values, null, null );
+    }
+
+    /**
+     * Expands the template with the passed collection and feature id.
+     *
+     * @param values
+     *            the values of the template variables, not encoded, never <code>null</code>
+     * @param collectionId
+     *            the collection id, replaces the value of the variable of the collection id, not encoded, may be
+     *            <code>null</code>
+     * @param featureId
+     *            the feature id, replaces the value of the variable of the feature id, not encoded, may be
+     *            <code>null</code>
+     * @return the url, never <code>null</code>
+     */
+    public String expand( Map<String, String> values, String collectionId, String featureId ) {
+        StringBuilder url = new StringBuilder( estimatedLength );
+        url.append( literals.get( 0 ) );
+        for ( int i = 0; i < variables.size(); i++ ) {
+            String variable = variables.get( i );
+            String value;
+            if ( collectionId != null && variable.equals( collectionIdVariable ) )
+                value = collectionId;
+            else if ( featureId != null && variable.equals( featureIdVariable ) )
+                value = featureId;
+            else
+                value = values.get( variable );
+            if ( value != null )
+                appendEncoded( url, value );
+            url.append( literals.get( i + 1 ) );
+        }
+        return url.toString();
+    }
+
+    /**
+     * Appends a path segment to an url, query and fragment of the url are removed.
+     *
+     * @param url
+     *            the url, never <code>null</code>
+     * @param segment
+     *            the segment to append, not encoded, never <code>null</code>
+     * @return the url with the appended segment, never <code>null</code>
+     */
+    public static String appendPathSegment( String url, String segment ) {
+        int end = url.length();
+        int query = url.indexOf( '?' );
+        if ( query >= 0 )
+            end = query;
+        int fragment = url.indexOf( '#' );
+        if ( fragment >= 0 && fragment < end )
+            end = fragment;
+        StringBuilder result = new StringBuilder( end + segment.length() + 1 );
+        result.append( url, 0, end );
+        if ( end == 0 || result.charAt( end - 1 ) != '/' )
+            result.append( '/' );
+        appendEncoded( result, segment );
+        return result.toString();
+    }
+
+    /**
+     * Percent-encodes all characters not allowed in a path segment (RFC 3986, <code>pchar</code>).
+     *
+     * @param segment
+     *            the segment to encode, never <code>null</code>
+     * @return the encoded segment, never <code>null</code>
+     */
+    public static String encodePathSegment( String segment ) {
+        StringBuilder encoded = new StringBuilder( segment.length() );
+        appendEncoded( encoded, segment );
+        return encoded.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder template = new StringBuilder( literals.get( 0 ) );
+        for ( int i = 0; i < variables.size(); i++ )
+            template.append( '{' ).append( variables.get( i ) ).append( '}' ).append( literals.get( i + 1 ) );
+        return template.toString();
+    }
+
+    private static void appendEncoded( StringBuilder url, String value ) {
+        for ( int i = 0; i < value.length(); i++ ) {
+            char c = value.charAt( i );
+            if ( isPathSegmentChar( c ) ) {
+                url.append( c );
+            } else {
+                int codePointLength = Character.isHighSurrogate( c ) && i + 1 < value.length() ? 2 : 1;
+                for ( byte b : value.substring( i, i + codePointLength ).getBytes( StandardCharsets.UTF_8 ) )
+                    url.append( '%' ).append( HEX[( b >> 4 ) & 0xF] ).append( HEX[b & 0xF] );
+                i += codePointLength - 1;
+            }
+        }
+    }
+
+    private static boolean isPathSegmentChar( char c ) {
+        if ( ( c >= 'a' && c <= 'z' ) || ( c >= 'A' && c <= 'Z' ) || ( c >= '0' && c <= '9' ) )
+            return true;
+        switch ( c ) {
+        case '-':
+        case '.':
+        case '_':
+        case '~':
+        case '!':
+        case '$':
+        case '&':
+        case '\'':
+        case '(':
+        case ')':
+        case '*':
+        case '+':
+        case ',':
+        case ';':
+        case '=':
+        case ':':
+        case '@':
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static String variableName( String expression ) {
+        int regex = expression.indexOf( ':' );
+        return ( regex >= 0 ? expression.substring( 0, regex ) : expression ).trim();
+    }
+
+}
@@ -8,13 +8,17 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
-import java.util.regex.Matcher;
+import java.util.logging.Level;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.opengis.cite.ogcapifeatures10.TestRunArg;
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
+
 import com.reprezen.kaizen.oasparser.model3.MediaType;
 import com.reprezen.kaizen.oasparser.model3.OpenApi3;
 import com.reprezen.kaizen.oasparser.model3.Operation;
@@ -24,21 +28,12 @@ import com.reprezen.kaizen.oasparser.model3.Response;
 import com.reprezen.kaizen.oasparser.model3.Schema;
 import com.reprezen.kaizen.oasparser.model3.Server;
 import com.sun.jersey.api.uri.UriTemplate;
-import com.sun.jersey.api.uri.UriTemplateParser;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
 public class OpenApiUtils {
 
-    // as described in https://github.com/OAI/OpenAPI-Specification/blob/master/versions/3.0.0.md#fixed-fields
-    private static final String DEFAULT_SERVER_URL = "/";
-
-    @FunctionalInterface
-    private interface PathMatcherFunction<A, B, C> {
-        A apply( B b, C c );
-    }
-
     enum PATH {
 
         CONFORMANCE( "conformance" ), COLLECTIONS( "collections" );
@@ -55,15 +50,6 @@ public class OpenApiUtils {
         }
     }
 
-    private static class PathMatcher implements PathMatcherFunction<Boolean, String, String> {
-        @Override
-        public Boolean apply( String pathUnderTest, String pathToMatch ) {
-            UriTemplateParser parser = new UriTemplateParser( pathUnderTest );
-            Matcher matcher = parser.getPattern().matcher( pathToMatch );
-            return matcher.matches();
-        }
-    }
-
     private static class ExactMatchFilter implements Predicate<TestPoint> {
 
         private final String requestedPath;
@@ -88,197 +74,215 @@ public class OpenApiUtils {
         }
     }
 
+    /** Default maximum number of combinations of template variable values per path and server. */
+    public static final int DEFAULT_MAX_TEMPLATE_REPLACEMENTS = 1000;
+
     private OpenApiUtils() {
     }
 
     /**
      * Parse all test points from the passed OpenApi3 document as described in A.4.3. Identify the Test Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    static List<TestPoint> retrieveTestPoints( OpenApi3 apiModel, URI iut ) {
-        List<Path> pathItemObjects = identifyTestPoints( apiModel );
-        List<PathItemAndServer> pathItemAndServers = identifyServerUrls( apiModel, iut, pathItemObjects );
-        return processServerObjects( pathItemAndServers, true );
+    static List<TestPoint> retrieveTestPoints( ApiModelIndex apiModelIndex, URI iut ) {
+        return apiModelIndex.getTestPointCache().get( iut, "all", () -> {
+            List<Path> pathItemObjects = identifyTestPoints( apiModelIndex );
+            List<PathItemAndServer> pathItemAndServers = identifyServerUrls( apiModelIndex, iut, pathItemObjects );
+            return processServerObjects( pathItemAndServers, true, Integer.MAX_VALUE,
+                                         apiModelIndex.getMaxTemplateReplacements() );
+        } );
     }
 
     /**
      * Parse the CONFORMANCE test points from the passed OpenApi3 document as described in A.4.3. Identify the Test
      * Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    public static List<TestPoint> retrieveTestPointsForConformance( OpenApi3 apiModel, URI iut ) {
-        return retrieveTestPoints( apiModel, iut, CONFORMANCE, false );
+    public static List<TestPoint> retrieveTestPointsForConformance( ApiModelIndex apiModelIndex, URI iut ) {
+        return retrieveTestPoints( apiModelIndex, iut, CONFORMANCE, false );
     }
 
     /**
      * Parse the COLLECTIONS METADATA test points from the passed OpenApi3 document as described in A.4.3. Identify the
      * Test Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    public static List<TestPoint> retrieveTestPointsForCollectionsMetadata( OpenApi3 apiModel, URI iut ) {
-        return retrieveTestPoints( apiModel, iut, COLLECTIONS, false );
+    public static List<TestPoint> retrieveTestPointsForCollectionsMetadata( ApiModelIndex apiModelIndex, URI iut ) {
+        return retrieveTestPoints( apiModelIndex, iut, COLLECTIONS, false );
     }
 
     /**
      * Parse the COLLECTION METADATA test points for the passed collectionName including the extended path from the
      * passed OpenApi3 document as described in A.4.3. Identify the Test Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
      * @param collectionName
      *            the extended path, may be <code>null</code>
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    public static List<TestPoint> retrieveTestPointsForCollectionMetadata( OpenApi3 apiModel, URI iut, String collectionName ) {
+    public static List<TestPoint> retrieveTestPointsForCollectionMetadata( ApiModelIndex apiModelIndex, URI iut, String collectionName ) {
         StringBuilder requestedPath = new StringBuilder();
-        requestedPath.append(findBasePath(apiModel, iut));
+        requestedPath.append(findBasePath(apiModelIndex, iut));
         requestedPath.append( COLLECTIONS.getPathItem() );
         requestedPath.append( "/" );
         requestedPath.append( collectionName );
 
-        List<TestPoint> testPoints = retrieveTestPoints( apiModel, iut, requestedPath.toString(), true );
-        return testPoints.stream().filter( new ExactMatchFilter( requestedPath.toString() ) ).collect( Collectors.toList() );
+        return retrieveExactlyMatchingTestPoints( apiModelIndex, iut, requestedPath.toString() );
     }
 
     /**
      * Parse the COLLECTIONS test points from the passed OpenApi3 document as described in A.4.3. Identify the Test
      * Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
      * @param noOfCollection
      *            the number of collections to return test points for (-1 means the test points of all collections
      *            should be returned)
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    public static List<TestPoint> retrieveTestPointsForCollections( OpenApi3 apiModel, URI iut, int noOfCollection ) {
+    public static List<TestPoint> retrieveTestPointsForCollections( ApiModelIndex apiModelIndex, URI iut, int noOfCollection ) {
         StringBuilder requestedPath = new StringBuilder();
-        requestedPath.append(findBasePath(apiModel, iut));
+        requestedPath.append(findBasePath(apiModelIndex, iut));
         requestedPath.append( COLLECTIONS.getPathItem() );
         requestedPath.append( "/.*/items" );
 
-        List<TestPoint> allTestPoints = retrieveTestPoints( apiModel, iut, requestedPath.toString(),
-                                                            ( a, b ) -> a.matches( b ), true );
-        if ( noOfCollection < 0 || allTestPoints.size() <= noOfCollection ) {
-            return allTestPoints;
-        }
-        return allTestPoints.subList( 0, noOfCollection );
+        int maxTestPoints = noOfCollection < 0 ? Integer.MAX_VALUE : noOfCollection;
+        return apiModelIndex.getTestPointCache().get( iut, "regex " + maxTestPoints + " " + requestedPath, () -> {
+            List<Path> pathItemObjects = apiModelIndex.getPathIndex().findMatchingRegex( requestedPath.toString() );
+            List<PathItemAndServer> pathItemAndServers = identifyServerUrls( apiModelIndex, iut, pathItemObjects );
+            return processServerObjects( pathItemAndServers, true, maxTestPoints,
+                                         apiModelIndex.getMaxTemplateReplacements() );
+        } );
     }
 
     /**
      * Parse the test points with the passed path including the extended path from the passed OpenApi3 document as
      * described in A.4.3. Identify the Test Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
      * @param collectionName
      *            the extended path, may be <code>null</code>
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    public static List<TestPoint> retrieveTestPointsForCollection( OpenApi3 apiModel, URI iut, String collectionName ) {
-        String requestedPath = createCollectionPath(apiModel, iut, collectionName);
+    public static List<TestPoint> retrieveTestPointsForCollection( ApiModelIndex apiModelIndex, URI iut, String collectionName ) {
+        String requestedPath = createCollectionPath(apiModelIndex, iut, collectionName);
 
-        List<TestPoint> testPoints = retrieveTestPoints( apiModel, iut, requestedPath, true );
-        return testPoints.stream().filter( new ExactMatchFilter( requestedPath ) ).collect( Collectors.toList() );
+        return retrieveExactlyMatchingTestPoints( apiModelIndex, iut, requestedPath );
     }
 
     /**
      * Parse the test points with the passed path including the extended path from the passed OpenApi3 document as
      * described in A.4.3. Identify the Test Points.
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            the url of the instance under test, never <code>null</code>
      * @param collectionName
      *            the extended path, may be <code>null</code>
      * @param featureId
      *            the id of the feature, never <code>null</code>
-     * @return the parsed test points, may be empty but never <code>null</code>
+     * @return the parsed test points, may be empty but never <code>null</code>, the list is immutable
      */
-    public static List<TestPoint> retrieveTestPointsForFeature( OpenApi3 apiModel, URI iut, String collectionName,
+    public static List<TestPoint> retrieveTestPointsForFeature( ApiModelIndex apiModelIndex, URI iut, String collectionName,
                                                                 String featureId ) {
         StringBuilder requestedPath = new StringBuilder();
-        requestedPath.append(findBasePath(apiModel, iut));
+        requestedPath.append(findBasePath(apiModelIndex, iut));
         requestedPath.append( COLLECTIONS.getPathItem() );
         requestedPath.append( "/" );
         requestedPath.append( collectionName );
         requestedPath.append( "/items/" );
         requestedPath.append( featureId );
 
-        List<TestPoint> testPoints = retrieveTestPoints( apiModel, iut, requestedPath.toString(), true );
-        return testPoints.stream().filter( new ExactMatchFilter( requestedPath.toString() ) ).collect( Collectors.toList() );
+        return retrieveExactlyMatchingTestPoints( apiModelIndex, iut, requestedPath.toString() );
     }
 
-    public static Parameter retrieveParameterByName( String collectionItemPath, OpenApi3 apiModel, String name ) {
-        Path path = apiModel.getPath( collectionItemPath );
-        if ( path != null ) {
-            for ( Parameter parameter : path.getParameters() )
-                if ( name.equals( parameter.getName() ) )
-                    return parameter;
-            Operation get = path.getOperation( "get" );
-            for ( Parameter parameter : get.getParameters() )
-                if ( name.equals( parameter.getName() ) )
-                    return parameter;
-        }
-        return null;
+    /**
+     * Retrieves the parameter with the passed name declared by the path or its GET operation. Parameters declared by
+     * the path take precedence.
+     *
+     * @param collectionItemPath
+     *            the path as declared in the document, never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
+     * @param name
+     *            the name of the parameter, compared exactly, never <code>null</code>
+     * @return the parameter, <code>null</code> if the path is not declared or does not declare the parameter
+     */
+    public static Parameter retrieveParameterByName( String collectionItemPath, ApiModelIndex apiModelIndex, String name ) {
+        return apiModelIndex.getParameterTable( collectionItemPath ).get( name );
+    }
+
+    /**
+     * Retrieves the parameter with the passed name declared by the GET operation of the path, the name is compared
+     * case-insensitively.
+     *
+     * @param collectionItemPath
+     *            the path as declared in the document, never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
+     * @param name
+     *            the name of the parameter, compared case-insensitively, never <code>null</code>
+     * @return the parameter, <code>null</code> if the path is not declared or its GET operation does not declare the
+     *         parameter
+     */
+    public static Parameter retrieveParameterByNameIgnoreCase( String collectionItemPath, ApiModelIndex apiModelIndex,
+                                                               String name ) {
+        return apiModelIndex.getParameterTable( collectionItemPath ).getOperationParameterIgnoreCase( name );
     }
 
-    public static boolean isFreeFormParameterSupportedForCollection( OpenApi3 apiModel, URI iut, String collectionName ) {
-        String requestedPath = createCollectionPath(apiModel, iut, collectionName);
+    public static boolean isFreeFormParameterSupportedForCollection( ApiModelIndex apiModelIndex, URI iut, String collectionName ) {
+        String requestedPath = createCollectionPath(apiModelIndex, iut, collectionName);
 
-        List<Path> paths = identifyTestPoints( apiModel, requestedPath, new PathMatcher() );
+        List<Path> paths = identifyTestPoints( apiModelIndex, requestedPath );
         for ( Path path : paths ) {
-            Collection<Parameter> parameters = path.getGet().getParameters();
-            for ( Parameter parameter : parameters ) {
-                if ( parameter.getSchema() != null && parameter.getSchema().isAdditionalProperties() ) {
-                    return true;
-                }
+            if ( apiModelIndex.getParameterTable( path.getPathString() ).hasFreeFormOperationParameter() ) {
+                return true;
             }
         }
         return false;
     }
 
-    public static boolean isParameterSupportedForCollection( OpenApi3 apiModel, URI iut, String collectionName,
+    public static boolean isParameterSupportedForCollection( ApiModelIndex apiModelIndex, URI iut, String collectionName,
                                                              String queryParam ) {
-        String requestedPath = createCollectionPath(apiModel, iut, collectionName);
+        String requestedPath = createCollectionPath(apiModelIndex, iut, collectionName);
 
-        List<Path> paths = identifyTestPoints( apiModel, requestedPath, new PathMatcher() );
+        List<Path> paths = identifyTestPoints( apiModelIndex, requestedPath );
         for ( Path path : paths ) {
-            Collection<Parameter> parameters = path.getGet().getParameters();
-            for ( Parameter parameter : parameters ) {
-                if ( queryParam.equalsIgnoreCase( parameter.getName() ) ) {
-                    return true;
-                }
+            if ( retrieveParameterByNameIgnoreCase( path.getPathString(), apiModelIndex, queryParam ) != null ) {
+                return true;
             }
         }
         return false;
     }
 
-    private static String createCollectionPath(OpenApi3 apiModel, URI iut, String collectionName) {
+    private static String createCollectionPath(ApiModelIndex apiModelIndex, URI iut, String collectionName) {
         StringBuilder requestedPath = new StringBuilder();
-        requestedPath.append(findBasePath(apiModel, iut));
+        requestedPath.append(findBasePath(apiModelIndex, iut));
         requestedPath.append( COLLECTIONS.getPathItem() );
         requestedPath.append( "/" );
         requestedPath.append( collectionName );
@@ -286,20 +290,35 @@ public class OpenApiUtils {
         return requestedPath.toString();
     }
 
-    private static List<TestPoint> retrieveTestPoints( OpenApi3 apiModel, URI iut, PATH path, boolean allowEmptyTemplateReplacements ) {
-        String requestedPath = findBasePath(apiModel, iut) + path.getPathItem();
-        return retrieveTestPoints( apiModel, iut, requestedPath, allowEmptyTemplateReplacements );
+    private static List<TestPoint> retrieveTestPoints( ApiModelIndex apiModelIndex, URI iut, PATH path, boolean allowEmptyTemplateReplacements ) {
+        String requestedPath = findBasePath(apiModelIndex, iut) + path.getPathItem();
+        return retrieveTestPoints( apiModelIndex, iut, requestedPath, allowEmptyTemplateReplacements );
     }
 
-    private static List<TestPoint> retrieveTestPoints( OpenApi3 apiModel, URI iut, String requestedPath, boolean allowEmptyTemplateReplacements ) {
-        return retrieveTestPoints( apiModel, iut, requestedPath, new PathMatcher(), allowEmptyTemplateReplacements );
+    private static List<TestPoint> retrieveTestPoints( ApiModelIndex apiModelIndex, URI iut, String requestedPath, boolean allowEmptyTemplateReplacements ) {
+        return apiModelIndex.getTestPointCache().get( iut, allowEmptyTemplateReplacements + " " + requestedPath,
+                                     () -> resolveTestPoints( apiModelIndex, iut, requestedPath,
+                                                              allowEmptyTemplateReplacements ) );
     }
 
-    private static List<TestPoint> retrieveTestPoints( OpenApi3 apiModel, URI iut, String requestedPath,
-                                                       PathMatcherFunction<Boolean, String, String> pathMatcher, boolean allowEmptyTemplateReplacements ) {
-        List<Path> pathItemObjects = identifyTestPoints( apiModel, requestedPath, pathMatcher );
-        List<PathItemAndServer> pathItemAndServers = identifyServerUrls( apiModel, iut, pathItemObjects );
-        return processServerObjects( pathItemAndServers, allowEmptyTemplateReplacements );
+    private static List<TestPoint> retrieveExactlyMatchingTestPoints( ApiModelIndex apiModelIndex, URI iut, String requestedPath ) {
+        return apiModelIndex.getTestPointCache().get( iut, "exact " + requestedPath, () -> {
+            List<TestPoint> testPoints = resolveTestPoints( apiModelIndex, iut, requestedPath, true );
+            return testPoints.stream().filter( new ExactMatchFilter( requestedPath ) ).collect( Collectors.toList() );
+        } );
+    }
+
+    private static List<TestPoint> resolveTestPoints( ApiModelIndex apiModelIndex, URI iut, String requestedPath,
+                                                      boolean allowEmptyTemplateReplacements ) {
+        List<Path> pathItemObjects = identifyTestPoints( apiModelIndex, requestedPath );
+        return retrieveTestPoints( apiModelIndex, iut, pathItemObjects, allowEmptyTemplateReplacements );
+    }
+
+    private static List<TestPoint> retrieveTestPoints( ApiModelIndex apiModelIndex, URI iut, List<Path> pathItemObjects,
+                                                       boolean allowEmptyTemplateReplacements ) {
+        List<PathItemAndServer> pathItemAndServers = identifyServerUrls( apiModelIndex, iut, pathItemObjects );
+        return processServerObjects( pathItemAndServers, allowEmptyTemplateReplacements, Integer.MAX_VALUE,
+                                     apiModelIndex.getMaxTemplateReplacements() );
     }
 
     /**
@@ -323,27 +342,20 @@ public class OpenApiUtils {
      *
      * d) References: None
      *
-     * @param apiModel
-     *            never <code>null</code>
+     * The paths are looked up in the {@link PathIndex} of the document instead of matching each path.
+     *
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      */
-    private static List<Path> identifyTestPoints( OpenApi3 apiModel ) {
+    private static List<Path> identifyTestPoints( ApiModelIndex apiModelIndex ) {
         List<Path> allTestPoints = new ArrayList<>();
         for ( PATH path : PATH.values() )
-            allTestPoints.addAll( identifyTestPoints( apiModel, "/" + path.getPathItem(), new PathMatcher() ) );
+            allTestPoints.addAll( identifyTestPoints( apiModelIndex, "/" + path.getPathItem() ) );
         return allTestPoints;
     }
 
-    private static List<Path> identifyTestPoints( OpenApi3 apiModel, String path,
-                                                  PathMatcherFunction<Boolean, String, String> pathMatch ) {
-        List<Path> pathItems = new ArrayList<>();
-        Map<String, Path> pathItemObjects = apiModel.getPaths();
-        for ( Path pathItemObject : pathItemObjects.values() ) {
-            String pathString = pathItemObject.getPathString();
-            if ( pathMatch.apply( pathString.replace("/v2/lightningObs",""), path ) ) {
-                pathItems.add( pathItemObject );
-            }
-        }
-        return pathItems;
+    private static List<Path> identifyTestPoints( ApiModelIndex apiModelIndex, String path ) {
+        return apiModelIndex.getPathIndex().findMatching( path );
     }
 
     /**
@@ -388,27 +400,23 @@ public class OpenApiUtils {
      *
      * d) References: None
      * 
-     * @param apiModel
-     *            never <code>null</code>
+     * @param apiModelIndex
+     *            the index of the OpenAPI document, never <code>null</code>
      * @param iut
      *            never <code>null</code>
      * @param pathItemObjects
      *            never <code>null</code>
      */
-    private static List<PathItemAndServer> identifyServerUrls( OpenApi3 apiModel, URI iut, List<Path> pathItemObjects ) {
+    private static List<PathItemAndServer> identifyServerUrls( ApiModelIndex apiModelIndex, URI iut, List<Path> pathItemObjects ) {
         List<PathItemAndServer> pathItemAndServers = new ArrayList<>();
+        ServerUrlResolver serverUrlResolver = apiModelIndex.getServerUrlResolver();
 
         for ( Path pathItemObject : pathItemObjects ) {
             Map<String, Operation> operationObjects = pathItemObject.getOperations();
             for ( Operation operationObject : operationObjects.values() ) {
-                List<String> serverUrls = identifyServerObjects( apiModel, pathItemObject, operationObject );
+                Collection<Server> serverObjects = identifyServerObjects( apiModelIndex.getApiModel(), pathItemObject, operationObject );
+                List<String> serverUrls = serverUrlResolver.resolveServerUrls( serverObjects, iut );
                 for ( String serverUrl : serverUrls ) {
-                    if ( DEFAULT_SERVER_URL.equalsIgnoreCase( serverUrl ) ) {
-                        serverUrl = iut.toString();
-                    }  else if ( serverUrl.startsWith( "/" ) ) {
-                        URI resolvedUri = iut.resolve( serverUrl );
-                        serverUrl = resolvedUri.toString();
-                    }
                     PathItemAndServer pathItemAndServer = new PathItemAndServer( pathItemObject, operationObject,
                                                                                  serverUrl );
                     pathItemAndServers.add( pathItemAndServer );
@@ -453,18 +461,31 @@ public class OpenApiUtils {
      *
      * d) References: None
      *
+     * The combinations are created lazily and capped, see {@link ApiModelIndex#getMaxTemplateReplacements()}.
+     *
      * @param pathItemAndServers
      *            never <code>null</code>
+     * @param maxTestPoints
+     *            the maximum number of test points to create
+     * @param maxTemplateReplacements
+     *            the maximum number of combinations of template variable values per path and server
      */
-    private static List<TestPoint> processServerObjects( List<PathItemAndServer> pathItemAndServers, boolean allowEmptyTemplateReplacements ) {
+    private static List<TestPoint> processServerObjects( List<PathItemAndServer> pathItemAndServers,
+                                                         boolean allowEmptyTemplateReplacements, int maxTestPoints,
+                                                         int maxTemplateReplacements ) {
         List<TestPoint> uris = new ArrayList<>();
         for ( PathItemAndServer pathItemAndServer : pathItemAndServers ) {
-            processServerObject( uris, pathItemAndServer, allowEmptyTemplateReplacements );
+            if ( uris.size() >= maxTestPoints )
+                break;
+            processServerObject( uris, pathItemAndServer, allowEmptyTemplateReplacements, maxTestPoints,
+                                 maxTemplateReplacements );
         }
         return uris;
     }
 
-    private static void processServerObject( List<TestPoint> uris, PathItemAndServer pathItemAndServer, boolean allowEmptyTemplateReplacements ) {
+    private static void processServerObject( List<TestPoint> uris, PathItemAndServer pathItemAndServer,
+                                             boolean allowEmptyTemplateReplacements, int maxTestPoints,
+                                             int maxTemplateReplacements ) {
         String pathString = pathItemAndServer.pathItemObject.getPathString();
         Response response = getResponse(pathItemAndServer);
         if ( response == null )
@@ -476,16 +497,24 @@ public class OpenApiUtils {
             TestPoint testPoint = new TestPoint( pathItemAndServer.serverUrl, pathString, contentMediaTypes );
             uris.add( testPoint );
         } else {
-            List<Map<String, String>> templateReplacements = collectTemplateReplacements( pathItemAndServer,
-                                                                                          uriTemplate );
+            TemplateReplacements templateReplacements = collectTemplateReplacements( pathItemAndServer, uriTemplate,
+                                                                                     maxTemplateReplacements );
+            if ( templateReplacements.isSampled() )
+                TestSuiteLogger.log( Level.WARNING,
+                                     String.format( "Path %s has %s combinations of template variable values, only %d of them are tested (test run argument %s)",
+                                                    pathString, templateReplacements.numberOfCombinations(),
+                                                    templateReplacements.size(),
+                                                    TestRunArg.MAXTEMPLATEREPLACEMENTS ) );
 
             if ( templateReplacements.isEmpty() && allowEmptyTemplateReplacements ) {
                 TestPoint testPoint = new TestPoint( pathItemAndServer.serverUrl, pathString, contentMediaTypes );
                 uris.add( testPoint );
             } else {
-                for ( Map<String, String> templateReplacement : templateReplacements ) {
-                    TestPoint testPoint = new TestPoint( pathItemAndServer.serverUrl, pathString, templateReplacement,
-                                                         contentMediaTypes );
+                // the combinations are created lazily, stop as soon as enough test points are created
+                Iterator<Map<String, String>> templateReplacementIterator = templateReplacements.iterator();
+                while ( uris.size() < maxTestPoints && templateReplacementIterator.hasNext() ) {
+                    TestPoint testPoint = new TestPoint( pathItemAndServer.serverUrl, pathString,
+                                                         templateReplacementIterator.next(), contentMediaTypes );
                     uris.add( testPoint );
                 }
             }
@@ -500,82 +529,48 @@ public class OpenApiUtils {
         return null;
     }
 
-    private static List<Map<String, String>> collectTemplateReplacements( PathItemAndServer pathItemAndServer,
-                                                                          UriTemplate uriTemplate ) {
-        List<Map<String, String>> templateReplacements = new ArrayList<>();
+    private static TemplateReplacements collectTemplateReplacements( PathItemAndServer pathItemAndServer,
+                                                                     UriTemplate uriTemplate,
+                                                                     int maxTemplateReplacements ) {
+        TemplateReplacements templateReplacements = new TemplateReplacements( maxTemplateReplacements );
         Collection<Parameter> parameters = pathItemAndServer.operationObject.getParameters();
         for ( String templateVariable : uriTemplate.getTemplateVariables() ) {
             for ( Parameter parameter : parameters ) {
                 if ( templateVariable.equals( parameter.getName() ) ) {
                     Schema schema = parameter.getSchema();
                     if ( schema.hasEnums() ) {
-                        addEnumTemplateValues( templateReplacements, templateVariable, schema );
+                        templateReplacements.add( templateVariable, enumTemplateValues( schema ) );
                     } else if ( schema.getDefault() != null ) {
-                        addDefaultTemplateValue( templateReplacements, templateVariable, schema );
+                        templateReplacements.add( templateVariable,
+                                                  Collections.singletonList( schema.getDefault().toString() ) );
                     } else {
                         // TODO: What should be done if the parameter does not have a default value and no
                         // enumerated set of valid values?
                     }
+                    break;
                 }
             }
         }
         return templateReplacements;
     }
 
-    private static void addEnumTemplateValues( List<Map<String, String>> templateReplacements, String templateVariable,
-                                               Schema schema ) {
-        Collection<Object> enums = schema.getEnums();
-        if ( enums.size() == 1 ) {
-            for ( Object enumValue : enums ) {
-                Map<String, String> replacement = new HashMap<>();
-                replacement.put( templateVariable, enumValue.toString() );
-                templateReplacements.add( replacement );
-            }
-        } else {
-            if ( templateReplacements.isEmpty() ) {
-                Map<String, String> replacement = new HashMap<>();
-                templateReplacements.add( replacement );
-            }
-            List<Map<String, String>> templateReplacementsToAdd = new ArrayList<>();
-            for ( Map<String, String> templateReplacement : templateReplacements ) {
-                for ( Object enumValue : enums ) {
-                    Map<String, String> newTemplateReplacement = new HashMap<>();
-                    newTemplateReplacement.putAll( templateReplacement );
-                    newTemplateReplacement.put( templateVariable, enumValue.toString() );
-                    templateReplacementsToAdd.add( newTemplateReplacement );
-                }
-            }
-            templateReplacements.clear();
-            templateReplacements.addAll( templateReplacementsToAdd );
-        }
+    private static List<String> enumTemplateValues( Schema schema ) {
+        List<String> enumTemplateValues = new ArrayList<>();
+        for ( Object enumValue : schema.getEnums() )
+            enumTemplateValues.add( enumValue.toString() );
+        return enumTemplateValues;
     }
 
-    private static void addDefaultTemplateValue( List<Map<String, String>> templateReplacements,
-                                                 String templateVariable, Schema schema ) {
-        if ( templateReplacements.isEmpty() ) {
-            Map<String, String> replacement = new HashMap<>();
-            templateReplacements.add( replacement );
-        }
-        for ( Map<String, String> templateReplacement : templateReplacements ) {
-            templateReplacement.put( templateVariable, schema.getDefault().toString() );
-        }
-    }
-
-    private static List<String> identifyServerObjects( OpenApi3 apiModel, Path pathItemObject, Operation operationObject ) {
+    private static Collection<Server> identifyServerObjects( OpenApi3 apiModel, Path pathItemObject,
+                                                            Operation operationObject ) {
         if ( operationObject.hasServers() )
-            return parseUrls( operationObject.getServers() );
+            return operationObject.getServers();
         if ( pathItemObject.hasServers() )
-            return parseUrls( pathItemObject.getServers() );
+            return pathItemObject.getServers();
         if ( apiModel.hasServers() )
-            return parseUrls( apiModel.getServers() );
-        return Collections.singletonList( DEFAULT_SERVER_URL );
-    }
-
-    private static List<String> parseUrls( Collection<Server> servers ) {
-        List<String> urls = new ArrayList<>();
-        for ( Server server : servers )
-            urls.add( server.getUrl() );
-        return urls;
+            return apiModel.getServers();
+        // the default server object is assumed
+        return Collections.emptyList();
     }
 
     private static class PathItemAndServer {
@@ -584,7 +579,6 @@ public class OpenApiUtils {
 
         private Operation operationObject;
 
-        // TODO: must be a server object to consider server variables
         private String serverUrl;
 
         private PathItemAndServer( Path pathItemObject, Operation operationObject, String serverUrl ) {
@@ -595,21 +589,7 @@ public class OpenApiUtils {
 
     }
 
-    private static String findBasePath(OpenApi3 apiModel, URI iut) {
-        String basePath = "/";
-        List<Server> serverUrls = apiModel.getServers();
-
-        for (Server serverUrl : serverUrls) {
-            Matcher matcher = Pattern.compile(serverUrl.getUrl()).matcher(iut.toString());
-
-            if (matcher.find()) {
-                String path = iut.toString().substring(matcher.end(), iut.toString().length());
-
-                if (!path.isEmpty()) {
-                    basePath = path;
-                }
-            }
-        }
-        return basePath;
+    private static String findBasePath( ApiModelIndex apiModelIndex, URI iut ) {
+        return apiModelIndex.getServerUrlResolver().findBasePath( iut );
     }
 }
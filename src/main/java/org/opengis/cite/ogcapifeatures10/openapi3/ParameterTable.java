@@ -0,0 +1,87 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Operation;
+import com.reprezen.kaizen.oasparser.model3.Parameter;
+import com.reprezen.kaizen.oasparser.model3.Path;
+
+/**
+ * The parameters of a path of an OpenAPI document, built once per path and kept by the {@link ApiModelIndex} of the
+ * {@link OpenApi3} model. The parameters of
+ * the Path Item Object and of its GET operation are read (and referenced parameters resolved) once when the table is
+ * built; lookups by name are hash lookups, exact or case-insensitive.
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ */
+final class ParameterTable {
+
+    private final Map<String, Parameter> parameters = new HashMap<>();
+
+    private final Map<String, Parameter> operationParametersIgnoreCase = new HashMap<>();
+
+    private final boolean freeFormOperationParameter;
+
+    /**
+     * @param path
+     *            the Path Item Object, <code>null</code> for the empty table of an undeclared path
+     */
+    ParameterTable( Path path ) {
+        boolean freeFormOperationParameter = false;
+        if ( path != null ) {
+            for ( Parameter parameter : path.getParameters() )
+                putIfNamed( parameters, parameter.getName(), parameter );
+            Operation get = path.getGet();
+            if ( get != null ) {
+                for ( Parameter parameter : get.getParameters() ) {
+                    String name = parameter.getName();
+                    putIfNamed( parameters, name, parameter );
+                    if ( name != null )
+                        operationParametersIgnoreCase.putIfAbsent( name.toLowerCase( Locale.ROOT ), parameter );
+                    if ( parameter.getSchema() != null && parameter.getSchema().isAdditionalProperties() )
+                        freeFormOperationParameter = true;
+                }
+            }
+        }
+        this.freeFormOperationParameter = freeFormOperationParameter;
+    }
+
+    /**
+     * @param name
+     *            the name of the parameter, compared exactly, never <code>null</code>
+     * @return the parameter with the passed name declared by the path, or if not declared by the path by the GET
+     *         operation, <code>null</code> if no such parameter exists
+     */
+    Parameter get( String name ) {
+        return parameters.get( name );
+    }
+
+    /**
+     * @param name
+     *            the name of the parameter, compared case-insensitively, never <code>null</code>
+     * @return the parameter with the passed name declared by the GET operation, <code>null</code> if no such parameter
+     *         exists
+     */
+    Parameter getOperationParameterIgnoreCase( String name ) {
+        return operationParametersIgnoreCase.get( name.toLowerCase( Locale.ROOT ) );
+    }
+
+    /**
+     * @return <code>true</code> if the GET operation declares a parameter with additional properties (free-form
+     *         parameter), <code>false</code> otherwise
+     */
+    boolean hasFreeFormOperationParameter() {
+        return freeFormOperationParameter;
+    }
+
+    private static void putIfNamed( Map<String, Parameter> parameters, String name, Parameter parameter ) {
+        if ( name != null )
+            parameters.putIfAbsent( name, parameter );
+    }
+
+}
@@ -0,0 +1,189 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Path;
+import com.sun.jersey.api.uri.UriTemplateParser;
+
+/**
+ * Index of the paths of an OpenAPI document, built once per {@link OpenApi3} model and kept by its
+ * {@link ApiModelIndex}. The paths are stored in a trie
+ * keyed by path segments; segments containing template variables (e.g. <code>{collectionId}</code>) are wildcards
+ * matching any single segment. Lookups walk the trie segment by segment, so the time of a lookup depends on the length
+ * of the requested path and not on the number of paths declared by the document.
+ *
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ */
+final class PathIndex {
+
+    private static final String ANY = ".*";
+
+    private static final Pattern REGEX_META_CHARACTERS = Pattern.compile( "[\\\\\\[\\](){}.*+?^$|]" );
+
+    private final Node root = new Node();
+
+    private final List<Path> paths;
+
+    /**
+     * @param apiModel
+     *            never <code>null</code>
+     */
+    PathIndex( OpenApi3 apiModel ) {
+        this.paths = new ArrayList<>( apiModel.getPaths().values() );
+        for ( int position = 0; position < paths.size(); position++ ) {
+            Node node = root;
+            for ( String segment : segments( normalize( paths.get( position ).getPathString() ) ) )
+                node = node.child( segment );
+            node.positions.add( position );
+        }
+    }
+
+    /**
+     * Finds the paths matching the requested path. A path matches if each segment is equal to the corresponding
+     * segment of the requested path or contains template variables matching it.
+     *
+     * @param requestedPath
+     *            the path to match, never <code>null</code>
+     * @return the matching paths in the order of the document, may be empty but never <code>null</code>
+     */
+    List<Path> findMatching( String requestedPath ) {
+        Set<Integer> matches = new TreeSet<>();
+        collectMatching( root, segments( requestedPath ), 0, matches );
+        return toPaths( matches );
+    }
+
+    /**
+     * Finds the paths matching the regular expression. The expression is applied to the path strings as declared in
+     * the document, including the template variables. Leading segments without regular expression meta characters
+     * and segments consisting of <code>.*</code> only are resolved in the trie, the candidates are verified with the
+     * complete expression.
+     *
+     * @param regex
+     *            the regular expression to match, never <code>null</code>
+     * @return the matching paths in the order of the document, may be empty but never <code>null</code>
+     */
+    List<Path> findMatchingRegex( String regex ) {
+        Set<Integer> candidates = new TreeSet<>();
+        collectCandidates( root, segments( regex ), 0, candidates );
+        Pattern pattern = Pattern.compile( regex );
+        List<Path> matches = new ArrayList<>();
+        for ( Path path : toPaths( candidates ) ) {
+            if ( pattern.matcher( normalize( path.getPathString() ) ).matches() )
+                matches.add( path );
+        }
+        return matches;
+    }
+
+    private void collectMatching( Node node, String[] segments, int index, Set<Integer> matches ) {
+        if ( index == segments.length ) {
+            matches.addAll( node.positions );
+            return;
+        }
+        Node literalChild = node.literalChildren.get( segments[index] );
+        if ( literalChild != null )
+            collectMatching( literalChild, segments, index + 1, matches );
+        for ( TemplateChild templateChild : node.templateChildren.values() ) {
+            if ( templateChild.pattern.matcher( segments[index] ).matches() )
+                collectMatching( templateChild.node, segments, index + 1, matches );
+        }
+    }
+
+    private void collectCandidates( Node node, String[] segments, int index, Set<Integer> candidates ) {
+        if ( index == segments.length ) {
+            candidates.addAll( node.positions );
+            return;
+        }
+        String segment = segments[index];
+        if ( ANY.equals( segment ) ) {
+            // matches one or more complete segments, as .* matches the separators as well
+            for ( Node child : node.children() )
+                collectAny( child, segments, index + 1, candidates );
+        } else if ( !REGEX_META_CHARACTERS.matcher( segment ).find() ) {
+            Node child = node.children.get( segment );
+            if ( child != null )
+                collectCandidates( child, segments, index + 1, candidates );
+        } else {
+            node.collectAll( candidates );
+        }
+    }
+
+    private void collectAny( Node node, String[] segments, int index, Set<Integer> candidates ) {
+        collectCandidates( node, segments, index, candidates );
+        for ( Node child : node.children() )
+            collectAny( child, segments, index, candidates );
+    }
+
+    private List<Path> toPaths( Set<Integer> positions ) {
+        List<Path> pathsInDocumentOrder = new ArrayList<>( positions.size() );
+        for ( Integer position : positions )
+            pathsInDocumentOrder.add( paths.get( position ) );
+        return pathsInDocumentOrder;
+    }
+
+    private static String normalize( String pathString ) {
+        return pathString.replace( "/v2/lightningObs", "" );
+    }
+
+    private static String[] segments( String path ) {
+        return path.split( "/", -1 );
+    }
+
+    private static final class Node {
+
+        private final Map<String, Node> children = new LinkedHashMap<>();
+
+        private final Map<String, Node> literalChildren = new HashMap<>();
+
+        private final Map<String, TemplateChild> templateChildren = new LinkedHashMap<>();
+
+        private final List<Integer> positions = new ArrayList<>();
+
+        private Node child( String segment ) {
+            Node child = children.get( segment );
+            if ( child == null ) {
+                child = new Node();
+                children.put( segment, child );
+                if ( segment.indexOf( '{' ) >= 0 )
+                    templateChildren.put( segment, new TemplateChild( segment, child ) );
+                else
+                    literalChildren.put( segment, child );
+            }
+            return child;
+        }
+
+        private Iterable<Node> children() {
+            return children.values();
+        }
+
+        private void collectAll( Set<Integer> collected ) {
+            collected.addAll( positions );
+            for ( Node child : children.values() )
+                child.collectAll( collected );
+        }
+
+    }
+
+    private static final class TemplateChild {
+
+        private final Pattern pattern;
+
+        private final Node node;
+
+        private TemplateChild( String segment, Node node ) {
+            this.pattern = new UriTemplateParser( segment ).getPattern();
+            this.node = node;
+        }
+
+    }
+
+}
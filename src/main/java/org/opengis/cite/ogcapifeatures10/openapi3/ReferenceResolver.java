@@ -0,0 +1,258 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reprezen.jsonoverlay.JsonLoader;
+
+/**
+ * Loads the documents referenced by an API definition for the KaiZen parser from a pluggable {@link ReferenceSource}.
+ *
+ * <p>
+ * The parser resolves references one after another while it builds the model, blocking on each referenced document.
+ * {@link #loadDocument(URL, String)} collects the distinct documents referenced by the API definition before parsing
+ * and loads them in parallel, level by level, so the parser finds them already loaded. Documents not found this way
+ * are loaded when the parser requests them. The time spent loading referenced documents is measured.
+ * </p>
+ *
+ * <p>
+ * Instances are not thread-safe; one instance is created per parsed API definition and passed to
+ * {@link com.reprezen.kaizen.oasparser.OpenApiParser#parse(JsonNode, URL, boolean, JsonLoader)}.
+ * </p>
+ */
+public class ReferenceResolver extends JsonLoader {
+
+    private static final ObjectMapper JSON_MAPPER = new ObjectMapper();
+
+    private final ReferenceSource source;
+
+    private final Executor executor;
+
+    private final Map<String, JsonNode> documents = new HashMap<>();
+
+    private final Map<String, String> contents = new HashMap<>();
+
+    private long resolutionNanos;
+
+    private int resolvedDocuments;
+
+    /**
+     * @param source
+     *            the source of the referenced documents, never <code>null</code>
+     * @param executor
+     *            executes the loading of referenced documents in parallel, may be <code>null</code> if the documents
+     *            should be loaded one after another
+     */
+    public ReferenceResolver( ReferenceSource source, Executor executor ) {
+        this.source = source;
+        this.executor = executor;
+    }
+
+    /**
+     * Parses the API definition and loads all documents referenced by it directly or indirectly.
+     *
+     * @param url
+     *            the url of the API definition, never <code>null</code>
+     * @param document
+     *            the content of the API definition, never <code>null</code>
+     * @return the parsed API definition, never <code>null</code>
+     * @throws IOException
+     *             if the API definition could not be parsed
+     */
+    public JsonNode loadDocument( URL url, String document )
+                            throws IOException {
+        return loadDocument( url, loadString( url, document ) );
+    }
+
+    /**
+     * Parses the API definition and loads all documents referenced by it directly or indirectly. A JSON document is
+     * parsed directly from the passed bytes, without copying it into a string and without recording the positions of
+     * the nodes.
+     *
+     * @param url
+     *            the url of the API definition, never <code>null</code>
+     * @param document
+     *            the content of the API definition, encoded in UTF-8, never <code>null</code>
+     * @return the parsed API definition, never <code>null</code>
+     * @throws IOException
+     *             if the API definition could not be parsed
+     */
+    public JsonNode loadDocument( URL url, byte[] document )
+                            throws IOException {
+        if ( isJson( document ) )
+            return loadDocument( url, JSON_MAPPER.readTree( document ) );
+        return loadDocument( url, new String( document, StandardCharsets.UTF_8 ) );
+    }
+
+    @Override
+    public JsonNode load( URL url )
+                            throws IOException {
+        String key = key( url );
+        JsonNode node = documents.get( key );
+        if ( node != null )
+            return node;
+        long start = System.nanoTime();
+        try {
+            String content = source.load( url );
+            node = loadString( url, content );
+            documents.put( key, node );
+            contents.put( key, content );
+            resolvedDocuments++;
+            return node;
+        } finally {
+            resolutionNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * @return the time spent loading referenced documents in milliseconds
+     */
+    public long getResolutionTime() {
+        return resolutionNanos / 1000000;
+    }
+
+    /**
+     * @return the number of loaded referenced documents
+     */
+    public int getResolvedDocuments() {
+        return resolvedDocuments;
+    }
+
+    /**
+     * @return a source of the referenced documents loaded so far, loading other documents from the source of this
+     *         resolver, never <code>null</code>
+     */
+    public ReferenceSource getLoadedDocuments() {
+        Map<String, String> loaded = new HashMap<>( contents );
+        return url -> {
+            String content = loaded.get( key( url ) );
+            return content != null ? content : source.load( url );
+        };
+    }
+
+    private JsonNode loadDocument( URL url, JsonNode node ) {
+        documents.put( key( url ), node );
+        long start = System.nanoTime();
+        loadReferences( url, node );
+        resolutionNanos += System.nanoTime() - start;
+        return node;
+    }
+
+    private void loadReferences( URL url, JsonNode node ) {
+        Set<String> seen = new HashSet<>( documents.keySet() );
+        List<URL> references = collectReferences( url, node, seen );
+        while ( !references.isEmpty() ) {
+            Map<URL, Future<String>> pending = new LinkedHashMap<>();
+            for ( URL reference : references )
+                pending.put( reference, submit( reference ) );
+            List<URL> nextReferences = new ArrayList<>();
+            for ( Map.Entry<URL, Future<String>> entry : pending.entrySet() ) {
+                URL reference = entry.getKey();
+                try {
+                    String content = entry.getValue().get();
+                    JsonNode referencedNode = loadString( reference, content );
+                    documents.put( key( reference ), referencedNode );
+                    contents.put( key( reference ), content );
+                    resolvedDocuments++;
+                    nextReferences.addAll( collectReferences( reference, referencedNode, seen ) );
+                } catch ( ExecutionException | IOException e ) {
+                    // the parser requests the document again and reports the failure
+                    TestSuiteLogger.log( Level.FINE, "Could not load referenced document " + reference, e );
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            references = nextReferences;
+        }
+    }
+
+    private Future<String> submit( URL reference ) {
+        FutureTask<String> task = new FutureTask<>( () -> source.load( reference ) );
+        if ( executor != null )
+            executor.execute( task );
+        else
+            task.run();
+        return task;
+    }
+
+    static List<URL> collectReferences( URL url, JsonNode node, Set<String> seen ) {
+        List<URL> references = new ArrayList<>();
+        Deque<JsonNode> nodes = new ArrayDeque<>();
+        nodes.push( node );
+        while ( !nodes.isEmpty() ) {
+            JsonNode current = nodes.pop();
+            if ( current.isObject() ) {
+                JsonNode ref = current.get( "$ref" );
+                if ( ref != null && ref.isTextual() ) {
+                    URL reference = resolve( url, ref.textValue() );
+                    if ( reference != null && seen.add( key( reference ) ) )
+                        references.add( reference );
+                }
+            }
+            Iterator<JsonNode> children = current.elements();
+            while ( children.hasNext() ) {
+                JsonNode child = children.next();
+                if ( child.isContainerNode() )
+                    nodes.push( child );
+            }
+        }
+        return references;
+    }
+
+    private static boolean isJson( byte[] document ) {
+        for ( byte b : document ) {
+            if ( !Character.isWhitespace( b ) )
+                return b == '{';
+        }
+        return false;
+    }
+
+    private static URL resolve( URL url, String ref ) {
+        int fragment = ref.indexOf( '#' );
+        String document = fragment >= 0 ? ref.substring( 0, fragment ) : ref;
+        if ( document.isEmpty() )
+            return null;
+        try {
+            return url.toURI().resolve( document ).normalize().toURL();
+        } catch ( URISyntaxException | MalformedURLException | IllegalArgumentException e ) {
+            return null;
+        }
+    }
+
+    private static String key( URL url ) {
+        String urlString = url.toString();
+        int fragment = urlString.indexOf( '#' );
+        if ( fragment >= 0 )
+            urlString = urlString.substring( 0, fragment );
+        try {
+            return new URI( urlString ).normalize().toString();
+        } catch ( URISyntaxException e ) {
+            return urlString;
+        }
+    }
+
+}
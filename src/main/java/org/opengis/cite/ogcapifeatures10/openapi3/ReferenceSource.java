@@ -0,0 +1,36 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Scanner;
+
+/**
+ * Provides the content of documents referenced by an API definition (e.g. external schemas and parameters referenced
+ * by <code>$ref</code>). Implementations must be thread-safe, as referenced documents are loaded in parallel.
+ */
+public interface ReferenceSource {
+
+    /**
+     * Loads the referenced documents directly from their urls.
+     */
+    ReferenceSource URL_CONNECTION = url -> {
+        try ( InputStream in = url.openStream(); Scanner scanner = new Scanner( in, "UTF-8" ) ) {
+            scanner.useDelimiter( "\\Z" );
+            return scanner.hasNext() ? scanner.next() : "";
+        }
+    };
+
+    /**
+     * Loads a referenced document.
+     *
+     * @param url
+     *            the url of the document, without fragment, never <code>null</code>
+     * @return the content of the document, never <code>null</code>
+     * @throws IOException
+     *             if the document could not be loaded
+     */
+    String load( URL url )
+                            throws IOException;
+
+}
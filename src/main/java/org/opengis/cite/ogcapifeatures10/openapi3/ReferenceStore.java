@@ -0,0 +1,199 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+
+import org.opengis.cite.ogcapifeatures10.util.TestSuiteLogger;
+
+/**
+ * A {@link ReferenceSource} keeping the referenced documents of API definitions in local directories, so that
+ * repeated test runs do not fetch them again and test runs without network access can resolve them.
+ *
+ * <p>
+ * A document is looked up
+ * </p>
+ * <ol>
+ * <li>in the mirror directory, at <code>&lt;mirror&gt;/&lt;host&gt;[_&lt;port&gt;]/&lt;path&gt;</code> of the url
+ * (e.g. <code>mirror/schemas.opengis.net/ogcapi/features/part1/1.0/openapi/ogcapi-features-1.yaml</code>),</li>
+ * <li>in the store directory, which is content-addressed: <code>objects/&lt;hash&gt;</code> holds a document named by
+ * the SHA-256 hash of its content, <code>urls/&lt;hash&gt;</code> named by the SHA-256 hash of the url holds the hash of
+ * the document fetched from this url,</li>
+ * <li>in the delegate source; the fetched document is added to the store.</li>
+ * </ol>
+ * <p>
+ * Only documents referenced by http(s) urls are looked up in the directories. Files are written to a temporary file
+ * first and moved in place, so concurrent test runs never read a partially written file. A stored document whose
+ * content does not match its hash is ignored. Instances are thread-safe.
+ * </p>
+ */
+public class ReferenceStore implements ReferenceSource {
+
+    private final File directory;
+
+    private final File mirrorDirectory;
+
+    private final ReferenceSource delegate;
+
+    private final AtomicLong mirrored = new AtomicLong();
+
+    private final AtomicLong stored = new AtomicLong();
+
+    private final AtomicLong fetched = new AtomicLong();
+
+    /**
+     * @param directory
+     *            the directory of the store, created if it does not exist, may be <code>null</code> if fetched
+     *            documents should not be stored
+     * @param mirrorDirectory
+     *            the mirror directory, may be <code>null</code>
+     * @param delegate
+     *            the source of documents neither mirrored nor stored, never <code>null</code>
+     */
+    public ReferenceStore( File directory, File mirrorDirectory, ReferenceSource delegate ) {
+        this.directory = directory;
+        this.mirrorDirectory = mirrorDirectory;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public String load( URL url )
+                            throws IOException {
+        if ( !isHttp( url ) )
+            return delegate.load( url );
+        String document = loadFromMirror( url );
+        if ( document != null ) {
+            mirrored.incrementAndGet();
+            return document;
+        }
+        document = loadFromStore( url );
+        if ( document != null ) {
+            stored.incrementAndGet();
+            return document;
+        }
+        document = delegate.load( url );
+        fetched.incrementAndGet();
+        store( url, document );
+        return document;
+    }
+
+    /**
+     * @return the number of documents loaded from the mirror directory
+     */
+    public long getMirrored() {
+        return mirrored.get();
+    }
+
+    /**
+     * @return the number of documents loaded from the store directory
+     */
+    public long getStored() {
+        return stored.get();
+    }
+
+    /**
+     * @return the number of documents loaded from the delegate source
+     */
+    public long getFetched() {
+        return fetched.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Referenced documents: " + mirrored + " mirrored, " + stored + " stored, " + fetched + " fetched (store: "
+               + directory + ", mirror: " + mirrorDirectory + ")";
+    }
+
+    File mirrorFile( URL url ) {
+        if ( mirrorDirectory == null || url.getQuery() != null )
+            return null;
+        String path = url.getPath();
+        if ( path.isEmpty() || path.endsWith( "/" ) || path.contains( ".." ) )
+            return null;
+        String host = url.getPort() != -1 ? url.getHost() + "_" + url.getPort() : url.getHost();
+        return new File( new File( mirrorDirectory, host ), path.substring( 1 ) );
+    }
+
+    private String loadFromMirror( URL url ) {
+        File file = mirrorFile( url );
+        if ( file == null || !file.isFile() )
+            return null;
+        return read( file );
+    }
+
+    private String loadFromStore( URL url ) {
+        if ( directory == null )
+            return null;
+        File urlFile = urlFile( url );
+        if ( !urlFile.isFile() )
+            return null;
+        try {
+            List<String> lines = Files.readAllLines( urlFile.toPath(), StandardCharsets.UTF_8 );
+            if ( lines.size() < 2 || !url.toString().equals( lines.get( 1 ) ) )
+                return null;
+            String hash = lines.get( 0 );
+            String document = read( objectFile( hash ) );
+            if ( document == null || !hash.equals( ApiModelSnapshots.hash( document ) ) )
+                return null;
+            return document;
+        } catch ( IOException e ) {
+            return null;
+        }
+    }
+
+    private void store( URL url, String document ) {
+        if ( directory == null )
+            return;
+        String hash = ApiModelSnapshots.hash( document );
+        try {
+            File objectFile = objectFile( hash );
+            if ( !objectFile.isFile() )
+                write( objectFile, document );
+            write( urlFile( url ), hash + "\n" + url + "\n" );
+        } catch ( IOException e ) {
+            TestSuiteLogger.log( Level.WARNING, "Could not store the referenced document " + url + " in " + directory,
+                                 e );
+        }
+    }
+
+    private File objectFile( String hash ) {
+        return new File( new File( directory, "objects" ), hash );
+    }
+
+    private File urlFile( URL url ) {
+        return new File( new File( directory, "urls" ), ApiModelSnapshots.hash( url.toString() ) );
+    }
+
+    private static boolean isHttp( URL url ) {
+        return "http".equalsIgnoreCase( url.getProtocol() ) || "https".equalsIgnoreCase( url.getProtocol() );
+    }
+
+    private static String read( File file ) {
+        try {
+            return new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 );
+        } catch ( IOException e ) {
+            return null;
+        }
+    }
+
+    private static void write( File file, String content )
+                            throws IOException {
+        File parent = file.getParentFile();
+        Files.createDirectories( parent.toPath() );
+        File tmpFile = File.createTempFile( file.getName(), ".tmp", parent );
+        try {
+            Files.write( tmpFile.toPath(), content.getBytes( StandardCharsets.UTF_8 ) );
+            Files.move( tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE );
+        } finally {
+            Files.deleteIfExists( tmpFile.toPath() );
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Server;
+import com.reprezen.kaizen.oasparser.model3.ServerVariable;
+
+/**
+ * Resolves the URLs of the Server Objects of an OpenAPI document, created once per {@link OpenApi3} model and kept by
+ * its {@link ApiModelIndex}. Server
+ * variables are replaced by their default value and each value of their enumeration (A.4.3.3. Process Server Object),
+ * the URL with the default values first. Server URLs are compared literally with the URL of the instance under test,
+ * not as regular expressions. The expanded URLs and the base paths are computed once and shared by all threads.
+ *
+ * <p>
+ * Instances are thread-safe.
+ * </p>
+ */
+final class ServerUrlResolver {
+
+    // as described in https://github.com/OAI/OpenAPI-Specification/blob/master/versions/3.0.0.md#fixed-fields
+    static final String DEFAULT_SERVER_URL = "/";
+
+    private static final Pattern SERVER_VARIABLE = Pattern.compile( "\\{([^}]+)\\}" );
+
+    private final OpenApi3 apiModel;
+
+    private final Map<Server, List<String>> expandedUrls = Collections.synchronizedMap( new IdentityHashMap<>() );
+
+    private final Map<URI, String> basePaths = new ConcurrentHashMap<>();
+
+    /**
+     * @param apiModel
+     *            never <code>null</code>
+     */
+    ServerUrlResolver( OpenApi3 apiModel ) {
+        this.apiModel = apiModel;
+    }
+
+    /**
+     * Resolves the absolute URLs of the passed Server Objects. Relative URLs are resolved against the instance under
+     * test, if no Server Object is passed the default server URL is assumed.
+     *
+     * @param servers
+     *            the Server Objects in scope, may be empty but never <code>null</code>
+     * @param iut
+     *            the url of the instance under test, never <code>null</code>
+     * @return the absolute URLs, never empty
+     */
+    List<String> resolveServerUrls( Collection<Server> servers, URI iut ) {
+        if ( servers.isEmpty() )
+            return Collections.singletonList( toAbsoluteUrl( DEFAULT_SERVER_URL, iut ) );
+        List<String> serverUrls = new ArrayList<>();
+        for ( Server server : servers ) {
+            for ( String serverUrl : expand( server ) )
+                serverUrls.add( toAbsoluteUrl( serverUrl, iut ) );
+        }
+        return serverUrls;
+    }
+
+    /**
+     * Finds the path of the instance under test relative to the URL of the root Server Objects. If the URL of the
+     * instance under test starts with several server URLs, the last one declared is used.
+     *
+     * @param iut
+     *            the url of the instance under test, never <code>null</code>
+     * @return the base path, "/" if the instance under test does not extend a server URL, never <code>null</code>
+     */
+    String findBasePath( URI iut ) {
+        return basePaths.computeIfAbsent( iut, this::resolveBasePath );
+    }
+
+    private String resolveBasePath( URI iut ) {
+        String basePath = "/";
+        String iutUrl = iut.toString();
+        for ( String serverUrl : resolveServerUrls( apiModel.getServers(), iut ) ) {
+            if ( iutUrl.startsWith( serverUrl ) ) {
+                String path = iutUrl.substring( serverUrl.length() );
+                if ( !path.isEmpty() )
+                    basePath = serverUrl.endsWith( "/" ) ? "/" + path : path;
+            }
+        }
+        return basePath;
+    }
+
+    private List<String> expand( Server server ) {
+        List<String> urls = expandedUrls.get( server );
+        if ( urls == null ) {
+            urls = Collections.unmodifiableList( expand( server.getUrl(), server ) );
+            expandedUrls.put( server, urls );
+        }
+        return urls;
+    }
+
+    private static List<String> expand( String url, Server server ) {
+        Matcher matcher = SERVER_VARIABLE.matcher( url );
+        if ( !matcher.find() )
+            return Collections.singletonList( url );
+        ServerVariable serverVariable = server.getServerVariable( matcher.group( 1 ) );
+        List<String> values = values( serverVariable );
+        if ( values.isEmpty() )
+            // undeclared variable, kept as is
+            return prefix( url.substring( 0, matcher.end() ), expand( url.substring( matcher.end() ), server ) );
+        List<String> suffixes = expand( url.substring( matcher.end() ), server );
+        List<String> urls = new ArrayList<>();
+        for ( String value : values )
+            urls.addAll( prefix( url.substring( 0, matcher.start() ) + value, suffixes ) );
+        return urls;
+    }
+
+    private static List<String> values( ServerVariable serverVariable ) {
+        List<String> values = new ArrayList<>();
+        if ( serverVariable == null )
+            return values;
+        if ( serverVariable.getDefault() != null )
+            values.add( serverVariable.getDefault() );
+        for ( String enumValue : serverVariable.getEnumValues() ) {
+            if ( !values.contains( enumValue ) )
+                values.add( enumValue );
+        }
+        return values;
+    }
+
+    private static List<String> prefix( String prefix, List<String> suffixes ) {
+        List<String> urls = new ArrayList<>( suffixes.size() );
+        for ( String suffix : suffixes )
+            urls.add( prefix + suffix );
+        return urls;
+    }
+
+    private static String toAbsoluteUrl( String serverUrl, URI iut ) {
+        if ( DEFAULT_SERVER_URL.equalsIgnoreCase( serverUrl ) )
+            return iut.toString();
+        if ( serverUrl.startsWith( "/" ) )
+            return iut.resolve( serverUrl ).toString();
+        return serverUrl;
+    }
+
+}
@@ -0,0 +1,136 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * The combinations of the values of the template variables of a path (A.4.3.3. Process Server Object): each variable
+ * with an enumerated set of valid values contributes each value, each variable with a default value the default value.
+ * The combinations are not materialized but created while iterating, in the order of the Cartesian product (the last
+ * variable varies fastest).
+ *
+ * <p>
+ * The number of combinations is capped: if the product exceeds the maximum, the combinations are sampled at evenly
+ * spaced positions of the product, starting with the first one. The sample only depends on the values and the maximum,
+ * so repeated iterations return the same combinations.
+ * </p>
+ */
+final class TemplateReplacements implements Iterable<Map<String, String>> {
+
+    private final List<String> templateVariables = new ArrayList<>();
+
+    private final List<List<String>> values = new ArrayList<>();
+
+    private final int maxReplacements;
+
+    /**
+     * @param maxReplacements
+     *            the maximum number of combinations, must be greater than 0
+     */
+    TemplateReplacements( int maxReplacements ) {
+        if ( maxReplacements <= 0 )
+            throw new IllegalArgumentException( "Maximum number of template replacements must be greater than 0" );
+        this.maxReplacements = maxReplacements;
+    }
+
+    /**
+     * Adds a template variable.
+     *
+     * @param templateVariable
+     *            the name of the template variable, never <code>null</code>
+     * @param valuesOfVariable
+     *            the values of the template variable, ignored if empty
+     */
+    void add( String templateVariable, List<String> valuesOfVariable ) {
+        if ( valuesOfVariable.isEmpty() )
+            return;
+        templateVariables.add( templateVariable );
+        values.add( new ArrayList<>( valuesOfVariable ) );
+    }
+
+    /**
+     * @return <code>true</code> if no template variable with values was added, <code>false</code> otherwise
+     */
+    boolean isEmpty() {
+        return templateVariables.isEmpty();
+    }
+
+    /**
+     * @return the number of combinations returned by the iterator, never greater than the maximum
+     */
+    int size() {
+        if ( isEmpty() )
+            return 0;
+        return productSize().min( BigInteger.valueOf( maxReplacements ) ).intValue();
+    }
+
+    /**
+     * @return the number of all combinations, may be greater than the maximum
+     */
+    BigInteger numberOfCombinations() {
+        if ( isEmpty() )
+            return BigInteger.ZERO;
+        return productSize();
+    }
+
+    /**
+     * @return <code>true</code> if the number of combinations exceeds the maximum and the iterator returns a sample,
+     *         <code>false</code> otherwise
+     */
+    boolean isSampled() {
+        return numberOfCombinations().compareTo( BigInteger.valueOf( maxReplacements ) ) > 0;
+    }
+
+    @Override
+    public Iterator<Map<String, String>> iterator() {
+        return new CombinationIterator();
+    }
+
+    private BigInteger productSize() {
+        BigInteger size = BigInteger.ONE;
+        for ( List<String> valuesOfVariable : values )
+            size = size.multiply( BigInteger.valueOf( valuesOfVariable.size() ) );
+        return size;
+    }
+
+    private Map<String, String> combination( BigInteger position ) {
+        Map<String, String> combination = new HashMap<>();
+        BigInteger remainder = position;
+        for ( int i = values.size() - 1; i >= 0; i-- ) {
+            List<String> valuesOfVariable = values.get( i );
+            BigInteger[] quotientAndRemainder = remainder.divideAndRemainder( BigInteger.valueOf( valuesOfVariable.size() ) );
+            combination.put( templateVariables.get( i ), valuesOfVariable.get( quotientAndRemainder[1].intValue() ) );
+            remainder = quotientAndRemainder[0];
+        }
+        return combination;
+    }
+
+    private class CombinationIterator implements Iterator<Map<String, String>> {
+
+        private final BigInteger productSize = productSize();
+
+        private final int size = size();
+
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            if ( !hasNext() )
+                throw new NoSuchElementException();
+            BigInteger position = BigInteger.valueOf( next++ ).multiply( productSize ).divide( BigInteger.valueOf( size ) );
+            return combination( position );
+        }
+
+    }
+
+}
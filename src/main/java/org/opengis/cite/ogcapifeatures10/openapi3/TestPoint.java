@@ -21,6 +21,8 @@ public class TestPoint {
 
     private Map<String, MediaType> contentMediaTypes;
 
+    private volatile CompiledUriTemplate uriTemplate;
+
     /**
      * Instantiates a TestPoint with UriTemplate but without predefined replacements.
      * 
@@ -70,6 +72,18 @@ public class TestPoint {
         return path;
     }
 
+    /**
+     * @return the template of server url and path, compiled on first access, never <code>null</code>
+     */
+    public CompiledUriTemplate getUriTemplate() {
+        CompiledUriTemplate uriTemplate = this.uriTemplate;
+        if ( uriTemplate == null ) {
+            uriTemplate = CompiledUriTemplate.compile( serverUrl, path );
+            this.uriTemplate = uriTemplate;
+        }
+        return uriTemplate;
+    }
+
     /**
      * @return an unmodifiable mao with predefined replacements, may be empty but never <code>null</code>
      */
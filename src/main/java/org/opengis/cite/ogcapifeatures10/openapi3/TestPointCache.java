@@ -0,0 +1,98 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe cache of the test points resolved by {@link OpenApiUtils} from one OpenAPI model, keyed by the instance
+ * under test and the requested path. The cached lists are immutable. Each {@link ApiModelIndex} keeps its own cache, so
+ * the test points of a replaced model are dropped with its index.
+ */
+public class TestPointCache {
+
+    private final Map<Key, List<TestPoint>> testPoints = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the cached test points or resolves and caches them. Concurrent requests of missing test points may
+     * resolve them more than once, the first result is cached.
+     *
+     * @param iut
+     *            the url of the instance under test, never <code>null</code>
+     * @param requestedPath
+     *            identifies the requested test points, never <code>null</code>
+     * @param resolver
+     *            resolves the test points if not cached, never <code>null</code>
+     * @return the immutable test points, may be empty but never <code>null</code>
+     */
+    List<TestPoint> get( URI iut, String requestedPath, Supplier<List<TestPoint>> resolver ) {
+        Key key = new Key( iut, requestedPath );
+        List<TestPoint> cached = testPoints.get( key );
+        if ( cached != null ) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        misses.incrementAndGet();
+        List<TestPoint> resolved = Collections.unmodifiableList( new ArrayList<>( resolver.get() ) );
+        List<TestPoint> previous = testPoints.putIfAbsent( key, resolved );
+        return previous != null ? previous : resolved;
+    }
+
+    /**
+     * @return number of requests answered from the cache
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of requests resolving the test points
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "Test point cache: " + hits + " hits, " + misses + " misses, " + testPoints.size() + " entries";
+    }
+
+    private static final class Key {
+
+        private final URI iut;
+
+        private final String requestedPath;
+
+        private Key( URI iut, String requestedPath ) {
+            this.iut = iut;
+            this.requestedPath = requestedPath;
+        }
+
+        @Override
+        public boolean equals( Object o ) {
+            if ( this == o )
+                return true;
+            if ( !( o instanceof Key ) )
+                return false;
+            Key key = (Key) o;
+            return Objects.equals( iut, key.iut ) && requestedPath.equals( key.requestedPath );
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash( iut, requestedPath );
+        }
+
+    }
+
+}
@@ -1,13 +1,8 @@
 package org.opengis.cite.ogcapifeatures10.openapi3;
 
-import java.util.HashMap;
-import java.util.Map;
-
-import com.sun.jersey.api.uri.UriTemplate;
-import com.sun.jersey.api.uri.UriTemplateParser;
-
 /**
- * Builds a URL out of a TestPoint.
+ * Builds a URL out of a TestPoint, using the template compiled once per TestPoint (see
+ * {@link TestPoint#getUriTemplate()}).
  *
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
  */
@@ -15,7 +10,9 @@ public class UriBuilder {
 
     private final TestPoint testPoint;
 
-    private final Map<String, String> templateReplacements = new HashMap<>();
+    private String collectionName;
+
+    private String featureId;
 
     /**
      * @param testPoint
@@ -23,7 +20,6 @@ public class UriBuilder {
      */
     public UriBuilder( TestPoint testPoint ) {
         this.testPoint = testPoint;
-        this.templateReplacements.putAll( testPoint.getPredefinedTemplateReplacement() );
     }
 
     /**
@@ -34,8 +30,7 @@ public class UriBuilder {
      * @return this UrlBuilder
      */
     public UriBuilder collectionName( String collectionName ) {
-        String templateName = retrieveCollectionNameTemplateName();
-        addTemplateReplacement( collectionName, templateName );
+        this.collectionName = collectionName;
         return this;
     }
 
@@ -47,42 +42,16 @@ public class UriBuilder {
      * @return this UrlBuilder
      */
     public UriBuilder featureId( String featureId ) {
-        String templateName = retrieveFeatureIdTemplateName();
-        addTemplateReplacement( featureId, templateName );
+        this.featureId = featureId;
         return this;
     }
 
     /**
-     * @return this URI, never <code>null</code>
+     * @return this URI, the values of the template variables are percent-encoded, never <code>null</code>
      */
     public String buildUrl() {
-        UriTemplate uriTemplate = new UriTemplate( testPoint.getServerUrl() + testPoint.getPath() );
-        return uriTemplate.createURI( templateReplacements );
-    }
-
-    private void addTemplateReplacement( String collectionName, String templateName ) {
-        if ( templateName != null )
-            templateReplacements.put( templateName, collectionName );
-    }
-
-    private String retrieveCollectionNameTemplateName() {
-        String path = testPoint.getPath();
-        UriTemplateParser uriTemplateParser = new UriTemplateParser( path );
-        for ( String templateName : uriTemplateParser.getNames() ) {
-            if ( path.startsWith( "/collections/{" + templateName + "}" ) )
-                return templateName;
-        }
-        return null;
-    }
-
-    private String retrieveFeatureIdTemplateName() {
-        String path = testPoint.getPath();
-        UriTemplateParser uriTemplateParser = new UriTemplateParser( path );
-        for ( String templateName : uriTemplateParser.getNames() ) {
-            if ( path.endsWith( "items/{" + templateName + "}" ) )
-                return templateName;
-        }
-        return null;
+        return testPoint.getUriTemplate().expand( testPoint.getPredefinedTemplateReplacement(), collectionName,
+                                                  featureId );
     }
 
-}
\ No newline at end of file
+}
@@ -25,6 +25,9 @@ import javax.ws.rs.core.UriBuilder;
 import javax.xml.transform.Source;
 import javax.xml.transform.dom.DOMSource;
 import org.opengis.cite.ogcapifeatures10.ReusableEntityFilter;
+import org.opengis.cite.ogcapifeatures10.http.HttpTransport;
+import org.opengis.cite.ogcapifeatures10.http.ResponseBodyStore;
+import org.opengis.cite.ogcapifeatures10.http.StoredBody;
 import org.w3c.dom.Document;
 
 /**
@@ -53,6 +56,41 @@ public class ClientUtils {
         return client;
     }
 
+    /**
+     * Builds a client component for interacting with HTTP endpoints which
+     * leases its connections from the pool of the given transport. The client
+     * will automatically redirect to the URI declared in 3xx responses.
+     * Request and response messages may be logged to a JDK logger (in the
+     * namespace "com.sun.jersey.api.client").
+     *
+     * @param httpTransport The transport shared by the test run, never null.
+     * @return A Client component.
+     */
+    public static Client buildClient(HttpTransport httpTransport) {
+        return buildClient(httpTransport, null);
+    }
+
+    /**
+     * Builds a client component for interacting with HTTP endpoints which
+     * leases its connections from the pool of the given transport and buffers
+     * the response entities in the given store. The client will automatically
+     * redirect to the URI declared in 3xx responses. Request and response
+     * messages may be logged to a JDK logger (in the namespace
+     * "com.sun.jersey.api.client").
+     *
+     * @param httpTransport The transport shared by the test run, never null.
+     * @param bodyStore The store of the response entities (may be null, the
+     * entities are buffered on the heap).
+     * @return A Client component.
+     */
+    public static Client buildClient(HttpTransport httpTransport,
+            ResponseBodyStore bodyStore) {
+        Client client = httpTransport.createJerseyClient();
+        client.addFilter(new ReusableEntityFilter(bodyStore));
+        client.addFilter(new LoggingFilter());
+        return client;
+    }
+
     /**
      * Constructs a client component that uses a specified web proxy. Proxy
      * authentication is not supported. Configuring the client to use an
@@ -135,11 +173,19 @@ public class ClientUtils {
      */
     public static Source getResponseEntityAsSource(ClientResponse response,
             String targetURI) {
+        StoredBody body = StoredBody.of(response.getEntityInputStream());
+        if (null != body) {
+            // NOTE: entity was stored by client filter, parse a new stream
+            // reading the (possibly memory-mapped) body from the beginning
+            response.setEntityInputStream(body.openStream());
+        }
         Source source = response.getEntity(DOMSource.class);
         if (null != targetURI && !targetURI.isEmpty()) {
             source.setSystemId(targetURI);
         }
-        if (response.getEntityInputStream().markSupported()) {
+        if (null != body) {
+            response.setEntityInputStream(body.openStream());
+        } else if (response.getEntityInputStream().markSupported()) {
             try {
                 // NOTE: entity was buffered by client filter
                 response.getEntityInputStream().reset();
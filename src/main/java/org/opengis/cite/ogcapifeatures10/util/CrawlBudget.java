@@ -0,0 +1,66 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+/**
+ * Limits of a single crawl of a {@link PagingCrawler}: the maximum number of pages, bytes and milliseconds.
+ */
+public class CrawlBudget {
+
+    /** Default maximum number of pages requested by a crawl. */
+    public static final int DEFAULT_MAX_PAGES = 10000;
+
+    /** Default maximum number of bytes read by a crawl. */
+    public static final long DEFAULT_MAX_BYTES = 512L * 1024 * 1024;
+
+    /** Default maximum duration of a crawl in milliseconds. */
+    public static final long DEFAULT_MAX_MILLIS = 10L * 60 * 1000;
+
+    /** Budget with the default limits. */
+    public static final CrawlBudget DEFAULT = new CrawlBudget( DEFAULT_MAX_PAGES, DEFAULT_MAX_BYTES,
+                                                               DEFAULT_MAX_MILLIS );
+
+    private final int maxPages;
+
+    private final long maxBytes;
+
+    private final long maxMillis;
+
+    /**
+     * @param maxPages
+     *            maximum number of pages requested, the first page is not counted, must be &gt; 0
+     * @param maxBytes
+     *            maximum number of bytes read, must be &gt; 0
+     * @param maxMillis
+     *            maximum duration in milliseconds, must be &gt; 0
+     * @throws IllegalArgumentException
+     *             if one of the limits is &lt;= 0
+     */
+    public CrawlBudget( int maxPages, long maxBytes, long maxMillis ) {
+        if ( maxPages <= 0 || maxBytes <= 0 || maxMillis <= 0 )
+            throw new IllegalArgumentException( "Limits of a crawl must be greater than 0" );
+        this.maxPages = maxPages;
+        this.maxBytes = maxBytes;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @return maximum number of pages requested
+     */
+    public int getMaxPages() {
+        return maxPages;
+    }
+
+    /**
+     * @return maximum number of bytes read
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return maximum duration in milliseconds
+     */
+    public long getMaxMillis() {
+        return maxMillis;
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+/**
+ * Result of a crawl of a {@link PagingCrawler}.
+ */
+public class CrawlResult {
+
+    /**
+     * Why the crawl stopped.
+     */
+    public enum StopReason {
+
+        /** The last page has no 'next' link or no features. */
+        COMPLETE,
+
+        /** A 'next' link points to a page already requested or a page repeats the content of another page. */
+        CYCLE,
+
+        /** The maximum number of pages is reached. */
+        PAGE_BUDGET,
+
+        /** The maximum number of bytes is reached. */
+        BYTE_BUDGET,
+
+        /** The maximum duration is reached. */
+        TIME_BUDGET
+
+    }
+
+    private final int numberOfFeatures;
+
+    private final int pages;
+
+    private final long bytes;
+
+    private final long elapsedNanos;
+
+    private final StopReason stopReason;
+
+    private final String stopDetail;
+
+    CrawlResult( int numberOfFeatures, int pages, long bytes, long elapsedNanos, StopReason stopReason,
+                 String stopDetail ) {
+        this.numberOfFeatures = numberOfFeatures;
+        this.pages = pages;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.stopReason = stopReason;
+        this.stopDetail = stopDetail;
+    }
+
+    /**
+     * @return the number of features on all pages including the first one
+     */
+    public int getNumberOfFeatures() {
+        return numberOfFeatures;
+    }
+
+    /**
+     * @return the number of pages requested, the first page is not counted
+     */
+    public int getPages() {
+        return pages;
+    }
+
+    /**
+     * @return the number of bytes read
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return the duration of the crawl in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return <code>true</code> if all pages were crawled, <code>false</code> otherwise
+     */
+    public boolean isComplete() {
+        return stopReason == StopReason.COMPLETE;
+    }
+
+    /**
+     * @return why the crawl stopped, never <code>null</code>
+     */
+    public StopReason getStopReason() {
+        return stopReason;
+    }
+
+    /**
+     * @return a description why the crawl stopped, <code>null</code> if it is complete
+     */
+    public String getStopDetail() {
+        return stopDetail;
+    }
+
+    /**
+     * @return pages requested per second
+     */
+    public double getPagesPerSecond() {
+        return elapsedNanos > 0 ? pages * 1e9 / elapsedNanos : 0;
+    }
+
+    /**
+     * @return megabytes read per second
+     */
+    public double getMegabytesPerSecond() {
+        return elapsedNanos > 0 ? bytes / ( 1024d * 1024d ) * 1e9 / elapsedNanos : 0;
+    }
+
+    @Override
+    public String toString() {
+        String result = String.format( "Crawled %d pages with %d features (%d bytes) in %d ms: %.1f pages/s, %.2f MB/s",
+                                       pages, numberOfFeatures, bytes, elapsedNanos / 1000000, getPagesPerSecond(),
+                                       getMegabytesPerSecond() );
+        if ( !isComplete() )
+            result += ", stopped: " + stopDetail;
+        return result;
+    }
+
+}
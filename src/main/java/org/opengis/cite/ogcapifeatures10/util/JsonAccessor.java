@@ -0,0 +1,376 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Typed read access to the top level members of a JSON document used by the tests: <code>type</code>,
+ * <code>features</code>, <code>links</code>, <code>numberMatched</code>, <code>numberReturned</code>,
+ * <code>timeStamp</code>, <code>extent</code>, <code>conformsTo</code> and <code>collections</code>.
+ *
+ * <p>
+ * The document is read in one pass with a streaming parser. Scalar members are kept, the members <code>links</code>,
+ * <code>extent</code>, <code>conformsTo</code> and <code>collections</code> are materialized as maps and lists (with
+ * the same value types as Rest-Assured's JsonPath), all other objects and arrays are skipped. Of the
+ * <code>features</code> array only the number of items, the number of items which are not features and the id of the
+ * first feature are kept, so the memory needed does not grow with the number of features.
+ * </p>
+ *
+ * <p>
+ * Instances are immutable.
+ * </p>
+ */
+public class JsonAccessor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final BigDecimal MAX_FLOAT = BigDecimal.valueOf( Float.MAX_VALUE );
+
+    private static final BigDecimal MIN_FLOAT = MAX_FLOAT.negate();
+
+    private static final Set<String> MATERIALIZED_MEMBERS = new HashSet<>();
+
+    static {
+        MATERIALIZED_MEMBERS.add( "links" );
+        MATERIALIZED_MEMBERS.add( "extent" );
+        MATERIALIZED_MEMBERS.add( "conformsTo" );
+        MATERIALIZED_MEMBERS.add( "collections" );
+    }
+
+    private final Map<String, Object> members;
+
+    private final Set<String> nonNullMembers;
+
+    private final int numberOfFeatures;
+
+    private final int numberOfInvalidFeatures;
+
+    private final String firstFeatureId;
+
+    private JsonAccessor( Map<String, Object> members, Set<String> nonNullMembers, int numberOfFeatures,
+                          int numberOfInvalidFeatures, String firstFeatureId ) {
+        this.members = members;
+        this.nonNullMembers = nonNullMembers;
+        this.numberOfFeatures = numberOfFeatures;
+        this.numberOfInvalidFeatures = numberOfInvalidFeatures;
+        this.firstFeatureId = firstFeatureId;
+    }
+
+    /**
+     * Parses the passed JSON document.
+     *
+     * @param json
+     *            the JSON document, never <code>null</code>
+     * @return the accessor, never <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the document is not a JSON object or could not be parsed
+     */
+    public static JsonAccessor parse( byte[] json ) {
+        return parse( new ByteArrayInputStream( json ) );
+    }
+
+    /**
+     * Parses the JSON document read from the passed stream. The stream is not closed.
+     *
+     * @param json
+     *            the stream to read the JSON document from, never <code>null</code>
+     * @return the accessor, never <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the document is not a JSON object or could not be parsed
+     */
+    public static JsonAccessor parse( InputStream json ) {
+        return parse( json, null );
+    }
+
+    /**
+     * Parses the JSON document read from the passed stream. The stream is not closed. The listener is notified as soon
+     * as the member <code>links</code> is read, before the rest of the document is parsed.
+     *
+     * @param json
+     *            the stream to read the JSON document from, never <code>null</code>
+     * @param linksListener
+     *            notified with the items of the member <code>links</code>, may be <code>null</code>
+     * @return the accessor, never <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the document is not a JSON object or could not be parsed
+     */
+    public static JsonAccessor parse( InputStream json, Consumer<List<Map<String, Object>>> linksListener ) {
+        try (JsonParser parser = JSON_FACTORY.createParser( json )) {
+            return parse( parser, linksListener );
+        } catch ( IOException e ) {
+            throw new IllegalArgumentException( "Could not parse JSON document: " + e.getMessage(), e );
+        }
+    }
+
+    /**
+     * @param member
+     *            the name of the top level member, never <code>null</code>
+     * @return <code>true</code> if the member exists and is not <code>null</code>, <code>false</code> otherwise
+     */
+    public boolean has( String member ) {
+        return nonNullMembers.contains( member );
+    }
+
+    /**
+     * @param member
+     *            the name of the top level member, never <code>null</code>
+     * @return the value of a top level member with a string, number or boolean value as string, <code>null</code> if
+     *         the member is missing, has a <code>null</code> value or an object or array value
+     */
+    public String getString( String member ) {
+        Object value = members.get( member );
+        if ( value == null || value instanceof Map || value instanceof List )
+            return null;
+        return value.toString();
+    }
+
+    /**
+     * @return the value of the member <code>type</code>, <code>null</code> if missing
+     */
+    public String getType() {
+        return getString( "type" );
+    }
+
+    /**
+     * @return <code>true</code> if the member <code>features</code> exists and is an array, <code>false</code>
+     *         otherwise
+     */
+    public boolean hasFeatures() {
+        return numberOfFeatures >= 0;
+    }
+
+    /**
+     * @return the number of items in the <code>features</code> array, -1 if the member is missing or not an array
+     */
+    public int getNumberOfFeatures() {
+        return numberOfFeatures;
+    }
+
+    /**
+     * @return the number of items in the <code>features</code> array which are not an object with the
+     *         <code>type</code> Feature, 0 if the member is missing or not an array
+     */
+    public int getNumberOfInvalidFeatures() {
+        return numberOfInvalidFeatures;
+    }
+
+    /**
+     * @return the <code>id</code> of the first feature with an id, <code>null</code> if there is no such feature
+     */
+    public String getFirstFeatureId() {
+        return firstFeatureId;
+    }
+
+    /**
+     * @return the items of the member <code>links</code>, <code>null</code> if missing or not an array
+     */
+    public List<Map<String, Object>> getLinks() {
+        return getList( "links" );
+    }
+
+    /**
+     * @return the value of the member <code>numberMatched</code>, <code>null</code> if missing
+     * @throws NumberFormatException
+     *             if the value is not an integer
+     */
+    public Integer getNumberMatched() {
+        return getInteger( "numberMatched" );
+    }
+
+    /**
+     * @return the value of the member <code>numberReturned</code>, <code>null</code> if missing
+     * @throws NumberFormatException
+     *             if the value is not an integer
+     */
+    public Integer getNumberReturned() {
+        return getInteger( "numberReturned" );
+    }
+
+    /**
+     * @return the value of the member <code>timeStamp</code>, <code>null</code> if missing
+     */
+    public String getTimeStamp() {
+        return getString( "timeStamp" );
+    }
+
+    /**
+     * @return the value of the member <code>extent</code>, <code>null</code> if missing or not an object
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> getExtent() {
+        Object extent = members.get( "extent" );
+        if ( extent instanceof Map )
+            return (Map<String, Object>) extent;
+        return null;
+    }
+
+    /**
+     * @return the items of the member <code>conformsTo</code>, <code>null</code> if missing or not an array
+     */
+    public List<Object> getConformsTo() {
+        return getList( "conformsTo" );
+    }
+
+    /**
+     * @return the items of the member <code>collections</code>, <code>null</code> if missing or not an array
+     */
+    public List<Map<String, Object>> getCollections() {
+        return getList( "collections" );
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> getList( String member ) {
+        Object value = members.get( member );
+        if ( value instanceof List )
+            return (List<T>) value;
+        return null;
+    }
+
+    private Integer getInteger( String member ) {
+        Object value = members.get( member );
+        if ( value == null )
+            return null;
+        if ( value instanceof Integer )
+            return (Integer) value;
+        if ( value instanceof Number )
+            return ( (Number) value ).intValue();
+        return Integer.valueOf( value.toString().trim() );
+    }
+
+    @SuppressWarnings("unchecked")
+    private static JsonAccessor parse( JsonParser parser, Consumer<List<Map<String, Object>>> linksListener )
+                            throws IOException {
+        if ( parser.nextToken() != JsonToken.START_OBJECT )
+            throw new IllegalArgumentException( "JSON document is not an object" );
+        Map<String, Object> members = new HashMap<>();
+        Set<String> nonNullMembers = new HashSet<>();
+        int numberOfFeatures = -1;
+        int numberOfInvalidFeatures = 0;
+        String firstFeatureId = null;
+        while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+            String member = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ( token != JsonToken.VALUE_NULL )
+                nonNullMembers.add( member );
+            if ( "features".equals( member ) && token == JsonToken.START_ARRAY ) {
+                numberOfFeatures = 0;
+                while ( parser.nextToken() != JsonToken.END_ARRAY ) {
+                    FeatureMembers feature = readFeatureMembers( parser );
+                    if ( !feature.isFeature )
+                        numberOfInvalidFeatures++;
+                    if ( firstFeatureId == null )
+                        firstFeatureId = feature.id;
+                    numberOfFeatures++;
+                }
+            } else if ( token.isScalarValue() ) {
+                members.put( member, readValue( parser ) );
+            } else if ( MATERIALIZED_MEMBERS.contains( member ) ) {
+                Object value = readValue( parser );
+                members.put( member, value );
+                if ( linksListener != null && "links".equals( member ) && value instanceof List )
+                    linksListener.accept( (List<Map<String, Object>>) value );
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return new JsonAccessor( members, nonNullMembers, numberOfFeatures, numberOfInvalidFeatures, firstFeatureId );
+    }
+
+    private static FeatureMembers readFeatureMembers( JsonParser parser )
+                            throws IOException {
+        FeatureMembers feature = new FeatureMembers();
+        if ( parser.getCurrentToken() != JsonToken.START_OBJECT ) {
+            parser.skipChildren();
+            return feature;
+        }
+        while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+            String member = parser.getCurrentName();
+            JsonToken token = parser.nextToken();
+            if ( "id".equals( member ) && token.isScalarValue() && token != JsonToken.VALUE_NULL )
+                feature.id = parser.getText();
+            else if ( "type".equals( member ) && token == JsonToken.VALUE_STRING )
+                feature.isFeature = "Feature".equals( parser.getText() );
+            else
+                parser.skipChildren();
+        }
+        return feature;
+    }
+
+    private static Object readValue( JsonParser parser )
+                            throws IOException {
+        switch ( parser.getCurrentToken() ) {
+        case START_OBJECT:
+            Map<String, Object> object = new LinkedHashMap<>();
+            while ( parser.nextToken() == JsonToken.FIELD_NAME ) {
+                String name = parser.getCurrentName();
+                parser.nextToken();
+                object.put( name, readValue( parser ) );
+            }
+            return Collections.unmodifiableMap( object );
+        case START_ARRAY:
+            List<Object> array = new ArrayList<>();
+            while ( parser.nextToken() != JsonToken.END_ARRAY )
+                array.add( readValue( parser ) );
+            return Collections.unmodifiableList( array );
+        case VALUE_STRING:
+            return parser.getText();
+        case VALUE_NUMBER_INT:
+            return readInteger( parser );
+        case VALUE_NUMBER_FLOAT:
+            return readDecimal( parser );
+        case VALUE_TRUE:
+            return Boolean.TRUE;
+        case VALUE_FALSE:
+            return Boolean.FALSE;
+        default:
+            return null;
+        }
+    }
+
+    private static Object readInteger( JsonParser parser )
+                            throws IOException {
+        switch ( parser.getNumberType() ) {
+        case INT:
+            return parser.getIntValue();
+        case LONG:
+            return parser.getLongValue();
+        default:
+            BigInteger value = parser.getBigIntegerValue();
+            return value;
+        }
+    }
+
+    private static Object readDecimal( JsonParser parser )
+                            throws IOException {
+        // same as JsonPathConfig.NumberReturnType.FLOAT_AND_DOUBLE, the default of Rest-Assured
+        BigDecimal value = parser.getDecimalValue();
+        if ( value.compareTo( MAX_FLOAT ) <= 0 && value.compareTo( MIN_FLOAT ) >= 0 )
+            return value.floatValue();
+        return value.doubleValue();
+    }
+
+    private static class FeatureMembers {
+
+        private String id;
+
+        private boolean isFeature;
+
+    }
+
+}
@@ -1,19 +1,16 @@
 package org.opengis.cite.ogcapifeatures10.util;
 
 import static io.restassured.RestAssured.given;
-import static io.restassured.http.Method.GET;
-import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
 
-import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.time.Period;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Supplier;
 
 import io.restassured.path.json.JsonPath;
-import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 /**
@@ -42,6 +39,17 @@ public class JsonUtils {
         return null;
     }
 
+    /**
+     * Parses the id of the first feature from the passed json.
+     *
+     * @param collectionItemJson
+     *            the json document containing the features, never <code>null</code>
+     * @return the parsed id, may be <code>null</code> if no feature could be found
+     */
+    public static String parseFeatureId( JsonAccessor collectionItemJson ) {
+        return collectionItemJson.getFirstFeatureId();
+    }
+
     /**
      * Parses the temporal extent from the passed collection.
      *
@@ -271,9 +279,25 @@ public class JsonUtils {
         return jsonPath.get( propertyName ) != null;
     }
 
+    /**
+     * Checks if a property with the passed name exists in the json document.
+     *
+     * @param propertyName
+     *            name of the property to check, never <code>null</code>
+     * @param json
+     *            to check, never <code>null</code>
+     * @return <code>true</code> if the property exists, <code>false</code> otherwise
+     */
+    public static boolean hasProperty( String propertyName, JsonAccessor json ) {
+        return json.has( propertyName );
+    }
+
     /**
      * Collects the number of all returned features by iterating over all 'next' links and summarizing the size of
-     * features in 'features' array property.
+     * features in 'features' array property. Stops at cyclic 'next' links and when the {@link CrawlBudget#DEFAULT} is
+     * exhausted. The pages are requested with plain request specifications, without the shared HTTP transport and the
+     * limits of the requests of the test run; fixtures pass their request factory to
+     * {@link #collectNumberOfAllReturnedFeatures(JsonPath, int, Supplier)} instead.
      * 
      * @param jsonPath
      *            the initial collection, never <code>null</code>
@@ -282,47 +306,81 @@ public class JsonUtils {
      * @return the number of all returned features
      * @throws URISyntaxException
      *             if the creation of a uri fails
+     * @see PagingCrawler
      */
     public static int collectNumberOfAllReturnedFeatures( JsonPath jsonPath, int maximumLimit )
                             throws URISyntaxException {
-        int numberOfAllReturnedFeatures = jsonPath.getList( "features" ).size();
-        Map<String, Object> nextLink = findLinkByRel( jsonPath.getList( "links" ), "next" );
-        while ( nextLink != null ) {
-            String nextUrl = (String) nextLink.get( "href" );
-            URI uri = new URI( nextUrl );
+        return collectNumberOfAllReturnedFeatures( jsonPath, maximumLimit, () -> given() );
+    }
 
-            RequestSpecification accept = given().log().all().baseUri( nextUrl ).accept( GEOJSON_MIME_TYPE );
-            String[] pairs = uri.getQuery().split( "&" );
-            String limitParamFromUri = null;
-            for ( String pair : pairs ) {
-                int idx = pair.indexOf( "=" );
-                String key = pair.substring( 0, idx );
-                String value = pair.substring( idx + 1 );
-                if ( "limit".equals( key ) ) {
-                    limitParamFromUri = value;
-                } else {
-                    accept.param( key, value );
-                }
-            }
-            if ( maximumLimit > 0 ) {
-                accept.param( "limit", maximumLimit );
-            } else if ( limitParamFromUri != null ) {
-                accept.param( "limit", limitParamFromUri );
-            }
+    /**
+     * Collects the number of all returned features by iterating over all 'next' links and summarizing the size of
+     * features in 'features' array property. Stops at cyclic 'next' links and when the {@link CrawlBudget#DEFAULT} is
+     * exhausted. The pages are requested with the request specifications created by the passed supplier, e.g. the
+     * request factory of a fixture applying the limits of the requests to the instance under test.
+     *
+     * @param jsonPath
+     *            the initial collection, never <code>null</code>
+     * @param maximumLimit
+     *            the limit parameter value to use, if &lt;= 0 the parameter is omitted
+     * @param requests
+     *            creates the request specification of each page, never <code>null</code>
+     * @return the number of all returned features
+     * @throws URISyntaxException
+     *             if the creation of a uri fails
+     * @see PagingCrawler
+     */
+    public static int collectNumberOfAllReturnedFeatures( JsonPath jsonPath, int maximumLimit,
+                                                          Supplier<RequestSpecification> requests )
+                            throws URISyntaxException {
+        int numberOfReturnedFeatures = jsonPath.getList( "features" ).size();
+        List<Map<String, Object>> links = jsonPath.getList( "links" );
+        return new PagingCrawler( requests, CrawlBudget.DEFAULT ).crawl( numberOfReturnedFeatures, links,
+                                                                         maximumLimit ).getNumberOfFeatures();
+    }
 
-            Response response = accept.when().request( GET );
-            response.then().statusCode( 200 );
+    /**
+     * Collects the number of all returned features by iterating over all 'next' links and summarizing the size of
+     * features in 'features' array property. Stops at cyclic 'next' links and when the {@link CrawlBudget#DEFAULT} is
+     * exhausted. The pages are requested with plain request specifications, without the shared HTTP transport and the
+     * limits of the requests of the test run; fixtures pass their request factory to
+     * {@link #collectNumberOfAllReturnedFeatures(JsonAccessor, int, Supplier)} instead.
+     *
+     * @param json
+     *            the initial collection, never <code>null</code>
+     * @param maximumLimit
+     *            the limit parameter value to use, if &lt;= 0 the parameter is omitted
+     * @return the number of all returned features
+     * @throws URISyntaxException
+     *             if the creation of a uri fails
+     * @see PagingCrawler
+     */
+    public static int collectNumberOfAllReturnedFeatures( JsonAccessor json, int maximumLimit )
+                            throws URISyntaxException {
+        return collectNumberOfAllReturnedFeatures( json, maximumLimit, () -> given() );
+    }
 
-            JsonPath nextJsonPath = response.jsonPath();
-            int features = nextJsonPath.getList( "features" ).size();
-            if ( features > 0 ) {
-                numberOfAllReturnedFeatures += features;
-                nextLink = findLinkByRel( nextJsonPath.getList( "links" ), "next" );
-            } else {
-                nextLink = null;
-            }
-        }
-        return numberOfAllReturnedFeatures;
+    /**
+     * Collects the number of all returned features by iterating over all 'next' links and summarizing the size of
+     * features in 'features' array property. Stops at cyclic 'next' links and when the {@link CrawlBudget#DEFAULT} is
+     * exhausted. The pages are requested with the request specifications created by the passed supplier, e.g. the
+     * request factory of a fixture applying the limits of the requests to the instance under test.
+     *
+     * @param json
+     *            the initial collection, never <code>null</code>
+     * @param maximumLimit
+     *            the limit parameter value to use, if &lt;= 0 the parameter is omitted
+     * @param requests
+     *            creates the request specification of each page, never <code>null</code>
+     * @return the number of all returned features
+     * @throws URISyntaxException
+     *             if the creation of a uri fails
+     * @see PagingCrawler
+     */
+    public static int collectNumberOfAllReturnedFeatures( JsonAccessor json, int maximumLimit,
+                                                          Supplier<RequestSpecification> requests )
+                            throws URISyntaxException {
+        return new PagingCrawler( requests, CrawlBudget.DEFAULT ).crawl( json, maximumLimit ).getNumberOfFeatures();
     }
 
     private static boolean isSameMediaType( String mediaType1, String mediaType2 ) {
@@ -0,0 +1,345 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import static io.restassured.http.Method.GET;
+import static org.opengis.cite.ogcapifeatures10.OgcApiFeatures10.GEOJSON_MIME_TYPE;
+import static org.opengis.cite.ogcapifeatures10.util.JsonUtils.findLinkByRel;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.opengis.cite.ogcapifeatures10.http.ExchangeTimingFilter;
+import org.opengis.cite.ogcapifeatures10.http.ResourceCategory;
+import org.opengis.cite.ogcapifeatures10.util.CrawlResult.StopReason;
+
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Follows the 'next' links of a paged feature collection and counts the features on all pages.
+ *
+ * <p>
+ * Pages are read with the {@link JsonAccessor}, so only the number of features and the links are kept. The request of
+ * the next page is sent as soon as the 'next' link of a page is read, while the rest of the page is still parsed. A
+ * crawl stops at a 'next' link to a page already requested, at a page with the same content as a page already read
+ * and when the {@link CrawlBudget} is exhausted.
+ * </p>
+ */
+public class PagingCrawler {
+
+    private final Supplier<RequestSpecification> requests;
+
+    private final CrawlBudget budget;
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates a crawler requesting the pages with threads created for each crawl.
+     *
+     * @param requests
+     *            creates the request specification used for each page, never <code>null</code>
+     * @param budget
+     *            the limits of each crawl, never <code>null</code>
+     */
+    public PagingCrawler( Supplier<RequestSpecification> requests, CrawlBudget budget ) {
+        this( requests, budget, null );
+    }
+
+    /**
+     * Creates a crawler requesting the pages with the passed executor, e.g. the one of the
+     * {@link org.opengis.cite.ogcapifeatures10.http.RequestExecutor} of the test run. The executor is not shut down by
+     * the crawler, pending requests are cancelled when a crawl stops.
+     *
+     * @param requests
+     *            creates the request specification used for each page, never <code>null</code>
+     * @param budget
+     *            the limits of each crawl, never <code>null</code>
+     * @param executor
+     *            executes the requests of the pages, may be <code>null</code> if threads should be created for each
+     *            crawl
+     */
+    public PagingCrawler( Supplier<RequestSpecification> requests, CrawlBudget budget, ExecutorService executor ) {
+        this.requests = requests;
+        this.budget = budget;
+        this.executor = executor;
+    }
+
+    /**
+     * Counts the features of the passed page and all pages reachable by 'next' links.
+     *
+     * @param firstPage
+     *            the first page, never <code>null</code>
+     * @param maximumLimit
+     *            the limit parameter value to use, if &lt;= 0 the limit parameter of the 'next' links is used
+     * @return the result of the crawl, never <code>null</code>
+     * @throws URISyntaxException
+     *             if a 'next' link is not a valid uri
+     */
+    public CrawlResult crawl( JsonAccessor firstPage, int maximumLimit )
+                            throws URISyntaxException {
+        return crawl( Math.max( 0, firstPage.getNumberOfFeatures() ), firstPage.getLinks(), maximumLimit );
+    }
+
+    /**
+     * Counts the features of the first page and all pages reachable by 'next' links.
+     *
+     * @param numberOfFeatures
+     *            the number of features on the first page
+     * @param links
+     *            the links of the first page, may be <code>null</code>
+     * @param maximumLimit
+     *            the limit parameter value to use, if &lt;= 0 the limit parameter of the 'next' links is used
+     * @return the result of the crawl, never <code>null</code>
+     * @throws URISyntaxException
+     *             if a 'next' link is not a valid uri
+     */
+    public CrawlResult crawl( int numberOfFeatures, List<Map<String, Object>> links, int maximumLimit )
+                            throws URISyntaxException {
+        Crawl crawl = new Crawl( maximumLimit );
+        try {
+            return crawl.run( numberOfFeatures, links );
+        } finally {
+            crawl.stop();
+        }
+    }
+
+    private static String findNextUrl( List<Map<String, Object>> links ) {
+        Map<String, Object> nextLink = findLinkByRel( links, "next" );
+        if ( nextLink == null || nextLink.get( "href" ) == null )
+            return null;
+        return nextLink.get( "href" ).toString();
+    }
+
+    private static String hash( byte[] body ) {
+        try {
+            return Base64.getEncoder().encodeToString( MessageDigest.getInstance( "SHA-256" ).digest( body ) );
+        } catch ( NoSuchAlgorithmException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    private static RuntimeException rethrow( Throwable cause )
+                            throws URISyntaxException {
+        if ( cause instanceof URISyntaxException )
+            throw (URISyntaxException) cause;
+        if ( cause instanceof Error )
+            throw (Error) cause;
+        if ( cause instanceof RuntimeException )
+            return (RuntimeException) cause;
+        return new IllegalStateException( cause );
+    }
+
+    private class Crawl {
+
+        private final ExecutorService crawlExecutor = executor != null ? executor : Executors.newCachedThreadPool( runnable -> {
+            Thread thread = new Thread( runnable, "paging-crawler" );
+            thread.setDaemon( true );
+            return thread;
+        } );
+
+        private final Queue<Future<Page>> pendingPages = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean stopped;
+
+        private final Set<String> requestedUrls = ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger requestedPages = new AtomicInteger();
+
+        private final int maximumLimit;
+
+        private Crawl( int maximumLimit ) {
+            this.maximumLimit = maximumLimit;
+        }
+
+        private CrawlResult run( int numberOfFeaturesOnFirstPage, List<Map<String, Object>> linksOfFirstPage )
+                                throws URISyntaxException {
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos( budget.getMaxMillis() );
+            Set<String> contentHashes = new HashSet<>();
+            int numberOfFeatures = numberOfFeaturesOnFirstPage;
+            int pages = 0;
+            long bytes = 0;
+            StopReason stopReason = StopReason.COMPLETE;
+            String stopDetail = null;
+
+            Page page = new Page( null );
+            follow( page, findNextUrl( linksOfFirstPage ) );
+            while ( page.nextUrl != null ) {
+                if ( page.nextStopReason != null ) {
+                    stopReason = page.nextStopReason;
+                    stopDetail = page.nextStopDetail;
+                    break;
+                }
+                if ( page.next == null )
+                    throw new IllegalStateException( "Request of " + page.nextUrl + " was rejected by the executor" );
+                Page nextPage;
+                try {
+                    nextPage = page.next.get( deadline - System.nanoTime(), TimeUnit.NANOSECONDS );
+                } catch ( TimeoutException e ) {
+                    stopReason = StopReason.TIME_BUDGET;
+                    stopDetail = "maximum duration of " + budget.getMaxMillis() + " ms reached while requesting "
+                                 + page.nextUrl;
+                    break;
+                } catch ( InterruptedException e ) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException( "Interrupted while requesting " + page.nextUrl, e );
+                } catch ( ExecutionException e ) {
+                    throw rethrow( e.getCause() );
+                }
+                pages++;
+                bytes += nextPage.bytes;
+                if ( bytes > budget.getMaxBytes() ) {
+                    stopReason = StopReason.BYTE_BUDGET;
+                    stopDetail = "maximum of " + budget.getMaxBytes() + " bytes reached with " + nextPage.url;
+                    break;
+                }
+                if ( !contentHashes.add( nextPage.hash ) ) {
+                    stopReason = StopReason.CYCLE;
+                    stopDetail = "page " + nextPage.url + " repeats the content of a page already requested";
+                    break;
+                }
+                if ( nextPage.numberOfFeatures <= 0 )
+                    break;
+                numberOfFeatures += nextPage.numberOfFeatures;
+                page = nextPage;
+            }
+            return new CrawlResult( numberOfFeatures, pages, bytes, System.nanoTime() - start, stopReason,
+                                    stopDetail );
+        }
+
+        private void follow( Page page, String nextUrl )
+                                throws URISyntaxException {
+            page.nextUrl = nextUrl;
+            if ( nextUrl == null )
+                return;
+            if ( !requestedUrls.add( nextUrl ) ) {
+                page.nextStopReason = StopReason.CYCLE;
+                page.nextStopDetail = "'next' link of " + ( page.url != null ? page.url : "the first page" )
+                                      + " points to " + nextUrl + " which was already requested";
+                return;
+            }
+            if ( requestedPages.incrementAndGet() > budget.getMaxPages() ) {
+                page.nextStopReason = StopReason.PAGE_BUDGET;
+                page.nextStopDetail = "maximum of " + budget.getMaxPages() + " pages reached";
+                return;
+            }
+            RequestSpecification request = createRequest( nextUrl );
+            if ( stopped )
+                return;
+            try {
+                page.next = crawlExecutor.submit( () -> fetch( nextUrl, request ) );
+                pendingPages.add( page.next );
+                if ( stopped )
+                    page.next.cancel( true );
+            } catch ( RejectedExecutionException e ) {
+                // crawl already stopped
+            }
+        }
+
+        private Page fetch( String url, RequestSpecification request )
+                                throws URISyntaxException {
+            Response response = request.when().request( GET );
+            response.then().statusCode( 200 );
+            byte[] body = response.asByteArray();
+            Page page = new Page( url );
+            page.bytes = body.length;
+            page.hash = hash( body );
+            URISyntaxException[] invalidNextUrl = new URISyntaxException[1];
+            JsonAccessor json = JsonAccessor.parse( new ByteArrayInputStream( body ), links -> {
+                try {
+                    follow( page, findNextUrl( links ) );
+                } catch ( URISyntaxException e ) {
+                    invalidNextUrl[0] = e;
+                }
+            } );
+            if ( invalidNextUrl[0] != null )
+                throw invalidNextUrl[0];
+            page.numberOfFeatures = json.getNumberOfFeatures();
+            return page;
+        }
+
+        private RequestSpecification createRequest( String nextUrl )
+                                throws URISyntaxException {
+            URI uri = new URI( nextUrl );
+            RequestSpecification request = requests.get().baseUri( nextUrl ).accept( GEOJSON_MIME_TYPE );
+            request.filter( ExchangeTimingFilter.as( ResourceCategory.PAGING ) );
+            String limitParamFromUri = null;
+            if ( uri.getQuery() != null ) {
+                for ( String pair : uri.getQuery().split( "&" ) ) {
+                    int idx = pair.indexOf( "=" );
+                    if ( idx < 0 )
+                        continue;
+                    String key = pair.substring( 0, idx );
+                    String value = pair.substring( idx + 1 );
+                    if ( "limit".equals( key ) ) {
+                        limitParamFromUri = value;
+                    } else {
+                        request.param( key, value );
+                    }
+                }
+            }
+            if ( maximumLimit > 0 ) {
+                request.param( "limit", maximumLimit );
+            } else if ( limitParamFromUri != null ) {
+                request.param( "limit", limitParamFromUri );
+            }
+            return request;
+        }
+
+        private void stop() {
+            stopped = true;
+            if ( executor == null ) {
+                crawlExecutor.shutdownNow();
+                return;
+            }
+            Future<Page> pendingPage;
+            while ( ( pendingPage = pendingPages.poll() ) != null )
+                pendingPage.cancel( true );
+        }
+
+    }
+
+    private static class Page {
+
+        private final String url;
+
+        private long bytes;
+
+        private String hash;
+
+        private int numberOfFeatures;
+
+        private String nextUrl;
+
+        private Future<Page> next;
+
+        private StopReason nextStopReason;
+
+        private String nextStopDetail;
+
+        private Page( String url ) {
+            this.url = url;
+        }
+
+    }
+
+}
@@ -0,0 +1,147 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counters of the documents parsed during a test run: the number of parses, the parsed bytes, the CPU time
+ * and the bytes allocated by the parsing thread. CPU time and allocated bytes are only counted if the JVM supports
+ * measuring them for the current thread.
+ */
+public class ParseStatistics {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final String name;
+
+    private final AtomicLong parses = new AtomicLong();
+
+    private final AtomicLong reuses = new AtomicLong();
+
+    private final AtomicLong parsedBytes = new AtomicLong();
+
+    private final AtomicLong cpuNanos = new AtomicLong();
+
+    private final AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * @param name
+     *            of the parser, used in {@link #toString()}, never <code>null</code>
+     */
+    public ParseStatistics( String name ) {
+        this.name = name;
+    }
+
+    /**
+     * Starts measuring a parse on the current thread.
+     *
+     * @return the measurement to stop after the parse, never <code>null</code>
+     */
+    public Measurement start() {
+        return new Measurement();
+    }
+
+    /**
+     * Counts the reuse of an already parsed document.
+     */
+    public void countReuse() {
+        reuses.incrementAndGet();
+    }
+
+    /**
+     * @return number of parsed documents
+     */
+    public long getParses() {
+        return parses.get();
+    }
+
+    /**
+     * @return number of accesses to an already parsed document
+     */
+    public long getReuses() {
+        return reuses.get();
+    }
+
+    /**
+     * @return summed up size of the parsed documents in bytes
+     */
+    public long getParsedBytes() {
+        return parsedBytes.get();
+    }
+
+    /**
+     * @return CPU time spent parsing in nanoseconds
+     */
+    public long getCpuNanos() {
+        return cpuNanos.get();
+    }
+
+    /**
+     * @return bytes allocated while parsing
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * Resets all counters to 0.
+     */
+    public void reset() {
+        parses.set( 0 );
+        reuses.set( 0 );
+        parsedBytes.set( 0 );
+        cpuNanos.set( 0 );
+        allocatedBytes.set( 0 );
+    }
+
+    @Override
+    public String toString() {
+        return name + " parses: " + parses + " (" + parsedBytes + " bytes, reused " + reuses + " times), CPU time: "
+               + ( cpuNanos.get() / 1000000 ) + " ms, allocated: " + ( allocatedBytes.get() / 1024 ) + " KB";
+    }
+
+    private static long currentThreadCpuTime() {
+        if ( THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() )
+            return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+        return 0;
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if ( THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean ) {
+            com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+            if ( threadMXBean.isThreadAllocatedMemorySupported() && threadMXBean.isThreadAllocatedMemoryEnabled() )
+                return threadMXBean.getThreadAllocatedBytes( Thread.currentThread().getId() );
+        }
+        return 0;
+    }
+
+    /**
+     * A parse measured on the current thread.
+     */
+    public class Measurement {
+
+        private final long cpuTimeAtStart = currentThreadCpuTime();
+
+        private final long allocatedBytesAtStart = currentThreadAllocatedBytes();
+
+        private Measurement() {
+        }
+
+        /**
+         * Stops the measurement and adds it to the counters. Must be invoked on the thread which started the
+         * measurement.
+         *
+         * @param bytes
+         *            the size of the parsed document in bytes
+         */
+        public void stop( long bytes ) {
+            parses.incrementAndGet();
+            parsedBytes.addAndGet( bytes );
+            cpuNanos.addAndGet( Math.max( 0, currentThreadCpuTime() - cpuTimeAtStart ) );
+            allocatedBytes.addAndGet( Math.max( 0, currentThreadAllocatedBytes() - allocatedBytesAtStart ) );
+        }
+
+    }
+
+}
@@ -0,0 +1,116 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import org.opengis.cite.ogcapifeatures10.http.StoredBody;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+
+/**
+ * Holds a response and its parsed JSON body. The body is parsed lazily on first access and exactly once per
+ * representation ({@link JsonPath} or {@link JsonAccessor}), all subsequent accesses share the parsed document.
+ *
+ * <p>
+ * Instances are thread-safe.
+ * </p>
+ */
+public class ResponseDocument {
+
+    private static final ParseStatistics STATISTICS = new ParseStatistics( "JsonPath" );
+
+    private static final ParseStatistics ACCESSOR_STATISTICS = new ParseStatistics( "JsonAccessor" );
+
+    private final Response response;
+
+    private volatile JsonPath jsonPath;
+
+    private volatile JsonAccessor accessor;
+
+    /**
+     * @param response
+     *            the response to hold, never <code>null</code>
+     */
+    public ResponseDocument( Response response ) {
+        this.response = response;
+    }
+
+    /**
+     * @return the response, never <code>null</code>
+     */
+    public Response getResponse() {
+        return response;
+    }
+
+    /**
+     * @return the parsed body of the response, never <code>null</code>
+     */
+    public JsonPath jsonPath() {
+        JsonPath parsed = jsonPath;
+        if ( parsed != null ) {
+            STATISTICS.countReuse();
+            return parsed;
+        }
+        synchronized ( this ) {
+            if ( jsonPath == null ) {
+                ParseStatistics.Measurement measurement = STATISTICS.start();
+                JsonPath newJsonPath = response.jsonPath();
+                // JsonPath parses lazily, force parsing before the instance is shared
+                newJsonPath.get();
+                measurement.stop( response.asByteArray().length );
+                jsonPath = newJsonPath;
+            } else {
+                STATISTICS.countReuse();
+            }
+            return jsonPath;
+        }
+    }
+
+    /**
+     * @return the body of the response parsed with the streaming parser, never <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the body is not a JSON object
+     */
+    public JsonAccessor accessor() {
+        JsonAccessor parsed = accessor;
+        if ( parsed != null ) {
+            ACCESSOR_STATISTICS.countReuse();
+            return parsed;
+        }
+        synchronized ( this ) {
+            if ( accessor == null ) {
+                ParseStatistics.Measurement measurement = ACCESSOR_STATISTICS.start();
+                StoredBody storedBody = StoredBody.of( response );
+                JsonAccessor newAccessor;
+                if ( storedBody != null ) {
+                    // parse the stored (possibly memory-mapped) body without copying it onto the heap
+                    newAccessor = JsonAccessor.parse( storedBody.openStream() );
+                    measurement.stop( storedBody.size() );
+                } else {
+                    byte[] body = response.asByteArray();
+                    newAccessor = JsonAccessor.parse( body );
+                    measurement.stop( body.length );
+                }
+                accessor = newAccessor;
+            } else {
+                ACCESSOR_STATISTICS.countReuse();
+            }
+            return accessor;
+        }
+    }
+
+    /**
+     * @return the counters of all JSON documents parsed into a {@link JsonPath} by instances of this class, never
+     *         <code>null</code>
+     */
+    public static ParseStatistics getStatistics() {
+        return STATISTICS;
+    }
+
+    /**
+     * @return the counters of all JSON documents parsed into a {@link JsonAccessor} by instances of this class, never
+     *         <code>null</code>
+     */
+    public static ParseStatistics getAccessorStatistics() {
+        return ACCESSOR_STATISTICS;
+    }
+
+}
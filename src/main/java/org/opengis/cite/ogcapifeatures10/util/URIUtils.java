@@ -1,28 +1,39 @@
 package org.opengis.cite.ogcapifeatures10.util;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
 import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 import javax.ws.rs.core.HttpHeaders;
 
-import com.sun.jersey.api.client.Client;
-import com.sun.jersey.api.client.ClientResponse;
-import com.sun.jersey.api.client.WebResource;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.opengis.cite.ogcapifeatures10.http.CachedResponse;
+import org.opengis.cite.ogcapifeatures10.http.HttpTransport;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCache;
+
+import io.restassured.http.Header;
 
 /**
  * Provides a collection of utility methods for manipulating or resolving URI references.
  */
 public class URIUtils {
 
+    private static final long TRANSFER_SIZE = 1024 * 1024;
+
     /**
      * Dereferences the given URI and stores the resulting resource representation in a local file. The file will be
      * located in the default temporary file directory.
-     * 
+     *
      * @param uriRef
      *            An absolute URI specifying the location of some resource.
      * @return A File containing the content of the resource; it may be empty if resolution failed for any reason.
@@ -31,35 +42,116 @@ public class URIUtils {
      */
     public static File dereferenceURI( URI uriRef )
                             throws IOException {
+        return dereferenceURI( uriRef, null, null, null );
+    }
+
+    /**
+     * Dereferences the given URI and streams the resulting resource representation to a local file. The file will be
+     * located in the default temporary file directory. If a response cache is passed, a cacheable response is stored
+     * as entry for the URI and the Accept header, so that a later GET request of the same resource is answered from
+     * the file.
+     *
+     * @param uriRef
+     *            An absolute URI specifying the location of some resource.
+     * @param accept
+     *            The value of the Accept header, may be <code>null</code>.
+     * @param httpTransport
+     *            The transport to send the request with, may be <code>null</code> if a transport should be created for
+     *            this request.
+     * @param responseCache
+     *            The cache to store the response in, may be <code>null</code>.
+     * @return A File containing the content of the resource; it may be empty if resolution failed for any reason.
+     * @throws IOException
+     *             If an IO error occurred.
+     */
+    public static File dereferenceURI( URI uriRef, String accept, HttpTransport httpTransport,
+                                       ResponseCache responseCache )
+                            throws IOException {
         if ( ( null == uriRef ) || !uriRef.isAbsolute() ) {
             throw new IllegalArgumentException( "Absolute URI is required, but received " + uriRef );
         }
         if ( uriRef.getScheme().equalsIgnoreCase( "file" ) ) {
             return new File( uriRef );
         }
-        Client client = Client.create();
-        WebResource webRes = client.resource( uriRef );
-        ClientResponse rsp = webRes.get( ClientResponse.class );
+        if ( httpTransport == null ) {
+            HttpTransport transport = new HttpTransport();
+            try {
+                return dereferenceURI( uriRef, accept, transport, responseCache );
+            } finally {
+                transport.shutdown();
+            }
+        }
+        HttpGet request = new HttpGet( uriRef );
+        if ( accept != null )
+            request.setHeader( HttpHeaders.ACCEPT, accept );
+        HttpResponse rsp = httpTransport.createHttpClient().execute( request );
+        org.apache.http.Header contentType = rsp.getFirstHeader( HttpHeaders.CONTENT_TYPE );
         String suffix = null;
-        if ( rsp.getHeaders().getFirst( HttpHeaders.CONTENT_TYPE ).endsWith( "xml" ) ) {
+        if ( contentType != null && mediaType( contentType.getValue() ).endsWith( "xml" ) ) {
             suffix = ".xml";
         }
         File destFile = File.createTempFile( "entity-", suffix );
-        if ( rsp.hasEntity() ) {
-            InputStream is = rsp.getEntityInputStream();
-            OutputStream os = new FileOutputStream( destFile );
-            byte[] buffer = new byte[8 * 1024];
-            int bytesRead;
-            while ( ( bytesRead = is.read( buffer ) ) != -1 ) {
-                os.write( buffer, 0, bytesRead );
-            }
-            is.close();
-            os.flush();
-            os.close();
+        HttpEntity entity = rsp.getEntity();
+        try {
+            if ( entity != null )
+                transfer( entity, destFile );
+        } finally {
+            EntityUtils.consumeQuietly( entity );
         }
         TestSuiteLogger.log( Level.FINE,
                              "Wrote " + destFile.length() + " bytes to file at " + destFile.getAbsolutePath() );
+        if ( responseCache != null )
+            cache( uriRef, accept, rsp, destFile, responseCache );
         return destFile;
     }
 
+    /**
+     * Creates the URI of the landing page of an API, as requested by the tests: the path of the root URI with a
+     * trailing slash, without query and fragment.
+     *
+     * @param rootUri
+     *            The root URI of the API, never <code>null</code>.
+     * @return The URI of the landing page, the root URI itself if it is not hierarchical or a file URI.
+     */
+    public static URI landingPageUri( URI rootUri ) {
+        if ( rootUri.isOpaque() || rootUri.getRawAuthority() == null || "file".equalsIgnoreCase( rootUri.getScheme() ) )
+            return rootUri;
+        String path = rootUri.getRawPath() != null ? rootUri.getRawPath() : "";
+        if ( !path.endsWith( "/" ) )
+            path += "/";
+        return URI.create( rootUri.getScheme() + "://" + rootUri.getRawAuthority() + path );
+    }
+
+    private static void transfer( HttpEntity entity, File destFile )
+                            throws IOException {
+        try (ReadableByteChannel in = Channels.newChannel( entity.getContent() );
+                        FileChannel out = FileChannel.open( destFile.toPath(), StandardOpenOption.WRITE,
+                                                            StandardOpenOption.TRUNCATE_EXISTING )) {
+            long position = 0;
+            long transferred;
+            while ( ( transferred = out.transferFrom( in, position, TRANSFER_SIZE ) ) > 0 ) {
+                position += transferred;
+            }
+        }
+    }
+
+    private static void cache( URI uriRef, String accept, HttpResponse rsp, File destFile,
+                               ResponseCache responseCache ) {
+        List<Header> headers = new ArrayList<>();
+        for ( org.apache.http.Header header : rsp.getAllHeaders() )
+            headers.add( new Header( header.getName(), header.getValue() ) );
+        org.apache.http.Header contentType = rsp.getFirstHeader( HttpHeaders.CONTENT_TYPE );
+        CachedResponse cachedResponse = CachedResponse.of( rsp.getStatusLine().getStatusCode(),
+                                                           rsp.getStatusLine().toString(),
+                                                           contentType != null ? contentType.getValue() : null,
+                                                           headers, destFile );
+        if ( cachedResponse.isCacheable() && responseCache.put( uriRef.toString(), accept, cachedResponse ) )
+            TestSuiteLogger.log( Level.FINE, "Cached response of " + uriRef + " in file " + destFile );
+    }
+
+    private static String mediaType( String contentType ) {
+        int parameters = contentType.indexOf( ';' );
+        return ( parameters >= 0 ? contentType.substring( 0, parameters ) : contentType ).trim().toLowerCase();
+    }
+
 }
@@ -0,0 +1,105 @@
+package org.opengis.cite.ogcapifeatures10;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.cite.ogcapifeatures10.util.CrawlBudget;
+import org.opengis.cite.ogcapifeatures10.util.CrawlResult;
+import org.opengis.cite.ogcapifeatures10.util.JsonAccessor;
+import org.opengis.cite.ogcapifeatures10.util.PagingCrawler;
+
+public class CommonFixtureTest {
+
+    private static final String ITEMS_URL = "http://localhost:8090/collections/lakes/items";
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingParameter( "startindex", nullValue() ).respond().withBody( page( "items_1-10.json" ) );
+        onRequest().havingParameterEqualTo( "startindex", "10" ).respond().withBody( page( "items_11-20.json" ) );
+        onRequest().havingParameterEqualTo( "startindex", "20" ).respond().withBody( page( "items_21-30.json" ) );
+        onRequest().havingParameterEqualTo( "startindex", "30" ).respond().withBody( page( "items_31-40.json" ) );
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        closeJadler();
+    }
+
+    @Test
+    public void testDelegateRequests_pagingCrawl()
+                            throws Exception {
+        CommonFixture fixture = new CommonFixture();
+        fixture.clearMessages();
+        JsonAccessor firstPage = JsonAccessor.parse( given().get( ITEMS_URL ).asByteArray() );
+
+        CrawlResult result;
+        try ( CommonFixture.DelegatedRequests requests = fixture.delegateRequests() ) {
+            result = new PagingCrawler( requests, CrawlBudget.DEFAULT, executor ).crawl( firstPage, -1 );
+        }
+
+        assertThat( result.getPages(), is( 3 ) );
+        assertThat( executor.submit( fixture::getRequest ).get(), is( "" ) );
+        assertThat( fixture.getRequest(), containsString( "startindex=10" ) );
+        assertThat( fixture.getRequest(), containsString( "startindex=30" ) );
+    }
+
+    @Test
+    public void testGetRequest_concurrentInvocations()
+                            throws Exception {
+        CommonFixture fixture = new CommonFixture();
+        CyclicBarrier barrier = new CyclicBarrier( 2 );
+        ExecutorService invocations = Executors.newFixedThreadPool( 2 );
+        try {
+            Future<String> first = invocations.submit( invocation( fixture, barrier, "10" ) );
+            Future<String> second = invocations.submit( invocation( fixture, barrier, "20" ) );
+
+            assertThat( first.get(), containsString( "startindex=10" ) );
+            assertThat( first.get(), not( containsString( "startindex=20" ) ) );
+            assertThat( second.get(), containsString( "startindex=20" ) );
+            assertThat( second.get(), not( containsString( "startindex=10" ) ) );
+        } finally {
+            invocations.shutdownNow();
+        }
+    }
+
+    /**
+     * Simulates the invocation of a parallel data provider: both invocations clear the messages before either requests
+     * and read their messages after both requested.
+     */
+    private static Callable<String> invocation( CommonFixture fixture, CyclicBarrier barrier, String startIndex ) {
+        return () -> {
+            fixture.clearMessages();
+            barrier.await();
+            fixture.init().param( "startindex", startIndex ).get( ITEMS_URL );
+            barrier.await();
+            return fixture.getRequest();
+        };
+    }
+
+    private static InputStream page( String name ) {
+        return CommonFixtureTest.class.getResourceAsStream( "util/" + name );
+    }
+
+}
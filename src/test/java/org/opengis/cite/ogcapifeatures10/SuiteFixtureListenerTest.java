@@ -50,4 +50,30 @@ public class SuiteFixtureListenerTest {
         verify( suite ).setAttribute( eq( SuiteAttribute.TEST_SUBJ_FILE.getName() ), isA( File.class ) );
     }
 
+    @Test
+    public void configureTemplateReplacements_allCollections() {
+        ISuite suite = mock( ISuite.class );
+        XmlSuite xmlSuite = mock( XmlSuite.class );
+        when( suite.getXmlSuite() ).thenReturn( xmlSuite );
+        when( xmlSuite.getParameters() ).thenReturn( new HashMap<String, String>() );
+        when( suite.getAttribute( SuiteAttribute.NO_OF_COLLECTIONS.getName() ) ).thenReturn( -1 );
+        SuiteFixtureListener iut = new SuiteFixtureListener();
+        iut.configureTemplateReplacements( suite );
+        verify( suite ).setAttribute( SuiteAttribute.MAX_TEMPLATE_REPLACEMENTS.getName(), Integer.MAX_VALUE );
+    }
+
+    @Test
+    public void configureTemplateReplacements_allCollectionsWithMaximum() {
+        ISuite suite = mock( ISuite.class );
+        XmlSuite xmlSuite = mock( XmlSuite.class );
+        when( suite.getXmlSuite() ).thenReturn( xmlSuite );
+        Map<String, String> params = new HashMap<>();
+        params.put( TestRunArg.MAXTEMPLATEREPLACEMENTS.toString(), "50" );
+        when( xmlSuite.getParameters() ).thenReturn( params );
+        when( suite.getAttribute( SuiteAttribute.NO_OF_COLLECTIONS.getName() ) ).thenReturn( -1 );
+        SuiteFixtureListener iut = new SuiteFixtureListener();
+        iut.configureTemplateReplacements( suite );
+        verify( suite ).setAttribute( SuiteAttribute.MAX_TEMPLATE_REPLACEMENTS.getName(), 50 );
+    }
+
 }
@@ -0,0 +1,138 @@
+package org.opengis.cite.ogcapifeatures10.collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
+
+import com.reprezen.kaizen.oasparser.OpenApi3Parser;
+
+import io.restassured.path.json.JsonPath;
+
+public class CollectionProfilesTest {
+
+    private static ApiModelIndex apiModelIndex;
+
+    private static URI iut;
+
+    private static List<Map<String, Object>> collections;
+
+    @BeforeClass
+    public static void initTestFixture()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+        URL openAppiDocument = CollectionProfilesTest.class.getResource( "../openapi3/openapi.json" );
+        apiModelIndex = new ApiModelIndex( parser.parse( openAppiDocument, true ) );
+        iut = new URI( "http://localhost:8090/rest/services/kataster" );
+
+        InputStream json = CollectionProfilesTest.class.getResourceAsStream( "collections.json" );
+        collections = new JsonPath( json ).getList( "collections" );
+    }
+
+    @Test
+    public void testCreate() {
+        CollectionProfiles profiles = CollectionProfiles.create( apiModelIndex, iut, collections );
+
+        assertThat( profiles.getProfiles().size(), is( 3 ) );
+        CollectionProfile flurstueck = profiles.get( "flurstueck" );
+        assertThat( flurstueck.getCollection(), sameInstance( collections.get( 0 ) ) );
+        assertThat( flurstueck.getFeaturesUrlForGeoJson(),
+                    is( "http://localhost:8090/rest/services/kataster/collections/flurstueck/items?f=json" ) );
+        assertThat( flurstueck.getSpatialExtent(), notNullValue() );
+        assertThat( flurstueck.getTemporalExtent(), notNullValue() );
+
+        CollectionProfile gebaeudebauwerk = profiles.get( "gebaeudebauwerk" );
+        assertThat( gebaeudebauwerk.getSpatialExtent(), notNullValue() );
+        assertThat( gebaeudebauwerk.getTemporalExtent(), nullValue() );
+
+        assertThat( profiles.get( "unknown" ), nullValue() );
+    }
+
+    @Test
+    public void testCreate_withoutApiModel() {
+        CollectionProfiles profiles = CollectionProfiles.create( () -> {
+            throw new IllegalStateException( "ApiModel is not available." );
+        }, iut, collections );
+
+        CollectionProfile flurstueck = profiles.get( "flurstueck" );
+        assertThat( flurstueck.getFeaturesUrlForGeoJson(),
+                    is( "http://localhost:8090/rest/services/kataster/collections/flurstueck/items?f=json" ) );
+        assertThat( flurstueck.getSpatialExtent(), notNullValue() );
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testParameters_withoutApiModel() {
+        CollectionProfile flurstueck = CollectionProfile.create( () -> {
+            throw new IllegalStateException( "ApiModel is not available." );
+        }, iut, collections.get( 0 ) );
+
+        flurstueck.getLimits();
+    }
+
+    @Test
+    public void testLimits() {
+        CollectionProfile flurstueck = CollectionProfiles.create( apiModelIndex, iut, collections ).get( "flurstueck" );
+
+        assertThat( flurstueck.getLimits().size(), is( 1 ) );
+        CollectionProfile.Limit limit = flurstueck.getLimits().get( 0 );
+        assertThat( limit.getMinimum(), is( 1 ) );
+        assertThat( limit.getMaximum(), is( 10000 ) );
+        assertThat( limit.getDefault(), is( 10 ) );
+        assertThat( flurstueck.getMaximumLimit(), is( 10000 ) );
+    }
+
+    @Test
+    public void testParameters() {
+        CollectionProfile flurstueck = CollectionProfiles.create( apiModelIndex, iut, collections ).get( "flurstueck" );
+
+        assertThat( flurstueck.isParameterSupported( "bbox" ), is( true ) );
+        assertThat( flurstueck.isParameterSupported( "DateTime" ), is( true ) );
+        assertThat( flurstueck.isParameterSupported( "gemarkung" ), is( true ) );
+        assertThat( flurstueck.isParameterSupported( "funktion" ), is( false ) );
+        assertThat( flurstueck.isFreeFormParameterSupported(), is( false ) );
+    }
+
+    @Test
+    public void testUnknownCollection() {
+        Map<String, Object> collection = new HashMap<>();
+        collection.put( "id", "unknown" );
+        collection.put( "links", new ArrayList<>() );
+        CollectionProfile profile = CollectionProfile.create( apiModelIndex, iut, collection );
+
+        assertThat( profile.getFeaturesUrlForGeoJson(), nullValue() );
+        assertThat( profile.getLimits().isEmpty(), is( true ) );
+        assertThat( profile.getMaximumLimit(), is( -1 ) );
+        assertThat( profile.isParameterSupported( "limit" ), is( false ) );
+        assertThat( profile.getSpatialExtent(), nullValue() );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSpatialExtent() {
+        Map<String, Object> extent = new HashMap<>();
+        List<Object> spatial = new ArrayList<>();
+        spatial.add( 5.0 );
+        spatial.add( 50.0 );
+        spatial.add( 9.0 );
+        extent.put( "spatial", spatial );
+        Map<String, Object> collection = new HashMap<>();
+        collection.put( "id", "flurstueck" );
+        collection.put( "extent", extent );
+        CollectionProfile profile = CollectionProfile.create( apiModelIndex, iut, collection );
+
+        profile.getSpatialExtent();
+    }
+
+}
@@ -8,9 +8,11 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +23,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
 import org.opengis.cite.ogcapifeatures10.conformance.RequirementClass;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
 import org.testng.ISuite;
 import org.testng.ITestContext;
 
@@ -64,6 +67,7 @@ public class FeatureCollectionTest {
         URI landingPageUri = new URI( "https://www.ldproxy.nrw.de/kataster" );
         when( suite.getAttribute( SuiteAttribute.IUT.getName() ) ).thenReturn( landingPageUri );
         when( suite.getAttribute( SuiteAttribute.API_MODEL.getName() ) ).thenReturn( apiModel );
+        when( suite.getAttribute( SuiteAttribute.API_MODEL_INDEX.getName() ) ).thenReturn( new ApiModelIndex( apiModel ) );
         when( suite.getAttribute( SuiteAttribute.REQUIREMENTCLASSES.getName() ) ).thenReturn( requirementClasses );
         when( suite.getAttribute( SuiteAttribute.COLLECTIONS.getName() ) ).thenReturn( collections );
     }
@@ -96,11 +100,16 @@ public class FeatureCollectionTest {
 
     private static List<Map<String, Object>> prepareCollections() {
         List<Map<String, Object>> collections = new ArrayList<>();
-        collections.add( new JsonPath( FeatureCollectionTest.class.getResourceAsStream( "collection-flurstueck.json" ) ).get() );
-        collections.add( new JsonPath( FeatureCollectionTest.class.getResourceAsStream( "collection-gebaeudebauwerk.json" ) ).get() );
+        collections.add( parse( "collection-flurstueck.json" ) );
+        collections.add( parse( "collection-gebaeudebauwerk.json" ) );
         return collections;
     }
 
+    private static Map<String, Object> parse( String resource ) {
+        InputStream json = FeatureCollectionTest.class.getResourceAsStream( resource );
+        return new JsonPath( new InputStreamReader( json, StandardCharsets.UTF_8 ) ).get();
+    }
+
     private void prepareJadler() {
         InputStream collections = getClass().getResourceAsStream( "collections.json" );
         onRequest().havingPath( endsWith( "collections" ) ).respond().withBody( collections );
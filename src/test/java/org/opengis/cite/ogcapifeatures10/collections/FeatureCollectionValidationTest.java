@@ -0,0 +1,74 @@
+package org.opengis.cite.ogcapifeatures10.collections;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.opengis.cite.ogcapifeatures10.util.ResponseDocument;
+
+import io.restassured.builder.ResponseBuilder;
+
+public class FeatureCollectionValidationTest {
+
+    @Test
+    public void testValidate() {
+        FeatureCollectionValidation validation = validate( readResource( "collectionItems-flurstueck.json" ) );
+
+        assertThat( validation.isParsed(), is( true ) );
+        assertThat( validation.isFeatureCollection(), is( true ) );
+        assertThat( validation.hasFeatures(), is( true ) );
+        assertThat( validation.getNumberOfFeatures(), is( 10 ) );
+        assertThat( validation.getNumberOfInvalidFeatures(), is( 0 ) );
+        assertThat( validation.getNumberOfInvalidLinks(), is( 0 ) );
+        assertThat( validation.getLinkToSelf(), notNullValue() );
+        assertThat( validation.hasNumberReturned(), is( false ) );
+    }
+
+    @Test
+    public void testValidate_invalidItems() {
+        String json = "{\"type\":\"FeatureCollection\",\"features\":[1,{\"type\":\"Feature\"}],"
+                      + "\"links\":[{\"rel\":\"self\"}],\"numberReturned\":\"one\",\"timeStamp\":\"yesterday\"}";
+        FeatureCollectionValidation validation = validate( json.getBytes( StandardCharsets.UTF_8 ) );
+
+        assertThat( validation.getNumberOfFeatures(), is( 2 ) );
+        assertThat( validation.getNumberOfInvalidFeatures(), is( 1 ) );
+        assertThat( validation.getNumberOfInvalidLinks(), is( 1 ) );
+        assertThat( validation.getLinkToSelf(), notNullValue() );
+        assertThat( validation.getNumberReturnedError(), notNullValue() );
+        assertThat( validation.getTimeStampError(), notNullValue() );
+    }
+
+    @Test
+    public void testValidate_noJson() {
+        FeatureCollectionValidation validation = validate( "<html/>".getBytes( StandardCharsets.UTF_8 ) );
+
+        assertThat( validation.isParsed(), is( false ) );
+        assertThat( validation.getParseError(), notNullValue() );
+        assertThat( validation.hasFeatures(), is( false ) );
+    }
+
+    private FeatureCollectionValidation validate( byte[] body ) {
+        ResponseBuilder responseBuilder = new ResponseBuilder().setStatusCode( 200 ).setBody( body );
+        return FeatureCollectionValidation.validate( new ResponseDocument( responseBuilder.build() ) );
+    }
+
+    private byte[] readResource( String resource ) {
+        try (InputStream in = getClass().getResourceAsStream( resource )) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 )
+                out.write( buffer, 0, read );
+            return out.toByteArray();
+        } catch ( IOException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+}
@@ -29,6 +29,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
 import org.opengis.cite.ogcapifeatures10.conformance.RequirementClass;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
 import org.opengis.cite.ogcapifeatures10.openapi3.TestPoint;
 import org.testng.ISuite;
 import org.testng.ITestContext;
@@ -71,6 +72,7 @@ public class FeatureCollectionsTest {
         URI landingPageUri = new URI( "https://www.ldproxy.nrw.de/kataster" );
         when( suite.getAttribute( SuiteAttribute.IUT.getName() ) ).thenReturn( landingPageUri );
         when( suite.getAttribute( SuiteAttribute.API_MODEL.getName() ) ).thenReturn( apiModel );
+        when( suite.getAttribute( SuiteAttribute.API_MODEL_INDEX.getName() ) ).thenReturn( new ApiModelIndex( apiModel ) );
         when( suite.getAttribute( SuiteAttribute.REQUIREMENTCLASSES.getName() ) ).thenReturn( requirementClasses );
     }
 
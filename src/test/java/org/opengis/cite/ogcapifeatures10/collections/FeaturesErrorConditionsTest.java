@@ -19,6 +19,7 @@ import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.opengis.cite.ogcapifeatures10.SuiteAttribute;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelIndex;
 import org.testng.ISuite;
 import org.testng.ITestContext;
 
@@ -50,6 +51,7 @@ public class FeaturesErrorConditionsTest {
         URI landingPageUri = new URI( "https://www.ldproxy.nrw.de/kataster" );
         when( suite.getAttribute( SuiteAttribute.IUT.getName() ) ).thenReturn( landingPageUri );
         when( suite.getAttribute( SuiteAttribute.API_MODEL.getName() ) ).thenReturn( apiModel );
+        when( suite.getAttribute( SuiteAttribute.API_MODEL_INDEX.getName() ) ).thenReturn( new ApiModelIndex( apiModel ) );
     }
 
     @Before
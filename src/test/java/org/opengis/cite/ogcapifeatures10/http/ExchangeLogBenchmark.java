@@ -0,0 +1,133 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * Compares the allocations of a passing test method requesting large feature collections with the Rest-Assured
+ * logging filters writing each exchange to a buffer and with the {@link ExchangeLog} keeping references to the
+ * exchanges. The requests are sent to an embedded server. Not executed by the unit tests, run it with the main method
+ * (which adds the GC profiler) or the JMH runner with <code>-prof gc</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = { "-Xmx1g" })
+public class ExchangeLogBenchmark {
+
+    private static final int REQUESTS = 8;
+
+    public enum Capture {
+        LOGGING, EXCHANGE_LOG
+    }
+
+    @Param({ "LOGGING", "EXCHANGE_LOG" })
+    public Capture capture;
+
+    @Param({ "2" })
+    public int bodySizeMb;
+
+    private HttpServer server;
+
+    private ExchangeCapture exchangeCapture;
+
+    private String url;
+
+    @Setup
+    public void startServer()
+                            throws IOException {
+        byte[] body = featureCollection( bodySizeMb * 1024 * 1024 );
+        server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 0 );
+        server.createContext( "/collections/buildings/items", exchange -> {
+            exchange.getResponseHeaders().add( "Content-Type", "application/geo+json" );
+            exchange.sendResponseHeaders( 200, body.length );
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write( body );
+            }
+        } );
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/collections/buildings/items";
+        exchangeCapture = new ExchangeCapture();
+    }
+
+    @TearDown
+    public void stopServer() {
+        exchangeCapture.close();
+        server.stop( 0 );
+    }
+
+    /**
+     * One passing test method: the log is created, the pages are requested and the log is discarded.
+     */
+    @Benchmark
+    public void testMethod( Blackhole blackhole ) {
+        if ( capture == Capture.LOGGING ) {
+            ByteArrayOutputStream requests = new ByteArrayOutputStream();
+            ByteArrayOutputStream responses = new ByteArrayOutputStream();
+            RequestLoggingFilter requestLoggingFilter = new RequestLoggingFilter( new PrintStream( requests, true ) );
+            ResponseLoggingFilter responseLoggingFilter = new ResponseLoggingFilter( new PrintStream( responses, true ) );
+            for ( int i = 0; i < REQUESTS; i++ ) {
+                RequestSpecification request = given().filters( requestLoggingFilter, responseLoggingFilter );
+                blackhole.consume( request.get( url ).getStatusCode() );
+            }
+            blackhole.consume( responses.size() );
+        } else {
+            ExchangeLog log = exchangeCapture.newLog();
+            for ( int i = 0; i < REQUESTS; i++ )
+                blackhole.consume( given().filter( log ).get( url ).getStatusCode() );
+            log.discard();
+        }
+    }
+
+    private static byte[] featureCollection( int size ) {
+        StringBuilder features = new StringBuilder( size + 1024 );
+        features.append( "{\"type\":\"FeatureCollection\",\"features\":[" );
+        for ( int i = 0; features.length() < size; i++ ) {
+            if ( i > 0 )
+                features.append( ',' );
+            features.append( "{\"type\":\"Feature\",\"id\":" ).append( i );
+            features.append( ",\"geometry\":{\"type\":\"Point\",\"coordinates\":[7.1" ).append( i ).append( ",50.7" ).append( i );
+            features.append( "]},\"properties\":{\"name\":\"building " ).append( i ).append( "\"}}" );
+        }
+        features.append( "]}" );
+        return features.toString().getBytes( StandardCharsets.UTF_8 );
+    }
+
+    public static void main( String[] args )
+                            throws RunnerException {
+        new Runner( new OptionsBuilder().include( ExchangeLogBenchmark.class.getSimpleName() ).addProfiler( "gc" ).build() ).run();
+    }
+
+}
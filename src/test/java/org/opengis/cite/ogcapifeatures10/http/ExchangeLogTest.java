@@ -0,0 +1,121 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExchangeLogTest {
+
+    private static final Pattern SPILL_FILE = Pattern.compile( "\\[complete body: (.*)\\]" );
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+    }
+
+    @After
+    public void tearDown() {
+        closeJadler();
+    }
+
+    @Test
+    public void testFormat() {
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withContentType( "application/json" ).withBody( "{\"collections\":[]}" );
+        ExchangeCapture capture = new ExchangeCapture();
+        ExchangeLog log = capture.newLog();
+
+        given().filter( log ).accept( "application/json" ).get( "http://localhost:8090/collections" );
+
+        assertThat( log.size(), is( 1 ) );
+        String requests = log.formatRequests();
+        assertThat( requests, containsString( "GET http://localhost:8090/collections" ) );
+        assertThat( requests, containsString( "Accept: application/json" ) );
+        String responses = log.formatResponses();
+        assertThat( responses, containsString( "200" ) );
+        assertThat( responses, containsString( "application/json" ) );
+        assertThat( responses, containsString( "{\"collections\":[]}" ) );
+        assertThat( responses, not( containsString( "truncated" ) ) );
+        assertThat( capture.getCapturedExchanges(), is( 1l ) );
+        assertThat( capture.getFormattedLogs(), is( 1l ) );
+    }
+
+    @Test
+    public void testFormat_truncatedBody() {
+        onRequest().havingPathEqualTo( "/collections/buildings/items" ).respond().withStatus( 200 ).withBody( body( 1000 ) );
+        ExchangeLog log = new ExchangeCapture( 100, 0 ).newLog();
+
+        given().filter( log ).get( "http://localhost:8090/collections/buildings/items" );
+
+        String responses = log.formatResponses();
+        assertThat( responses, containsString( body( 100 ) + "\n[truncated, 100 of 1000 bytes]" ) );
+        assertThat( responses, not( containsString( body( 101 ) ) ) );
+    }
+
+    @Test
+    public void testSpill_discard() {
+        onRequest().havingPathEqualTo( "/collections/buildings/items" ).respond().withStatus( 200 ).withBody( body( 1000 ) );
+        ExchangeCapture capture = new ExchangeCapture( 100, 500 );
+        ExchangeLog log = capture.newLog();
+
+        given().filter( log ).get( "http://localhost:8090/collections/buildings/items" );
+
+        assertThat( capture.getSpilledBodies(), is( 1l ) );
+        File spillFile = spillFile( log.formatResponses() );
+        assertThat( spillFile.length(), is( 1000l ) );
+
+        ExchangeLog other = capture.newLog();
+        given().filter( other ).get( "http://localhost:8090/collections/buildings/items" );
+        other.discard();
+        log.discard();
+        assertThat( spillFile.exists(), is( true ) );
+        assertThat( other.size(), is( 0 ) );
+        assertThat( spillFile.getParentFile().listFiles().length, is( 1 ) );
+
+        capture.close();
+        assertThat( spillFile.exists(), is( true ) );
+        spillFile.delete();
+        spillFile.getParentFile().delete();
+    }
+
+    @Test
+    public void testAppend() {
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withBody( "{}" );
+        ExchangeCapture capture = new ExchangeCapture();
+        ExchangeLog log = capture.newLog();
+        ExchangeLog background = capture.newLog();
+
+        given().filter( background ).get( "http://localhost:8090/collections" );
+        log.append( background );
+
+        assertThat( log.size(), is( 1 ) );
+        assertThat( background.size(), is( 0 ) );
+        assertThat( log.formatRequests(), containsString( "GET http://localhost:8090/collections" ) );
+    }
+
+    private static File spillFile( String responses ) {
+        Matcher matcher = SPILL_FILE.matcher( responses );
+        assertThat( matcher.find(), is( true ) );
+        return new File( matcher.group( 1 ) );
+    }
+
+    private static String body( int length ) {
+        StringBuilder body = new StringBuilder( length );
+        for ( int i = 0; i < length; i++ )
+            body.append( (char) ( 'a' + i % 26 ) );
+        return body.toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExchangeTimingFilterTest {
+
+    private static final String ITEMS = "{\"type\":\"FeatureCollection\",\"features\":[]}";
+
+    private HttpTransport httpTransport;
+
+    private ExchangeTimings exchangeTimings;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingPathEqualTo( "/ogcapi/collections/lakes/items" ).respond().withDelay( 100, TimeUnit.MILLISECONDS ).withStatus( 200 ).withContentType( "application/geo+json" ).withBody( ITEMS );
+        onRequest().havingPathEqualTo( "/ogcapi/conformance" ).respond().withStatus( 200 ).withContentType( "application/json" ).withBody( "{\"conformsTo\":[]}" );
+        httpTransport = new HttpTransport();
+        exchangeTimings = new ExchangeTimings( URI.create( "http://localhost:8090/ogcapi" ) );
+    }
+
+    @After
+    public void tearDown() {
+        httpTransport.shutdown();
+        closeJadler();
+    }
+
+    @Test
+    public void testFilter() {
+        ExchangeLog log = new ExchangeCapture().newLog();
+
+        given().config( httpTransport.getRestAssuredConfig() ).filter( new ExchangeTimingFilter( exchangeTimings,
+                                                                                                 log ) ).get( "http://localhost:8090/ogcapi/collections/lakes/items" );
+
+        List<ExchangeTiming> timings = log.getTimings();
+        assertThat( timings.size(), is( 1 ) );
+        ExchangeTiming timing = timings.get( 0 );
+        assertThat( timing.getCategory(), is( ResourceCategory.ITEMS ) );
+        assertThat( timing.getBytes(), is( (long) ITEMS.length() ) );
+        assertTrue( "Connect not measured", timing.getConnectNanos() > 0 );
+        assertTrue( "Time to first byte " + timing.getTimeToFirstByteNanos() + " below the delay of the server",
+                    timing.getTimeToFirstByteNanos() >= TimeUnit.MILLISECONDS.toNanos( 100 ) );
+        assertTrue( "Total time below time to first byte",
+                    timing.getTotalNanos() >= timing.getTimeToFirstByteNanos() );
+        assertThat( exchangeTimings.get( ResourceCategory.ITEMS ).getTotal().getTotalCount(), is( 1l ) );
+        assertThat( exchangeTimings.get( ResourceCategory.ITEMS ).getConnect().getTotalCount(), is( 1l ) );
+    }
+
+    @Test
+    public void testFilter_pooledConnection() {
+        for ( int i = 0; i < 2; i++ )
+            given().config( httpTransport.getRestAssuredConfig() ).filter( new ExchangeTimingFilter( exchangeTimings ) ).get( "http://localhost:8090/ogcapi/conformance" );
+
+        ExchangeTimings.CategoryTimings conformance = exchangeTimings.get( ResourceCategory.CONFORMANCE );
+        assertThat( conformance.getTotal().getTotalCount(), is( 2l ) );
+        assertThat( conformance.getTimeToFirstByte().getTotalCount(), is( 2l ) );
+        assertThat( conformance.getConnect().getTotalCount(), is( httpTransport.getMetrics().getConnectionsOpened() ) );
+        assertThat( exchangeTimings.get( ResourceCategory.ITEMS ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testFilter_category() {
+        given().filter( new ExchangeTimingFilter( exchangeTimings ) ).filter( ExchangeTimingFilter.as( ResourceCategory.PAGING ) ).get( "http://localhost:8090/ogcapi/collections/lakes/items" );
+
+        assertThat( exchangeTimings.get( ResourceCategory.PAGING ), is( notNullValue() ) );
+        assertThat( exchangeTimings.get( ResourceCategory.ITEMS ), is( nullValue() ) );
+        assertTrue( exchangeTimings.toString().contains( "paging (1 exchanges)" ) );
+    }
+
+    @Test
+    public void testResourceCategory() {
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi", "/ogcapi" ), is( ResourceCategory.LANDING ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/?f=json", "/ogcapi" ),
+                    is( ResourceCategory.LANDING ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/api", "/ogcapi" ), is( ResourceCategory.API ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/conformance", "/ogcapi/" ),
+                    is( ResourceCategory.CONFORMANCE ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/collections", "/ogcapi" ),
+                    is( ResourceCategory.COLLECTIONS ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/collections/lakes", "/ogcapi" ),
+                    is( ResourceCategory.COLLECTION ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/collections/lakes/items?limit=10", "/ogcapi" ),
+                    is( ResourceCategory.ITEMS ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/ogcapi/collections/lakes/items/1", "/ogcapi" ),
+                    is( ResourceCategory.ITEM ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/collections", "" ),
+                    is( ResourceCategory.COLLECTIONS ) );
+        assertThat( ResourceCategory.of( "http://localhost:8090/schemas/feature.json", "/ogcapi" ),
+                    is( ResourceCategory.OTHER ) );
+    }
+
+}
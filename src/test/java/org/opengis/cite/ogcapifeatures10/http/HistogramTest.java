@@ -0,0 +1,67 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void testValueAtPercentile() {
+        Histogram histogram = new Histogram();
+        for ( int value = 1; value <= 100; value++ )
+            histogram.record( value );
+
+        assertThat( histogram.getTotalCount(), is( 100l ) );
+        assertThat( histogram.getValueAtPercentile( 50 ), is( 50l ) );
+        assertThat( histogram.getValueAtPercentile( 99 ), is( 99l ) );
+        assertThat( histogram.getValueAtPercentile( 100 ), is( 100l ) );
+        assertThat( histogram.getMax(), is( 100l ) );
+        assertThat( histogram.getMean(), is( 50.5 ) );
+    }
+
+    @Test
+    public void testValueAtPercentile_relativePrecision() {
+        Histogram histogram = new Histogram();
+        for ( long value = 1000; value <= 1000000; value += 1000 )
+            histogram.record( value );
+
+        long median = histogram.getValueAtPercentile( 50 );
+        assertTrue( "Median " + median + " not within 1% of 500000", Math.abs( median - 500000 ) <= 5000 );
+        long p90 = histogram.getValueAtPercentile( 90 );
+        assertTrue( "p90 " + p90 + " not within 1% of 900000", Math.abs( p90 - 900000 ) <= 9000 );
+        assertThat( histogram.getValueAtPercentile( 100 ), is( 1000000l ) );
+    }
+
+    @Test
+    public void testValueAtPercentile_empty() {
+        Histogram histogram = new Histogram();
+
+        assertThat( histogram.getValueAtPercentile( 99 ), is( 0l ) );
+        assertThat( histogram.getMean(), is( 0.0 ) );
+    }
+
+    @Test
+    public void testIndex_bucketsAreContiguous() {
+        for ( long value = 0; value < 1 << 20; value++ ) {
+            int index = Histogram.index( value );
+            assertTrue( "Value " + value + " exceeds its bucket", value <= Histogram.highestEquivalentValue( index ) );
+            if ( index > 0 )
+                assertTrue( "Value " + value + " belongs to the previous bucket",
+                            value > Histogram.highestEquivalentValue( index - 1 ) );
+        }
+    }
+
+    @Test
+    public void testRecord_largeAndNegativeValues() {
+        Histogram histogram = new Histogram();
+        histogram.record( -5 );
+        histogram.record( Long.MAX_VALUE );
+
+        assertThat( histogram.getValueAtPercentile( 50 ), is( 0l ) );
+        assertThat( histogram.getValueAtPercentile( 100 ), is( Long.MAX_VALUE ) );
+    }
+
+}
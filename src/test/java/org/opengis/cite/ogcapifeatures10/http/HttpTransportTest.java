@@ -0,0 +1,84 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.jersey.api.client.Client;
+
+public class HttpTransportTest {
+
+    private HttpTransport httpTransport;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withContentType( "application/json" ).withBody( "{\"collections\":[]}" );
+        httpTransport = new HttpTransport();
+    }
+
+    @After
+    public void tearDown() {
+        httpTransport.shutdown();
+        closeJadler();
+    }
+
+    @Test
+    public void testRestAssuredRequestsReuseConnection() {
+        for ( int i = 0; i < 3; i++ )
+            given().config( httpTransport.getRestAssuredConfig() ).get( "http://localhost:8090/collections" ).then().statusCode( 200 );
+
+        TransportMetrics metrics = httpTransport.getMetrics();
+        assertThat( metrics.getConnectionsOpened(), is( 1l ) );
+        assertThat( metrics.getLeased(), is( 0 ) );
+        assertThat( metrics.getIdle(), is( 1 ) );
+    }
+
+    @Test
+    public void testUnreadBodiesReleaseConnection() {
+        HttpTransport singleConnectionTransport = new HttpTransport( 1, 1, HttpTransport.DEFAULT_KEEP_ALIVE );
+        try {
+            for ( int i = 0; i < 3; i++ ) {
+                int statusCode = given().config( singleConnectionTransport.getRestAssuredConfig() ).get( "http://localhost:8090/collections" ).getStatusCode();
+                assertThat( statusCode, is( 200 ) );
+            }
+
+            assertThat( singleConnectionTransport.getMetrics().getLeased(), is( 0 ) );
+            assertThat( singleConnectionTransport.getMetrics().getConnectionsOpened(), is( 1l ) );
+        } finally {
+            singleConnectionTransport.shutdown();
+        }
+    }
+
+    @Test
+    public void testJerseyClientSharesPool() {
+        given().config( httpTransport.getRestAssuredConfig() ).get( "http://localhost:8090/collections" ).then().statusCode( 200 );
+        Client client = httpTransport.createJerseyClient();
+        String collections = client.resource( "http://localhost:8090/collections" ).get( String.class );
+
+        assertThat( collections, is( "{\"collections\":[]}" ) );
+        assertThat( httpTransport.getMetrics().getConnectionsOpened(), is( 1l ) );
+    }
+
+    @Test
+    public void testKeepAliveDisabled() {
+        HttpTransport transportWithoutKeepAlive = new HttpTransport( 5, 5, 0 );
+        try {
+            for ( int i = 0; i < 2; i++ )
+                given().config( transportWithoutKeepAlive.getRestAssuredConfig() ).get( "http://localhost:8090/collections" ).then().statusCode( 200 );
+
+            assertThat( transportWithoutKeepAlive.getMetrics().getConnectionsOpened(), is( 2l ) );
+            assertThat( transportWithoutKeepAlive.getMetrics().getIdle(), is( 0 ) );
+        } finally {
+            transportWithoutKeepAlive.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,98 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.response.Response;
+
+public class PrefetcherTest {
+
+    private static final String ITEMS_URL = "http://localhost:8090/collections/lakes/items";
+
+    private RequestExecutor requestExecutor;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingPathEqualTo( "/collections/lakes/items" ).respond().withDelay( 50, TimeUnit.MILLISECONDS ).withStatus( 200 ).withContentType( "application/geo+json" ).withBody( "{\"type\":\"FeatureCollection\",\"features\":[]}" );
+        onRequest().havingPathEqualTo( "/collections/slow/items" ).respond().withDelay( 1, TimeUnit.SECONDS ).withStatus( 200 ).withContentType( "application/geo+json" ).withBody( "{\"type\":\"FeatureCollection\",\"features\":[]}" );
+        requestExecutor = new RequestExecutor( RequestExecutor.Mode.PLATFORM, 2 );
+    }
+
+    @After
+    public void tearDown() {
+        requestExecutor.shutdown();
+        closeJadler();
+    }
+
+    @Test
+    public void testPrefetchedResponseIsTaken() {
+        Prefetcher prefetcher = new Prefetcher( requestExecutor, null, 10 );
+        prefetcher.prefetch( ITEMS_URL, "application/geo+json", Collections.<String, Object> singletonMap( "limit", 10 ) );
+
+        Response response = given().filter( new PrefetchFilter( prefetcher ) ).accept( "application/geo+json" ).param( "limit",
+                                                                                                                      10 ).get( ITEMS_URL );
+
+        assertThat( response.getStatusCode(), is( 200 ) );
+        assertThat( response.jsonPath().getString( "type" ), is( "FeatureCollection" ) );
+        assertThat( prefetcher.getUsed(), is( 1l ) );
+        assertThat( prefetcher.getWasted(), is( 0l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/lakes/items" ).receivedOnce();
+    }
+
+    @Test
+    public void testPrefetchWithOtherParameterIsWasted()
+                            throws Exception {
+        Prefetcher prefetcher = new Prefetcher( requestExecutor, null, 10 );
+        prefetcher.prefetch( ITEMS_URL, "application/geo+json", Collections.<String, Object> singletonMap( "limit", 5 ) );
+
+        given().filter( new PrefetchFilter( prefetcher ) ).accept( "application/geo+json" ).param( "limit", 10 ).get( ITEMS_URL );
+        requestExecutor.getPrefetchExecutorService().shutdown();
+        requestExecutor.getPrefetchExecutorService().awaitTermination( 5, TimeUnit.SECONDS );
+
+        assertThat( prefetcher.getUsed(), is( 0l ) );
+        assertThat( prefetcher.getWasted(), is( 1l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/lakes/items" ).receivedTimes( 2 );
+    }
+
+    @Test
+    public void testPrefetch_DuplicatesAndMaximum() {
+        Prefetcher prefetcher = new Prefetcher( requestExecutor, null, 2 );
+
+        assertThat( prefetcher.prefetch( ITEMS_URL, "application/geo+json", Collections.<String, Object> emptyMap() ),
+                    is( true ) );
+        assertThat( prefetcher.prefetch( ITEMS_URL, "application/geo+json", Collections.<String, Object> emptyMap() ),
+                    is( false ) );
+        assertThat( prefetcher.prefetch( ITEMS_URL, "application/json", Collections.<String, Object> emptyMap() ),
+                    is( true ) );
+        assertThat( prefetcher.prefetch( ITEMS_URL, "text/html", Collections.<String, Object> emptyMap() ),
+                    is( false ) );
+    }
+
+    @Test
+    public void testPrefetchInFlightTimesOut() {
+        String url = "http://localhost:8090/collections/slow/items";
+        Prefetcher prefetcher = new Prefetcher( requestExecutor, null, 10, null, null, 100 );
+        prefetcher.prefetch( url, "application/geo+json", Collections.<String, Object> emptyMap() );
+
+        Response response = given().filter( new PrefetchFilter( prefetcher ) ).accept( "application/geo+json" ).get( url );
+
+        assertThat( response.getStatusCode(), is( 200 ) );
+        assertThat( prefetcher.getUsed(), is( 0l ) );
+        assertThat( prefetcher.getWasted(), is( 1l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/slow/items" ).receivedTimes( 2 );
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RateLimiterTest {
+
+    private static final String URL = "http://localhost:8090/collections";
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withContentType( "application/json" ).withBody( "{\"collections\":[]}" );
+        onRequest().havingPathEqualTo( "/throttled" ).respond().withStatus( 429 ).withHeader( "Retry-After",
+                                                                                               "1" ).withBody( "Too many requests" );
+    }
+
+    @After
+    public void tearDown() {
+        closeJadler();
+    }
+
+    @Test
+    public void testAcquire_rate()
+                            throws Exception {
+        RateLimiter rateLimiter = new RateLimiter( 20, 1, 4, false );
+
+        long start = System.nanoTime();
+        for ( int i = 0; i < 5; i++ ) {
+            rateLimiter.acquire( URL );
+            rateLimiter.release( URL, 200, null, 0 );
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+
+        assertTrue( "Five requests at 20 requests per second sent within " + elapsed + " ms", elapsed >= 180 );
+        assertTrue( rateLimiter.toString().contains( "4 delayed by the rate" ) );
+    }
+
+    @Test
+    public void testAcquire_concurrency()
+                            throws Exception {
+        RateLimiter rateLimiter = new RateLimiter( 0, 1, 1, false );
+        rateLimiter.acquire( URL );
+        CountDownLatch acquired = new CountDownLatch( 1 );
+        Thread thread = new Thread( () -> {
+            try {
+                rateLimiter.acquire( URL );
+                acquired.countDown();
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+        } );
+        thread.start();
+
+        assertThat( acquired.await( 200, TimeUnit.MILLISECONDS ), is( false ) );
+        rateLimiter.acquire( "http://localhost:8091/collections" );
+        rateLimiter.release( URL, 200, null, 0 );
+        assertThat( acquired.await( 1, TimeUnit.SECONDS ), is( true ) );
+    }
+
+    @Test
+    public void testRelease_throttled() {
+        RateLimiter rateLimiter = new RateLimiter( 0, 1, 8, true );
+
+        rateLimiter.release( URL, 429, null, TimeUnit.MILLISECONDS.toNanos( 10 ) );
+
+        assertThat( rateLimiter.getLimit( URL ), is( 4 ) );
+        assertThat( rateLimiter.getLimit( "http://localhost:8091/collections" ), is( 8 ) );
+    }
+
+    @Test
+    public void testRelease_latencyGrowth() {
+        RateLimiter rateLimiter = new RateLimiter( 0, 1, 8, true );
+        for ( int i = 0; i < 20; i++ )
+            rateLimiter.release( URL, 200, null, TimeUnit.MILLISECONDS.toNanos( 10 ) );
+        assertThat( rateLimiter.getLimit( URL ), is( 8 ) );
+
+        for ( int i = 0; i < 20; i++ )
+            rateLimiter.release( URL, 200, null, TimeUnit.MILLISECONDS.toNanos( 100 ) );
+
+        assertThat( rateLimiter.getLimit( URL ), is( 6 ) );
+    }
+
+    @Test
+    public void testRelease_fixedConcurrency() {
+        RateLimiter rateLimiter = new RateLimiter( 10, 10, 8, false );
+
+        rateLimiter.release( URL, 503, null, TimeUnit.MILLISECONDS.toNanos( 10 ) );
+
+        assertThat( rateLimiter.getLimit( URL ), is( 8 ) );
+    }
+
+    @Test
+    public void testInFlightLimitFilter_retryAfter() {
+        RequestExecutor requestExecutor = new RequestExecutor( RequestExecutor.Mode.PLATFORM, 4,
+                                                               new RateLimiter( 0, 1, 4, true ) );
+        try {
+            given().filter( new InFlightLimitFilter( requestExecutor ) ).get( "http://localhost:8090/throttled" );
+            long start = System.nanoTime();
+            given().filter( new InFlightLimitFilter( requestExecutor ) ).get( URL );
+            long elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+
+            assertTrue( "Request sent " + elapsed + " ms after Retry-After of 1 s", elapsed >= 900 );
+            assertThat( requestExecutor.getRateLimiter().getLimit( URL ), is( 2 ) );
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testParseRetryAfter() {
+        long now = 1700000000000l;
+
+        assertThat( RateLimiter.parseRetryAfter( "5", now ), is( 5000l ) );
+        assertThat( RateLimiter.parseRetryAfter( " 3600 ", now ), is( 120000l ) );
+        assertThat( RateLimiter.parseRetryAfter( "Tue, 14 Nov 2023 22:13:30 GMT", now ), is( 10000l ) );
+        assertThat( RateLimiter.parseRetryAfter( "Tue, 14 Nov 2023 22:13:00 GMT", now ), is( 0l ) );
+        assertThat( RateLimiter.parseRetryAfter( "soon", now ), is( -1l ) );
+        assertThat( RateLimiter.parseRetryAfter( null, now ), is( -1l ) );
+    }
+
+}
@@ -0,0 +1,118 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.restassured.response.Response;
+
+/**
+ * Compares the throughput of requests executed by the {@link RequestExecutor} with platform and with virtual threads.
+ * The requests are sent to an embedded server answering each request after a fixed latency, like a remote instance
+ * under test. Virtual threads are only used if supported by the Java runtime executing the benchmark. Not executed by
+ * the unit tests, run it with the main method or the JMH runner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestExecutorBenchmark {
+
+    private static final int REQUESTS = 64;
+
+    private static final int LATENCY_MILLIS = 20;
+
+    private static final byte[] BODY = "{\"type\":\"FeatureCollection\",\"features\":[]}".getBytes( StandardCharsets.UTF_8 );
+
+    @Param({ "PLATFORM", "VIRTUAL" })
+    public RequestExecutor.Mode mode;
+
+    @Param({ "8", "64" })
+    public int maxInFlight;
+
+    private HttpServer server;
+
+    private HttpTransport httpTransport;
+
+    private RequestExecutor requestExecutor;
+
+    private String url;
+
+    @Setup
+    public void startServer()
+                            throws IOException {
+        server = HttpServer.create( new InetSocketAddress( "localhost", 0 ), 0 );
+        server.createContext( "/collections/buildings/items", exchange -> {
+            try {
+                Thread.sleep( LATENCY_MILLIS );
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().add( "Content-Type", "application/geo+json" );
+            exchange.sendResponseHeaders( 200, BODY.length );
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write( BODY );
+            }
+        } );
+        server.setExecutor( Executors.newCachedThreadPool() );
+        server.start();
+        url = "http://localhost:" + server.getAddress().getPort() + "/collections/buildings/items";
+        httpTransport = new HttpTransport( maxInFlight, maxInFlight, HttpTransport.DEFAULT_KEEP_ALIVE );
+        requestExecutor = new RequestExecutor( mode, maxInFlight );
+    }
+
+    @TearDown
+    public void stopServer() {
+        requestExecutor.shutdown();
+        httpTransport.shutdown();
+        server.stop( 0 );
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void requests( Blackhole blackhole )
+                            throws InterruptedException, ExecutionException {
+        List<Future<Response>> responses = new ArrayList<>();
+        for ( int i = 0; i < REQUESTS; i++ )
+            responses.add( requestExecutor.submit( () -> given().config( httpTransport.getRestAssuredConfig() ).filter( new InFlightLimitFilter( requestExecutor ) ).get( url ) ) );
+        for ( Future<Response> response : responses )
+            blackhole.consume( response.get().getStatusCode() );
+    }
+
+    public static void main( String[] args )
+                            throws RunnerException {
+        new Runner( new OptionsBuilder().include( RequestExecutorBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.response.Response;
+
+public class RequestExecutorTest {
+
+    private HttpTransport httpTransport;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingPathEqualTo( "/collections/lakes/items" ).respond().withDelay( 300, TimeUnit.MILLISECONDS ).withStatus( 200 ).withContentType( "application/geo+json" ).withBody( "{\"type\":\"FeatureCollection\",\"features\":[]}" );
+        onRequest().havingPathEqualTo( "/collections" ).respond().withDelay( 20, TimeUnit.MILLISECONDS ).withStatus( 200 ).withContentType( "application/json" ).withBody( "{\"collections\":[]}" );
+        httpTransport = new HttpTransport();
+    }
+
+    @After
+    public void tearDown() {
+        httpTransport.shutdown();
+        closeJadler();
+    }
+
+    @Test
+    public void testSubmit_PlatformThreads()
+                            throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutor( RequestExecutor.Mode.PLATFORM, 2 );
+        try {
+            List<Future<Response>> responses = requestCollections( requestExecutor, 10 );
+            for ( Future<Response> response : responses )
+                assertThat( response.get().getStatusCode(), is( 200 ) );
+
+            assertThat( requestExecutor.getMode(), is( RequestExecutor.Mode.PLATFORM ) );
+            assertTrue( requestExecutor.getPeakInFlight() <= 2 );
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmit_VirtualThreadsBoundedByPermits()
+                            throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutor( RequestExecutor.Mode.VIRTUAL, 3 );
+        try {
+            List<Future<Response>> responses = requestCollections( requestExecutor, 20 );
+            for ( Future<Response> response : responses )
+                assertThat( response.get().getStatusCode(), is( 200 ) );
+
+            RequestExecutor.Mode expectedMode = RequestExecutor.isVirtualThreadSupported() ? RequestExecutor.Mode.VIRTUAL
+                                                                                           : RequestExecutor.Mode.PLATFORM;
+            assertThat( requestExecutor.getMode(), is( expectedMode ) );
+            assertTrue( requestExecutor.getPeakInFlight() <= 3 );
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubmit_NotQueuedBehindPrefetches()
+                            throws Exception {
+        RequestExecutor requestExecutor = new RequestExecutor( RequestExecutor.Mode.PLATFORM, 4 );
+        try {
+            List<Future<Response>> prefetches = new ArrayList<>();
+            for ( int i = 0; i < 10; i++ )
+                prefetches.add( requestExecutor.submitPrefetch( () -> given().config( httpTransport.getRestAssuredConfig() ).filter( new InFlightLimitFilter( requestExecutor ) ).get( "http://localhost:8090/collections/lakes/items" ) ) );
+            Thread.sleep( 50 );
+
+            long start = System.nanoTime();
+            Response response = requestCollections( requestExecutor, 1 ).get( 0 ).get();
+            long elapsed = TimeUnit.NANOSECONDS.toMillis( System.nanoTime() - start );
+
+            assertThat( response.getStatusCode(), is( 200 ) );
+            assertTrue( "Request waited " + elapsed + " ms behind the prefetches", elapsed < 300 );
+            assertThat( prefetches.get( prefetches.size() - 1 ).isDone(), is( false ) );
+        } finally {
+            requestExecutor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxInFlight() {
+        new RequestExecutor( RequestExecutor.Mode.PLATFORM, 0 );
+    }
+
+    private List<Future<Response>> requestCollections( RequestExecutor requestExecutor, int numberOfRequests ) {
+        List<Future<Response>> responses = new ArrayList<>();
+        for ( int i = 0; i < numberOfRequests; i++ )
+            responses.add( requestExecutor.submit( () -> given().config( httpTransport.getRestAssuredConfig() ).filter( new InFlightLimitFilter( requestExecutor ) ).get( "http://localhost:8090/collections" ) ) );
+        return responses;
+    }
+
+}
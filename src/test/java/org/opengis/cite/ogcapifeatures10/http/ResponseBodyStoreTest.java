@@ -0,0 +1,136 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.response.Response;
+
+public class ResponseBodyStoreTest {
+
+    private ResponseBodyStore bodyStore;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        bodyStore = new ResponseBodyStore( 100 );
+    }
+
+    @After
+    public void tearDown() {
+        bodyStore.close();
+        closeJadler();
+    }
+
+    @Test
+    public void testStore_onHeap()
+                            throws IOException {
+        StoredBody body = bodyStore.store( stream( body( 100 ) ) );
+
+        assertThat( body.isSpilled(), is( false ) );
+        assertThat( body.getFile(), is( nullValue() ) );
+        assertThat( body.size(), is( 100l ) );
+        assertThat( read( body.openStream() ), is( body( 100 ) ) );
+        assertThat( bodyStore.getHeapBodies(), is( 1l ) );
+    }
+
+    @Test
+    public void testStore_spilled()
+                            throws IOException {
+        StoredBody body = bodyStore.store( stream( body( 1000 ) ) );
+
+        assertThat( body.isSpilled(), is( true ) );
+        assertThat( body.getFile().length(), is( 1000l ) );
+        assertThat( body.size(), is( 1000l ) );
+        ByteBuffer buffer = body.asByteBuffer();
+        assertThat( buffer.isReadOnly(), is( true ) );
+        assertThat( buffer.remaining(), is( 1000 ) );
+        assertThat( read( body.openStream() ), is( body( 1000 ) ) );
+        assertThat( new String( body.head( 10 ), StandardCharsets.UTF_8 ), is( body( 10 ) ) );
+        assertThat( bodyStore.getSpilledBodies(), is( 1l ) );
+    }
+
+    @Test
+    public void testOpenStream_reset()
+                            throws IOException {
+        StoredBody body = bodyStore.store( stream( body( 1000 ) ) );
+        InputStream stream = body.openStream();
+
+        assertThat( read( stream ), is( body( 1000 ) ) );
+        stream.reset();
+        assertThat( read( stream ), is( body( 1000 ) ) );
+        assertThat( StoredBody.of( stream ), is( body ) );
+        assertThat( StoredBody.of( stream( "" ) ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testClose()
+                            throws IOException {
+        File file = bodyStore.store( stream( body( 1000 ) ) ).getFile();
+        File directory = file.getParentFile();
+
+        bodyStore.close();
+
+        assertThat( file.exists(), is( false ) );
+        assertThat( directory.exists(), is( false ) );
+    }
+
+    @Test
+    public void testResponseBodyFilter() {
+        onRequest().havingPathEqualTo( "/collections/buildings/items" ).respond().withStatus( 200 ).withContentType( "application/geo+json" ).withBody( body( 1000 ) );
+
+        Response response = given().filter( new ResponseBodyFilter( bodyStore ) ).get( "http://localhost:8090/collections/buildings/items" );
+
+        StoredBody storedBody = StoredBody.of( response );
+        assertThat( storedBody, is( notNullValue() ) );
+        assertThat( storedBody.isSpilled(), is( true ) );
+        assertThat( response.getStatusCode(), is( 200 ) );
+        assertThat( response.getContentType(), is( "application/geo+json" ) );
+
+        CachedResponse cachedResponse = CachedResponse.of( response );
+        assertThat( cachedResponse.getSize(), is( 1000 ) );
+        assertThat( response.asString(), is( body( 1000 ) ) );
+
+        Response replayed = cachedResponse.toResponse( null );
+        assertThat( StoredBody.of( replayed ), is( storedBody ) );
+        assertThat( replayed.asString(), is( body( 1000 ) ) );
+        assertThat( cachedResponse.toResponse( null ).asString(), is( body( 1000 ) ) );
+    }
+
+    private static InputStream stream( String body ) {
+        return new ByteArrayInputStream( body.getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private static String read( InputStream stream )
+                            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int read;
+        while ( ( read = stream.read() ) >= 0 )
+            sb.append( (char) read );
+        return sb.toString();
+    }
+
+    private static String body( int length ) {
+        StringBuilder body = new StringBuilder( length );
+        for ( int i = 0; i < length; i++ )
+            body.append( (char) ( 'a' + i % 26 ) );
+        return body.toString();
+    }
+
+}
@@ -0,0 +1,172 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.Collections;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.http.Header;
+import io.restassured.response.Response;
+
+public class ResponseCacheTest {
+
+    private ResponseCache responseCache;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        responseCache = new ResponseCache( 1024 * 1024 );
+    }
+
+    @After
+    public void tearDown() {
+        closeJadler();
+    }
+
+    @Test
+    public void testCacheHit() {
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withHeader( "ETag",
+                                                                                           "\"v1\"" ).withHeader( "Cache-Control",
+                                                                                                                   "max-age=60" ).withContentType( "application/json" ).withBody( "{\"collections\":[]}" );
+
+        Response first = request( "/collections", "application/json", false );
+        Response second = request( "/collections", "application/json", false );
+
+        assertThat( second.getStatusCode(), is( 200 ) );
+        assertThat( second.jsonPath().getList( "collections" ).size(), is( 0 ) );
+        assertThat( second.asString(), is( first.asString() ) );
+        verifyThatRequest().havingPathEqualTo( "/collections" ).receivedOnce();
+        assertThat( responseCache.getStatistics().getHits(), is( 1l ) );
+        assertThat( responseCache.getStatistics().getMisses(), is( 1l ) );
+    }
+
+    @Test
+    public void testCacheKeyIncludesAcceptHeader() {
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withContentType( "application/json" ).withBody( "{\"collections\":[]}" );
+
+        request( "/collections", "application/json", false );
+        request( "/collections", "text/html", false );
+
+        verifyThatRequest().havingPathEqualTo( "/collections" ).receivedTimes( 2 );
+        assertThat( responseCache.getStatistics().getMisses(), is( 2l ) );
+    }
+
+    @Test
+    public void testConditionalRequestWithETag() {
+        onRequest().havingPathEqualTo( "/api" ).havingHeaderEqualTo( "If-None-Match", "\"v1\"" ).respond().withStatus( 304 );
+        onRequest().havingPathEqualTo( "/api" ).havingHeader( "If-None-Match", nullValue() ).respond().withStatus( 200 ).withHeader( "ETag",
+                                                                                                                                 "\"v1\"" ).withContentType( "application/json" ).withBody( "{}" );
+
+        request( "/api", "application/json", false );
+        Response revalidated = request( "/api", "application/json", false );
+
+        assertThat( revalidated.getStatusCode(), is( 200 ) );
+        assertThat( revalidated.asString(), is( "{}" ) );
+        verifyThatRequest().havingPathEqualTo( "/api" ).havingHeader( "If-None-Match", notNullValue() ).receivedOnce();
+        assertThat( responseCache.getStatistics().getRevalidations(), is( 1l ) );
+    }
+
+    @Test
+    public void testConditionalRequestWithLastModified() {
+        onRequest().havingPathEqualTo( "/conformance" ).respond().withStatus( 200 ).withHeader( "Last-Modified",
+                                                                                           "Wed, 21 Oct 2026 07:28:00 GMT" ).withBody( "{}" );
+
+        request( "/conformance", "application/json", false );
+        request( "/conformance", "application/json", false );
+
+        verifyThatRequest().havingPathEqualTo( "/conformance" ).havingHeader( "If-Modified-Since",
+                                                                              notNullValue() ).receivedOnce();
+    }
+
+    @Test
+    public void testNoCacheIsRevalidated() {
+        onRequest().havingPathEqualTo( "/api" ).respond().withStatus( 200 ).withHeader( "ETag",
+                                                                                   "\"v1\"" ).withHeader( "Cache-Control",
+                                                                                                           "no-cache, max-age=60" ).withBody( "{}" );
+
+        request( "/api", "application/json", false );
+        request( "/api", "application/json", false );
+
+        verifyThatRequest().havingPathEqualTo( "/api" ).havingHeader( "If-None-Match", notNullValue() ).receivedOnce();
+    }
+
+    @Test
+    public void testResponsesWithoutValidatorAreNotCached() {
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withHeader( "Cache-Control",
+                                                                                           "max-age=60" ).withBody( "{\"collections\":[]}" );
+
+        request( "/collections", "application/json", false );
+        request( "/collections", "application/json", false );
+
+        verifyThatRequest().havingPathEqualTo( "/collections" ).receivedTimes( 2 );
+        assertThat( responseCache.getStatistics().getEntries(), is( 0 ) );
+    }
+
+    @Test
+    public void testPrivateResponsesAreNotCached() {
+        onRequest().havingPathEqualTo( "/collections" ).respond().withStatus( 200 ).withHeader( "ETag",
+                                                                                           "\"v1\"" ).withHeader( "Cache-Control",
+                                                                                                                   "private, max-age=60" ).withBody( "{\"collections\":[]}" );
+
+        request( "/collections", "application/json", false );
+        request( "/collections", "application/json", false );
+
+        verifyThatRequest().havingPathEqualTo( "/collections" ).receivedTimes( 2 );
+        assertThat( responseCache.getStatistics().getEntries(), is( 0 ) );
+    }
+
+    @Test
+    public void testBypass() {
+        onRequest().havingPathEqualTo( "/" ).respond().withStatus( 200 ).withBody( "landing page" );
+
+        request( "/", null, false );
+        request( "/", null, true );
+
+        verifyThatRequest().havingPathEqualTo( "/" ).receivedTimes( 2 );
+        assertThat( responseCache.getStatistics().getBypassed(), is( 1l ) );
+    }
+
+    @Test
+    public void testErrorResponsesAreNotCached() {
+        onRequest().havingPathEqualTo( "/collections/unknown" ).respond().withStatus( 404 );
+
+        request( "/collections/unknown", "application/json", false );
+        request( "/collections/unknown", "application/json", false );
+
+        verifyThatRequest().havingPathEqualTo( "/collections/unknown" ).receivedTimes( 2 );
+        assertThat( responseCache.getStatistics().getEntries(), is( 0 ) );
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        ResponseCache smallCache = new ResponseCache( 40 );
+        CachedResponse response = new CachedResponse( 200, null, null, Collections.<Header> emptyList(), new byte[10] );
+        smallCache.put( "http://localhost/a", null, response );
+        smallCache.put( "http://localhost/b", null, response );
+        smallCache.put( "http://localhost/c", null, response );
+        smallCache.get( "http://localhost/a", null );
+        smallCache.put( "http://localhost/d", null, response );
+        smallCache.put( "http://localhost/e", null, response );
+
+        assertThat( smallCache.get( "http://localhost/a", null ), notNullValue() );
+        assertThat( smallCache.get( "http://localhost/b", null ), nullValue() );
+        assertThat( smallCache.getStatistics().getEvictions(), is( 1l ) );
+    }
+
+    private Response request( String path, String accept, boolean bypass ) {
+        return given().filter( new ResponseCacheFilter( responseCache, bypass ) ).baseUri( "http://localhost:8090" + path ).accept( accept != null ? accept
+                                                                                                                                                  : "*/*" ).get();
+    }
+
+}
@@ -0,0 +1,99 @@
+package org.opengis.cite.ogcapifeatures10.http;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.response.Response;
+
+public class SingleFlightTest {
+
+    private static final String ITEMS_URL = "http://localhost:8090/collections/lakes/items";
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        onRequest().havingPathEqualTo( "/collections/lakes/items" ).respond().withDelay( 300, TimeUnit.MILLISECONDS ).withStatus( 200 ).withContentType( "application/geo+json" ).withBody( "{\"type\":\"FeatureCollection\",\"features\":[]}" );
+        executor = Executors.newFixedThreadPool( 4 );
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        closeJadler();
+    }
+
+    @Test
+    public void testIdenticalRequestsInFlightAreDeduplicated()
+                            throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        List<Future<Response>> responses = new ArrayList<>();
+        for ( int i = 0; i < 4; i++ )
+            responses.add( executor.submit( () -> given().filter( new SingleFlightFilter( singleFlight ) ).accept( "application/geo+json" ).param( "limit",
+                                                                                                                                             10 ).get( ITEMS_URL ) ) );
+        for ( Future<Response> response : responses ) {
+            assertThat( response.get().getStatusCode(), is( 200 ) );
+            assertThat( response.get().jsonPath().getString( "type" ), is( "FeatureCollection" ) );
+        }
+
+        assertThat( singleFlight.getRequests(), is( 4l ) );
+        assertThat( singleFlight.getDeduplicated(), is( 3l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/lakes/items" ).receivedOnce();
+    }
+
+    @Test
+    public void testRequestsWithOtherAcceptHeaderAreNotDeduplicated()
+                            throws Exception {
+        SingleFlight singleFlight = new SingleFlight();
+        Future<Response> geoJson = executor.submit( () -> given().filter( new SingleFlightFilter( singleFlight ) ).accept( "application/geo+json" ).get( ITEMS_URL ) );
+        Future<Response> json = executor.submit( () -> given().filter( new SingleFlightFilter( singleFlight ) ).accept( "application/json" ).get( ITEMS_URL ) );
+        geoJson.get();
+        json.get();
+
+        assertThat( singleFlight.getDeduplicated(), is( 0l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/lakes/items" ).receivedTimes( 2 );
+    }
+
+    @Test
+    public void testWaitingRequestIsSentAfterTimeout()
+                            throws Exception {
+        SingleFlight singleFlight = new SingleFlight( 100 );
+        Future<Response> leader = executor.submit( () -> given().filter( new SingleFlightFilter( singleFlight ) ).get( ITEMS_URL ) );
+        Thread.sleep( 50 );
+        Future<Response> waiting = executor.submit( () -> given().filter( new SingleFlightFilter( singleFlight ) ).get( ITEMS_URL ) );
+
+        assertThat( waiting.get().getStatusCode(), is( 200 ) );
+        assertThat( leader.get().getStatusCode(), is( 200 ) );
+        assertThat( singleFlight.getDeduplicated(), is( 0l ) );
+        assertThat( singleFlight.getTimedOut(), is( 1l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/lakes/items" ).receivedTimes( 2 );
+    }
+
+    @Test
+    public void testCompletedRequestsAreNotShared() {
+        SingleFlight singleFlight = new SingleFlight();
+        given().filter( new SingleFlightFilter( singleFlight ) ).get( ITEMS_URL );
+        given().filter( new SingleFlightFilter( singleFlight ) ).get( ITEMS_URL );
+
+        assertThat( singleFlight.getDeduplicated(), is( 0l ) );
+        verifyThatRequest().havingPathEqualTo( "/collections/lakes/items" ).receivedTimes( 2 );
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.net.URL;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reprezen.kaizen.oasparser.OpenApi3Parser;
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+
+public class ApiDefinitionSubsetTest {
+
+    private static final String API = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"test\",\"version\":\"1.0\"},"
+                                      + "\"paths\":{"
+                                      + "\"/collections/{collectionId}/items\":{\"get\":{"
+                                      + "\"parameters\":[{\"$ref\":\"#/components/parameters/limit\"}],"
+                                      + "\"responses\":{\"200\":{\"description\":\"ok\"}}}},"
+                                      + "\"/processes\":{\"get\":{"
+                                      + "\"parameters\":[{\"$ref\":\"#/components/parameters/unused\"}],"
+                                      + "\"responses\":{\"200\":{\"description\":\"ok\"}}}}},"
+                                      + "\"components\":{"
+                                      + "\"parameters\":{"
+                                      + "\"limit\":{\"name\":\"limit\",\"in\":\"query\",\"schema\":{\"$ref\":\"#/components/schemas/limit\"}},"
+                                      + "\"unused\":{\"name\":\"unused\",\"in\":\"query\",\"schema\":{\"type\":\"string\"}}},"
+                                      + "\"schemas\":{\"limit\":{\"type\":\"integer\"},\"unused\":{\"type\":\"string\"}}}}";
+
+    @Test
+    public void testExtract()
+                            throws Exception {
+        JsonNode document = new ObjectMapper().readTree( API );
+
+        JsonNode subset = ApiDefinitionSubset.extract( document );
+
+        assertThat( subset.get( "info" ).get( "title" ).asText(), is( "test" ) );
+        assertThat( subset.get( "paths" ).size(), is( 1 ) );
+        assertThat( subset.get( "paths" ).has( "/collections/{collectionId}/items" ), is( true ) );
+        assertThat( subset.get( "components" ).get( "parameters" ).size(), is( 1 ) );
+        assertThat( subset.get( "components" ).get( "parameters" ).has( "limit" ), is( true ) );
+        assertThat( subset.get( "components" ).get( "schemas" ).size(), is( 1 ) );
+        assertThat( subset.get( "components" ).get( "schemas" ).has( "limit" ), is( true ) );
+        assertThat( document.get( "paths" ).size(), is( 2 ) );
+    }
+
+    @Test
+    public void testExtract_validates()
+                            throws Exception {
+        URL openApiDocument = ApiDefinitionSubsetTest.class.getResource( "openapi.json" );
+        JsonNode document = new ObjectMapper().readTree( openApiDocument );
+
+        JsonNode subset = ApiDefinitionSubset.extract( document );
+        OpenApi3 apiModel = (OpenApi3) new OpenApi3Parser().parse( subset, openApiDocument, true );
+
+        assertThat( apiModel.isValid(), is( true ) );
+        assertThat( apiModel.hasPath( "/api" ), is( false ) );
+        assertThat( apiModel.getPaths().size(), is( 12 ) );
+    }
+
+    @Test
+    public void testIsRelevantPath() {
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/" ), is( true ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/conformance" ), is( true ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/collections" ), is( true ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/collections/{collectionId}" ), is( true ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/collections/flurstueck/items" ), is( true ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/collections/flurstueck/items/{featureId}" ), is( true ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/api" ), is( false ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/collections/flurstueck/tiles" ), is( false ) );
+        assertThat( ApiDefinitionSubset.isRelevantPath( "/processes/{processId}/jobs" ), is( false ) );
+    }
+
+}
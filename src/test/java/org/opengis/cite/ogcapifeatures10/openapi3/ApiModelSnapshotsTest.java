@@ -0,0 +1,62 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opengis.cite.ogcapifeatures10.openapi3.ApiModelSnapshots.Snapshot;
+
+public class ApiModelSnapshotsTest {
+
+    private static final String URL = "http://localhost:8090/api";
+
+    private static final String DOCUMENT = "{\"openapi\":\"3.0.1\"}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testStoreAndFind()
+                            throws Exception {
+        ApiModelSnapshots snapshots = new ApiModelSnapshots( new File( folder.getRoot(), "snapshots" ) );
+        snapshots.store( DOCUMENT, URL, new Snapshot( false, Arrays.asList( "ERROR: first", "WARN: second" ) ) );
+
+        Snapshot snapshot = new ApiModelSnapshots( new File( folder.getRoot(), "snapshots" ) ).find( DOCUMENT, URL );
+
+        assertThat( snapshot.isValid(), is( false ) );
+        assertThat( snapshot.getValidationItems(), is( Arrays.asList( "ERROR: first", "WARN: second" ) ) );
+    }
+
+    @Test
+    public void testFind_changedDocument()
+                            throws Exception {
+        ApiModelSnapshots snapshots = new ApiModelSnapshots( folder.getRoot() );
+        snapshots.store( DOCUMENT, URL, new Snapshot( true, Collections.<String> emptyList() ) );
+
+        assertThat( snapshots.find( DOCUMENT + " ", URL ), nullValue() );
+        assertThat( snapshots.find( DOCUMENT, URL ).isValid(), is( true ) );
+    }
+
+    @Test
+    public void testFind_otherUrl()
+                            throws Exception {
+        ApiModelSnapshots snapshots = new ApiModelSnapshots( folder.getRoot() );
+        snapshots.store( DOCUMENT, URL, new Snapshot( true, Collections.<String> emptyList() ) );
+
+        assertThat( snapshots.find( DOCUMENT, "http://localhost:8090/other/api" ), nullValue() );
+    }
+
+    @Test
+    public void testHash() {
+        assertThat( ApiModelSnapshots.hash( "abc" ),
+                    is( "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad" ) );
+    }
+
+}
@@ -2,14 +2,20 @@ package org.opengis.cite.ogcapifeatures10.openapi3;
 
 import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.isFreeFormParameterSupportedForCollection;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.isParameterSupportedForCollection;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveParameterByName;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveParameterByNameIgnoreCase;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPoints;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollection;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollectionMetadata;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollections;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForCollectionsMetadata;
+import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForConformance;
 import static org.opengis.cite.ogcapifeatures10.openapi3.OpenApiUtils.retrieveTestPointsForFeature;
 
 import java.net.URI;
@@ -27,6 +33,7 @@ import org.junit.Test;
 import com.reprezen.kaizen.oasparser.OpenApi3Parser;
 import com.reprezen.kaizen.oasparser.model3.MediaType;
 import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Parameter;
 
 /**
  * @author <a href="mailto:goltz@lat-lon.de">Lyn Goltz </a>
@@ -47,8 +54,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPoints( apiModel, iut );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPoints( apiModelIndex, iut );
 
         assertThat( testPoints.size(), is( 2 ) );
 
@@ -60,14 +67,44 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi-relativeServerPath.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPoints( apiModel, iut );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPoints( apiModelIndex, iut );
 
         assertThat( testPoints.size(), is( 2 ) );
         assertThat( testPoints.get( 0 ).getServerUrl(), is( "http://localhost:8080/path" ) );
         assertThat( testPoints.get( 1 ).getServerUrl(), is( "http://localhost:8080/path" ) );
     }
 
+    @Test
+    public void testServerVariables()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi-serverVariables.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForConformance( apiModelIndex, iut );
+
+        assertThat( testPoints.size(), is( 2 ) );
+        assertThat( testPoints.get( 0 ).getServerUrl(), is( "http://localhost:8080/example" ) );
+        assertThat( testPoints.get( 1 ).getServerUrl(), is( "http://example.org:8080/example" ) );
+    }
+
+    @Test
+    public void testRetrieveTestPointsForCollections_maxTemplateReplacements()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi-templateVariables.json" );
+        OpenApi3 apiModel = parser.parse( openApiDocument, true );
+        ApiModelIndex cappedApiModelIndex = new ApiModelIndex( apiModel, 1 );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( apiModel );
+        List<TestPoint> cappedTestPoints = retrieveTestPointsForCollections( cappedApiModelIndex, iut, -1 );
+        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModelIndex, iut, -1 );
+
+        assertThat( cappedTestPoints.size(), is( 1 ) );
+        assertThat( testPoints.size(), is( 3 ) );
+    }
+
     @Ignore
     @Test
     public void testRetrieveTestPoints_moreComplex()
@@ -75,8 +112,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_moreComplex.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPoints( apiModel, iut );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPoints( apiModelIndex, iut );
 
         assertThat( testPoints.size(), is( 4 ) );
 
@@ -106,8 +143,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollectionsMetadata( apiModel, iut );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollectionsMetadata( apiModelIndex, iut );
 
         assertThat( testPoints.size(), is( 1 ) );
         Map<String, MediaType> contentMediaTypes = testPoints.get( 0 ).getContentMediaTypes();
@@ -120,8 +157,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollectionMetadata( apiModel, iut, "flurstueck" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollectionMetadata( apiModelIndex, iut, "flurstueck" );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -139,8 +176,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModel, iut, "flurstueck" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModelIndex, iut, "flurstueck" );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -158,8 +195,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForFeature( apiModel, iut, "flurstueck", "abc" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForFeature( apiModelIndex, iut, "flurstueck", "abc" );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -176,8 +213,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModel, iut, -1 );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModelIndex, iut, -1 );
 
         assertThat( testPoints.size(), is( 3 ) );
         List<String> paths = testPoints.stream().map( tp -> tp.getPath() ).collect( Collectors.toCollection( ArrayList::new ) );
@@ -192,8 +229,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModel, iut, 1 );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModelIndex, iut, 1 );
 
         assertThat( testPoints.size(), is( 1 ) );
         List<String> paths = testPoints.stream().map( tp -> tp.getPath() ).collect( Collectors.toCollection( ArrayList::new ) );
@@ -206,8 +243,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModel, iut, 6 );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModelIndex, iut, 6 );
 
         assertThat( testPoints.size(), is( 3 ) );
         List<String> paths = testPoints.stream().map( tp -> tp.getPath() ).collect( Collectors.toCollection( ArrayList::new ) );
@@ -220,8 +257,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_compact-api.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollectionsMetadata( apiModel, iut );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollectionsMetadata( apiModelIndex, iut );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -240,8 +277,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_compact-api.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollectionMetadata( apiModel, iut, "test__countries" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollectionMetadata( apiModelIndex, iut, "test__countries" );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -257,8 +294,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_compact-api.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModel, iut, "test__countries" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModelIndex, iut, "test__countries" );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -273,8 +310,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_compact-api.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForFeature( apiModel, iut, "test__countries", "abc" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForFeature( apiModelIndex, iut, "test__countries", "abc" );
 
         assertThat( testPoints.size(), is( 1 ) );
 
@@ -289,8 +326,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_compact-api.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModel, iut, -1 );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModelIndex, iut, -1 );
 
         assertThat( testPoints.size(), is( 118 ) );
         assertThat( testPoints.get( 0 ).getPath(), is( "/collections/{collectionId}/items" ) );
@@ -302,8 +339,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi_compact-api.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModel, iut, 1 );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollections( apiModelIndex, iut, 1 );
 
         assertThat( testPoints.size(), is( 1 ) );
         assertThat( testPoints.get( 0 ).getPath(), is( "/collections/{collectionId}/items" ) );
@@ -315,8 +352,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        boolean isFreeFormParameterSupported = isFreeFormParameterSupportedForCollection( apiModel, iut, "flurstueck" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        boolean isFreeFormParameterSupported = isFreeFormParameterSupportedForCollection( apiModelIndex, iut, "flurstueck" );
 
         assertThat( isFreeFormParameterSupported, is( false ) );
     }
@@ -327,8 +364,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi-freeformparam.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        boolean isFreeFormParameterSupported = isFreeFormParameterSupportedForCollection( apiModel, iut, "flurstueck" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        boolean isFreeFormParameterSupported = isFreeFormParameterSupportedForCollection( apiModelIndex, iut, "flurstueck" );
 
         assertThat( isFreeFormParameterSupported, is( true ) );
     }
@@ -339,8 +376,8 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        boolean isFreeFormParameterSupported = isParameterSupportedForCollection( apiModel, iut, "flurstueck", "unknown" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        boolean isFreeFormParameterSupported = isParameterSupportedForCollection( apiModelIndex, iut, "flurstueck", "unknown" );
 
         assertThat( isFreeFormParameterSupported, is( false ) );
     }
@@ -351,10 +388,97 @@ public class OpenApiUtilsTest {
         OpenApi3Parser parser = new OpenApi3Parser();
 
         URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
-        OpenApi3 apiModel = parser.parse( openApiDocument, true );
-        boolean isFreeFormParameterSupported = isParameterSupportedForCollection( apiModel, iut, "flurstueck", "limit" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        boolean isFreeFormParameterSupported = isParameterSupportedForCollection( apiModelIndex, iut, "flurstueck", "limit" );
 
         assertThat( isFreeFormParameterSupported, is( true ) );
     }
-    
+
+    @Test
+    public void testIsParameterSupportedForCollection_ignoreCase()
+                    throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        boolean isParameterSupported = isParameterSupportedForCollection( apiModelIndex, iut, "flurstueck", "GEMARKUNG" );
+
+        assertThat( isParameterSupported, is( true ) );
+    }
+
+    @Test
+    public void testRetrieveParameterByName()
+                    throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        Parameter limit = retrieveParameterByName( "/collections/flurstueck/items", apiModelIndex, "limit" );
+
+        assertThat( limit.getName(), is( "limit" ) );
+        assertThat( limit.getSchema().getMaximum().intValue(), is( 10000 ) );
+        assertThat( retrieveParameterByName( "/collections/flurstueck/items", apiModelIndex, "limit" ),
+                    sameInstance( limit ) );
+        assertThat( retrieveParameterByName( "/collections/flurstueck/items", apiModelIndex, "LIMIT" ), nullValue() );
+        assertThat( retrieveParameterByName( "/collections/unknown/items", apiModelIndex, "limit" ), nullValue() );
+    }
+
+    @Test
+    public void testRetrieveParameterByNameIgnoreCase()
+                    throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        Parameter bbox = retrieveParameterByNameIgnoreCase( "/collections/flurstueck/items", apiModelIndex, "BBox" );
+
+        assertThat( bbox.getName(), is( "bbox" ) );
+        assertThat( retrieveParameterByNameIgnoreCase( "/collections/flurstueck/items", apiModelIndex, "unknown" ),
+                    nullValue() );
+    }
+
+
+    @Test
+    public void testRetrieveTestPointsForCollection_cached()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        TestPointCache testPointCache = apiModelIndex.getTestPointCache();
+        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModelIndex, iut, "flurstueck" );
+        long hits = testPointCache.getHits();
+
+        assertThat( retrieveTestPointsForCollection( apiModelIndex, iut, "flurstueck" ), sameInstance( testPoints ) );
+        assertThat( testPointCache.getHits(), is( hits + 1 ) );
+    }
+
+    @Test
+    public void testRetrieveTestPointsForCollection_otherModel()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        ApiModelIndex otherApiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModelIndex, iut, "flurstueck" );
+        List<TestPoint> testPointsOfOtherModel = retrieveTestPointsForCollection( otherApiModelIndex, iut,
+                                                                                  "flurstueck" );
+
+        assertThat( testPointsOfOtherModel, not( sameInstance( testPoints ) ) );
+        assertThat( testPointsOfOtherModel.size(), is( 1 ) );
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRetrieveTestPointsForCollection_immutable()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+
+        URL openApiDocument = OpenApiUtilsTest.class.getResource( "openapi.json" );
+        ApiModelIndex apiModelIndex = new ApiModelIndex( parser.parse( openApiDocument, true ) );
+        List<TestPoint> testPoints = retrieveTestPointsForCollection( apiModelIndex, iut, "flurstueck" );
+
+        testPoints.clear();
+    }
+
 }
@@ -0,0 +1,123 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.reprezen.kaizen.oasparser.OpenApi3Parser;
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Path;
+import com.sun.jersey.api.uri.UriTemplateParser;
+
+/**
+ * Compares the lookup of the paths of a collection in the {@link PathIndex} with the linear scan over all paths of the
+ * OpenAPI document, which was used before. The document declares three paths per collection (collection, items and
+ * feature). Not executed by the unit tests, run it with the main method or the JMH runner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathIndexBenchmark {
+
+    @Param({ "100", "10000" })
+    public int collections;
+
+    private OpenApi3 apiModel;
+
+    private PathIndex pathIndex;
+
+    private int nextCollection;
+
+    @Setup
+    public void createApiModel() {
+        StringBuilder paths = new StringBuilder();
+        paths.append( "\"/conformance\":" ).append( operation() ).append( ",\"/collections\":" ).append( operation() );
+        for ( int i = 0; i < collections; i++ ) {
+            paths.append( ",\"/collections/c" ).append( i ).append( "\":" ).append( operation() );
+            paths.append( ",\"/collections/c" ).append( i ).append( "/items\":" ).append( operation() );
+            paths.append( ",\"/collections/c" ).append( i ).append( "/items/{featureId}\":" ).append( operation() );
+        }
+        String document = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"benchmark\",\"version\":\"1.0\"},\"paths\":{"
+                          + paths + "}}";
+        apiModel = new OpenApi3Parser().parse( document, PathIndexBenchmark.class.getResource( "openapi.json" ), false );
+        pathIndex = new PathIndex( apiModel );
+    }
+
+    @Benchmark
+    public List<Path> linearScan() {
+        return linearScan( apiModel, nextItemsPath() );
+    }
+
+    @Benchmark
+    public List<Path> pathIndex() {
+        return pathIndex.findMatching( nextItemsPath() );
+    }
+
+    @Benchmark
+    public List<Path> linearScanRegex() {
+        return linearScanRegex( apiModel, "/collections/c" + nextCollection() + "/.*" );
+    }
+
+    @Benchmark
+    public List<Path> pathIndexRegex() {
+        return pathIndex.findMatchingRegex( "/collections/c" + nextCollection() + "/.*" );
+    }
+
+    public static void main( String[] args )
+                            throws RunnerException {
+        new Runner( new OptionsBuilder().include( PathIndexBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+    private String nextItemsPath() {
+        return "/collections/c" + nextCollection() + "/items";
+    }
+
+    private int nextCollection() {
+        nextCollection = ( nextCollection + 7919 ) % collections;
+        return nextCollection;
+    }
+
+    private static String operation() {
+        return "{\"get\":{\"responses\":{\"200\":{\"description\":\"ok\"}}}}";
+    }
+
+    private static List<Path> linearScan( OpenApi3 apiModel, String requestedPath ) {
+        List<Path> pathItems = new ArrayList<>();
+        for ( Path pathItemObject : apiModel.getPaths().values() ) {
+            UriTemplateParser parser = new UriTemplateParser( pathItemObject.getPathString() );
+            Matcher matcher = parser.getPattern().matcher( requestedPath );
+            if ( matcher.matches() )
+                pathItems.add( pathItemObject );
+        }
+        return pathItems;
+    }
+
+    private static List<Path> linearScanRegex( OpenApi3 apiModel, String regex ) {
+        List<Path> pathItems = new ArrayList<>();
+        for ( Path pathItemObject : apiModel.getPaths().values() ) {
+            if ( pathItemObject.getPathString().matches( regex ) )
+                pathItems.add( pathItemObject );
+        }
+        return pathItems;
+    }
+
+}
@@ -0,0 +1,89 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.net.URL;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.reprezen.kaizen.oasparser.OpenApi3Parser;
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+import com.reprezen.kaizen.oasparser.model3.Path;
+
+public class PathIndexTest {
+
+    private static OpenApi3 apiModel;
+
+    private static OpenApi3 apiModelMoreComplex;
+
+    @BeforeClass
+    public static void parseApiModels()
+                            throws Exception {
+        OpenApi3Parser parser = new OpenApi3Parser();
+        URL openApiDocument = PathIndexTest.class.getResource( "openapi.json" );
+        apiModel = parser.parse( openApiDocument, true );
+        URL openApiDocumentMoreComplex = PathIndexTest.class.getResource( "openapi_moreComplex.json" );
+        apiModelMoreComplex = parser.parse( openApiDocumentMoreComplex, true );
+    }
+
+    @Test
+    public void testFindMatching_literal() {
+        List<String> paths = pathStrings( new PathIndex( apiModel ).findMatching( "/collections/flurstueck/items" ) );
+
+        assertThat( paths.size(), is( 1 ) );
+        assertThat( paths.get( 0 ), is( "/collections/flurstueck/items" ) );
+    }
+
+    @Test
+    public void testFindMatching_template() {
+        List<String> paths = pathStrings( new PathIndex( apiModel ).findMatching( "/collections/flurstueck/items/abc" ) );
+
+        assertThat( paths.size(), is( 1 ) );
+        assertThat( paths.get( 0 ), is( "/collections/flurstueck/items/{featureId}" ) );
+    }
+
+    @Test
+    public void testFindMatching_noMatch() {
+        assertThat( new PathIndex( apiModel ).findMatching( "/collections/unknown/items" ).isEmpty(), is( true ) );
+        assertThat( new PathIndex( apiModel ).findMatching( "/collections/flurstueck/items/abc/def" ).isEmpty(),
+                    is( true ) );
+    }
+
+    @Test
+    public void testFindMatchingRegex_documentOrder() {
+        List<String> paths = pathStrings( new PathIndex( apiModel ).findMatchingRegex( "/collections/.*/items" ) );
+
+        assertThat( paths.size(), is( 3 ) );
+        assertThat( paths.get( 0 ), is( "/collections/flurstueck/items" ) );
+        assertThat( paths.get( 1 ), is( "/collections/gebaeudebauwerk/items" ) );
+        assertThat( paths.get( 2 ), is( "/collections/verwaltungseinheit/items" ) );
+    }
+
+    @Test
+    public void testFindMatchingRegex_spanningSegments() {
+        List<String> paths = pathStrings( new PathIndex( apiModelMoreComplex ).findMatchingRegex( "/collections/.*/items" ) );
+
+        assertThat( paths.size(), is( 1 ) );
+        assertThat( paths.get( 0 ), is( "/collections/flurstueck/index/{index}/items" ) );
+    }
+
+    @Test
+    public void testApiModelIndex_builtOnce() {
+        ApiModelIndex apiModelIndex = new ApiModelIndex( apiModel );
+
+        assertThat( apiModelIndex.getPathIndex(), sameInstance( apiModelIndex.getPathIndex() ) );
+        assertThat( apiModelIndex.getServerUrlResolver(), sameInstance( apiModelIndex.getServerUrlResolver() ) );
+        assertThat( apiModelIndex.getParameterTable( "/collections/flurstueck/items" ),
+                    sameInstance( apiModelIndex.getParameterTable( "/collections/flurstueck/items" ) ) );
+    }
+
+    private static List<String> pathStrings( List<Path> paths ) {
+        return paths.stream().map( Path::getPathString ).collect( Collectors.toList() );
+    }
+
+}
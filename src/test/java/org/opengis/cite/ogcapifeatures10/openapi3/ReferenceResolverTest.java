@@ -0,0 +1,117 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.FileNotFoundException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.reprezen.kaizen.oasparser.OpenApi3Parser;
+import com.reprezen.kaizen.oasparser.model3.OpenApi3;
+
+public class ReferenceResolverTest {
+
+    private static final String API = "{\"openapi\":\"3.0.1\",\"info\":{\"title\":\"test\",\"version\":\"1.0\"},"
+                                      + "\"paths\":{\"/collections\":{\"get\":{"
+                                      + "\"parameters\":[{\"$ref\":\"parameters.json#/limit\"},"
+                                      + "{\"$ref\":\"http://schemas.example.org/common.json#/bbox\"}],"
+                                      + "\"responses\":{\"200\":{\"description\":\"ok\"}}}}}}";
+
+    private static final String PARAMETERS = "{\"limit\":{\"name\":\"limit\",\"in\":\"query\","
+                                             + "\"schema\":{\"$ref\":\"http://schemas.example.org/common.json#/limitSchema\"}}}";
+
+    private static final String COMMON = "{\"limitSchema\":{\"type\":\"integer\",\"maximum\":1000},"
+                                         + "\"bbox\":{\"name\":\"bbox\",\"in\":\"query\","
+                                         + "\"schema\":{\"$ref\":\"geometry.json#/bboxSchema\"}}}";
+
+    private static final String GEOMETRY = "{\"bboxSchema\":{\"type\":\"array\"}}";
+
+    @Test
+    public void testLoadDocument()
+                            throws Exception {
+        CountingSource source = new CountingSource();
+        ExecutorService executor = Executors.newFixedThreadPool( 4 );
+        try {
+            URL url = new URL( "http://localhost:8090/rest/services/kataster/api" );
+            ReferenceResolver referenceResolver = new ReferenceResolver( source, executor );
+            JsonNode document = referenceResolver.loadDocument( url, API );
+
+            assertThat( source.loads.size(), is( 3 ) );
+            assertThat( referenceResolver.getResolvedDocuments(), is( 3 ) );
+
+            OpenApi3 apiModel = (OpenApi3) new OpenApi3Parser().parse( document, url, false, referenceResolver );
+
+            assertThat( apiModel.getPath( "/collections" ).getGet().getParameters().size(), is( 2 ) );
+            assertThat( apiModel.getPath( "/collections" ).getGet().getParameter( 0 ).getSchema().getMaximum().intValue(),
+                        is( 1000 ) );
+            for ( AtomicInteger loads : source.loads.values() )
+                assertThat( loads.get(), is( 1 ) );
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testLoadDocument_missingReference()
+                            throws Exception {
+        CountingSource source = new CountingSource();
+        source.documents.remove( "http://schemas.example.org/geometry.json" );
+        ReferenceResolver referenceResolver = new ReferenceResolver( source, null );
+        referenceResolver.loadDocument( new URL( "http://localhost:8090/rest/services/kataster/api" ), API );
+
+        assertThat( referenceResolver.getResolvedDocuments(), is( 2 ) );
+        assertThat( source.loads.get( "http://schemas.example.org/geometry.json" ).get(), is( 1 ) );
+    }
+
+    @Test
+    public void testCollectReferences()
+                            throws Exception {
+        URL url = new URL( "http://localhost:8090/rest/services/kataster/api" );
+        String json = "{\"a\":{\"$ref\":\"#/b\"},\"b\":[{\"$ref\":\"x.json#/c\"},{\"$ref\":\"x.json#/d\"}],"
+                      + "\"e\":{\"$ref\":\"../y.yaml\"}}";
+        JsonNode document = new ReferenceResolver( new CountingSource(), null ).loadString( url, json );
+
+        List<URL> references = ReferenceResolver.collectReferences( url, document, new HashSet<String>() );
+
+        assertThat( references.size(), is( 2 ) );
+        assertThat( references.contains( new URL( "http://localhost:8090/rest/services/kataster/x.json" ) ),
+                    is( true ) );
+        assertThat( references.contains( new URL( "http://localhost:8090/rest/services/y.yaml" ) ), is( true ) );
+    }
+
+    private static class CountingSource implements ReferenceSource {
+
+        private final Map<String, String> documents = new HashMap<>();
+
+        private final Map<String, AtomicInteger> loads = new ConcurrentHashMap<>();
+
+        private CountingSource() {
+            documents.put( "http://localhost:8090/rest/services/kataster/parameters.json", PARAMETERS );
+            documents.put( "http://schemas.example.org/common.json", COMMON );
+            documents.put( "http://schemas.example.org/geometry.json", GEOMETRY );
+        }
+
+        @Override
+        public String load( URL url )
+                                throws FileNotFoundException {
+            loads.computeIfAbsent( url.toString(), u -> new AtomicInteger() ).incrementAndGet();
+            String document = documents.get( url.toString() );
+            if ( document == null )
+                throw new FileNotFoundException( url.toString() );
+            return document;
+        }
+
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ReferenceStoreTest {
+
+    private static final String SCHEMA = "{\"type\":\"object\"}";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testLoad_stored()
+                            throws Exception {
+        File directory = new File( folder.getRoot(), "refs" );
+        URL url = new URL( "http://schemas.example.org/common.json" );
+        new ReferenceStore( directory, null, u -> SCHEMA ).load( url );
+
+        ReferenceStore offline = new ReferenceStore( directory, null, u -> {
+            throw new IOException( "offline" );
+        } );
+
+        assertThat( offline.load( url ), is( SCHEMA ) );
+        assertThat( offline.getStored(), is( 1L ) );
+        assertThat( offline.getFetched(), is( 0L ) );
+    }
+
+    @Test
+    public void testLoad_contentAddressed()
+                            throws Exception {
+        File directory = new File( folder.getRoot(), "refs" );
+        ReferenceStore referenceStore = new ReferenceStore( directory, null, u -> SCHEMA );
+        referenceStore.load( new URL( "http://schemas.example.org/a.json" ) );
+        referenceStore.load( new URL( "http://schemas.example.org/b.json" ) );
+
+        assertThat( new File( directory, "objects" ).list().length, is( 1 ) );
+        assertThat( new File( directory, "urls" ).list().length, is( 2 ) );
+        assertThat( referenceStore.getFetched(), is( 2L ) );
+    }
+
+    @Test
+    public void testLoad_corruptedObject()
+                            throws Exception {
+        File directory = new File( folder.getRoot(), "refs" );
+        URL url = new URL( "http://schemas.example.org/common.json" );
+        new ReferenceStore( directory, null, u -> SCHEMA ).load( url );
+        File objectFile = new File( new File( directory, "objects" ), ApiModelSnapshots.hash( SCHEMA ) );
+        Files.write( objectFile.toPath(), "{".getBytes( StandardCharsets.UTF_8 ) );
+
+        ReferenceStore referenceStore = new ReferenceStore( directory, null, u -> SCHEMA );
+
+        assertThat( referenceStore.load( url ), is( SCHEMA ) );
+        assertThat( referenceStore.getFetched(), is( 1L ) );
+    }
+
+    @Test
+    public void testLoad_mirrored()
+                            throws Exception {
+        File mirrorDirectory = folder.newFolder( "mirror" );
+        File mirrored = new File( mirrorDirectory, "localhost_8090/schemas/common.json" );
+        mirrored.getParentFile().mkdirs();
+        Files.write( mirrored.toPath(), SCHEMA.getBytes( StandardCharsets.UTF_8 ) );
+        ReferenceStore referenceStore = new ReferenceStore( null, mirrorDirectory, u -> {
+            throw new IOException( "offline" );
+        } );
+
+        assertThat( referenceStore.load( new URL( "http://localhost:8090/schemas/common.json" ) ), is( SCHEMA ) );
+        assertThat( referenceStore.getMirrored(), is( 1L ) );
+    }
+
+    @Test
+    public void testMirrorFile()
+                            throws Exception {
+        File mirrorDirectory = folder.getRoot();
+        ReferenceStore referenceStore = new ReferenceStore( null, mirrorDirectory, ReferenceSource.URL_CONNECTION );
+
+        assertThat( referenceStore.mirrorFile( new URL( "http://schemas.example.org/a/b.yaml" ) ),
+                    is( new File( mirrorDirectory, "schemas.example.org/a/b.yaml" ) ) );
+        assertThat( referenceStore.mirrorFile( new URL( "http://schemas.example.org/a/?f=json" ) ), nullValue() );
+        assertThat( referenceStore.mirrorFile( new URL( "http://schemas.example.org/a/../../b.yaml" ) ), nullValue() );
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.opengis.cite.ogcapifeatures10.openapi3;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class TemplateReplacementsTest {
+
+    @Test
+    public void testIterator_cartesianProduct() {
+        TemplateReplacements templateReplacements = new TemplateReplacements( 10 );
+        templateReplacements.add( "collectionId", Arrays.asList( "a", "b" ) );
+        templateReplacements.add( "f", Arrays.asList( "json", "html" ) );
+        templateReplacements.add( "limit", Collections.singletonList( "10" ) );
+
+        List<Map<String, String>> combinations = toList( templateReplacements );
+
+        assertThat( templateReplacements.size(), is( 4 ) );
+        assertThat( templateReplacements.isSampled(), is( false ) );
+        assertThat( combinations.size(), is( 4 ) );
+        assertThat( combinations.get( 0 ).get( "collectionId" ), is( "a" ) );
+        assertThat( combinations.get( 0 ).get( "f" ), is( "json" ) );
+        assertThat( combinations.get( 0 ).get( "limit" ), is( "10" ) );
+        assertThat( combinations.get( 1 ).get( "collectionId" ), is( "a" ) );
+        assertThat( combinations.get( 1 ).get( "f" ), is( "html" ) );
+        assertThat( combinations.get( 3 ).get( "collectionId" ), is( "b" ) );
+        assertThat( combinations.get( 3 ).get( "f" ), is( "html" ) );
+    }
+
+    @Test
+    public void testIterator_sampled() {
+        List<String> collectionIds = new ArrayList<>();
+        for ( int i = 0; i < 4000; i++ )
+            collectionIds.add( "c" + i );
+        TemplateReplacements templateReplacements = new TemplateReplacements( 4 );
+        templateReplacements.add( "collectionId", collectionIds );
+        templateReplacements.add( "f", Arrays.asList( "json", "html" ) );
+
+        List<Map<String, String>> combinations = toList( templateReplacements );
+
+        assertThat( templateReplacements.isSampled(), is( true ) );
+        assertThat( templateReplacements.numberOfCombinations(), is( BigInteger.valueOf( 8000 ) ) );
+        assertThat( combinations.size(), is( 4 ) );
+        assertThat( combinations.get( 0 ).get( "collectionId" ), is( "c0" ) );
+        assertThat( combinations.get( 1 ).get( "collectionId" ), is( "c1000" ) );
+        assertThat( combinations.get( 2 ).get( "collectionId" ), is( "c2000" ) );
+        assertThat( combinations.get( 3 ).get( "collectionId" ), is( "c3000" ) );
+        assertThat( toList( templateReplacements ), is( combinations ) );
+    }
+
+    @Test
+    public void testIsEmpty() {
+        TemplateReplacements templateReplacements = new TemplateReplacements( 10 );
+        templateReplacements.add( "collectionId", Collections.<String> emptyList() );
+
+        assertThat( templateReplacements.isEmpty(), is( true ) );
+        assertThat( templateReplacements.iterator().hasNext(), is( false ) );
+    }
+
+    private static List<Map<String, String>> toList( TemplateReplacements templateReplacements ) {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        for ( Map<String, String> combination : templateReplacements )
+            combinations.add( combination );
+        return combinations;
+    }
+
+}
@@ -72,4 +72,46 @@ public class UrlBuilderTest {
 
         assertThat( url, is( "http://localhost:8080/service/collections/forest/items/3" ) );
     }
+
+    @Test
+    public void testBuildUrl_feature_encodedIds() {
+        TestPoint tp = new TestPoint( "http://localhost:8080/service", "/collections/{name}/items/{featureId}",
+                                      Collections.emptyMap() );
+        String url = new UriBuilder( tp ).collectionName( "b\u00e4ume" ).featureId( "a b/1?x" ).buildUrl();
+
+        assertThat( url, is( "http://localhost:8080/service/collections/b%C3%A4ume/items/a%20b%2F1%3Fx" ) );
+    }
+
+    @Test
+    public void testBuildUrl_predefinedTemplateReplacement() {
+        TestPoint tp = new TestPoint( "http://localhost:8080/service", "/collections/{name}/items",
+                                      Collections.singletonMap( "name", "forest" ), Collections.emptyMap() );
+
+        assertThat( new UriBuilder( tp ).buildUrl(), is( "http://localhost:8080/service/collections/forest/items" ) );
+        assertThat( new UriBuilder( tp ).collectionName( "water" ).buildUrl(),
+                    is( "http://localhost:8080/service/collections/water/items" ) );
+    }
+
+    @Test
+    public void testGetUriTemplate() {
+        TestPoint tp = new TestPoint( "http://localhost:8080/service", "/collections/{name}/items/{featureId}",
+                                      Collections.emptyMap() );
+        CompiledUriTemplate uriTemplate = tp.getUriTemplate();
+
+        assertThat( tp.getUriTemplate() == uriTemplate, is( true ) );
+        assertThat( uriTemplate.getCollectionIdVariable(), is( "name" ) );
+        assertThat( uriTemplate.getFeatureIdVariable(), is( "featureId" ) );
+        assertThat( uriTemplate.toString(), is( "http://localhost:8080/service/collections/{name}/items/{featureId}" ) );
+    }
+
+    @Test
+    public void testAppendPathSegment() {
+        assertThat( CompiledUriTemplate.appendPathSegment( "http://localhost:8080/service/collections/forest/items?f=json",
+                                                           "a b" ),
+                    is( "http://localhost:8080/service/collections/forest/items/a%20b" ) );
+        assertThat( CompiledUriTemplate.appendPathSegment( "http://localhost:8080/service/collections/forest/items/",
+                                                           "1" ),
+                    is( "http://localhost:8080/service/collections/forest/items/1" ) );
+    }
+
 }
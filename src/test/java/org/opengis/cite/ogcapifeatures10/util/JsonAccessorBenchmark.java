@@ -0,0 +1,96 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import io.restassured.path.json.JsonPath;
+
+/**
+ * Compares reading the members checked by the feature collection assertions with GPath expressions evaluated by
+ * {@link JsonPath} and with the {@link JsonAccessor}. Not executed by the unit tests, run it with the main method or
+ * the JMH runner.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonAccessorBenchmark {
+
+    @Param({ "items_1-10.json", "../collections/collectionItems-flurstueck.json", "../collections/collections.json" })
+    public String resource;
+
+    private byte[] json;
+
+    private String jsonAsString;
+
+    @Setup
+    public void readJson()
+                            throws IOException {
+        try (InputStream in = JsonAccessorBenchmark.class.getResourceAsStream( resource )) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ( ( read = in.read( buffer ) ) != -1 )
+                out.write( buffer, 0, read );
+            json = out.toByteArray();
+        }
+        jsonAsString = new String( json, StandardCharsets.UTF_8 );
+    }
+
+    @Benchmark
+    public void gpath( Blackhole blackhole ) {
+        JsonPath jsonPath = new JsonPath( jsonAsString );
+        blackhole.consume( (String) jsonPath.get( "type" ) );
+        List<Object> features = jsonPath.getList( "features" );
+        blackhole.consume( features != null ? features.size() : -1 );
+        List<Map<String, Object>> links = jsonPath.getList( "links" );
+        blackhole.consume( JsonUtils.findLinkByRel( links, "next" ) );
+        blackhole.consume( JsonUtils.hasProperty( "numberMatched", jsonPath ) );
+        blackhole.consume( JsonUtils.hasProperty( "numberReturned", jsonPath ) );
+        blackhole.consume( jsonPath.getString( "timeStamp" ) );
+        blackhole.consume( (Object) jsonPath.get( "collections" ) );
+        blackhole.consume( features != null ? JsonUtils.parseFeatureId( jsonPath ) : null );
+    }
+
+    @Benchmark
+    public void accessor( Blackhole blackhole ) {
+        JsonAccessor accessor = JsonAccessor.parse( json );
+        blackhole.consume( accessor.getType() );
+        blackhole.consume( accessor.getNumberOfFeatures() );
+        blackhole.consume( JsonUtils.findLinkByRel( accessor.getLinks(), "next" ) );
+        blackhole.consume( accessor.has( "numberMatched" ) );
+        blackhole.consume( accessor.has( "numberReturned" ) );
+        blackhole.consume( accessor.getTimeStamp() );
+        blackhole.consume( accessor.getCollections() );
+        blackhole.consume( accessor.getFirstFeatureId() );
+    }
+
+    public static void main( String[] args )
+                            throws RunnerException {
+        new Runner( new OptionsBuilder().include( JsonAccessorBenchmark.class.getSimpleName() ).build() ).run();
+    }
+
+}
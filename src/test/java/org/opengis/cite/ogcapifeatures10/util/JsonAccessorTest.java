@@ -0,0 +1,81 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.restassured.path.json.JsonPath;
+
+public class JsonAccessorTest {
+
+    @Test
+    public void testParse_items()
+                            throws Exception {
+        JsonAccessor json = parse( "items_1-10.json" );
+
+        assertThat( json.getType(), is( "FeatureCollection" ) );
+        assertThat( json.hasFeatures(), is( true ) );
+        assertThat( json.getNumberOfFeatures(), is( 10 ) );
+        assertThat( json.getNumberMatched(), is( 25 ) );
+        assertThat( json.getNumberReturned(), is( 10 ) );
+        assertThat( json.getTimeStamp(), notNullValue() );
+        assertThat( JsonUtils.findLinkByRel( json.getLinks(), "next" ), notNullValue() );
+    }
+
+    @Test
+    public void testParse_collections_sameValuesAsJsonPath()
+                            throws Exception {
+        JsonAccessor json = parse( "../collections/collections.json" );
+        JsonPath jsonPath = new JsonPath( new InputStreamReader( getClass().getResourceAsStream( "../collections/collections.json" ),
+                                                                 StandardCharsets.UTF_8 ) );
+
+        List<Map<String, Object>> collectionsFromAccessor = json.getCollections();
+        List<Map<String, Object>> collectionsFromJsonPath = jsonPath.getList( "collections" );
+        assertThat( collectionsFromAccessor, is( collectionsFromJsonPath ) );
+        assertThat( json.getLinks(), is( jsonPath.getList( "links" ) ) );
+        assertThat( json.hasFeatures(), is( false ) );
+        assertThat( json.getNumberOfFeatures(), is( -1 ) );
+    }
+
+    @Test
+    public void testParse_firstFeatureId()
+                            throws Exception {
+        JsonAccessor json = parse( "../collections/collectionItems-flurstueck.json" );
+
+        assertThat( json.getFirstFeatureId(), is( "DENW19AL0000geMFFL" ) );
+        assertThat( json.has( "numberMatched" ), is( false ) );
+        assertThat( json.getNumberMatched(), nullValue() );
+    }
+
+    @Test
+    public void testParse_nullMember() {
+        JsonAccessor json = JsonAccessor.parse( "{\"type\":null,\"numberReturned\":\"5\"}".getBytes( StandardCharsets.UTF_8 ) );
+
+        assertThat( json.has( "type" ), is( false ) );
+        assertThat( json.getType(), nullValue() );
+        assertThat( json.getNumberReturned(), is( 5 ) );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParse_invalidJson() {
+        JsonAccessor.parse( "{\"type\":".getBytes( StandardCharsets.UTF_8 ) );
+    }
+
+    private JsonAccessor parse( String resource )
+                            throws IOException {
+        try (InputStream json = getClass().getResourceAsStream( resource )) {
+            return JsonAccessor.parse( json );
+        }
+    }
+
+}
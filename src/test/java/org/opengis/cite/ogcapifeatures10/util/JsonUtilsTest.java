@@ -1,5 +1,6 @@
 package org.opengis.cite.ogcapifeatures10.util;
 
+import static io.restassured.RestAssured.given;
 import static net.jadler.Jadler.closeJadler;
 import static net.jadler.Jadler.initJadlerListeningOn;
 import static net.jadler.Jadler.onRequest;
@@ -31,6 +32,7 @@ import java.time.LocalDate;
 import java.time.Month;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.After;
 import org.junit.Before;
@@ -223,6 +225,23 @@ public class JsonUtilsTest {
         assertThat( numberOfAllFeatures, is( 25 ) );
     }
 
+    @Test
+    public void testCollectNumberOfAllReturnedFeatures_requestFactory()
+                            throws Exception {
+        prepareJadler();
+        URL json = new URL( "http://localhost:8090/collections/lakes/items" );
+        JsonPath jsonPath = new JsonPath( json );
+        AtomicInteger createdRequests = new AtomicInteger();
+
+        int numberOfAllFeatures = collectNumberOfAllReturnedFeatures( jsonPath, -1, () -> {
+            createdRequests.incrementAndGet();
+            return given();
+        } );
+
+        assertThat( numberOfAllFeatures, is( 25 ) );
+        assertThat( createdRequests.get() >= 3, is( true ) );
+    }
+
     private void prepareJadler() {
         InputStream item1_10 = getClass().getResourceAsStream( "items_1-10.json" );
         onRequest().havingParameter( "startindex", nullValue() ).respond().withBody( item1_10 );
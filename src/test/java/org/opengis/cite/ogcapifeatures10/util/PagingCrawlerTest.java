@@ -0,0 +1,75 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.cite.ogcapifeatures10.util.CrawlResult.StopReason;
+
+public class PagingCrawlerTest {
+
+    private static final String ITEMS_URL = "http://localhost:8090/collections/lakes/items";
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+    }
+
+    @After
+    public void tearDown() {
+        closeJadler();
+    }
+
+    @Test
+    public void testCrawl()
+                            throws Exception {
+        prepareJadler( "items_21-30.json" );
+
+        CrawlResult result = new PagingCrawler( () -> given(), CrawlBudget.DEFAULT ).crawl( firstPage(), -1 );
+
+        assertThat( result.isComplete(), is( true ) );
+        assertThat( result.getNumberOfFeatures(), is( 25 ) );
+        assertThat( result.getPages(), is( 3 ) );
+    }
+
+    @Test
+    public void testCrawl_cycle()
+                            throws Exception {
+        prepareJadler( "items_1-10.json" );
+
+        CrawlResult result = new PagingCrawler( () -> given(), CrawlBudget.DEFAULT ).crawl( firstPage(), -1 );
+
+        assertThat( result.getStopReason(), is( StopReason.CYCLE ) );
+    }
+
+    @Test
+    public void testCrawl_pageBudget()
+                            throws Exception {
+        prepareJadler( "items_21-30.json" );
+        CrawlBudget budget = new CrawlBudget( 1, CrawlBudget.DEFAULT_MAX_BYTES, CrawlBudget.DEFAULT_MAX_MILLIS );
+
+        CrawlResult result = new PagingCrawler( () -> given(), budget ).crawl( firstPage(), -1 );
+
+        assertThat( result.getStopReason(), is( StopReason.PAGE_BUDGET ) );
+        assertThat( result.getPages(), is( 1 ) );
+    }
+
+    private JsonAccessor firstPage() {
+        return JsonAccessor.parse( given().get( ITEMS_URL ).asByteArray() );
+    }
+
+    private void prepareJadler( String thirdPage ) {
+        onRequest().havingParameter( "startindex", nullValue() ).respond().withBody( getClass().getResourceAsStream( "items_1-10.json" ) );
+        onRequest().havingParameterEqualTo( "startindex", "10" ).respond().withBody( getClass().getResourceAsStream( "items_11-20.json" ) );
+        onRequest().havingParameterEqualTo( "startindex", "20" ).respond().withBody( getClass().getResourceAsStream( thirdPage ) );
+        onRequest().havingParameterEqualTo( "startindex", "30" ).respond().withBody( getClass().getResourceAsStream( "items_31-40.json" ) );
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import static io.restassured.RestAssured.given;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+import java.io.InputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.restassured.path.json.JsonPath;
+
+public class ResponseDocumentTest {
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        InputStream items = getClass().getResourceAsStream( "items_1-10.json" );
+        onRequest().respond().withContentType( "application/geo+json" ).withBody( items );
+        ResponseDocument.getStatistics().reset();
+    }
+
+    @After
+    public void tearDown() {
+        closeJadler();
+    }
+
+    @Test
+    public void testJsonPathIsParsedOnce() {
+        ResponseDocument document = new ResponseDocument( given().get( "http://localhost:8090/collections/lakes/items" ) );
+
+        JsonPath first = document.jsonPath();
+        JsonPath second = document.jsonPath();
+
+        assertThat( second, sameInstance( first ) );
+        assertThat( first.getList( "features" ).size(), is( 10 ) );
+        assertThat( ResponseDocument.getStatistics().getParses(), is( 1l ) );
+        assertThat( ResponseDocument.getStatistics().getReuses(), is( 1l ) );
+    }
+
+}
@@ -0,0 +1,103 @@
+package org.opengis.cite.ogcapifeatures10.util;
+
+import static io.restassured.RestAssured.given;
+import static io.restassured.http.ContentType.JSON;
+import static net.jadler.Jadler.closeJadler;
+import static net.jadler.Jadler.initJadlerListeningOn;
+import static net.jadler.Jadler.onRequest;
+import static net.jadler.Jadler.verifyThatRequest;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opengis.cite.ogcapifeatures10.http.HttpTransport;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCache;
+import org.opengis.cite.ogcapifeatures10.http.ResponseCacheFilter;
+
+import io.restassured.response.Response;
+
+public class URIUtilsTest {
+
+    private static final String LANDING_PAGE = "{\"title\":\"Buildings\",\"links\":[]}";
+
+    private HttpTransport httpTransport;
+
+    private ResponseCache responseCache;
+
+    @Before
+    public void setUp() {
+        initJadlerListeningOn( 8090 );
+        httpTransport = new HttpTransport();
+        responseCache = new ResponseCache( 1024 * 1024 );
+    }
+
+    @After
+    public void tearDown() {
+        httpTransport.shutdown();
+        closeJadler();
+    }
+
+    @Test
+    public void testDereferenceURI_warmsResponseCache()
+                            throws IOException {
+        onRequest().havingPathEqualTo( "/ogcapi/" ).respond().withStatus( 200 ).withHeader( "ETag",
+                                                                                        "\"v1\"" ).withHeader( "Cache-Control",
+                                                                                                                "max-age=60" ).withContentType( "application/json" ).withBody( LANDING_PAGE );
+        URI landingPage = URIUtils.landingPageUri( URI.create( "http://localhost:8090/ogcapi" ) );
+
+        File file = URIUtils.dereferenceURI( landingPage, JSON.getAcceptHeader(), httpTransport, responseCache );
+
+        assertThat( new String( Files.readAllBytes( file.toPath() ), StandardCharsets.UTF_8 ), is( LANDING_PAGE ) );
+        assertThat( responseCache.get( "http://localhost:8090/ogcapi/", JSON.getAcceptHeader() ), is( notNullValue() ) );
+
+        Response response = given().filter( new ResponseCacheFilter( responseCache, false ) ).baseUri( "http://localhost:8090/ogcapi" ).accept( JSON ).get( "/" );
+        assertThat( response.getStatusCode(), is( 200 ) );
+        assertThat( response.jsonPath().getString( "title" ), is( "Buildings" ) );
+        assertThat( responseCache.getStatistics().getHits(), is( 1l ) );
+        verifyThatRequest().havingPathEqualTo( "/ogcapi/" ).receivedOnce();
+    }
+
+    @Test
+    public void testDereferenceURI_withoutContentType()
+                            throws IOException {
+        onRequest().havingPathEqualTo( "/ogcapi/" ).respond().withStatus( 200 ).withBody( LANDING_PAGE );
+
+        File file = URIUtils.dereferenceURI( URI.create( "http://localhost:8090/ogcapi/" ), null, httpTransport,
+                                             null );
+
+        assertThat( file.length(), is( (long) LANDING_PAGE.length() ) );
+    }
+
+    @Test
+    public void testDereferenceURI_notCacheable()
+                            throws IOException {
+        onRequest().havingPathEqualTo( "/ogcapi/" ).respond().withStatus( 404 ).withContentType( "application/json" ).withBody( "{}" );
+
+        URIUtils.dereferenceURI( URI.create( "http://localhost:8090/ogcapi/" ), null, httpTransport, responseCache );
+
+        assertThat( responseCache.get( "http://localhost:8090/ogcapi/", null ), is( nullValue() ) );
+    }
+
+    @Test
+    public void testLandingPageUri() {
+        assertThat( URIUtils.landingPageUri( URI.create( "http://localhost:8090/ogcapi" ) ),
+                    is( URI.create( "http://localhost:8090/ogcapi/" ) ) );
+        assertThat( URIUtils.landingPageUri( URI.create( "http://localhost:8090/ogcapi/?f=json" ) ),
+                    is( URI.create( "http://localhost:8090/ogcapi/" ) ) );
+        assertThat( URIUtils.landingPageUri( URI.create( "http://localhost:8090" ) ),
+                    is( URI.create( "http://localhost:8090/" ) ) );
+        assertThat( URIUtils.landingPageUri( URI.create( "file:/tmp/landingPage.json" ) ),
+                    is( URI.create( "file:/tmp/landingPage.json" ) ) );
+    }
+
+}